@@ -0,0 +1,641 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package explicit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import parser.State;
+import parser.VarList;
+import parser.ast.DeclarationBool;
+import parser.ast.DeclarationInt;
+import parser.ast.DeclarationType;
+import parser.ast.Expression;
+import prism.ModelType;
+import prism.PrismException;
+import prism.PrismNotSupportedException;
+
+/**
+ * Class to write/read explicit-state models (DTMCs and MDPs, with double-valued probabilities)
+ * to/from a binary file format, which is much faster to load than the PRISM explicit text files
+ * ({@code .tra}, {@code .sta}, {@code .lab}).
+ * <br><br>
+ * The file stores, in little-endian byte order: a header (magic number, format version, model type,
+ * number of states, initial and deadlock states), the transition matrix in compressed sparse row (CSR) form
+ * (as used by {@link DTMCSparse} and {@link MDPSparse}), action labels (MDPs), labels (as bitsets)
+ * and, optionally, the states, packed into {@code long} words (see {@link StatePacker}),
+ * along with the variable info needed to unpack them.
+ * <br><br>
+ * Models are read by memory-mapping the file ({@link FileChannel#map}) and copying each array in bulk,
+ * rather than parsing it value by value. Large arrays are mapped in several chunks.
+ * The states are kept in packed form (see {@link PackedStateList}).
+ */
+public class BinaryModelFile
+{
+	/** Magic number at the start of each file */
+	private static final byte MAGIC[] = "PRISMBIN".getBytes(StandardCharsets.US_ASCII);
+	/** Current version of the file format */
+	public static final int VERSION = 1;
+	/** Byte order used in files */
+	private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+	/** Maximum number of bytes mapped (or buffered) at once */
+	private static final int CHUNK_SIZE = 1 << 26;
+
+	// Writing
+
+	/**
+	 * Write a model (DTMC or MDP) to a file in binary format.
+	 * States are only stored if the model has a list of states and variable info,
+	 * and all variables are integers or Booleans.
+	 * @param model The model
+	 * @param file The file to write to
+	 */
+	@SuppressWarnings("unchecked")
+	public static void write(Model<?> model, File file) throws PrismException
+	{
+		ModelType modelType = model.getModelType();
+		if (modelType != ModelType.DTMC && modelType != ModelType.MDP) {
+			throw new PrismNotSupportedException("Binary model export not supported for " + modelType + "s");
+		}
+		if (!(model.getEvaluator().one() instanceof Double)) {
+			throw new PrismNotSupportedException("Binary model export only supports double-valued probabilities");
+		}
+		try (Writer out = new Writer(file)) {
+			int numStates = model.getNumStates();
+			// Header
+			out.putBytes(MAGIC);
+			out.putInt(VERSION);
+			out.putString(modelType.name());
+			out.putInt(numStates);
+			List<Integer> inits = new ArrayList<>();
+			model.getInitialStates().forEach(inits::add);
+			out.putIntList(inits);
+			List<Integer> deadlocks = new ArrayList<>();
+			model.getDeadlockStates().forEach(deadlocks::add);
+			out.putIntList(deadlocks);
+			// Transitions
+			if (modelType == ModelType.DTMC) {
+				writeDTMC((DTMC<Double>) model, out);
+			} else {
+				writeMDP((MDP<Double>) model, out);
+			}
+			// Labels
+			out.putInt(model.getLabels().size());
+			for (String name : model.getLabels()) {
+				out.putString(name);
+				long words[] = model.getLabelStates(name).toLongArray();
+				out.putInt(words.length);
+				for (long w : words) {
+					out.putLong(w);
+				}
+			}
+			// States
+			writeStates(model, out);
+		} catch (IOException e) {
+			throw new PrismException("Could not write binary model file \"" + file + "\": " + e.getMessage());
+		}
+	}
+
+	private static void writeDTMC(DTMC<Double> dtmc, Writer out) throws IOException
+	{
+		int numStates = dtmc.getNumStates();
+		int numTransitions = dtmc.getNumTransitions();
+		out.putInt(numTransitions);
+		// Row starts, then columns, then probabilities
+		int count = 0;
+		for (int s = 0; s < numStates; s++) {
+			out.putInt(count);
+			count += dtmc.getNumTransitions(s);
+		}
+		out.putInt(count);
+		checkCount(count, numTransitions);
+		for (int s = 0; s < numStates; s++) {
+			for (Iterator<Map.Entry<Integer, Double>> it = dtmc.getTransitionsIterator(s); it.hasNext();) {
+				out.putInt(it.next().getKey());
+			}
+		}
+		for (int s = 0; s < numStates; s++) {
+			for (Iterator<Map.Entry<Integer, Double>> it = dtmc.getTransitionsIterator(s); it.hasNext();) {
+				out.putDouble(it.next().getValue());
+			}
+		}
+	}
+
+	private static void writeMDP(MDP<Double> mdp, Writer out) throws IOException
+	{
+		int numStates = mdp.getNumStates();
+		int numChoices = mdp.getNumChoices();
+		int numTransitions = mdp.getNumTransitions();
+		out.putInt(numChoices);
+		out.putInt(numTransitions);
+		// Row starts (into choices), then choice starts (into transitions), then columns, then probabilities
+		int count = 0;
+		for (int s = 0; s < numStates; s++) {
+			out.putInt(count);
+			count += mdp.getNumChoices(s);
+		}
+		out.putInt(count);
+		checkCount(count, numChoices);
+		count = 0;
+		for (int s = 0; s < numStates; s++) {
+			int nc = mdp.getNumChoices(s);
+			for (int i = 0; i < nc; i++) {
+				out.putInt(count);
+				count += mdp.getNumTransitions(s, i);
+			}
+		}
+		out.putInt(count);
+		checkCount(count, numTransitions);
+		for (int s = 0; s < numStates; s++) {
+			int nc = mdp.getNumChoices(s);
+			for (int i = 0; i < nc; i++) {
+				for (Iterator<Map.Entry<Integer, Double>> it = mdp.getTransitionsIterator(s, i); it.hasNext();) {
+					out.putInt(it.next().getKey());
+				}
+			}
+		}
+		for (int s = 0; s < numStates; s++) {
+			int nc = mdp.getNumChoices(s);
+			for (int i = 0; i < nc; i++) {
+				for (Iterator<Map.Entry<Integer, Double>> it = mdp.getTransitionsIterator(s, i); it.hasNext();) {
+					out.putDouble(it.next().getValue());
+				}
+			}
+		}
+		// Actions: table of distinct names, then an index for each choice (-1 for none)
+		List<String> actionNames = new ArrayList<>();
+		Map<String, Integer> actionIndices = new HashMap<>();
+		int actionIndex[] = new int[numChoices];
+		boolean hasActions = false;
+		count = 0;
+		for (int s = 0; s < numStates; s++) {
+			int nc = mdp.getNumChoices(s);
+			for (int i = 0; i < nc; i++) {
+				Object action = mdp.getAction(s, i);
+				if (action == null) {
+					actionIndex[count++] = -1;
+				} else {
+					hasActions = true;
+					actionIndex[count++] = actionIndices.computeIfAbsent(action.toString(), a -> {
+						actionNames.add(a);
+						return actionNames.size() - 1;
+					});
+				}
+			}
+		}
+		out.putInt(hasActions ? 1 : 0);
+		if (hasActions) {
+			out.putInt(actionNames.size());
+			for (String a : actionNames) {
+				out.putString(a);
+			}
+			for (int i = 0; i < numChoices; i++) {
+				out.putInt(actionIndex[i]);
+			}
+		}
+	}
+
+	private static void writeStates(Model<?> model, Writer out) throws IOException, PrismException
+	{
+		List<State> statesList = model.getStatesList();
+		VarList varList = model.getVarList();
+		VarList packVarList = (statesList == null || varList == null) ? null : createPackingVarList(varList, statesList);
+		if (packVarList == null) {
+			out.putInt(0);
+			return;
+		}
+		out.putInt(1);
+		int numVars = packVarList.getNumVars();
+		out.putInt(numVars);
+		for (int v = 0; v < numVars; v++) {
+			out.putString(packVarList.getName(v));
+			out.putInt(packVarList.getModule(v));
+			boolean isBool = packVarList.getDeclarationType(v) instanceof DeclarationBool;
+			out.putInt(isBool ? 1 : 0);
+			out.putInt(isBool ? 0 : packVarList.getLow(v));
+			out.putInt(isBool ? 1 : packVarList.getHigh(v));
+		}
+		StatePacker packer = new StatePacker(packVarList);
+		int numWords = packer.getNumWords();
+		out.putInt(numWords);
+		long words[] = new long[numWords];
+		for (State state : statesList) {
+			packer.pack(state, words, 0);
+			for (long w : words) {
+				out.putLong(w);
+			}
+		}
+	}
+
+	/**
+	 * Create a copy of a VarList in which all variables are bounded (so that states can be packed),
+	 * using the range of values in the list of states for unbounded integers.
+	 * Returns null if this is not possible (variables that are not integers or Booleans).
+	 */
+	private static VarList createPackingVarList(VarList varList, List<State> statesList) throws PrismException
+	{
+		int numVars = varList.getNumVars();
+		VarList packVarList = new VarList();
+		for (int v = 0; v < numVars; v++) {
+			DeclarationType declType = varList.getDeclarationType(v);
+			if (declType instanceof DeclarationBool) {
+				packVarList.addVar(varList.getName(v), new DeclarationBool(), varList.getModule(v));
+				continue;
+			}
+			int low, high;
+			if (declType instanceof DeclarationInt) {
+				low = varList.getLow(v);
+				high = varList.getHigh(v);
+			} else {
+				low = Integer.MAX_VALUE;
+				high = Integer.MIN_VALUE;
+				for (State state : statesList) {
+					if (!(state.varValues[v] instanceof Integer)) {
+						return null;
+					}
+					int val = (Integer) state.varValues[v];
+					low = Math.min(low, val);
+					high = Math.max(high, val);
+				}
+				if (low > high) {
+					low = high = 0;
+				}
+			}
+			packVarList.addVar(varList.getName(v), new DeclarationInt(Expression.Int(low), Expression.Int(high)), varList.getModule(v));
+		}
+		return packVarList;
+	}
+
+	private static void checkCount(int count, int expected) throws IOException
+	{
+		if (count != expected) {
+			throw new IOException("inconsistent transition count");
+		}
+	}
+
+	// Reading
+
+	/**
+	 * Read a model (a {@link DTMCSparse} or {@link MDPSparse}) from a file in binary format.
+	 * @param file The file to read from
+	 */
+	public static ModelExplicit<Double> read(File file) throws PrismException
+	{
+		try (Reader in = new Reader(file)) {
+			// Header
+			byte magic[] = in.getBytes(MAGIC.length);
+			if (!java.util.Arrays.equals(magic, MAGIC)) {
+				throw new PrismException("File \"" + file + "\" is not a binary model file");
+			}
+			int version = in.getInt();
+			if (version != VERSION) {
+				throw new PrismException("Unsupported binary model file version " + version + " in \"" + file + "\"");
+			}
+			ModelType modelType;
+			try {
+				modelType = ModelType.valueOf(in.getString());
+			} catch (IllegalArgumentException e) {
+				throw new PrismException("Unknown model type in binary model file \"" + file + "\"");
+			}
+			int numStates = in.getLength();
+			int inits[] = in.getInts(in.getLength());
+			int deadlocks[] = in.getInts(in.getLength());
+			// Transitions
+			ModelExplicit<Double> model;
+			switch (modelType) {
+			case DTMC: {
+				int numTransitions = in.getLength();
+				int rows[] = in.getInts(numStates + 1);
+				int cols[] = in.getInts(numTransitions);
+				double probs[] = in.getDoubles(numTransitions);
+				model = new DTMCSparse(numStates, rows, cols, probs);
+				break;
+			}
+			case MDP: {
+				int numChoices = in.getLength();
+				int numTransitions = in.getLength();
+				int rowStarts[] = in.getInts(numStates + 1);
+				int choiceStarts[] = in.getInts(numChoices + 1);
+				int cols[] = in.getInts(numTransitions);
+				double probs[] = in.getDoubles(numTransitions);
+				Object actions[] = null;
+				if (in.getInt() != 0) {
+					String names[] = new String[in.getLength()];
+					for (int a = 0; a < names.length; a++) {
+						names[a] = in.getString();
+					}
+					int actionIndex[] = in.getInts(numChoices);
+					actions = new Object[numChoices];
+					for (int i = 0; i < numChoices; i++) {
+						actions[i] = actionIndex[i] == -1 ? null : names[actionIndex[i]];
+					}
+				}
+				model = new MDPSparse(numStates, rowStarts, choiceStarts, cols, probs, actions);
+				break;
+			}
+			default:
+				throw new PrismNotSupportedException("Binary model import not supported for " + modelType + "s");
+			}
+			for (int s : inits) {
+				model.addInitialState(s);
+			}
+			for (int s : deadlocks) {
+				model.addDeadlockState(s);
+			}
+			// Labels
+			int numLabels = in.getLength();
+			for (int l = 0; l < numLabels; l++) {
+				String name = in.getString();
+				model.addLabel(name, BitSet.valueOf(in.getLongs(in.getLength())));
+			}
+			// States
+			if (in.getInt() != 0) {
+				int numVars = in.getLength();
+				VarList varList = new VarList();
+				for (int v = 0; v < numVars; v++) {
+					String name = in.getString();
+					int module = in.getInt();
+					boolean isBool = in.getInt() != 0;
+					int low = in.getInt();
+					int high = in.getInt();
+					if (!isBool && low > high) {
+						throw new PrismException("Inconsistent state info in binary model file \"" + file + "\"");
+					}
+					varList.addVar(name, isBool ? new DeclarationBool() : new DeclarationInt(Expression.Int(low), Expression.Int(high)), module);
+				}
+				StatePacker packer = new StatePacker(varList);
+				int numWords = in.getLength();
+				if (numWords != packer.getNumWords()) {
+					throw new PrismException("Inconsistent state info in binary model file \"" + file + "\"");
+				}
+				model.setVarList(varList);
+				model.setStatesList(new PackedStateList(packer, in.getLongs(Math.multiplyExact(numStates, numWords)), numStates));
+			}
+			return model;
+		} catch (IOException | IndexOutOfBoundsException | IllegalArgumentException e) {
+			throw new PrismException("Could not read binary model file \"" + file + "\": " + e.getMessage());
+		} catch (ArithmeticException e) {
+			throw new PrismException("Binary model file \"" + file + "\" is too large");
+		}
+	}
+
+	// Local utility classes
+
+	/**
+	 * Buffered writer of primitive values to a file channel.
+	 */
+	private static class Writer implements AutoCloseable
+	{
+		private final FileChannel channel;
+		private final ByteBuffer buf = ByteBuffer.allocateDirect(CHUNK_SIZE).order(ORDER);
+
+		Writer(File file) throws IOException
+		{
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		}
+
+		private void ensure(int n) throws IOException
+		{
+			if (buf.remaining() < n) {
+				flush();
+			}
+		}
+
+		private void flush() throws IOException
+		{
+			buf.flip();
+			while (buf.hasRemaining()) {
+				channel.write(buf);
+			}
+			buf.clear();
+		}
+
+		void putInt(int i) throws IOException
+		{
+			ensure(4);
+			buf.putInt(i);
+		}
+
+		void putLong(long l) throws IOException
+		{
+			ensure(8);
+			buf.putLong(l);
+		}
+
+		void putDouble(double d) throws IOException
+		{
+			ensure(8);
+			buf.putDouble(d);
+		}
+
+		void putBytes(byte bytes[]) throws IOException
+		{
+			for (byte b : bytes) {
+				ensure(1);
+				buf.put(b);
+			}
+		}
+
+		void putString(String s) throws IOException
+		{
+			byte bytes[] = s.getBytes(StandardCharsets.UTF_8);
+			putInt(bytes.length);
+			putBytes(bytes);
+		}
+
+		void putIntList(List<Integer> list) throws IOException
+		{
+			putInt(list.size());
+			for (int i : list) {
+				putInt(i);
+			}
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			try {
+				flush();
+			} finally {
+				channel.close();
+			}
+		}
+	}
+
+	/**
+	 * Reader of primitive values (and arrays of them) from a memory-mapped file.
+	 */
+	private static class Reader implements AutoCloseable
+	{
+		private final FileChannel channel;
+		private final long size;
+		/** Position in the file of the start of the current mapped region */
+		private long regionStart;
+		/** Current mapped region */
+		private MappedByteBuffer region;
+
+		Reader(File file) throws IOException
+		{
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+			size = channel.size();
+			regionStart = 0;
+			region = map(0);
+		}
+
+		private MappedByteBuffer map(long start) throws IOException
+		{
+			MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(CHUNK_SIZE, size - start));
+			buf.order(ORDER);
+			return buf;
+		}
+
+		/**
+		 * Ensure that the next {@code n} bytes (at most {@code CHUNK_SIZE}) are in the mapped region.
+		 */
+		private void ensure(int n) throws IOException
+		{
+			if (region.remaining() < n) {
+				long pos = regionStart + region.position();
+				if (pos + n > size) {
+					throw new IOException("unexpected end of file");
+				}
+				regionStart = pos;
+				region = map(pos);
+			}
+		}
+
+		int getInt() throws IOException
+		{
+			ensure(4);
+			return region.getInt();
+		}
+
+		/**
+		 * Read a count (e.g., an array length), checking that it is non-negative.
+		 */
+		int getLength() throws IOException
+		{
+			int n = getInt();
+			if (n < 0) {
+				throw new IOException("invalid array length " + n);
+			}
+			return n;
+		}
+
+		/**
+		 * Check that an array of {@code n} elements, each of {@code bytes} bytes,
+		 * can be read from the rest of the file (before allocating it).
+		 */
+		private void checkLength(int n, int bytes) throws IOException
+		{
+			if (n < 0) {
+				throw new IOException("invalid array length " + n);
+			}
+			if ((long) n * bytes > size - (regionStart + region.position())) {
+				throw new IOException("unexpected end of file");
+			}
+		}
+
+		byte[] getBytes(int n) throws IOException
+		{
+			checkLength(n, 1);
+			byte bytes[] = new byte[n];
+			for (int i = 0; i < n;) {
+				ensure(1);
+				int m = Math.min(n - i, region.remaining());
+				region.get(bytes, i, m);
+				i += m;
+			}
+			return bytes;
+		}
+
+		String getString() throws IOException
+		{
+			return new String(getBytes(getInt()), StandardCharsets.UTF_8);
+		}
+
+		int[] getInts(int n) throws IOException
+		{
+			checkLength(n, 4);
+			int arr[] = new int[n];
+			for (int i = 0; i < n;) {
+				ensure(4);
+				int m = Math.min(n - i, region.remaining() / 4);
+				region.asIntBuffer().get(arr, i, m);
+				region.position(region.position() + m * 4);
+				i += m;
+			}
+			return arr;
+		}
+
+		long[] getLongs(int n) throws IOException
+		{
+			checkLength(n, 8);
+			long arr[] = new long[n];
+			for (int i = 0; i < n;) {
+				ensure(8);
+				int m = Math.min(n - i, region.remaining() / 8);
+				region.asLongBuffer().get(arr, i, m);
+				region.position(region.position() + m * 8);
+				i += m;
+			}
+			return arr;
+		}
+
+		double[] getDoubles(int n) throws IOException
+		{
+			checkLength(n, 8);
+			double arr[] = new double[n];
+			for (int i = 0; i < n;) {
+				ensure(8);
+				int m = Math.min(n - i, region.remaining() / 8);
+				region.asDoubleBuffer().get(arr, i, m);
+				region.position(region.position() + m * 8);
+				i += m;
+			}
+			return arr;
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			channel.close();
+		}
+	}
+}
@@ -29,11 +29,26 @@ package explicit;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.util.ArrayList;
 import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import common.Interval;
+import explicit.rewards.PrecomputedRewards;
 import parser.State;
 import parser.Values;
 import parser.VarList;
@@ -45,8 +60,12 @@ import prism.PrismException;
 import prism.PrismLog;
 import prism.PrismNotSupportedException;
 import prism.PrismPrintStreamLog;
+import prism.PrismSettings;
 import prism.ProgressDisplay;
+import prism.RewardGenerator;
+import prism.RewardGenerator.RewardLookup;
 import prism.UndefinedConstants;
+import simulator.ModulesFileModelGenerator;
 
 /**
  * Class to perform explicit-state reachability and model construction.
@@ -70,6 +89,26 @@ public class ConstructModel extends PrismComponent
 	protected boolean distinguishActions = true;
 	/** Should labels be processed and attached to the model? */
 	protected boolean attachLabels = true;
+	/** Should rewards be computed (and attached to the model) during construction, if possible? */
+	protected boolean precomputeRewards = true;
+	/** Store states as packed bit vectors (see {@link PackedStateStorage}), if possible? */
+	protected boolean packStates = false;
+	/** Number of threads used to explore states (1 means sequential exploration) */
+	protected int numThreads = 1;
+	/** File to which checkpoints are written during construction (null means no checkpoints) */
+	protected File checkpointFile = null;
+	/** Minimum time (in seconds) between checkpoints */
+	protected int checkpointInterval = 600;
+	/** Resume construction from the checkpoint file, if it exists? */
+	protected boolean resume = false;
+	/** Symmetry reduction parameters, "i j" (see {@link SymmetryReduction}), or null for none */
+	protected String symmetryParams = null;
+	/** Apply partial-order reduction (see {@link PartialOrderReduction}), if possible? */
+	protected boolean partialOrderReduction = false;
+	/** Variables to treat as visible for partial-order reduction, besides those in labels/rewards */
+	protected Set<String> partialOrderReductionVisibleVars = new HashSet<>();
+	/** Store structurally identical distributions only once, if possible? (see {@link SparseModelBuilder#setShareDistributions(boolean)}) */
+	protected boolean shareDistributions = false;
 
 	// Details of built model:
 
@@ -79,6 +118,20 @@ public class ConstructModel extends PrismComponent
 	public ConstructModel(PrismComponent parent) throws PrismException
 	{
 		super(parent);
+
+		// If present, initialise settings from PrismSettings
+		if (settings != null) {
+			setPackStates(settings.getBoolean(PrismSettings.PRISM_PACK_STATES));
+			setNumThreads(settings.getInteger(PrismSettings.PRISM_CONSTRUCT_THREADS));
+			String checkpoint = settings.getString(PrismSettings.PRISM_CONSTRUCT_CHECKPOINT);
+			setCheckpointFile("".equals(checkpoint) ? null : new File(checkpoint));
+			setCheckpointInterval(settings.getInteger(PrismSettings.PRISM_CONSTRUCT_CHECKPOINT_INTERVAL));
+			setResume(settings.getBoolean(PrismSettings.PRISM_CONSTRUCT_RESUME));
+			String symm = settings.getString(PrismSettings.PRISM_SYMM_RED_PARAMS);
+			setSymmetryReduction("".equals(symm) ? null : symm);
+			setPartialOrderReduction(settings.getBoolean(PrismSettings.PRISM_POR));
+			setShareDistributions(settings.getBoolean(PrismSettings.PRISM_SHARE_DISTRS));
+		}
 	}
 
 	/**
@@ -131,6 +184,109 @@ public class ConstructModel extends PrismComponent
 		this.attachLabels = attachLabels;
 	}
 
+	/**
+	 * Should rewards be computed during construction, if possible?
+	 * This is done, for D/CTMCs and MDPs with double-valued rewards, when the model generator
+	 * is also a {@link RewardGenerator}: the values are attached to the model
+	 * (see {@link PrecomputedRewards}) and later used by {@link explicit.rewards.ConstructRewards}.
+	 */
+	public void setPrecomputeRewards(boolean precomputeRewards)
+	{
+		this.precomputeRewards = precomputeRewards;
+	}
+
+	/**
+	 * Store states as packed bit vectors (see {@link PackedStateStorage}), if possible?
+	 * This is only possible if all variables are bounded integers or Booleans;
+	 * otherwise, the usual (object-based) state storage is used.
+	 * When enabled, the list of reachable states is also kept in packed form
+	 * and State objects are created on demand (see {@link PackedStateList}).
+	 */
+	public void setPackStates(boolean packStates)
+	{
+		this.packStates = packStates;
+	}
+
+	/**
+	 * Set the number of threads used to explore states (1 means sequential exploration).
+	 * With more than one thread, batches of states are explored concurrently,
+	 * each thread using its own copy of the model generator (see {@link ModelGenerator#createCopy()}),
+	 * and the results are then added to the model in the same order as for sequential exploration.
+	 * So, the model built is identical, whatever the number of threads.
+	 */
+	public void setNumThreads(int numThreads)
+	{
+		this.numThreads = numThreads;
+	}
+
+	/**
+	 * Set the file to which checkpoints are periodically written during construction
+	 * (see {@link ConstructModelCheckpoint}), or null for no checkpoints.
+	 * This is only possible when building a sparse DTMC/MDP directly (see {@link #setBuildSparse(boolean)}),
+	 * or just computing reachable states. The file is deleted once construction is complete.
+	 */
+	public void setCheckpointFile(File checkpointFile)
+	{
+		this.checkpointFile = checkpointFile;
+	}
+
+	/**
+	 * Set the minimum time (in seconds) between checkpoints.
+	 */
+	public void setCheckpointInterval(int checkpointInterval)
+	{
+		this.checkpointInterval = checkpointInterval;
+	}
+
+	/**
+	 * Resume construction from the checkpoint file (see {@link #setCheckpointFile(File)}), if it exists?
+	 */
+	public void setResume(boolean resume)
+	{
+		this.resume = resume;
+	}
+
+	/**
+	 * Set the parameters for symmetry reduction, in the form "i j", where i and j are the number
+	 * of modules before and after the symmetric ones (see {@link SymmetryReduction}),
+	 * or null for no symmetry reduction.
+	 */
+	public void setSymmetryReduction(String symmetryParams)
+	{
+		this.symmetryParams = symmetryParams;
+	}
+
+	/**
+	 * Apply partial-order reduction (see {@link PartialOrderReduction}), if possible?
+	 * This is only done for MDPs, generated from a PRISM model (see {@link simulator.ModulesFileModelGenerator}),
+	 * and without symmetry reduction. States are then explored sequentially.
+	 */
+	public void setPartialOrderReduction(boolean partialOrderReduction)
+	{
+		this.partialOrderReduction = partialOrderReduction;
+	}
+
+	/**
+	 * Set the variables to treat as visible for partial-order reduction, besides those appearing
+	 * in the model's labels and reward structures. These should include all variables referred to
+	 * by the properties to be checked on the model (after expanding any labels from a properties file),
+	 * otherwise their results may not be preserved.
+	 */
+	public void setPartialOrderReductionVisibleVars(Collection<String> visibleVars)
+	{
+		partialOrderReductionVisibleVars = new HashSet<>(visibleVars);
+	}
+
+	/**
+	 * Store structurally identical distributions (same targets and probabilities) only once,
+	 * sharing them between choices, if possible? This is done when building a sparse MDP
+	 * directly (see {@link #setBuildSparse(boolean)} and {@link SparseModelBuilder#setShareDistributions(boolean)}).
+	 */
+	public void setShareDistributions(boolean shareDistributions)
+	{
+		this.shareDistributions = shareDistributions;
+	}
+
 	/**
 	 * Build the set of reachable states for a model and return it.
 	 * @param modelGen The ModelGenerator interface providing the model 
@@ -164,8 +320,12 @@ public class ConstructModel extends PrismComponent
 		ModelType modelType;
 		// State storage
 		StateStorage<State> states;
+		PackedStateStorage packedStates = null;
 		LinkedList<State> explore;
 		State state, stateNew;
+		// Successors of the current state, and parallel explorer (if used)
+		Successors<Value> succs = null;
+		ParallelExplorer<Value> parExplorer = null;
 		// Explicit model storage
 		ModelSimple<?> modelSimple = null;
 		DTMCSimple<Value> dtmc = null;
@@ -176,6 +336,10 @@ public class ConstructModel extends PrismComponent
 		IDTMCSimple<Value> idtmc = null;
 		IMDPSimple<Value> imdp = null;
 		LTSSimple<Value> lts = null;
+		SparseModelBuilder sparse = null;
+		// Labels and rewards, computed as states are explored (indexed by exploration order)
+		BitSet labelBits[] = null;
+		PrecomputedRewards preRews = null;
 		Distribution<Value> distr = null;
 		Distribution<Interval<Value>> distrUnc = null;
 		// Misc
@@ -184,12 +348,65 @@ public class ConstructModel extends PrismComponent
 
 		// Get model info
 		modelType = modelGen.getModelType();
+		boolean isDbl = modelGen.getEvaluator().one() instanceof Double;
 		
 		// Display a warning if there are unbounded vars
 		VarList varList = modelGen.createVarList();
 		if (modelGen.containsUnboundedVariables())
 			mainLog.printWarning("Model contains one or more unbounded variables: model construction may not terminate");
 
+		// Set up symmetry reduction, if required
+		SymmetryReduction symmRed = null;
+		if (symmetryParams != null) {
+			symmRed = new SymmetryReduction(varList, symmetryParams);
+			mainLog.println("\nApplying symmetry reduction (" + symmRed.getNumSymmetricModules() + " symmetric modules)...");
+		}
+
+		// Set up storage for labels and rewards, if required
+		int numLabels = (!justReach && attachLabels) ? modelGen.getNumLabels() : 0;
+		if (numLabels > 0) {
+			labelBits = new BitSet[numLabels];
+			for (j = 0; j < numLabels; j++) {
+				labelBits[j] = new BitSet();
+			}
+		}
+		if (!justReach && precomputeRewards) {
+			preRews = createPrecomputedRewards(modelGen, modelType);
+		}
+
+		// Set up partial-order reduction, if required
+		PartialOrderReduction por = null;
+		if (partialOrderReduction) {
+			try {
+				if (!(modelGen instanceof ModulesFileModelGenerator)) {
+					throw new PrismNotSupportedException("Partial-order reduction is only supported for PRISM models");
+				}
+				if (symmRed != null) {
+					throw new PrismNotSupportedException("Partial-order reduction cannot be combined with symmetry reduction");
+				}
+				por = new PartialOrderReduction((ModulesFileModelGenerator<?>) modelGen, partialOrderReductionVisibleVars);
+				mainLog.println("\nApplying partial-order reduction (" + por.getNumIndependentModules() + " independent modules)...");
+			} catch (PrismNotSupportedException e) {
+				mainLog.printWarning("Not applying partial-order reduction: " + e.getMessage());
+			}
+		}
+
+		// Set up parallel exploration, if required
+		// (not with partial-order reduction, which queries the model generator directly)
+		if (numThreads > 1 && por != null) {
+			mainLog.printWarning("Using sequential exploration for partial-order reduction");
+		} else if (numThreads > 1) {
+			try {
+				parExplorer = new ParallelExplorer<>(modelGen, numThreads, !justReach, numLabels, preRews);
+			} catch (PrismNotSupportedException e) {
+				mainLog.printWarning("Using sequential exploration: " + e.getMessage());
+			}
+		}
+		if (parExplorer == null) {
+			succs = new GeneratorSuccessors<>(modelGen);
+		}
+		GeneratorSuccessors<Value> genSuccs = parExplorer == null ? (GeneratorSuccessors<Value>) succs : null;
+
 		// Starting reachability...
 		mainLog.print("\nComputing reachable states...");
 		mainLog.flush();
@@ -200,15 +417,25 @@ public class ConstructModel extends PrismComponent
 		// Create model storage
 		if (!justReach) {
 			// Create a (simple, mutable) model of the appropriate type
+			// (or, for a sparse DTMC/MDP, build the sparse storage directly)
 			switch (modelType) {
 			case DTMC:
-				modelSimple = dtmc = new DTMCSimple<>();
+				if (buildSparse && isDbl) {
+					sparse = new SparseModelBuilder(false, false);
+				} else {
+					modelSimple = dtmc = new DTMCSimple<>();
+				}
 				break;
 			case CTMC:
 				modelSimple = ctmc = new CTMCSimple<>();
 				break;
 			case MDP:
-				modelSimple = mdp = new MDPSimple<>();
+				if (buildSparse && isDbl) {
+					sparse = new SparseModelBuilder(true, distinguishActions);
+					sparse.setShareDistributions(shareDistributions);
+				} else {
+					modelSimple = mdp = new MDPSimple<>();
+				}
 				break;
 			case POMDP:
 				modelSimple = pomdp = new POMDPSimple<>();
@@ -232,148 +459,287 @@ public class ConstructModel extends PrismComponent
 				throw new PrismNotSupportedException("Model construction not supported for " + modelType + "s");
 			}
 			// Attach evaluator and variable info
-			if (!modelType.uncertain()) {
-				((ModelExplicit<Value>) modelSimple).setEvaluator(modelGen.getEvaluator());
-			} else {
-				((ModelExplicit<Interval<Value>>) modelSimple).setEvaluator(modelGen.getIntervalEvaluator());
+			if (modelSimple != null) {
+				if (!modelType.uncertain()) {
+					((ModelExplicit<Value>) modelSimple).setEvaluator(modelGen.getEvaluator());
+				} else {
+					((ModelExplicit<Interval<Value>>) modelSimple).setEvaluator(modelGen.getIntervalEvaluator());
+				}
+				((ModelExplicit<Value>) modelSimple).setVarList(varList);
 			}
-	        ((ModelExplicit<Value>) modelSimple).setVarList(varList);
 		}
 
 		// Initialise states storage
-		states = new IndexedSet<State>(true);
-		explore = new LinkedList<State>();
-		// Add initial state(s) to 'explore', 'states' and to the model
-		for (State initState : modelGen.getInitialStates()) {
-			explore.add(initState);
-			states.add(initState);
-			if (!justReach) {
-				modelSimple.addState();
-				modelSimple.addInitialState(modelSimple.getNumStates() - 1);
+		// (if states are packed, they are stored in the order found,
+		// so there is no need for a separate list of states to explore)
+		if (packStates) {
+			if (StatePacker.canPack(varList)) {
+				packedStates = new PackedStateStorage(new StatePacker(varList));
+			} else {
+				mainLog.printWarning("Packed state storage is not possible for models with unbounded variables or clocks");
 			}
 		}
-		// Explore...
+		// (either way, states are hashed, not kept sorted, even if sortStates is true:
+		// it is much cheaper to sort them once, after exploration)
+		states = packedStates != null ? packedStates : new IndexedSet<State>(false);
+		explore = packedStates != null ? null : new LinkedList<State>();
+		// Set up checkpoints, if required
+		// (only possible when building a sparse model directly, or just computing reachable states)
+		boolean checkpoint = checkpointFile != null;
+		if (checkpoint && !justReach && sparse == null) {
+			mainLog.printWarning("Checkpoints are not supported for this type of model construction");
+			checkpoint = false;
+		}
+		int numCheckpoints = 0;
+		long lastCheckpoint = System.currentTimeMillis();
 		src = -1;
-		while (!explore.isEmpty()) {
-			// Pick next state to explore
-			// (they are stored in order found so know index is src+1)
-			state = explore.removeFirst();
-			src++;
-			// Explore all choices/transitions from this state
-			modelGen.exploreState(state);
-			// Look at each outgoing choice in turn
-			nc = modelGen.getNumChoices();
-			for (i = 0; i < nc; i++) {
-				// If required, check for duplicate actions here
-				if (modelType.partiallyObservable()) {
-					if (((NondetModel<Value>) modelSimple).getChoiceByAction(src, modelGen.getChoiceAction(i)) != -1) {
-						String act = modelGen.getChoiceAction(i) == null ? "" : modelGen.getChoiceAction(i).toString();
-						String err = modelType + " is not allowed duplicate action";
-						err += " (\"" + act + "\") in state " + state.toString(modelGen);
-						throw new PrismException(err);
+		if (checkpoint && resume && checkpointFile.exists()) {
+			// Restore states, transitions, labels and rewards from the checkpoint
+			mainLog.print(" resuming from checkpoint \"" + checkpointFile + "\"...");
+			mainLog.flush();
+			src = ConstructModelCheckpoint.read(checkpointFile, modelGen, varList, states, explore, sparse, labelBits, preRews, symmetryParams, por == null ? null : por.getIndependentModules()) - 1;
+		} else {
+			// Add initial state(s) to 'explore', 'states' and to the model
+			for (State initState : modelGen.getInitialStates()) {
+				// (with symmetry reduction, distinct initial states may have the same representative)
+				if (symmRed != null) {
+					initState = symmRed.canonicalise(initState);
+					if (states.contains(initState)) {
+						continue;
+					}
+				}
+				if (explore != null) {
+					explore.add(initState);
+				}
+				if (packedStates != null) {
+					packedStates.addState(initState);
+				} else {
+					states.add(initState);
+				}
+				if (sparse != null) {
+					sparse.addInitialState(sparse.addState());
+				} else if (!justReach) {
+					modelSimple.addState();
+					modelSimple.addInitialState(modelSimple.getNumStates() - 1);
+				}
+			}
+		}
+		// Explore...
+		try {
+			while (explore != null ? !explore.isEmpty() : src + 1 < packedStates.size()) {
+				// Pick next state to explore
+				// (they are stored in order found so know index is src+1)
+				src++;
+				if (parExplorer == null) {
+					state = explore != null ? explore.removeFirst() : packedStates.getState(src);
+					// Explore all choices/transitions from this state
+					modelGen.exploreState(state);
+					genSuccs.setState(state);
+				} else {
+					// If needed, explore (in parallel) the next batch of states
+					// (the states waiting to be explored, in order, starting from src)
+					if (!parExplorer.hasExplored(src)) {
+						List<State> batch = new ArrayList<>();
+						if (explore != null) {
+							Iterator<State> it = explore.iterator();
+							while (it.hasNext() && batch.size() < parExplorer.getBatchSize()) {
+								batch.add(it.next());
+							}
+						} else {
+							for (int s = src; s < packedStates.size() && batch.size() < parExplorer.getBatchSize(); s++) {
+								batch.add(packedStates.getState(s));
+							}
+						}
+						parExplorer.exploreBatch(src, batch);
+					}
+					if (explore != null) {
+						explore.removeFirst();
+					}
+					state = parExplorer.getState(src);
+					succs = parExplorer.getSuccessors(src);
+				}
+				// Store labels/rewards for the state
+				if (labelBits != null) {
+					for (j = 0; j < numLabels; j++) {
+						if (succs.isLabelTrue(j)) {
+							labelBits[j].set(src);
+						}
 					}
 				}
-				// For nondet models, collect transitions in a Distribution
-				if (!justReach && modelType.nondeterministic()) {
-					if (!modelType.uncertain()) {
-						distr = new Distribution<>(modelGen.getEvaluator());
-					} else {
-						distrUnc = new Distribution<>(modelGen.getIntervalEvaluator());
+				if (preRews != null) {
+					storeRewards(succs, preRews);
+				}
+				// Look at each outgoing choice in turn
+				// (or, with partial-order reduction, just the ample choice, if there is one)
+				nc = succs.getNumChoices();
+				int firstChoice = 0;
+				if (por != null) {
+					int ample = findAmpleChoice(por, succs, states);
+					if (ample != -1) {
+						por.notifyReduced();
+						firstChoice = ample;
+						nc = ample + 1;
 					}
 				}
-				// Look at each transition in the choice
-				nt = modelGen.getNumTransitions(i);
-				for (j = 0; j < nt; j++) {
-					stateNew = modelGen.computeTransitionTarget(i, j);
-					// Is this a new state?
-					if (states.add(stateNew)) {
-						// If so, add to the explore list
-						explore.add(stateNew);
-						// And to model
+				if (sparse != null) {
+					sparse.startState(src);
+				}
+				for (i = firstChoice; i < nc; i++) {
+					// If required, check for duplicate actions here
+					if (modelType.partiallyObservable()) {
+						if (((NondetModel<Value>) modelSimple).getChoiceByAction(src, succs.getChoiceAction(i)) != -1) {
+							String act = succs.getChoiceAction(i) == null ? "" : succs.getChoiceAction(i).toString();
+							String err = modelType + " is not allowed duplicate action";
+							err += " (\"" + act + "\") in state " + state.toString(modelGen);
+							throw new PrismException(err);
+						}
+					}
+					// For nondet models, collect transitions in a Distribution
+					if (sparse != null) {
+						if (modelType.nondeterministic()) {
+							sparse.startChoice(succs.getChoiceAction(i));
+						}
+					} else if (!justReach && modelType.nondeterministic()) {
+						if (!modelType.uncertain()) {
+							distr = new Distribution<>(modelGen.getEvaluator());
+						} else {
+							distrUnc = new Distribution<>(modelGen.getIntervalEvaluator());
+						}
+					}
+					// Look at each transition in the choice
+					nt = succs.getNumTransitions(i);
+					for (j = 0; j < nt; j++) {
+						stateNew = succs.computeTransitionTarget(i, j);
+						if (symmRed != null) {
+							stateNew = symmRed.canonicalise(stateNew);
+						}
+						// Is this a new state?
+						// (packed storage reports when it is full, hence addState)
+						if (packedStates != null ? packedStates.addState(stateNew) : states.add(stateNew)) {
+							// If so, add to the explore list
+							if (explore != null) {
+								explore.add(stateNew);
+							}
+							// And to model
+							if (sparse != null) {
+								sparse.addState();
+							} else if (!justReach) {
+								modelSimple.addState();
+							}
+						}
+						// Get index of state in state set
+						dest = states.getIndexOfLastAdd();
+						// Add transitions to model
 						if (!justReach) {
-							modelSimple.addState();
+							switch (modelType) {
+							case DTMC:
+								if (sparse != null) {
+									sparse.addTransition(dest, (Double) succs.getTransitionProbability(i, j));
+								} else {
+									dtmc.addToProbability(src, dest, succs.getTransitionProbability(i, j));
+								}
+								break;
+							case CTMC:
+								ctmc.addToProbability(src, dest, succs.getTransitionProbability(i, j));
+								break;
+							case IDTMC:
+								idtmc.addToProbability(src, dest, succs.getTransitionProbabilityInterval(i, j));
+								break;
+							case MDP:
+								if (sparse != null) {
+									sparse.addTransition(dest, (Double) succs.getTransitionProbability(i, j));
+								} else {
+									distr.add(dest, succs.getTransitionProbability(i, j));
+								}
+								break;
+							case POMDP:
+							case CTMDP:
+								distr.add(dest, succs.getTransitionProbability(i, j));
+								break;
+							case IMDP:
+								distrUnc.add(dest, succs.getTransitionProbabilityInterval(i, j));
+								break;
+							case LTS:
+								if (distinguishActions) {
+									lts.addActionLabelledTransition(src, dest, succs.getChoiceAction(i));
+								} else {
+									lts.addTransition(src, dest);
+								}
+								break;
+							case STPG:
+							case SMG:
+							case PTA:
+							case POPTA:
+								throw new PrismNotSupportedException("Model construction not supported for " + modelType + "s");
+							}
 						}
 					}
-					// Get index of state in state set
-					dest = states.getIndexOfLastAdd();
-					// Add transitions to model
+					// For nondet models, add collated transition to model
+					int ch = -1;
 					if (!justReach) {
-						switch (modelType) {
-						case DTMC:
-							dtmc.addToProbability(src, dest, modelGen.getTransitionProbability(i, j));
-							break;
-						case CTMC:
-							ctmc.addToProbability(src, dest, modelGen.getTransitionProbability(i, j));
-							break;
-						case IDTMC:
-							idtmc.addToProbability(src, dest, modelGen.getTransitionProbabilityInterval(i, j));
-							break;
-						case MDP:
-						case POMDP:
-						case CTMDP:
-							distr.add(dest, modelGen.getTransitionProbability(i, j));
-							break;
-						case IMDP:
-							distrUnc.add(dest, modelGen.getTransitionProbabilityInterval(i, j));
-							break;
-						case LTS:
+						if (modelType == ModelType.MDP) {
+							if (sparse != null) {
+								sparse.endChoice();
+							} else if (distinguishActions) {
+								mdp.addActionLabelledChoice(src, distr, succs.getChoiceAction(i));
+							} else {
+								mdp.addChoice(src, distr);
+							}
+						} else if (modelType == ModelType.POMDP) {
 							if (distinguishActions) {
-								lts.addActionLabelledTransition(src, dest, modelGen.getChoiceAction(i));
+								pomdp.addActionLabelledChoice(src, distr, succs.getChoiceAction(i));
 							} else {
-								lts.addTransition(src, dest);
+								pomdp.addChoice(src, distr);
+							}
+						} else if (modelType == ModelType.CTMDP) {
+							if (distinguishActions) {
+								ctmdp.addActionLabelledChoice(src, distr, succs.getChoiceAction(i));
+							} else {
+								ctmdp.addChoice(src, distr);
+							}
+						} else if (modelType == ModelType.IMDP) {
+							if (distinguishActions) {
+								ch = imdp.addActionLabelledChoice(src, distrUnc, succs.getChoiceAction(i));
+							} else {
+								ch = imdp.addChoice(src, distrUnc);
 							}
-							break;
-						case STPG:
-						case SMG:
-						case PTA:
-						case POPTA:
-							throw new PrismNotSupportedException("Model construction not supported for " + modelType + "s");
 						}
 					}
-				}
-				// For nondet models, add collated transition to model
-				int ch = -1;
-				if (!justReach) {
-					if (modelType == ModelType.MDP) {
-						if (distinguishActions) {
-							mdp.addActionLabelledChoice(src, distr, modelGen.getChoiceAction(i));
-						} else {
-							mdp.addChoice(src, distr);
-						}
-					} else if (modelType == ModelType.POMDP) {
-						if (distinguishActions) {
-							pomdp.addActionLabelledChoice(src, distr, modelGen.getChoiceAction(i));
-						} else {
-							pomdp.addChoice(src, distr);
-						}
-					} else if (modelType == ModelType.CTMDP) {
-						if (distinguishActions) {
-							ctmdp.addActionLabelledChoice(src, distr, modelGen.getChoiceAction(i));
-						} else {
-							ctmdp.addChoice(src, distr);
-						}
+					// For interval models, we delimit the constructed distributions
+					if (modelType == ModelType.IDTMC) {
+						((IDTMCSimple<Value>) idtmc).delimit(src, modelGen.getEvaluator());
 					} else if (modelType == ModelType.IMDP) {
-						if (distinguishActions) {
-							ch = imdp.addActionLabelledChoice(src, distrUnc, modelGen.getChoiceAction(i));
-						} else {
-							ch = imdp.addChoice(src, distrUnc);
-						}
+						((IMDPSimple<Value>) imdp).delimit(src, ch, modelGen.getEvaluator());
 					}
 				}
-				// For interval models, we delimit the constructed distributions
-				if (modelType == ModelType.IDTMC) {
-					((IDTMCSimple<Value>) idtmc).delimit(src, modelGen.getEvaluator());
-				} else if (modelType == ModelType.IMDP) {
-					((IMDPSimple<Value>) imdp).delimit(src, ch, modelGen.getEvaluator());
+				if (sparse != null) {
+					sparse.endState();
+				}
+				// For partially observable models, add observation info to state
+				// (do it after transitions are added, since observation actions are checked)
+				if (!justReach && modelType == ModelType.POMDP) {
+					setStateObservation(modelGen, (POMDPSimple<Value>) modelSimple, src, state);
+				}
+				// Print some progress info occasionally
+				progress.updateIfReady(src + 1);
+				// Write a checkpoint occasionally
+				if (checkpoint && System.currentTimeMillis() - lastCheckpoint >= checkpointInterval * 1000L) {
+					try {
+						ConstructModelCheckpoint.write(checkpointFile, modelGen, varList, states, src + 1, sparse, labelBits, preRews, symmetryParams, por == null ? null : por.getIndependentModules());
+						numCheckpoints++;
+					} catch (PrismNotSupportedException e) {
+						mainLog.printWarning("Disabling checkpoints: " + e.getMessage());
+						checkpoint = false;
+					} catch (PrismException e) {
+						mainLog.printWarning(e.getMessage());
+					}
+					lastCheckpoint = System.currentTimeMillis();
 				}
 			}
-			// For partially observable models, add observation info to state
-			// (do it after transitions are added, since observation actions are checked)
-			if (!justReach && modelType == ModelType.POMDP) {
-				setStateObservation(modelGen, (POMDPSimple<Value>) modelSimple, src, state);
+		} finally {
+			if (parExplorer != null) {
+				parExplorer.shutdown();
 			}
-			// Print some progress info occasionally
-			progress.updateIfReady(src + 1);
 		}
 
 		// Finish progress display
@@ -384,10 +750,20 @@ public class ConstructModel extends PrismComponent
 		mainLog.print("Reachable states exploration" + (justReach ? "" : " and model construction"));
 		mainLog.println(" done in " + ((System.currentTimeMillis() - timer) / 1000.0) + " secs.");
 		//mainLog.println(states);
+		if (por != null) {
+			mainLog.println("Partial-order reduction: " + por.getNumReducedStates() + " of " + (src + 1) + " states reduced.");
+		}
+		if (numCheckpoints > 0) {
+			mainLog.println(numCheckpoints + " checkpoint(s) written to \"" + checkpointFile + "\".");
+		}
 
 		// Find/fix deadlocks (if required)
 		if (!justReach && findDeadlocks) {
-			modelSimple.findDeadlocks(fixDeadlocks);
+			if (sparse != null) {
+				sparse.findDeadlocks(fixDeadlocks);
+			} else {
+				modelSimple.findDeadlocks(fixDeadlocks);
+			}
 		}
 
 		int permut[] = null;
@@ -396,10 +772,10 @@ public class ConstructModel extends PrismComponent
 			// Sort states and convert set to list
 			mainLog.println("Sorting reachable states list...");
 			permut = states.buildSortingPermutation();
-			statesList = states.toPermutedArrayList(permut);
+			statesList = packedStates != null ? packedStates.toPermutedPackedStateList(permut) : states.toPermutedArrayList(permut);
 			//mainLog.println(permut);
 		} else {
-			statesList = states.toArrayList();
+			statesList = packedStates != null ? packedStates.toPackedStateList() : states.toArrayList();
 		}
 		states.clear();
 		states = null;
@@ -408,11 +784,10 @@ public class ConstructModel extends PrismComponent
 		// Construct new explicit-state model (with correct state ordering, if desired)
 		ModelExplicit<Value> model = null;
 		if (!justReach) {
-			boolean isDbl = modelSimple.getEvaluator().one() instanceof Double; 
 			switch (modelType) {
 			case DTMC:
-				if (buildSparse && isDbl) {
-					model = (ModelExplicit<Value>) (sortStates ? new DTMCSparse((DTMC<Double>) dtmc, permut) : new DTMCSparse((DTMC<Double>) dtmc));
+				if (sparse != null) {
+					model = (ModelExplicit<Value>) sparse.buildDTMC(permut);
 				} else {
 					model = sortStates ? new DTMCSimple<>(dtmc, permut) : (DTMCSimple<Value>) dtmc;
 				}
@@ -421,8 +796,11 @@ public class ConstructModel extends PrismComponent
 				model = sortStates ? new CTMCSimple<>(ctmc, permut) : (CTMCSimple<Value>) ctmc;
 				break;
 			case MDP:
-				if (buildSparse && isDbl) {
-					model = (ModelExplicit<Value>) (sortStates ? new MDPSparse((MDPSimple<Double>) mdp, true, permut) : new MDPSparse((MDP<Double>) mdp));
+				if (sparse != null) {
+					if (shareDistributions) {
+						mainLog.println("Distributions stored: " + sparse.getNumDistributions() + " (shared by " + sparse.getNumChoices() + " choices)");
+					}
+					model = (ModelExplicit<Value>) sparse.buildMDP(permut);
 				} else {
 					model = sortStates ? new MDPSimple<>(mdp, permut) : mdp;
 				}
@@ -449,19 +827,237 @@ public class ConstructModel extends PrismComponent
 				throw new PrismNotSupportedException("Model construction not supported for " + modelType + "s");
 			}
 			model.setStatesList(statesList);
+			if (sparse != null) {
+				model.setVarList(varList);
+			}
 			model.setConstantValues(new Values(modelGen.getConstantValues()));
 			//mainLog.println("Model: " + model);
+			// Attach labels and rewards (permuted, like the states)
+			if (labelBits != null) {
+				for (j = 0; j < numLabels; j++) {
+					model.addLabel(modelGen.getLabelName(j), permuteBitSet(labelBits[j], permut));
+				}
+			}
+			if (preRews != null) {
+				preRews.finish(permut);
+				model.setPrecomputedRewards(preRews);
+			}
 		}
 
 		// Discard permutation
 		permut = null;
 
-		if (!justReach && attachLabels)
-			attachLabels(modelGen, model);
-		
+		// Construction is complete, so the checkpoint is no longer needed
+		if (checkpoint) {
+			checkpointFile.delete();
+		}
+
 		return model;
 	}
 
+	/**
+	 * Re-attach the labels of a model generator to a model that was previously constructed from it,
+	 * by evaluating them on the model's list of states. This is needed if the labels have changed since
+	 * model construction (e.g. because they depend on constants whose values have changed), while the
+	 * rest of the model has not.
+	 */
+	public static void attachLabels(ModelGenerator<?> modelGen, ModelExplicit<?> model) throws PrismException
+	{
+		List<State> statesList = model.getStatesList();
+		if (statesList == null) {
+			throw new PrismException("Cannot attach labels to a model with no states list");
+		}
+		int numLabels = modelGen.getNumLabels();
+		BitSet labelBits[] = new BitSet[numLabels];
+		for (int j = 0; j < numLabels; j++) {
+			labelBits[j] = new BitSet();
+		}
+		int numStates = statesList.size();
+		for (int s = 0; s < numStates; s++) {
+			modelGen.exploreState(statesList.get(s));
+			for (int j = 0; j < numLabels; j++) {
+				if (modelGen.isLabelTrue(j)) {
+					labelBits[j].set(s);
+				}
+			}
+		}
+		for (int j = 0; j < numLabels; j++) {
+			model.addLabel(modelGen.getLabelName(j), labelBits[j]);
+		}
+	}
+
+	/**
+	 * Re-evaluate, in place, the transition probabilities of a sparse DTMC/MDP ({@link DTMCSparse}/{@link MDPSparse})
+	 * previously constructed from a model generator, e.g. because they depend on constants whose values have changed.
+	 * The transitions of each state in the model's states list are regenerated, but the state space is not re-explored.
+	 * This fails, returning false and leaving the model unchanged, if the support of the transitions
+	 * (which ones are non-zero) is no longer the same, or the model was not constructed in this way
+	 * (or with symmetry/partial-order reduction). In that case, the model should be rebuilt from scratch.
+	 */
+	public boolean rebuildProbabilities(ModelGenerator<?> modelGen, Model<?> model) throws PrismException
+	{
+		boolean nondet = model instanceof MDPSparse;
+		if (!(nondet || model instanceof DTMCSparse) || model.getModelType() != modelGen.getModelType()) {
+			return false;
+		}
+		if (symmetryParams != null || partialOrderReduction || !(modelGen.getEvaluator().one() instanceof Double)) {
+			return false;
+		}
+		List<State> statesList = model.getStatesList();
+		if (statesList == null) {
+			return false;
+		}
+		// Index the existing states
+		int numStates = statesList.size();
+		Map<State, Integer> stateIndices = new HashMap<>(2 * numStates);
+		for (int s = 0; s < numStates; s++) {
+			stateIndices.put(statesList.get(s), s);
+		}
+		// Regenerate the transitions of each state (keeping the existing state ordering)
+		SparseModelBuilder sparse = new SparseModelBuilder(nondet, distinguishActions);
+		sparse.setShareDistributions(shareDistributions);
+		for (int s = 0; s < numStates; s++) {
+			sparse.addState();
+		}
+		for (int s = 0; s < numStates; s++) {
+			modelGen.exploreState(statesList.get(s));
+			sparse.startState(s);
+			int nc = modelGen.getNumChoices();
+			for (int i = 0; i < nc; i++) {
+				if (nondet) {
+					sparse.startChoice(modelGen.getChoiceAction(i));
+				}
+				int nt = modelGen.getNumTransitions(i);
+				for (int j = 0; j < nt; j++) {
+					Integer dest = stateIndices.get(modelGen.computeTransitionTarget(i, j));
+					// A transition to a new state means the support has changed
+					if (dest == null) {
+						return false;
+					}
+					sparse.addTransition(dest, (Double) modelGen.getTransitionProbability(i, j));
+				}
+				if (nondet) {
+					sparse.endChoice();
+				}
+			}
+			sparse.endState();
+		}
+		sparse.findDeadlocks(fixDeadlocks);
+		// Copy the new probabilities across, if the transition structure is unchanged
+		if (nondet) {
+			return ((MDPSparse) model).copyProbabilitiesFrom(sparse.buildMDP(null));
+		} else {
+			return ((DTMCSparse) model).copyProbabilitiesFrom(sparse.buildDTMC(null));
+		}
+	}
+
+	/**
+	 * For partial-order reduction, find a choice of the current state to use as a (singleton) ample set,
+	 * i.e., a candidate from {@link PartialOrderReduction#getCandidateAmpleChoices()} all of whose
+	 * successors are new states. The latter ensures that every cycle contains a fully expanded state,
+	 * since states are explored breadth-first. Returns -1 if there is no such choice.
+	 */
+	private <Value> int findAmpleChoice(PartialOrderReduction por, Successors<Value> succs, StateStorage<State> states) throws PrismException
+	{
+		for (int i : por.getCandidateAmpleChoices()) {
+			boolean allNew = true;
+			int nt = succs.getNumTransitions(i);
+			for (int j = 0; j < nt && allNew; j++) {
+				allNew = !states.contains(succs.computeTransitionTarget(i, j));
+			}
+			if (allNew) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Create storage for rewards to be computed during model construction, or return null if this is not possible
+	 * (the model generator is not a {@link RewardGenerator}, or rewards are not double-valued, or the model type is not supported).
+	 */
+	private <Value> PrecomputedRewards createPrecomputedRewards(ModelGenerator<Value> modelGen, ModelType modelType)
+	{
+		if (!(modelGen instanceof RewardGenerator)) {
+			return null;
+		}
+		RewardGenerator<?> rewardGen = (RewardGenerator<?>) modelGen;
+		int numRewardStructs = rewardGen.getNumRewardStructs();
+		if (numRewardStructs == 0 || !rewardGen.isRewardLookupSupported(RewardLookup.BY_STATE) || !(rewardGen.getRewardEvaluator().one() instanceof Double)) {
+			return null;
+		}
+		// Transition rewards are only stored for MDPs (they are not supported by the explicit engine for D/CTMCs)
+		boolean nondet;
+		switch (modelType) {
+		case DTMC:
+		case CTMC:
+			nondet = false;
+			break;
+		case MDP:
+		case POMDP:
+			nondet = true;
+			break;
+		default:
+			return null;
+		}
+		boolean storeStateRewards[] = new boolean[numRewardStructs];
+		boolean storeActionRewards[] = new boolean[numRewardStructs];
+		for (int r = 0; r < numRewardStructs; r++) {
+			storeStateRewards[r] = rewardGen.rewardStructHasStateRewards(r);
+			storeActionRewards[r] = nondet && rewardGen.rewardStructHasTransitionRewards(r);
+		}
+		return new PrecomputedRewards(rewardGen, storeStateRewards, storeActionRewards);
+	}
+
+	/**
+	 * Compute the rewards for the state whose successors are {@code succs}, and add them to {@code preRews}.
+	 * Reward structures for which computing a reward fails are discarded (and will be built later, if needed,
+	 * which reports the error).
+	 */
+	private <Value> void storeRewards(Successors<Value> succs, PrecomputedRewards preRews) throws PrismException
+	{
+		preRews.addState();
+		int numRewardStructs = preRews.getRewardGenerator().getNumRewardStructs();
+		for (int r = 0; r < numRewardStructs; r++) {
+			if (preRews.hasStateRewards(r)) {
+				try {
+					preRews.setStateReward(r, succs.getStateReward(r));
+				} catch (PrismException e) {
+					preRews.removeRewardStruct(r);
+				}
+			}
+		}
+		int nc = succs.getNumChoices();
+		for (int i = 0; i < nc; i++) {
+			if (preRews.addAction(succs.getChoiceAction(i))) {
+				for (int r = 0; r < numRewardStructs; r++) {
+					if (preRews.hasActionRewards(r)) {
+						try {
+							preRews.setActionReward(r, succs.getStateActionReward(r, i));
+						} catch (PrismException e) {
+							preRews.removeRewardStruct(r);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Apply a state index permutation (or none, if null) to a set of states: state index i becomes index permut[i].
+	 */
+	private static BitSet permuteBitSet(BitSet bits, int permut[])
+	{
+		if (permut == null) {
+			return bits;
+		}
+		BitSet permBits = new BitSet();
+		for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+			permBits.set(permut[i]);
+		}
+		return permBits;
+	}
+
 	private <Value> void setStateObservation(ModelGenerator<Value> modelGen, POMDPSimple<Value> pomdp, int s, State state) throws PrismException
 	{
 		// Get observation for the current state
@@ -483,32 +1079,424 @@ public class ConstructModel extends PrismComponent
 		pomdp.setObservation(s, sObs, sUnobs, modelGen.getObservableNames());
 	}
 	
-	private <Value> void attachLabels(ModelGenerator<Value> modelGen, ModelExplicit<Value> model) throws PrismException
+	/**
+	 * Successors (choices/transitions) of the state currently being added to the model.
+	 * These are either read directly from a {@link ModelGenerator} (see {@link GeneratorSuccessors})
+	 * or from a copy recorded earlier by a worker thread (see {@link RecordedSuccessors}).
+	 */
+	private interface Successors<Value>
 	{
-		// Get state info
-		List <State> statesList = model.getStatesList();
-		int numStates = statesList.size();
-		// Create storage for labels
-		int numLabels = modelGen.getNumLabels();
-		// No need to continue unless this ModelGenerator uses labels
-		if (numLabels == 0) return;
-		BitSet bitsets[] = new BitSet[numLabels];
-		for (int j = 0; j < numLabels; j++) {
-			bitsets[j] = new BitSet();
+		public int getNumChoices() throws PrismException;
+
+		public Object getChoiceAction(int i) throws PrismException;
+
+		public int getNumTransitions(int i) throws PrismException;
+
+		public State computeTransitionTarget(int i, int offset) throws PrismException;
+
+		public Value getTransitionProbability(int i, int offset) throws PrismException;
+
+		public Interval<Value> getTransitionProbabilityInterval(int i, int offset) throws PrismException;
+
+		public boolean isLabelTrue(int j) throws PrismException;
+
+		public double getStateReward(int r) throws PrismException;
+
+		public double getStateActionReward(int r, int i) throws PrismException;
+	}
+
+	/**
+	 * Successors of the state most recently explored by a {@link ModelGenerator}.
+	 */
+	private static class GeneratorSuccessors<Value> implements Successors<Value>
+	{
+		private final ModelGenerator<Value> modelGen;
+		/** The state most recently explored (needed for rewards) */
+		private State state;
+
+		GeneratorSuccessors(ModelGenerator<Value> modelGen)
+		{
+			this.modelGen = modelGen;
+		}
+
+		/**
+		 * Set the state most recently explored by the model generator.
+		 */
+		void setState(State state)
+		{
+			this.state = state;
+		}
+
+		@Override
+		public int getNumChoices() throws PrismException
+		{
+			return modelGen.getNumChoices();
+		}
+
+		@Override
+		public Object getChoiceAction(int i) throws PrismException
+		{
+			return modelGen.getChoiceAction(i);
 		}
-		// Construct bitsets for labels
-		for (int i = 0; i < numStates; i++) {
-			State state = statesList.get(i);
-			modelGen.exploreState(state);
+
+		@Override
+		public int getNumTransitions(int i) throws PrismException
+		{
+			return modelGen.getNumTransitions(i);
+		}
+
+		@Override
+		public State computeTransitionTarget(int i, int offset) throws PrismException
+		{
+			return modelGen.computeTransitionTarget(i, offset);
+		}
+
+		@Override
+		public Value getTransitionProbability(int i, int offset) throws PrismException
+		{
+			return modelGen.getTransitionProbability(i, offset);
+		}
+
+		@Override
+		public Interval<Value> getTransitionProbabilityInterval(int i, int offset) throws PrismException
+		{
+			return modelGen.getTransitionProbabilityInterval(i, offset);
+		}
+
+		@Override
+		public boolean isLabelTrue(int j) throws PrismException
+		{
+			return modelGen.isLabelTrue(j);
+		}
+
+		@Override
+		public double getStateReward(int r) throws PrismException
+		{
+			return (Double) ((RewardGenerator<?>) modelGen).getStateReward(r, state);
+		}
+
+		@Override
+		public double getStateActionReward(int r, int i) throws PrismException
+		{
+			return (Double) ((RewardGenerator<?>) modelGen).getStateActionReward(r, state, modelGen.getChoiceAction(i));
+		}
+	}
+
+	/**
+	 * Copy of the successors of a state, recorded from a {@link ModelGenerator} after exploring it.
+	 */
+	private static class RecordedSuccessors<Value> implements Successors<Value>
+	{
+		/** Action for each choice */
+		private final Object actions[];
+		/** Start index (into {@code targets}/{@code probs}) of each choice's transitions, plus end index */
+		private final int choiceStarts[];
+		/** Transition targets */
+		private final State targets[];
+		/** Transition probabilities/rates (Value or Interval&lt;Value&gt;), or null if not recorded */
+		private final Object probs[];
+		/** Values of labels */
+		private final boolean labels[];
+		/** State rewards (for each reward structure), if recorded */
+		private double stateRewards[];
+		/** State-action rewards (for each reward structure and choice), if recorded */
+		private double stateActionRewards[][];
+		/** Errors computing rewards (for each reward structure), if any */
+		private PrismException rewardErrors[];
+
+		/**
+		 * Record the successors of the state {@code state} that {@code modelGen} has just explored.
+		 * @param modelGen Model generator (after a call to {@code exploreState})
+		 * @param state The state
+		 * @param recordProbs Whether to record probabilities/rates (not needed for reachability)
+		 * @param numLabels Number of labels to record
+		 * @param stateRews Reward structures to record state rewards for (null if none)
+		 * @param actionRews Reward structures to record state-action rewards for (null if none)
+		 */
+		RecordedSuccessors(ModelGenerator<Value> modelGen, State state, boolean recordProbs, int numLabels, boolean stateRews[], boolean actionRews[]) throws PrismException
+		{
+			int nc = modelGen.getNumChoices();
+			actions = new Object[nc];
+			choiceStarts = new int[nc + 1];
+			for (int i = 0; i < nc; i++) {
+				actions[i] = modelGen.getChoiceAction(i);
+				choiceStarts[i + 1] = choiceStarts[i] + modelGen.getNumTransitions(i);
+			}
+			targets = new State[choiceStarts[nc]];
+			probs = recordProbs ? new Object[choiceStarts[nc]] : null;
+			for (int i = 0; i < nc; i++) {
+				int nt = choiceStarts[i + 1] - choiceStarts[i];
+				for (int j = 0; j < nt; j++) {
+					targets[choiceStarts[i] + j] = modelGen.computeTransitionTarget(i, j);
+					if (recordProbs) {
+						probs[choiceStarts[i] + j] = modelGen.getTransitionProbabilityObject(i, j);
+					}
+				}
+			}
+			labels = new boolean[numLabels];
 			for (int j = 0; j < numLabels; j++) {
-				if (modelGen.isLabelTrue(j)) {
-					bitsets[j].set(i);
+				labels[j] = modelGen.isLabelTrue(j);
+			}
+			if (stateRews != null) {
+				recordRewards((RewardGenerator<?>) modelGen, state, stateRews, actionRews);
+			}
+		}
+
+		/**
+		 * Record the rewards of state {@code state}.
+		 */
+		private void recordRewards(RewardGenerator<?> rewardGen, State state, boolean stateRews[], boolean actionRews[])
+		{
+			int numRewardStructs = stateRews.length;
+			int nc = actions.length;
+			stateRewards = new double[numRewardStructs];
+			stateActionRewards = new double[numRewardStructs][];
+			rewardErrors = new PrismException[numRewardStructs];
+			for (int r = 0; r < numRewardStructs; r++) {
+				try {
+					if (stateRews[r]) {
+						stateRewards[r] = (Double) rewardGen.getStateReward(r, state);
+					}
+					if (actionRews[r]) {
+						stateActionRewards[r] = new double[nc];
+						for (int i = 0; i < nc; i++) {
+							stateActionRewards[r][i] = (Double) rewardGen.getStateActionReward(r, state, actions[i]);
+						}
+					}
+				} catch (PrismException e) {
+					rewardErrors[r] = e;
 				}
 			}
 		}
-		// Attach labels/bitsets
-		for (int j = 0; j < numLabels; j++) {
-			model.addLabel(modelGen.getLabelName(j), bitsets[j]);
+
+		@Override
+		public int getNumChoices()
+		{
+			return actions.length;
+		}
+
+		@Override
+		public Object getChoiceAction(int i)
+		{
+			return actions[i];
+		}
+
+		@Override
+		public int getNumTransitions(int i)
+		{
+			return choiceStarts[i + 1] - choiceStarts[i];
+		}
+
+		@Override
+		public State computeTransitionTarget(int i, int offset)
+		{
+			return targets[choiceStarts[i] + offset];
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public Value getTransitionProbability(int i, int offset)
+		{
+			return (Value) probs[choiceStarts[i] + offset];
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public Interval<Value> getTransitionProbabilityInterval(int i, int offset)
+		{
+			return (Interval<Value>) probs[choiceStarts[i] + offset];
+		}
+
+		@Override
+		public boolean isLabelTrue(int j)
+		{
+			return labels[j];
+		}
+
+		@Override
+		public double getStateReward(int r) throws PrismException
+		{
+			if (rewardErrors[r] != null) {
+				throw rewardErrors[r];
+			}
+			return stateRewards[r];
+		}
+
+		@Override
+		public double getStateActionReward(int r, int i) throws PrismException
+		{
+			if (rewardErrors[r] != null) {
+				throw rewardErrors[r];
+			}
+			return stateActionRewards[r][i];
+		}
+	}
+
+	/**
+	 * Class to explore batches of states concurrently, using a fixed set of worker threads,
+	 * each with its own copy of the model generator. States in a batch are identified
+	 * by their indices, and their successors are recorded (see {@link RecordedSuccessors}),
+	 * so that they can then be added to the model (sequentially, in index order).
+	 * Any errors during exploration of a state are also recorded, and only reported
+	 * when its successors are requested, i.e., in the same order as sequential exploration.
+	 */
+	private static class ParallelExplorer<Value>
+	{
+		/** Maximum number of states in a batch, per thread */
+		private static final int BATCH_SIZE_PER_THREAD = 1024;
+		/** Number of states claimed by a worker at a time */
+		private static final int BLOCK_SIZE = 32;
+
+		/** Model generators, one per worker */
+		private final List<ModelGenerator<Value>> modelGens;
+		/** Whether to record probabilities/rates */
+		private final boolean recordProbs;
+		/** Number of labels to record */
+		private final int numLabels;
+		/** Reward structures to record state/state-action rewards for (null if none) */
+		private boolean stateRews[];
+		private boolean actionRews[];
+		/** Thread pool (created on first use) */
+		private ExecutorService executor;
+
+		/** Index of the first state in the current batch */
+		private int batchStart;
+		/** States in the current batch */
+		private State batchStates[] = new State[0];
+		/** Successors of the states in the current batch */
+		private List<Successors<Value>> batchSuccs;
+		/** Errors for the states in the current batch (or null if none) */
+		private PrismException batchErrors[];
+
+		/**
+		 * Create a parallel explorer for the model generator {@code modelGen}, using {@code numThreads} threads.
+		 * Throws a {@link PrismNotSupportedException} if the model generator cannot be copied.
+		 * @param recordProbs Whether to record probabilities/rates
+		 * @param numLabels Number of labels to record
+		 * @param preRews Rewards to record (or null if none)
+		 */
+		ParallelExplorer(ModelGenerator<Value> modelGen, int numThreads, boolean recordProbs, int numLabels, PrecomputedRewards preRews) throws PrismException
+		{
+			modelGens = new ArrayList<>(numThreads);
+			for (int k = 0; k < numThreads; k++) {
+				ModelGenerator<Value> copy = modelGen.createCopy();
+				if (preRews != null && !(copy instanceof RewardGenerator)) {
+					throw new PrismNotSupportedException("Model generator copy does not provide rewards");
+				}
+				modelGens.add(copy);
+			}
+			this.recordProbs = recordProbs;
+			this.numLabels = numLabels;
+			if (preRews != null) {
+				int numRewardStructs = preRews.getRewardGenerator().getNumRewardStructs();
+				stateRews = new boolean[numRewardStructs];
+				actionRews = new boolean[numRewardStructs];
+				for (int r = 0; r < numRewardStructs; r++) {
+					stateRews[r] = preRews.hasStateRewards(r);
+					actionRews[r] = preRews.hasActionRewards(r);
+				}
+			}
+		}
+
+		/**
+		 * Get the maximum number of states to be passed to {@link #exploreBatch(int, List)}.
+		 */
+		int getBatchSize()
+		{
+			return BATCH_SIZE_PER_THREAD * modelGens.size();
+		}
+
+		/**
+		 * Has the state with index {@code s} been explored (in the current batch)?
+		 */
+		boolean hasExplored(int s)
+		{
+			return s >= batchStart && s < batchStart + batchStates.length;
+		}
+
+		/**
+		 * Explore a batch of states concurrently, with indices {@code start}, {@code start+1}, ...
+		 */
+		void exploreBatch(int start, List<State> states) throws PrismException
+		{
+			int n = states.size();
+			batchStart = start;
+			batchStates = states.toArray(new State[n]);
+			batchSuccs = new ArrayList<>(Collections.nCopies(n, null));
+			batchErrors = new PrismException[n];
+			if (executor == null) {
+				executor = Executors.newFixedThreadPool(modelGens.size(), r -> {
+					Thread t = new Thread(r, "ConstructModel worker");
+					t.setDaemon(true);
+					return t;
+				});
+			}
+			// Workers repeatedly claim the next block of states in the batch
+			AtomicInteger next = new AtomicInteger(0);
+			List<Callable<Void>> tasks = new ArrayList<>(modelGens.size());
+			for (ModelGenerator<Value> modelGen : modelGens) {
+				tasks.add(() -> {
+					int lo;
+					while ((lo = next.getAndAdd(BLOCK_SIZE)) < n) {
+						int hi = Math.min(lo + BLOCK_SIZE, n);
+						for (int i = lo; i < hi; i++) {
+							try {
+								modelGen.exploreState(batchStates[i]);
+								batchSuccs.set(i, new RecordedSuccessors<>(modelGen, batchStates[i], recordProbs, numLabels, stateRews, actionRews));
+							} catch (PrismException e) {
+								batchErrors[i] = e;
+							}
+						}
+					}
+					return null;
+				});
+			}
+			try {
+				for (Future<Void> future : executor.invokeAll(tasks)) {
+					future.get();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new PrismException("Model construction was interrupted");
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				} else if (e.getCause() instanceof Error) {
+					throw (Error) e.getCause();
+				}
+				throw new PrismException("Error during parallel model construction: " + e.getCause());
+			}
+		}
+
+		/**
+		 * Get the state with index {@code s} (which must be in the current batch).
+		 */
+		State getState(int s)
+		{
+			return batchStates[s - batchStart];
+		}
+
+		/**
+		 * Get the successors of the state with index {@code s} (which must be in the current batch).
+		 * If exploring the state resulted in an error, it is thrown here.
+		 */
+		Successors<Value> getSuccessors(int s) throws PrismException
+		{
+			if (batchErrors[s - batchStart] != null) {
+				throw batchErrors[s - batchStart];
+			}
+			return batchSuccs.get(s - batchStart);
+		}
+
+		/**
+		 * Shut down the worker threads.
+		 */
+		void shutdown()
+		{
+			if (executor != null) {
+				executor.shutdownNow();
+				executor = null;
+			}
 		}
 	}
 
@@ -0,0 +1,378 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package explicit;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import explicit.rewards.PrecomputedRewards;
+import parser.State;
+import parser.VarList;
+import parser.type.TypeBool;
+import prism.ModelGenerator;
+import prism.PrismException;
+import prism.PrismNotSupportedException;
+
+/**
+ * Checkpoints for explicit-state model construction (see {@link ConstructModel}),
+ * i.e. compact binary snapshots of a partially completed construction, from which it can be resumed.
+ * <br><br>
+ * A checkpoint stores the states found so far (in order of index), how many of them have been explored
+ * (since states are explored in order of index, the rest are exactly those still to be explored),
+ * the transitions built so far (see {@link SparseModelBuilder}) and, if present, the labels and rewards
+ * computed so far (see {@link PrecomputedRewards}). It also stores a description of the model
+ * (type, variables, constants, ...) which is checked when resuming.
+ * <br><br>
+ * Checkpoints are first written to a temporary file, which then replaces the previous checkpoint,
+ * so that a crash while writing does not lose the last complete checkpoint.
+ */
+public class ConstructModelCheckpoint
+{
+	/** Magic number at the start of each file */
+	private static final byte MAGIC[] = "PRISMCKP".getBytes(StandardCharsets.US_ASCII);
+	/** Current version of the file format */
+	public static final int VERSION = 1;
+	/** Size of buffers used to write/read arrays */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * Write a checkpoint for a model construction.
+	 * @param file The file to write to
+	 * @param modelGen The model generator
+	 * @param varList The variables of the model
+	 * @param states The states found so far
+	 * @param numExplored The number of states explored so far
+	 * @param sparse The transitions built so far (null if just computing reachable states)
+	 * @param labelBits The states satisfying each label, so far (null if not computed)
+	 * @param preRews The rewards computed so far (null if not computed)
+	 * @param symmetryParams The symmetry reduction parameters (null if none)
+	 * @param porModules The independent modules used for partial-order reduction (null if none)
+	 */
+	public static void write(File file, ModelGenerator<?> modelGen, VarList varList, StateStorage<State> states, int numExplored, SparseModelBuilder sparse, BitSet labelBits[], PrecomputedRewards preRews, String symmetryParams, BitSet porModules) throws PrismException
+	{
+		File tmpFile = new File(file.getPath() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile), BUFFER_SIZE))) {
+			out.write(MAGIC);
+			out.writeInt(VERSION);
+			byte desc[] = describe(modelGen, varList, sparse, labelBits, preRews, symmetryParams, porModules).getBytes(StandardCharsets.UTF_8);
+			out.writeInt(desc.length);
+			out.write(desc);
+			// States
+			int numStates = states.size();
+			int numVars = varList.getNumVars();
+			out.writeInt(numStates);
+			out.writeInt(numExplored);
+			State all[] = null;
+			if (!(states instanceof PackedStateStorage)) {
+				all = new State[numStates];
+				for (Map.Entry<State, Integer> e : states.getEntrySet()) {
+					all[e.getValue()] = e.getKey();
+				}
+			}
+			for (int s = 0; s < numStates; s++) {
+				State state = all != null ? all[s] : ((PackedStateStorage) states).getState(s);
+				for (int v = 0; v < numVars; v++) {
+					Object val = state.varValues[v];
+					if (val instanceof Integer) {
+						out.writeInt((Integer) val);
+					} else if (val instanceof Boolean) {
+						out.writeInt((Boolean) val ? 1 : 0);
+					} else {
+						throw new PrismNotSupportedException("Checkpoints only support integer and Boolean variables");
+					}
+				}
+			}
+			all = null;
+			// Labels
+			if (labelBits != null) {
+				for (BitSet bits : labelBits) {
+					long words[] = bits.toLongArray();
+					out.writeInt(words.length);
+					for (long word : words) {
+						out.writeLong(word);
+					}
+				}
+			}
+			// Transitions and rewards
+			if (sparse != null) {
+				sparse.writeTo(out);
+			}
+			if (preRews != null) {
+				preRews.writeTo(out);
+			}
+		} catch (IOException e) {
+			tmpFile.delete();
+			throw new PrismException("Could not write checkpoint file \"" + file + "\": " + e.getMessage());
+		} catch (PrismException e) {
+			tmpFile.delete();
+			throw e;
+		}
+		try {
+			try {
+				Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			throw new PrismException("Could not write checkpoint file \"" + file + "\": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Read a checkpoint for a model construction, restoring the states found so far into {@code states}
+	 * (which should be empty), those still to be explored into {@code explore} (if non-null),
+	 * and the transitions, labels and rewards into {@code sparse}, {@code labelBits} and {@code preRews}
+	 * (each of which should be null if and only if it was null when the checkpoint was written).
+	 * The symmetry reduction parameters {@code symmetryParams} and the independent modules
+	 * used for partial-order reduction {@code porModules} (null if none) must also match.
+	 * Returns the number of states already explored.
+	 */
+	public static int read(File file, ModelGenerator<?> modelGen, VarList varList, StateStorage<State> states, List<State> explore, SparseModelBuilder sparse, BitSet labelBits[], PrecomputedRewards preRews, String symmetryParams, BitSet porModules) throws PrismException
+	{
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE))) {
+			byte magic[] = new byte[MAGIC.length];
+			in.readFully(magic);
+			if (!Arrays.equals(magic, MAGIC)) {
+				throw new PrismException("File \"" + file + "\" is not a model construction checkpoint");
+			}
+			int version = in.readInt();
+			if (version != VERSION) {
+				throw new PrismException("Unsupported version " + version + " of checkpoint file \"" + file + "\"");
+			}
+			byte desc[] = new byte[in.readInt()];
+			in.readFully(desc);
+			if (!new String(desc, StandardCharsets.UTF_8).equals(describe(modelGen, varList, sparse, labelBits, preRews, symmetryParams, porModules))) {
+				throw new PrismException("Checkpoint file \"" + file + "\" does not match the model being built");
+			}
+			// States
+			int numStates = in.readInt();
+			int numExplored = in.readInt();
+			int numVars = varList.getNumVars();
+			boolean isBool[] = new boolean[numVars];
+			for (int v = 0; v < numVars; v++) {
+				isBool[v] = varList.getType(v) instanceof TypeBool;
+			}
+			for (int s = 0; s < numStates; s++) {
+				State state = new State(numVars);
+				for (int v = 0; v < numVars; v++) {
+					int val = in.readInt();
+					state.varValues[v] = isBool[v] ? (Object) (val != 0) : (Object) val;
+				}
+				states.add(state);
+				if (explore != null && s >= numExplored) {
+					explore.add(state);
+				}
+			}
+			// Labels
+			if (labelBits != null) {
+				for (int j = 0; j < labelBits.length; j++) {
+					long words[] = new long[in.readInt()];
+					for (int k = 0; k < words.length; k++) {
+						words[k] = in.readLong();
+					}
+					labelBits[j] = BitSet.valueOf(words);
+				}
+			}
+			// Transitions and rewards
+			if (sparse != null) {
+				sparse.readFrom(in);
+			}
+			if (preRews != null) {
+				preRews.readFrom(in);
+			}
+			return numExplored;
+		} catch (IOException e) {
+			throw new PrismException("Could not read checkpoint file \"" + file + "\": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Describe the model being built (and what is being stored), to check that a checkpoint matches.
+	 */
+	private static String describe(ModelGenerator<?> modelGen, VarList varList, SparseModelBuilder sparse, BitSet labelBits[], PrecomputedRewards preRews, String symmetryParams, BitSet porModules)
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append(modelGen.getModelType()).append(';');
+		for (int v = 0; v < varList.getNumVars(); v++) {
+			sb.append(varList.getName(v)).append(':').append(varList.getType(v)).append(',');
+		}
+		sb.append(';').append(modelGen.getConstantValues()).append(';');
+		sb.append(sparse != null).append(';').append(labelBits == null ? 0 : labelBits.length).append(';');
+		sb.append(preRews == null ? -1 : preRews.getNumRewardStructs()).append(';');
+		// States are canonicalised under symmetry reduction
+		sb.append(symmetryParams == null ? "" : symmetryParams).append(';');
+		// Only a subset of the choices of states is explored under partial-order reduction
+		sb.append(porModules == null ? "" : porModules);
+		return sb.toString();
+	}
+
+	// Utility methods for writing/reading arrays
+
+	/**
+	 * Write the first {@code n} elements of an int array.
+	 */
+	public static void writeInts(DataOutput out, int arr[], int n) throws IOException
+	{
+		out.writeInt(n);
+		ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+		for (int i = 0; i < n;) {
+			int m = Math.min(n - i, BUFFER_SIZE / Integer.BYTES);
+			buf.clear();
+			buf.asIntBuffer().put(arr, i, m);
+			out.write(buf.array(), 0, m * Integer.BYTES);
+			i += m;
+		}
+	}
+
+	/**
+	 * Read an int array written by {@link #writeInts(DataOutput, int[], int)},
+	 * into an array of length at least {@code minLength}.
+	 */
+	public static int[] readInts(DataInput in, int minLength) throws IOException
+	{
+		int n = readLength(in);
+		int arr[] = new int[Math.max(n, minLength)];
+		ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+		for (int i = 0; i < n;) {
+			int m = Math.min(n - i, BUFFER_SIZE / Integer.BYTES);
+			in.readFully(buf.array(), 0, m * Integer.BYTES);
+			buf.clear();
+			buf.asIntBuffer().get(arr, i, m);
+			i += m;
+		}
+		return arr;
+	}
+
+	/**
+	 * Write the first {@code n} elements of a double array.
+	 */
+	public static void writeDoubles(DataOutput out, double arr[], int n) throws IOException
+	{
+		out.writeInt(n);
+		ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+		for (int i = 0; i < n;) {
+			int m = Math.min(n - i, BUFFER_SIZE / Double.BYTES);
+			buf.clear();
+			buf.asDoubleBuffer().put(arr, i, m);
+			out.write(buf.array(), 0, m * Double.BYTES);
+			i += m;
+		}
+	}
+
+	/**
+	 * Read a double array written by {@link #writeDoubles(DataOutput, double[], int)},
+	 * into an array of length at least {@code minLength}.
+	 */
+	public static double[] readDoubles(DataInput in, int minLength) throws IOException
+	{
+		int n = readLength(in);
+		double arr[] = new double[Math.max(n, minLength)];
+		ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+		for (int i = 0; i < n;) {
+			int m = Math.min(n - i, BUFFER_SIZE / Double.BYTES);
+			in.readFully(buf.array(), 0, m * Double.BYTES);
+			buf.clear();
+			buf.asDoubleBuffer().get(arr, i, m);
+			i += m;
+		}
+		return arr;
+	}
+
+	/**
+	 * Write the first {@code n} elements of an array of action labels,
+	 * which must be strings (or null), as a table of distinct strings and an index for each element.
+	 */
+	public static void writeActions(DataOutput out, Object arr[], int n) throws IOException, PrismException
+	{
+		Map<String, Integer> indices = new HashMap<>();
+		List<String> names = new ArrayList<>();
+		int idx[] = new int[n];
+		for (int i = 0; i < n; i++) {
+			if (arr[i] == null) {
+				idx[i] = -1;
+			} else if (arr[i] instanceof String) {
+				idx[i] = indices.computeIfAbsent((String) arr[i], a -> {
+					names.add(a);
+					return names.size() - 1;
+				});
+			} else {
+				throw new PrismNotSupportedException("Checkpoints only support string action labels");
+			}
+		}
+		out.writeInt(names.size());
+		for (String name : names) {
+			out.writeUTF(name);
+		}
+		writeInts(out, idx, n);
+	}
+
+	/**
+	 * Read an array of action labels written by {@link #writeActions(DataOutput, Object[], int)},
+	 * into an array of length at least {@code minLength}.
+	 */
+	public static Object[] readActions(DataInput in, int minLength) throws IOException
+	{
+		String names[] = new String[readLength(in)];
+		for (int a = 0; a < names.length; a++) {
+			names[a] = in.readUTF();
+		}
+		int idx[] = readInts(in, 0);
+		Object arr[] = new Object[Math.max(idx.length, minLength)];
+		for (int i = 0; i < idx.length; i++) {
+			arr[i] = idx[i] == -1 ? null : names[idx[i]];
+		}
+		return arr;
+	}
+
+	private static int readLength(DataInput in) throws IOException
+	{
+		int n = in.readInt();
+		if (n < 0) {
+			throw new IOException("invalid array length " + n);
+		}
+		return n;
+	}
+}
@@ -556,6 +556,14 @@ public class DTMCModelChecker extends ProbModelChecker
 		case BACKWARDS_GAUSS_SEIDEL:
 		case JACOBI:
 			break; // supported
+		case GMRES:
+		case BICGSTAB:
+			// supported, but only if the equation system is non-singular (and not for interval iteration)
+			if (doIntervalIteration || !precomp || !prob0) {
+				linEqMethod = LinEqMethod.GAUSS_SEIDEL;
+				mainLog.printWarning("Switching to linear equation solution method \"" + linEqMethod.fullName() + "\"");
+			}
+			break;
 		default:
 			linEqMethod = LinEqMethod.GAUSS_SEIDEL;
 			mainLog.printWarning("Switching to linear equation solution method \"" + linEqMethod.fullName() + "\"");
@@ -565,6 +573,14 @@ public class DTMCModelChecker extends ProbModelChecker
 			throw new PrismNotSupportedException("Interval iteration requires precomputations to be active");
 		}
 
+		// Warm start from a previous solution for the same property, if available
+		// (only with Prob0 precomputation, which makes the solution the unique fixed point)
+		String warmStartKey = null;
+		if (warmStartCache != null && init == null && known == null && precomp && prob0) {
+			warmStartKey = warmStartCache.nextKey("reach");
+			lastIntervalIterationBounds = null;
+		}
+
 		// Start probabilistic reachability
 		timer = System.currentTimeMillis();
 		mainLog.println("\nStarting probabilistic reachability...");
@@ -639,10 +655,10 @@ public class DTMCModelChecker extends ProbModelChecker
 			IterationMethod iterationMethod = null;
 			switch (linEqMethod) {
 			case POWER:
-				iterationMethod = new IterationMethodPower(termCritAbsolute, termCritParam);
+				iterationMethod = createIterationMethodPower();
 				break;
 			case JACOBI:
-				iterationMethod = new IterationMethodJacobi(termCritAbsolute, termCritParam);
+				iterationMethod = createIterationMethodJacobi();
 				break;
 			case GAUSS_SEIDEL:
 			case BACKWARDS_GAUSS_SEIDEL: {
@@ -650,11 +666,22 @@ public class DTMCModelChecker extends ProbModelChecker
 				iterationMethod = new IterationMethodGS(termCritAbsolute, termCritParam, backwards);
 				break;
 			}
+			case GMRES:
+			case BICGSTAB:
+				break;
 			default:
 				throw new PrismException("Unknown linear equation solution method " + linEqMethod.fullName());
 			}
-			if (doIntervalIteration) {
-				res = doIntervalIterationReachProbs(dtmc, no, yes, init, known, iterationMethod, getDoTopologicalValueIteration());
+			WarmStartCache.Bounds warmStartPrev = warmStartKey == null ? null : warmStartCache.get(warmStartKey, dtmc);
+			WarmStartCache.Bounds warmStart = warmStartPrev == null ? null : getWarmStartBounds(dtmc, warmStartPrev, no, yes);
+			if (warmStart != null && !doIntervalIteration) {
+				// Iterate from the lower bound if there is one, otherwise from the upper one
+				init = warmStart.below != null ? warmStart.below : warmStart.above;
+			}
+			if (iterationMethod == null) {
+				res = doKrylovReachProbs(dtmc, no, yes, init, known, linEqMethod);
+			} else if (doIntervalIteration) {
+				res = doIntervalIterationReachProbs(dtmc, no, yes, init, known, iterationMethod, getDoTopologicalValueIteration(), warmStart);
 			} else {
 				res = doValueIterationReachProbs(dtmc, no, yes, init, known, iterationMethod, getDoTopologicalValueIteration());
 			}
@@ -668,6 +695,11 @@ public class DTMCModelChecker extends ProbModelChecker
 		timer = System.currentTimeMillis() - timer;
 		mainLog.println("Probabilistic reachability took " + timer / 1000.0 + " seconds.");
 
+		if (warmStartKey != null) {
+			warmStartCache.put(warmStartKey, dtmc, res.soln, lastIntervalIterationBounds);
+			lastIntervalIterationBounds = null;
+		}
+
 		// Update time taken
 		res.timeTaken = timer / 1000.0;
 		res.timeProb0 = timerProb0 / 1000.0;
@@ -676,6 +708,26 @@ public class DTMCModelChecker extends ProbModelChecker
 		return res;
 	}
 
+	/**
+	 * Get bounds on reachability probabilities from previous lower/upper vectors {@code prev}
+	 * (from the warm-start cache), or null if none can be certified.
+	 * The solution must be the unique fixed point (e.g. thanks to Prob0 precomputation).
+	 * @param dtmc The DTMC
+	 * @param prev The previous vectors
+	 * @param no Probability 0 states
+	 * @param yes Probability 1 states
+	 */
+	protected WarmStartCache.Bounds getWarmStartBounds(DTMC<Double> dtmc, WarmStartCache.Bounds prev, BitSet no, BitSet yes)
+	{
+		BitSet unknown = new BitSet();
+		unknown.set(0, dtmc.getNumStates());
+		unknown.andNot(yes);
+		unknown.andNot(no);
+		WarmStartCache.Bounds bounds = WarmStartCache.bounds(prev, yes, no, unknown, dtmc::mvMultSingle);
+		mainLog.println("Warm start: previous solution gives " + WarmStartCache.describe(bounds));
+		return bounds.isEmpty() ? null : bounds;
+	}
+
 
 	/**
 	 * Prob0 precomputation algorithm (using predecessor relation),
@@ -998,6 +1050,12 @@ public class DTMCModelChecker extends ProbModelChecker
 		if (known != null)
 			unknown.andNot(known);
 
+		// For mixed precision, start from a single-precision solution
+		// (the solution is unique after Prob0 precomputation)
+		if (mixedPrecision && precomp && prob0) {
+			doMixedPrecisionIteration(MixedPrecisionIteration.forDTMC(dtmc, IntSet.asIntSet(unknown)), init, false);
+		}
+
 		IterationMethod.IterationValIter iterationReachProbs = iterationMethod.forMvMult(dtmc);
 		iterationReachProbs.init(init);
 
@@ -1024,6 +1082,98 @@ public class DTMCModelChecker extends ProbModelChecker
 	}
 
 
+	/**
+	 * Compute reachability probabilities by solving the linear equation system
+	 * with a Krylov subspace method (GMRES or BiCGStab), see {@link KrylovSolver}.
+	 * The system is only non-singular if {@code no} contains all states with probability 0.
+	 * @param dtmc The DTMC
+	 * @param no Probability 0 states
+	 * @param yes Probability 1 states
+	 * @param init Optionally, an initial solution vector (will be overwritten)
+	 * @param known Optionally, a set of states for which the exact answer is known
+	 * @param linEqMethod The method ({@code GMRES} or {@code BICGSTAB})
+	 * Note: if 'known' is specified (i.e. is non-null), 'init' must also be given and is used for the exact values.
+	 */
+	protected ModelCheckerResult doKrylovReachProbs(DTMC<Double> dtmc, BitSet no, BitSet yes, double init[], BitSet known, LinEqMethod linEqMethod) throws PrismException
+	{
+		int n = dtmc.getNumStates();
+
+		// Initialise solution vector, as for value iteration (from below)
+		if (init == null) {
+			init = new double[n];
+		}
+		for (int i = 0; i < n; i++) {
+			if (known == null || !known.get(i)) {
+				init[i] = yes.get(i) ? 1.0 : no.get(i) ? 0.0 : init[i];
+			}
+		}
+
+		// Determine set of states actually need to compute values for
+		BitSet unknown = new BitSet();
+		unknown.set(0, n);
+		unknown.andNot(yes);
+		unknown.andNot(no);
+		if (known != null)
+			unknown.andNot(known);
+
+		return doKrylovSolve(KrylovSolver.forReachProbs(dtmc, unknown, init), unknown, init, linEqMethod);
+	}
+
+	/**
+	 * Solve a linear equation system with a Krylov subspace method (GMRES or BiCGStab),
+	 * whose variables are the states in {@code states} (in ascending order),
+	 * starting from and storing the solution in the corresponding entries of {@code soln}.
+	 */
+	protected ModelCheckerResult doKrylovSolve(KrylovSolver solver, BitSet states, double soln[], LinEqMethod linEqMethod) throws PrismException
+	{
+		String description = linEqMethod.fullName() + ", " + (krylovPreconditioner == KrylovSolver.Preconditioner.NONE ? "no" : krylovPreconditioner.fullName()) + " preconditioner";
+		mainLog.println("Starting linear equation solution (" + description + ")...");
+		StopWatch watch = new StopWatch(mainLog).start();
+
+		solver.setPreconditioner(krylovPreconditioner);
+		double[] x = new double[solver.getNumVariables()];
+		int i = 0;
+		for (int s = states.nextSetBit(0); s >= 0; s = states.nextSetBit(s + 1)) {
+			x[i++] = soln[s];
+		}
+		boolean absolute = termCrit == TermCrit.ABSOLUTE;
+		boolean done;
+		if (linEqMethod == LinEqMethod.GMRES) {
+			done = solver.solveGMRES(x, termCritParam, absolute, maxIters);
+		} else {
+			done = solver.solveBiCGStab(x, termCritParam, absolute, maxIters);
+		}
+		i = 0;
+		for (int s = states.nextSetBit(0); s >= 0; s = states.nextSetBit(s + 1)) {
+			soln[s] = x[i++];
+		}
+
+		// Finished linear equation solution
+		watch.stop();
+		int iters = solver.getNumIters();
+		mainLog.print("Linear equation solution (" + description + ")");
+		mainLog.print(" took " + iters + " iterations");
+		mainLog.println(" and " + watch.elapsedSeconds() + " seconds.");
+
+		// Non-convergence is an error (usually)
+		if (!done && errorOnNonConverge) {
+			String msg = "Iterative method did not converge within " + iters + " iterations.";
+			msg += "\nConsider using a different numerical method or increasing the maximum number of iterations";
+			throw new PrismException(msg);
+		}
+
+		// Return results
+		ModelCheckerResult res = new ModelCheckerResult();
+		res.soln = soln;
+		// (the final residual, i.e., max-norm of b - Ax, is in absolute terms, also for a relative check;
+		// like the difference between iterations for value iteration, it is only an estimate of the error,
+		// not a bound: the error can be larger, by up to the norm of the inverse of the matrix)
+		res.accuracy = AccuracyFactory.valueIteration(termCritParam, solver.getResidual(), true);
+		res.numIters = iters;
+		res.timeTaken = watch.elapsedSeconds();
+		return res;
+	}
+
 	/**
 	 * Compute reachability probabilities using value iteration.
 	 * @param dtmc The DTMC
@@ -1035,7 +1185,7 @@ public class DTMCModelChecker extends ProbModelChecker
 	 */
 	protected ModelCheckerResult computeReachProbsValIter(DTMC<Double> dtmc, BitSet no, BitSet yes, double init[], BitSet known) throws PrismException
 	{
-		IterationMethodPower iterationMethod = new IterationMethodPower(termCrit == TermCrit.ABSOLUTE, termCritParam);
+		IterationMethod iterationMethod = createIterationMethodPower();
 		return doValueIterationReachProbs(dtmc, no, yes, init, known, iterationMethod, false);
 	}
 
@@ -1080,16 +1230,28 @@ public class DTMCModelChecker extends ProbModelChecker
 	 * @param topological do topological interval iteration?
 	 */
 	protected ModelCheckerResult doIntervalIterationReachProbs(DTMC<Double> dtmc, BitSet no, BitSet yes, double init[], BitSet known, IterationMethod iterationMethod, boolean topological) throws PrismException
+	{
+		return doIntervalIterationReachProbs(dtmc, no, yes, init, known, iterationMethod, topological, null);
+	}
+
+	/**
+	 * Compute reachability probabilities using interval iteration,
+	 * optionally starting from (certified) bounds {@code warmStart} for the unknown states.
+	 * See {@link #doIntervalIterationReachProbs(DTMC, BitSet, BitSet, double[], BitSet, IterationMethod, boolean)}.
+	 */
+	protected ModelCheckerResult doIntervalIterationReachProbs(DTMC<Double> dtmc, BitSet no, BitSet yes, double init[], BitSet known, IterationMethod iterationMethod, boolean topological, WarmStartCache.Bounds warmStart) throws PrismException
 	{
 		BitSet unknown;
 		int i, n;
 		double initBelow[], initAbove[];
 		long timer;
 
+		OptionsIntervalIteration iiOptions = OptionsIntervalIteration.from(this);
+
 		// Start value iteration
 		timer = System.currentTimeMillis();
 		String description = (topological ? "topological, " : "" ) + "with " + iterationMethod.getDescriptionShort();
-		mainLog.println("Starting interval iteration (" + description + ")...");
+		mainLog.println("Starting " + (iiOptions.isOptimistic() ? "optimistic value" : iiOptions.isSound() ? "sound value" : "interval") + " iteration (" + description + ")...");
 
 		ExportIterations iterationsExport = null;
 		if (settings.getBoolean(PrismSettings.PRISM_EXPORT_ITERATIONS)) {
@@ -1127,6 +1289,16 @@ public class DTMCModelChecker extends ProbModelChecker
 		if (known != null)
 			unknown.andNot(known);
 
+		// Start from warm-start bounds, where available
+		if (warmStart != null) {
+			for (i = unknown.nextSetBit(0); i >= 0; i = unknown.nextSetBit(i + 1)) {
+				if (warmStart.below != null)
+					initBelow[i] = warmStart.below[i];
+				if (warmStart.above != null)
+					initAbove[i] = warmStart.above[i];
+			}
+		}
+
 		if (iterationsExport != null) {
 			iterationsExport.exportVector(initBelow, 0);
 			iterationsExport.exportVector(initAbove, 1);
@@ -1134,8 +1306,6 @@ public class DTMCModelChecker extends ProbModelChecker
 
 		IntSet unknownStates = IntSet.asIntSet(unknown);
 
-		OptionsIntervalIteration iiOptions = OptionsIntervalIteration.from(this);
-
 		final boolean enforceMonotonicFromBelow = iiOptions.isEnforceMonotonicityFromBelow();
 		final boolean enforceMonotonicFromAbove = iiOptions.isEnforceMonotonicityFromAbove();
 		final boolean checkMonotonic = iiOptions.isCheckMonotonicity();
@@ -1148,7 +1318,7 @@ public class DTMCModelChecker extends ProbModelChecker
 		}
 
 		IterationMethod.IterationIntervalIter below = iterationMethod.forMvMultInterval(dtmc, true, enforceMonotonicFromBelow, checkMonotonic);
-		IterationMethod.IterationIntervalIter above = iterationMethod.forMvMultInterval(dtmc, false, enforceMonotonicFromAbove, checkMonotonic);
+		IterationMethod.IterationIntervalIter above = iterationMethod.forMvMultInterval(dtmc, false, enforceMonotonicFromAbove && !iiOptions.isOptimistic(), checkMonotonic && !iiOptions.isOptimistic());
 
 		below.init(initBelow);
 		above.init(initAbove);
@@ -1163,10 +1333,24 @@ public class DTMCModelChecker extends ProbModelChecker
 			};
 
 			// run the actual value iteration
-			return iterationMethod.doTopologicalIntervalIteration(this, description, sccs, below, above, singletonSCCSolver, timer, iterationsExport);
+			if (iiOptions.isOptimistic()) {
+				return iterationMethod.doTopologicalOptimisticValueIteration(this, description, sccs, below, above, singletonSCCSolver, timer, iterationsExport);
+			} else if (iiOptions.isSound()) {
+				SoundValueIteration svi = SoundValueIteration.forDTMC(dtmc, null, unknown);
+				return iterationMethod.doTopologicalSoundValueIteration(this, description, sccs, svi, below, above, singletonSCCSolver, timer, iterationsExport);
+			} else {
+				return iterationMethod.doTopologicalIntervalIteration(this, description, sccs, below, above, singletonSCCSolver, timer, iterationsExport);
+			}
 		} else {
 			// run the actual value iteration
-			return iterationMethod.doIntervalIteration(this, description, below, above, unknownStates, timer, iterationsExport);
+			if (iiOptions.isOptimistic()) {
+				return iterationMethod.doOptimisticValueIteration(this, description, below, above, unknownStates, timer, iterationsExport);
+			} else if (iiOptions.isSound()) {
+				SoundValueIteration svi = SoundValueIteration.forDTMC(dtmc, null, unknown);
+				return iterationMethod.doSoundValueIteration(this, description, svi, below, above, unknownStates, timer, iterationsExport);
+			} else {
+				return iterationMethod.doIntervalIteration(this, description, below, above, unknownStates, timer, iterationsExport);
+			}
 		}
 
 	}
@@ -1249,13 +1433,25 @@ public class DTMCModelChecker extends ProbModelChecker
 		if (remain != null)
 			unknown.and(remain);
 
+		// If requested, multiply in parallel
+		IterationMethodParallel parallel = null;
+		int[] unknownRows = null;
+		if (solveThreads > 1 && IterationMethodParallel.isSupported(dtmc)) {
+			parallel = new IterationMethodParallel(termCrit == TermCrit.ABSOLUTE, termCritParam, false, solveThreads);
+			unknownRows = unknown.stream().toArray();
+		}
+
 		// Start iterations
 		iters = 0;
 		while (iters < k) {
 
 			iters++;
 			// Matrix-vector multiply
-			dtmc.mvMult(soln, soln2, unknown, false);
+			if (parallel != null) {
+				parallel.mvMult(dtmc, soln, soln2, unknownRows);
+			} else {
+				dtmc.mvMult(soln, soln2, unknown, false);
+			}
 			// Store intermediate results if required
 			// (compute min/max value over initial states for this step)
 			if (results != null) {
@@ -1751,10 +1947,10 @@ public class DTMCModelChecker extends ProbModelChecker
 			IterationMethod iterationMethod;
 			switch (linEqMethod) {
 			case POWER:
-				iterationMethod = new IterationMethodPower(termCritAbsolute, termCritParam);
+				iterationMethod = createIterationMethodPower();
 				break;
 			case JACOBI:
-				iterationMethod = new IterationMethodJacobi(termCritAbsolute, termCritParam);
+				iterationMethod = createIterationMethodJacobi();
 				break;
 			case GAUSS_SEIDEL:
 			case BACKWARDS_GAUSS_SEIDEL: {
@@ -2025,7 +2221,7 @@ public class DTMCModelChecker extends ProbModelChecker
 		// Start value iteration
 		timer = System.currentTimeMillis();
 		String description = (topological ? "topological, " : "" ) + "with " + iterationMethod.getDescriptionShort();
-		mainLog.println("Starting interval iteration (" + description + ") ...");
+		mainLog.println("Starting " + (iiOptions.isOptimistic() ? "optimistic value" : iiOptions.isSound() ? "sound value" : "interval") + " iteration (" + description + ") ...");
 
 		ExportIterations iterationsExport = null;
 		if (settings.getBoolean(PrismSettings.PRISM_EXPORT_ITERATIONS)) {
@@ -2077,7 +2273,7 @@ public class DTMCModelChecker extends ProbModelChecker
 		}
 
 		IterationMethod.IterationIntervalIter below = iterationMethod.forMvMultRewInterval(dtmc, mcRewards, true, enforceMonotonicFromBelow, checkMonotonic);
-		IterationMethod.IterationIntervalIter above = iterationMethod.forMvMultRewInterval(dtmc, mcRewards, false, enforceMonotonicFromAbove, checkMonotonic);
+		IterationMethod.IterationIntervalIter above = iterationMethod.forMvMultRewInterval(dtmc, mcRewards, false, enforceMonotonicFromAbove && !iiOptions.isOptimistic(), checkMonotonic && !iiOptions.isOptimistic());
 
 		below.init(init_below);
 		above.init(init_above);
@@ -2093,10 +2289,24 @@ public class DTMCModelChecker extends ProbModelChecker
 			};
 
 			// run the actual value iteration
-			rv = iterationMethod.doTopologicalIntervalIteration(this, description, sccs, below, above, singletonSCCSolver, timer, iterationsExport);
+			if (iiOptions.isOptimistic()) {
+				rv = iterationMethod.doTopologicalOptimisticValueIteration(this, description, sccs, below, above, singletonSCCSolver, timer, iterationsExport);
+			} else if (iiOptions.isSound()) {
+				SoundValueIteration svi = SoundValueIteration.forDTMC(dtmc, mcRewards, unknown);
+				rv = iterationMethod.doTopologicalSoundValueIteration(this, description, sccs, svi, below, above, singletonSCCSolver, timer, iterationsExport);
+			} else {
+				rv = iterationMethod.doTopologicalIntervalIteration(this, description, sccs, below, above, singletonSCCSolver, timer, iterationsExport);
+			}
 		} else {
 			// run the actual value iteration
-			rv = iterationMethod.doIntervalIteration(this, description, below, above, unknownStates, timer, iterationsExport);
+			if (iiOptions.isOptimistic()) {
+				rv = iterationMethod.doOptimisticValueIteration(this, description, below, above, unknownStates, timer, iterationsExport);
+			} else if (iiOptions.isSound()) {
+				SoundValueIteration svi = SoundValueIteration.forDTMC(dtmc, mcRewards, unknown);
+				rv = iterationMethod.doSoundValueIteration(this, description, svi, below, above, unknownStates, timer, iterationsExport);
+			} else {
+				rv = iterationMethod.doIntervalIteration(this, description, below, above, unknownStates, timer, iterationsExport);
+			}
 		}
 
 		double max_v = PrismUtils.findMaxFinite(rv.soln, unknownStates.iterator());
@@ -2406,6 +2616,9 @@ public class DTMCModelChecker extends ProbModelChecker
 		if (dtmc.getModelType() != ModelType.DTMC) {
 			throw new PrismNotSupportedException("Explicit engine currently does not support steady-state computation for " + dtmc.getModelType());
 		}
+		if ((linEqMethod == LinEqMethod.GMRES || linEqMethod == LinEqMethod.BICGSTAB) && states.cardinality() > 1) {
+			return computeSteadyStateProbsForBSCCKrylov(dtmc, states, result, bsccPostProcessor);
+		}
 		IterableBitSet bscc = new IterableBitSet(states);
 
 		// Start value iteration
@@ -2543,6 +2756,37 @@ public class DTMCModelChecker extends ProbModelChecker
 		return res;
 	}
 
+	/**
+	 * Compute steady-state probabilities for a BSCC (with at least two states)
+	 * by solving the linear equation system with a Krylov subspace method (GMRES or BiCGStab),
+	 * see {@link #computeSteadyStateProbsForBSCC(DTMC, BitSet, double[], BSCCPostProcessor)}.
+	 * The equation for the first state of the BSCC is dropped and its (unnormalised)
+	 * value fixed to 1, which makes the system non-singular; the solution is then normalised.
+	 */
+	protected ModelCheckerResult computeSteadyStateProbsForBSCCKrylov(DTMC<Double> dtmc, BitSet states, double result[], BSCCPostProcessor bsccPostProcessor) throws PrismException
+	{
+		double[] soln = result == null ? new double[dtmc.getNumStates()] : result;
+		int fixed = states.nextSetBit(0);
+		BitSet others = (BitSet) states.clone();
+		others.clear(fixed);
+
+		// Start from an equiprobable distribution (up to scaling)
+		for (int s = states.nextSetBit(0); s >= 0; s = states.nextSetBit(s + 1)) {
+			soln[s] = 1.0;
+		}
+		ModelCheckerResult res = doKrylovSolve(KrylovSolver.forSteadyState(dtmc, states, fixed), others, soln, linEqMethod);
+
+		// normalise solution
+		PrismUtils.normalise(soln, new IterableBitSet(states));
+
+		// Apply post processing on soln
+		if (bsccPostProcessor != null) {
+			bsccPostProcessor.apply(soln, states);
+		}
+
+		return res;
+	}
+
 	/**
 	 * Compute transient probabilities
 	 * i.e. compute the probability of being in each state at time step {@code k},
@@ -53,11 +53,11 @@ public class DTMCSparse extends DTMCExplicit<Double>
 	// Sparse matrix storing transition function (Steps)
 	/** Indices into probabilities/columns giving the start of the transitions for each state (distribution);
 	 * array is of size numStates+1 and last entry is always equal to getNumTransitions() */
-	private int rows[];
+	protected int rows[];
 	/** Column (destination) indices for each transition (array of size numTransitions) */
-	private int columns[];
+	protected int columns[];
 	/** Probabilities for each transition (array of size numTransitions) */
-	private double probabilities[];
+	protected double probabilities[];
 
 	public DTMCSparse(final DTMC<Double> dtmc) {
 		initialise(dtmc.getNumStates());
@@ -95,6 +95,22 @@ public class DTMCSparse extends DTMCExplicit<Double>
 		predecessorRelation = dtmc.hasStoredPredecessorRelation() ? dtmc.getPredecessorRelation(null, false) : null;
 	}
 
+	/**
+	 * Constructor: Build new DTMCSparse directly from a sparse matrix
+	 * (the arrays are stored, not copied; see the fields of this class for their format).
+	 * Initial states, deadlocks and other model info should be set separately.
+	 * @param numStates Number of states
+	 * @param rows Start of the transitions for each state (array of size numStates+1)
+	 * @param columns Destination of each transition
+	 * @param probabilities Probability of each transition
+	 */
+	public DTMCSparse(int numStates, int[] rows, int[] columns, double[] probabilities) {
+		initialise(numStates);
+		this.rows = rows;
+		this.columns = columns;
+		this.probabilities = probabilities;
+	}
+
 	public DTMCSparse(final DTMC<Double> dtmc, int[] permut) {
 		initialise(dtmc.getNumStates());
 		for (Integer state : dtmc.getDeadlockStates()) {
@@ -308,13 +324,7 @@ public class DTMCSparse extends DTMCExplicit<Double>
 	@Override
 	public double mvMultSingle(final int state, final double[] vect)
 	{
-		double d = 0.0;
-		for (int i=rows[state], stop=rows[state+1]; i < stop; i++) {
-			final int target = columns[i];
-			final double probability = probabilities[i];
-			d += probability * vect[target];
-		}
-		return d;
+		return SparseRowKernels.dot(0.0, probabilities, columns, vect, rows[state], rows[state+1]);
 	}
 
 	@Override
@@ -340,13 +350,7 @@ public class DTMCSparse extends DTMCExplicit<Double>
 	@Override
 	public double mvMultRewSingle(final int state, final double[] vect, final MCRewards<Double> mcRewards)
 	{
-		double d = mcRewards.getStateReward(state);
-		for (int i=rows[state], stop=rows[state+1]; i < stop; i++) {
-			final int target = columns[i];
-			final double probability = probabilities[i];
-			d += probability * vect[target];
-		}
-		return d;
+		return SparseRowKernels.dot(mcRewards.getStateReward(state), probabilities, columns, vect, rows[state], rows[state+1]);
 	}
 
 	@Override
@@ -426,6 +430,20 @@ public class DTMCSparse extends DTMCExplicit<Double>
 		return s + " ]";
 	}
 
+	/**
+	 * Replace the transition probabilities of this DTMC, in place, with those of {@code dtmc},
+	 * which must have exactly the same transition structure (rows and successor states).
+	 * If not, false is returned and this DTMC is left unchanged.
+	 */
+	public boolean copyProbabilitiesFrom(DTMCSparse dtmc)
+	{
+		if (numStates != dtmc.numStates || !Arrays.equals(rows, dtmc.rows) || !Arrays.equals(columns, dtmc.columns)) {
+			return false;
+		}
+		System.arraycopy(dtmc.probabilities, 0, probabilities, 0, probabilities.length);
+		return true;
+	}
+
 	@Override
 	public boolean equals(Object o)
 	{
@@ -52,6 +52,8 @@ public class ExplicitFiles2Model extends PrismComponent
 {
 	// Should deadlocks be fixed (by adding a self-loop) when detected?
 	private boolean fixdl;
+	// Number of threads used to parse files
+	private int numThreads = 1;
 	
 	/** Constructor */
 	public ExplicitFiles2Model(PrismComponent parent)
@@ -59,6 +61,7 @@ public class ExplicitFiles2Model extends PrismComponent
 		super(parent);
 		if (settings != null) {
 			setFixDeadlocks(settings.getBoolean(PrismSettings.PRISM_FIX_DEADLOCKS));
+			setNumThreads(settings.getInteger(PrismSettings.PRISM_IMPORT_THREADS));
 		}
 	}
 
@@ -77,11 +80,21 @@ public class ExplicitFiles2Model extends PrismComponent
 	{
 		this.fixdl = fixdl;
 	}
+
+	/**
+	 * Set the number of threads used to parse files (DTMCs and MDPs only).
+	 */
+	public void setNumThreads(int numThreads)
+	{
+		this.numThreads = numThreads;
+	}
 	
 	/**
 	 * Build a Model corresponding to the passed in states/transitions/labels files.
 	 * Variable info and model type is taken from a {@code ModelInfo} object.
 	 * The number of states should also be passed in as {@code numStates}.
+	 * DTMCs and MDPs are parsed (in parallel) straight into a {@link DTMCSparse} / {@link MDPSparse}
+	 * using {@link ExplicitFilesParser}.
 	 *
 	 * @param statesFile .sta file (optional, may be {@code null})
 	 * @param transFile .tra file
@@ -93,11 +106,14 @@ public class ExplicitFiles2Model extends PrismComponent
 	public Model<?> build(File statesFile, File transFile, File labelsFile, ModelInfo modelInfo, int numStates) throws PrismException
 	{
 		ModelExplicit<?> model = null;
+		ExplicitFilesParser parser = new ExplicitFilesParser(numThreads);
+		parser.setFixDeadlocks(fixdl);
+		// Deadlocks are found (and fixed) by the parser for DTMCs/MDPs
+		boolean deadlocksFound = false;
 		switch (modelInfo.getModelType()) {
 		case DTMC:
-			DTMCSimple<?> dtmc = new DTMCSimple<>();
-			dtmc.buildFromPrismExplicit(transFile.getAbsolutePath());
-			model = dtmc;
+			model = parser.parseDTMC(transFile);
+			deadlocksFound = true;
 			break;
 		case CTMC:
 			CTMCSimple<?> ctmc = new CTMCSimple<>();
@@ -105,9 +121,8 @@ public class ExplicitFiles2Model extends PrismComponent
 			model = ctmc;
 			break;
 		case MDP:
-			MDPSimple<?> mdp = new MDPSimple<>();
-			mdp.buildFromPrismExplicit(transFile.getAbsolutePath());
-			model = mdp;
+			model = parser.parseMDP(transFile);
+			deadlocksFound = true;
 			break;
 		case IDTMC:
 			IDTMCSimple<?> idtmc = new IDTMCSimple<>();
@@ -146,7 +161,9 @@ public class ExplicitFiles2Model extends PrismComponent
 			throw new PrismException("Imported model has no initial states");
 		}
 
-		model.findDeadlocks(fixdl);
+		if (!deadlocksFound) {
+			model.findDeadlocks(fixdl);
+		}
 		
 		if (statesFile != null) {
 			loadStates(model, statesFile, modelInfo);
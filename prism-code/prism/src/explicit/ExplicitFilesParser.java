@@ -0,0 +1,851 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package explicit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import prism.PrismException;
+
+/**
+ * Parser for (potentially very large) explicit-state files exported by PRISM or other tools,
+ * i.e., transition matrices ({@code .tra}) and state/transition rewards ({@code .srew}/{@code .trew}),
+ * which builds {@link DTMCSparse}/{@link MDPSparse} models directly.
+ * <br><br>
+ * After the header (an optional block of {@code #} comment lines and then one line, e.g. the number of states),
+ * each line of a file is a record comprising a fixed number of non-negative integers (e.g. state/choice indices),
+ * a real number (e.g. a probability) and, optionally, an action label; any further tokens are ignored.
+ * The file is memory-mapped and split, at line boundaries, into chunks which are parsed in parallel,
+ * reading numbers directly from the bytes of the file, without creating a {@code String} for each line.
+ * Transitions are then assembled directly into compressed sparse row (CSR) arrays.
+ */
+public class ExplicitFilesParser
+{
+	/** Default (approximate) size, in bytes, of the chunks that a file is split into */
+	public static final int DEFAULT_CHUNK_SIZE = 1 << 24;
+	/** Powers of ten that are exactly representable as doubles */
+	private static final double POW10[] = new double[23];
+	static {
+		POW10[0] = 1.0;
+		for (int i = 1; i < POW10.length; i++) {
+			POW10[i] = POW10[i - 1] * 10.0;
+		}
+	}
+
+	/** Number of threads used for parsing */
+	protected int numThreads;
+	/** Should deadlocks be fixed (by adding a self-loop) when detected? */
+	protected boolean fixDeadlocks;
+	/** Approximate size, in bytes, of the chunks that a file is split into */
+	protected int chunkSize = DEFAULT_CHUNK_SIZE;
+
+	/**
+	 * Create a parser which uses {@code numThreads} threads.
+	 */
+	public ExplicitFilesParser(int numThreads)
+	{
+		this.numThreads = Math.max(1, numThreads);
+	}
+
+	/**
+	 * Should deadlocks be fixed (by adding a self-loop) when detected?
+	 */
+	public void setFixDeadlocks(boolean fixDeadlocks)
+	{
+		this.fixDeadlocks = fixDeadlocks;
+	}
+
+	/**
+	 * Set the approximate size, in bytes, of the chunks that a file is split into.
+	 */
+	public void setChunkSize(int chunkSize)
+	{
+		this.chunkSize = Math.max(1, chunkSize);
+	}
+
+	/**
+	 * Records parsed from the lines of a file (after its header).
+	 * Record {@code i} comprises integers {@code getInt(0, i)}, {@code getInt(1, i)}, ...,
+	 * value {@code getValue(i)} and, optionally, action {@code getAction(i)}.
+	 */
+	public static class Records
+	{
+		/** First line of the file after any initial comments */
+		protected String header;
+		/** Number of records */
+		protected int numRecords;
+		/** Integer columns */
+		protected int ints[][];
+		/** Value column */
+		protected double values[];
+		/** Index of the action of each record (into actionNames), or -1 if none (null if no actions at all) */
+		protected int actions[];
+		/** Distinct action names */
+		protected List<String> actionNames = new ArrayList<>();
+
+		public String getHeader()
+		{
+			return header;
+		}
+
+		public int getNumRecords()
+		{
+			return numRecords;
+		}
+
+		public int getInt(int col, int i)
+		{
+			return ints[col][i];
+		}
+
+		public double getValue(int i)
+		{
+			return values[i];
+		}
+
+		public String getAction(int i)
+		{
+			return actions == null || actions[i] == -1 ? null : actionNames.get(actions[i]);
+		}
+	}
+
+	/**
+	 * Parse a DTMC from a {@code .tra} file (first line "#states #transitions",
+	 * then one line "source target probability" per transition).
+	 * As for {@link DTMCSimple#buildFromPrismExplicit(String)}, a repeated transition overwrites the previous one.
+	 * Deadlocks are stored (and, optionally, fixed); initial states and labels should be added separately.
+	 */
+	public DTMCSparse parseDTMC(File transFile) throws PrismException
+	{
+		int numStates = parseHeader(transFile, ".tra file", 1)[0];
+		Records recs = parse(transFile, ".tra file", new int[] { numStates, numStates }, false);
+		int src[] = recs.ints[0], dest[] = recs.ints[1];
+		double probs[] = recs.values;
+		int n = recs.numRecords;
+		// Group transitions by source state (keeping file order within a state)
+		int rows[] = new int[numStates + 1];
+		for (int i = 0; i < n; i++) {
+			rows[src[i] + 1]++;
+		}
+		for (int s = 0; s < numStates; s++) {
+			rows[s + 1] += rows[s];
+		}
+		int pos[] = Arrays.copyOf(rows, numStates);
+		int cols[] = new int[n];
+		double vals[] = new double[n];
+		for (int i = 0; i < n; i++) {
+			int k = pos[src[i]]++;
+			cols[k] = dest[i];
+			vals[k] = probs[i];
+		}
+		recs = null;
+		src = dest = null;
+		probs = null;
+		pos = null;
+		// Sort each row by target, keeping the last of any repeated targets and removing zeros;
+		// deadlocks are either stored or replaced by self-loops
+		BitSet deadlocks = new BitSet();
+		int k = 0;
+		int start = rows[0];
+		for (int s = 0; s < numStates; s++) {
+			int end = rows[s + 1];
+			SparseModelBuilder.sortByColumn(cols, vals, start, end);
+			rows[s] = k;
+			for (int i = start; i < end; i++) {
+				if (i + 1 < end && cols[i + 1] == cols[i]) {
+					continue;
+				}
+				if (vals[i] != 0.0) {
+					cols[k] = cols[i];
+					vals[k] = vals[i];
+					k++;
+				}
+			}
+			if (k == rows[s]) {
+				deadlocks.set(s);
+			}
+			start = end;
+		}
+		rows[numStates] = k;
+		if (fixDeadlocks && !deadlocks.isEmpty()) {
+			int numFixed = deadlocks.cardinality();
+			int newCols[] = new int[k + numFixed];
+			double newVals[] = new double[k + numFixed];
+			int shift = numFixed;
+			for (int s = numStates - 1; s >= 0; s--) {
+				int from = rows[s], len = rows[s + 1] - from;
+				rows[s + 1] += shift;
+				if (deadlocks.get(s)) {
+					shift--;
+					newCols[from + shift] = s;
+					newVals[from + shift] = 1.0;
+				} else {
+					System.arraycopy(cols, from, newCols, from + shift, len);
+					System.arraycopy(vals, from, newVals, from + shift, len);
+				}
+			}
+			cols = newCols;
+			vals = newVals;
+		} else if (k < cols.length) {
+			cols = Arrays.copyOf(cols, k);
+			vals = Arrays.copyOf(vals, k);
+		}
+		DTMCSparse dtmc = new DTMCSparse(numStates, rows, cols, vals);
+		for (int s = deadlocks.nextSetBit(0); s >= 0; s = deadlocks.nextSetBit(s + 1)) {
+			dtmc.addDeadlockState(s);
+		}
+		return dtmc;
+	}
+
+	/**
+	 * Parse an MDP from a {@code .tra} file (first line "#states #choices #transitions",
+	 * then one line "source choice target probability [action]" per transition).
+	 * As for {@link MDPSimple#buildFromPrismExplicit(String)}, choices are kept exactly as in the file
+	 * and a repeated transition, an inconsistent action or a gap in the choice indices is an error.
+	 * Deadlocks are stored (and, optionally, fixed); initial states and labels should be added separately.
+	 */
+	public MDPSparse parseMDP(File transFile) throws PrismException
+	{
+		int header[] = parseHeader(transFile, ".tra file", 3);
+		int numStates = header[0];
+		Records recs = parse(transFile, ".tra file", new int[] { numStates, Integer.MAX_VALUE, numStates }, true);
+		int src[] = recs.ints[0], choice[] = recs.ints[1], dest[] = recs.ints[2];
+		double probs[] = recs.values;
+		int n = recs.numRecords;
+		// Count choices per state (up to the largest choice index) and check for gaps
+		int rowStarts[] = new int[numStates + 1];
+		for (int i = 0; i < n; i++) {
+			rowStarts[src[i] + 1] = Math.max(rowStarts[src[i] + 1], choice[i] + 1);
+		}
+		BitSet deadlocks = new BitSet();
+		for (int s = 0; s < numStates; s++) {
+			if (rowStarts[s + 1] == 0) {
+				deadlocks.set(s);
+				if (fixDeadlocks) {
+					rowStarts[s + 1] = 1;
+				}
+			}
+			rowStarts[s + 1] += rowStarts[s];
+			if (rowStarts[s + 1] < 0) {
+				throw new PrismException("Problem in .tra file: too many choices");
+			}
+		}
+		int numChoices = rowStarts[numStates];
+		// Group transitions by choice (keeping file order within a choice)
+		int choiceStarts[] = new int[numChoices + 1];
+		for (int i = 0; i < n; i++) {
+			if (probs[i] != 0.0) {
+				choiceStarts[rowStarts[src[i]] + choice[i] + 1]++;
+			}
+		}
+		for (int s = deadlocks.nextSetBit(0); fixDeadlocks && s >= 0; s = deadlocks.nextSetBit(s + 1)) {
+			choiceStarts[rowStarts[s] + 1] = 1;
+		}
+		int emptyDistributions = 0;
+		for (int c = 0; c < numChoices; c++) {
+			if (choiceStarts[c + 1] == 0) {
+				emptyDistributions++;
+			}
+			choiceStarts[c + 1] += choiceStarts[c];
+		}
+		if (emptyDistributions > 0) {
+			throw new PrismException("Problem in .tra file: there are " + emptyDistributions + " empty distribution, are there gaps in the choice indices?");
+		}
+		int numTransitions = choiceStarts[numChoices];
+		int pos[] = Arrays.copyOf(choiceStarts, numChoices);
+		int cols[] = new int[numTransitions];
+		double vals[] = new double[numTransitions];
+		Object actions[] = null;
+		for (int i = 0; i < n; i++) {
+			int c = rowStarts[src[i]] + choice[i];
+			String action = recs.getAction(i);
+			if (action != null) {
+				if (actions == null) {
+					actions = new Object[numChoices];
+				}
+				if (actions[c] != null && !action.equals(actions[c])) {
+					throw new PrismException("Problem in .tra file: inconsistent action label for " + src[i] + ", " + choice[i] + ": " + actions[c] + " and " + action);
+				}
+				actions[c] = action;
+			}
+			if (probs[i] != 0.0) {
+				int k = pos[c]++;
+				cols[k] = dest[i];
+				vals[k] = probs[i];
+			}
+		}
+		for (int s = deadlocks.nextSetBit(0); fixDeadlocks && s >= 0; s = deadlocks.nextSetBit(s + 1)) {
+			cols[choiceStarts[rowStarts[s]]] = s;
+			vals[choiceStarts[rowStarts[s]]] = 1.0;
+		}
+		recs = null;
+		src = choice = dest = null;
+		probs = null;
+		pos = null;
+		// Sort each choice by target, checking for repeated targets
+		for (int s = 0; s < numStates; s++) {
+			for (int c = rowStarts[s]; c < rowStarts[s + 1]; c++) {
+				int start = choiceStarts[c], end = choiceStarts[c + 1];
+				SparseModelBuilder.sortByColumn(cols, vals, start, end);
+				for (int i = start + 1; i < end; i++) {
+					if (cols[i] == cols[i - 1]) {
+						throw new PrismException("Problem in .tra file: redefinition of probability for " + s + " " + (c - rowStarts[s]) + " " + cols[i]);
+					}
+				}
+			}
+		}
+		// Check integrity (ignoring any self-loops added to fix deadlocks)
+		int numFixed = fixDeadlocks ? deadlocks.cardinality() : 0;
+		if (numChoices - numFixed != header[1]) {
+			throw new PrismException("Problem in .tra file: unexpected number of choices: " + (numChoices - numFixed));
+		}
+		if (numTransitions - numFixed != header[2]) {
+			throw new PrismException("Problem in .tra file: unexpected number of transitions: " + (numTransitions - numFixed));
+		}
+		MDPSparse mdp = new MDPSparse(numStates, rowStarts, choiceStarts, cols, vals, actions);
+		for (int s = deadlocks.nextSetBit(0); s >= 0; s = deadlocks.nextSetBit(s + 1)) {
+			mdp.addDeadlockState(s);
+		}
+		return mdp;
+	}
+
+	/**
+	 * Parse the state rewards from a {@code .srew} file (optional comments,
+	 * first line "#states #nonzeros", then one line "state reward" per nonzero reward)
+	 * and return them as an array indexed by state.
+	 * @param rewardsFile The file
+	 * @param numStates The number of states
+	 */
+	public double[] parseStateRewards(File rewardsFile, int numStates) throws PrismException
+	{
+		Records recs = parse(rewardsFile, "state rewards file \"" + rewardsFile + "\"", new int[] { numStates }, false);
+		double rewards[] = new double[numStates];
+		for (int i = 0; i < recs.numRecords; i++) {
+			rewards[recs.ints[0][i]] = recs.values[i];
+		}
+		return rewards;
+	}
+
+	/**
+	 * Parse all records of a file (after its header).
+	 * @param file The file
+	 * @param desc Description of the file, for error messages
+	 * @param bounds Upper bounds (exclusive) for the integer columns of each record (which also determines their number)
+	 * @param allowActions Are records allowed to end with an action label?
+	 */
+	public Records parse(File file, String desc, int bounds[], boolean allowActions) throws PrismException
+	{
+		Records recs = new Records();
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+			// Read the header and split the rest into chunks, ending at line boundaries
+			long header[] = new long[2];
+			recs.header = readHeader(channel, header);
+			if (recs.header == null) {
+				throw new PrismException("Missing first line of " + desc);
+			}
+			List<Chunk> chunks = new ArrayList<>();
+			long start = header[0];
+			while (start < size) {
+				long end = findLineEnd(channel, Math.min(start + chunkSize, size), size);
+				if (end - start > Integer.MAX_VALUE) {
+					throw new PrismException("Line too long in " + desc);
+				}
+				chunks.add(new Chunk(start, (int) (end - start), bounds.length, allowActions));
+				start = end;
+			}
+			// Parse chunks (in parallel, if required)
+			List<Callable<Void>> tasks = new ArrayList<>(chunks.size());
+			for (Chunk chunk : chunks) {
+				tasks.add(() -> {
+					MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, chunk.start, chunk.length);
+					byte bytes[] = new byte[chunk.length];
+					buf.get(bytes);
+					chunk.parse(bytes, bounds);
+					return null;
+				});
+			}
+			runTasks(tasks);
+			// Report the first error, if any
+			long lineNum = header[1];
+			for (Chunk chunk : chunks) {
+				if (chunk.error != null) {
+					throw new PrismException("Problem in " + desc + " (line " + (lineNum + chunk.errorLine) + "): " + chunk.error);
+				}
+				lineNum += chunk.numLines;
+			}
+			// Concatenate records of chunks
+			long total = 0;
+			for (Chunk chunk : chunks) {
+				total += chunk.numRecords;
+			}
+			if (total > Integer.MAX_VALUE - 8) {
+				throw new PrismException("Too many entries in " + desc);
+			}
+			int n = (int) total;
+			recs.numRecords = n;
+			recs.ints = new int[bounds.length][n];
+			recs.values = new double[n];
+			Map<String, Integer> actionIndices = new HashMap<>();
+			int k = 0;
+			for (Chunk chunk : chunks) {
+				for (int col = 0; col < bounds.length; col++) {
+					System.arraycopy(chunk.ints[col], 0, recs.ints[col], k, chunk.numRecords);
+				}
+				System.arraycopy(chunk.values, 0, recs.values, k, chunk.numRecords);
+				if (chunk.actions != null && !chunk.actionNames.isEmpty()) {
+					if (recs.actions == null) {
+						recs.actions = new int[n];
+						Arrays.fill(recs.actions, 0, k, -1);
+					}
+					int map[] = new int[chunk.actionNames.size()];
+					for (int a = 0; a < map.length; a++) {
+						String name = chunk.actionNames.get(a);
+						map[a] = actionIndices.computeIfAbsent(name, x -> {
+							recs.actionNames.add(x);
+							return recs.actionNames.size() - 1;
+						});
+					}
+					for (int i = 0; i < chunk.numRecords; i++) {
+						recs.actions[k + i] = chunk.actions[i] == -1 ? -1 : map[chunk.actions[i]];
+					}
+				} else if (recs.actions != null) {
+					Arrays.fill(recs.actions, k, k + chunk.numRecords, -1);
+				}
+				k += chunk.numRecords;
+				chunk.release();
+			}
+		} catch (IOException e) {
+			throw new PrismException("File I/O error reading from \"" + file + "\": " + e.getMessage());
+		}
+		return recs;
+	}
+
+	/**
+	 * Parse the header of a file, i.e., its first line after any comments, which should contain
+	 * at least {@code num} non-negative integers (the first {@code num} of these are returned).
+	 */
+	public int[] parseHeader(File file, String desc, int num) throws PrismException
+	{
+		String header;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			header = readHeader(channel, new long[2]);
+		} catch (IOException e) {
+			throw new PrismException("File I/O error reading from \"" + file + "\": " + e.getMessage());
+		}
+		if (header == null) {
+			throw new PrismException("Missing first line of " + desc);
+		}
+		String ss[] = header.trim().split("\\s+");
+		if (ss.length < num) {
+			throw new PrismException("First line of " + desc + " should contain " + num + " numbers");
+		}
+		int res[] = new int[num];
+		try {
+			for (int i = 0; i < num; i++) {
+				res[i] = Integer.parseInt(ss[i]);
+				if (res[i] < 0) {
+					throw new NumberFormatException();
+				}
+			}
+		} catch (NumberFormatException e) {
+			throw new PrismException("Problem in first line of " + desc);
+		}
+		return res;
+	}
+
+	/**
+	 * Chunk of a file, i.e., a range of complete lines, and the records parsed from it.
+	 */
+	private static class Chunk
+	{
+		/** Start (offset into file) */
+		long start;
+		/** Length (in bytes) */
+		int length;
+		/** Number of lines */
+		int numLines;
+		/** Number of records */
+		int numRecords;
+		/** Integer columns of records */
+		int ints[][];
+		/** Values of records */
+		double values[];
+		/** Action index of records (into actionNames), or -1 if none (null if actions not allowed) */
+		int actions[];
+		/** Action names (as bytes, and as strings) */
+		List<byte[]> actionBytes;
+		List<String> actionNames;
+		/** First error (null if none) and the line it occurred on (within the chunk, from 1) */
+		String error;
+		int errorLine;
+
+		Chunk(long start, int length, int numInts, boolean allowActions)
+		{
+			this.start = start;
+			this.length = length;
+			int cap = Math.max(16, length / 16);
+			ints = new int[numInts][cap];
+			values = new double[cap];
+			if (allowActions) {
+				actions = new int[cap];
+				actionBytes = new ArrayList<>();
+				actionNames = new ArrayList<>();
+			}
+		}
+
+		/**
+		 * Parse the bytes of the chunk, checking that integers are within {@code bounds}.
+		 */
+		void parse(byte bytes[], int bounds[])
+		{
+			int numInts = bounds.length;
+			int p = 0, n = bytes.length;
+			while (p < n) {
+				numLines++;
+				p = skipSpace(bytes, p, n);
+				if (p == n || bytes[p] == '\n') {
+					p++;
+					continue;
+				}
+				if (numRecords == values.length) {
+					grow();
+				}
+				// Integers
+				for (int col = 0; col < numInts; col++) {
+					long x = 0;
+					int q = p;
+					while (q < n && isDigit(bytes[q]) && q - p < 11) {
+						x = x * 10 + (bytes[q++] - '0');
+					}
+					if (q == p || (q < n && !isSpace(bytes[q]))) {
+						error("expected a non-negative integer", bytes, p, n);
+						return;
+					}
+					if (x >= bounds[col]) {
+						error("illegal index " + x, bytes, p, n);
+						return;
+					}
+					ints[col][numRecords] = (int) x;
+					p = skipSpace(bytes, q, n);
+				}
+				// Value
+				int q = p;
+				while (q < n && !isSpace(bytes[q])) {
+					q++;
+				}
+				double d = parseDouble(bytes, p, q);
+				if (Double.isNaN(d)) {
+					error("expected a number", bytes, p, n);
+					return;
+				}
+				values[numRecords] = d;
+				p = skipSpace(bytes, q, n);
+				// Action (optional)
+				if (actions != null) {
+					int a = -1;
+					if (p < n && bytes[p] != '\n') {
+						q = p;
+						while (q < n && !isSpace(bytes[q])) {
+							q++;
+						}
+						a = actionIndex(bytes, p, q);
+						p = q;
+					}
+					actions[numRecords] = a;
+				}
+				numRecords++;
+				// Skip rest of line
+				while (p < n && bytes[p] != '\n') {
+					p++;
+				}
+				p++;
+			}
+		}
+
+		/**
+		 * Get the index of the action name given by bytes {@code from} (inclusive) to {@code to} (exclusive),
+		 * adding it if it is new.
+		 */
+		private int actionIndex(byte bytes[], int from, int to)
+		{
+			for (int a = 0; a < actionBytes.size(); a++) {
+				if (Arrays.equals(actionBytes.get(a), 0, actionBytes.get(a).length, bytes, from, to)) {
+					return a;
+				}
+			}
+			actionBytes.add(Arrays.copyOfRange(bytes, from, to));
+			actionNames.add(new String(bytes, from, to - from, StandardCharsets.UTF_8));
+			return actionBytes.size() - 1;
+		}
+
+		private void error(String msg, byte bytes[], int from, int n)
+		{
+			int to = from;
+			while (to < n && !isSpace(bytes[to])) {
+				to++;
+			}
+			error = msg + (to > from ? " (found \"" + new String(bytes, from, Math.min(to - from, 40), StandardCharsets.UTF_8) + "\")" : "");
+			errorLine = numLines;
+		}
+
+		private void grow()
+		{
+			int cap = values.length * 2;
+			for (int col = 0; col < ints.length; col++) {
+				ints[col] = Arrays.copyOf(ints[col], cap);
+			}
+			values = Arrays.copyOf(values, cap);
+			if (actions != null) {
+				actions = Arrays.copyOf(actions, cap);
+			}
+		}
+
+		void release()
+		{
+			ints = null;
+			values = null;
+			actions = null;
+		}
+	}
+
+	// Local utility methods
+
+	/**
+	 * Parse a real number from bytes {@code from} (inclusive) to {@code to} (exclusive),
+	 * returning NaN if it is not a valid number. Decimals with at most 15-16 significant digits
+	 * and a small exponent (e.g., probabilities exported by PRISM) are converted directly (and exactly);
+	 * others are passed to {@link Double#parseDouble(String)}.
+	 */
+	static double parseDouble(byte bytes[], int from, int to)
+	{
+		int p = from;
+		boolean neg = false;
+		if (p < to && (bytes[p] == '-' || bytes[p] == '+')) {
+			neg = bytes[p] == '-';
+			p++;
+		}
+		long m = 0;
+		int exp = 0, digits = 0;
+		boolean any = false, slow = false;
+		for (; p < to && isDigit(bytes[p]); p++) {
+			any = true;
+			if (digits < 18) {
+				m = m * 10 + (bytes[p] - '0');
+				digits += (m > 0) ? 1 : 0;
+			} else {
+				slow = true;
+			}
+		}
+		if (p < to && bytes[p] == '.') {
+			for (p++; p < to && isDigit(bytes[p]); p++) {
+				any = true;
+				if (digits < 18) {
+					m = m * 10 + (bytes[p] - '0');
+					digits += (m > 0) ? 1 : 0;
+					exp--;
+				} else {
+					slow = true;
+				}
+			}
+		}
+		if (any && p < to && (bytes[p] == 'e' || bytes[p] == 'E')) {
+			p++;
+			boolean expNeg = false;
+			if (p < to && (bytes[p] == '-' || bytes[p] == '+')) {
+				expNeg = bytes[p] == '-';
+				p++;
+			}
+			int e = 0, q = p;
+			for (; p < to && isDigit(bytes[p]) && p - q < 6; p++) {
+				e = e * 10 + (bytes[p] - '0');
+			}
+			if (p == q) {
+				any = false;
+			}
+			exp += expNeg ? -e : e;
+		}
+		if (any && p == to && !slow && m <= (1L << 53) && exp >= -22 && exp <= 22) {
+			double d = exp >= 0 ? m * POW10[exp] : m / POW10[-exp];
+			return neg ? -d : d;
+		}
+		// Fall back on the standard conversion (e.g. for many digits, or "Infinity")
+		try {
+			return Double.parseDouble(new String(bytes, from, to - from, StandardCharsets.ISO_8859_1));
+		} catch (NumberFormatException e) {
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * Read the header of a file, i.e., its first line after any comment lines (starting with #).
+	 * Also stores, in {@code res}, the offset of the following line and the number of lines read.
+	 * Returns null if the file has no header.
+	 */
+	private static String readHeader(FileChannel channel, long res[]) throws IOException
+	{
+		ByteBuffer buf = ByteBuffer.allocate(8192);
+		StringBuilder line = new StringBuilder();
+		long pos = 0, size = channel.size();
+		long numLines = 0;
+		while (pos < size) {
+			buf.clear();
+			int r = channel.read(buf, pos);
+			if (r <= 0) {
+				break;
+			}
+			for (int i = 0; i < r; i++) {
+				char c = (char) (buf.get(i) & 0xff);
+				if (c != '\n') {
+					line.append(c);
+					continue;
+				}
+				numLines++;
+				if (line.length() > 0 && line.charAt(0) == '#') {
+					line.setLength(0);
+					continue;
+				}
+				res[0] = pos + i + 1;
+				res[1] = numLines;
+				return line.toString();
+			}
+			pos += r;
+		}
+		// Last line (with no newline)
+		if (line.length() > 0 && line.charAt(0) != '#') {
+			res[0] = size;
+			res[1] = numLines + 1;
+			return line.toString();
+		}
+		return null;
+	}
+
+	/**
+	 * Find the end of the line (i.e., just after the next newline) containing offset {@code pos} of a file.
+	 */
+	private static long findLineEnd(FileChannel channel, long pos, long size) throws IOException
+	{
+		if (pos >= size) {
+			return size;
+		}
+		ByteBuffer buf = ByteBuffer.allocate(4096);
+		while (pos < size) {
+			buf.clear();
+			int r = channel.read(buf, pos);
+			if (r <= 0) {
+				break;
+			}
+			for (int i = 0; i < r; i++) {
+				if (buf.get(i) == '\n') {
+					return pos + i + 1;
+				}
+			}
+			pos += r;
+		}
+		return size;
+	}
+
+	/**
+	 * Run some tasks, in parallel if more than one thread is to be used.
+	 */
+	private void runTasks(List<Callable<Void>> tasks) throws PrismException, IOException
+	{
+		if (numThreads == 1 || tasks.size() == 1) {
+			try {
+				for (Callable<Void> task : tasks) {
+					task.call();
+				}
+			} catch (IOException | RuntimeException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new PrismException("Error during parsing: " + e);
+			}
+			return;
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(numThreads, tasks.size()), r -> {
+			Thread t = new Thread(r, "ExplicitFilesParser worker");
+			t.setDaemon(true);
+			return t;
+		});
+		try {
+			for (Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new PrismException("Parsing was interrupted");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			} else if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			} else if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw new PrismException("Error during parsing: " + e.getCause());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static boolean isDigit(byte b)
+	{
+		return b >= '0' && b <= '9';
+	}
+
+	private static boolean isSpace(byte b)
+	{
+		return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+	}
+
+	/**
+	 * Skip spaces/tabs (but not newlines).
+	 */
+	private static int skipSpace(byte bytes[], int p, int n)
+	{
+		while (p < n && (bytes[p] == ' ' || bytes[p] == '\t' || bytes[p] == '\r')) {
+			p++;
+		}
+		return p;
+	}
+}
@@ -0,0 +1,600 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package explicit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import parser.State;
+import parser.VarList;
+import prism.PrismException;
+import prism.PrismLangException;
+
+/**
+ * Store for the active states of {@link FastAdaptiveUniformisation}.
+ * <br><br>
+ * Each state occupies an integer slot, and its data (probabilities, reward, reference count, ...)
+ * is kept in primitive arrays indexed by slot. When a state is removed, its slot is put on a free list
+ * and reused for the next state added. States are packed into {@code long} words (see {@link StatePacker})
+ * and indexed by a primitive open-addressing hash table (linear probing, with backward-shift deletion).
+ * If the variables cannot be packed, {@link State} objects are stored instead.
+ * Successors (slots and rates) of all states are stored in a shared arena, which is compacted
+ * when the space left over by deleted states gets large.
+ * <br><br>
+ * Overall, this needs a few dozen bytes per active state, plus 12 bytes per transition,
+ * compared to several hundred bytes for a map from {@link State} objects to per-state objects.
+ */
+final class FAUStatePool
+{
+	/** Maximum load factor of the hash table */
+	private static final double MAX_LOAD = 0.5;
+
+	/** Packer used to encode/decode states (null if states are not packed) */
+	private StatePacker packer;
+	/** Number of words per packed state */
+	private int numWords;
+	/** Packed states, by slot (if packed) */
+	private long data[];
+	/** States, by slot (if not packed) */
+	private State stateObjs[];
+	/** Scratch space for packing states */
+	private long scratch[];
+	/** State last passed to {@link #prepareKey} (if not packed) */
+	private State key;
+
+	/** Hash table: entries are (slot + 1), or 0 for an empty entry */
+	private int table[];
+	/** Number of slots in use */
+	private int size;
+	/** Number of slots allocated so far (slots at or above this index have never been used) */
+	private int numSlots;
+	/** Which slots are in use */
+	private BitSet used = new BitSet();
+	/** Free slots, to be reused */
+	private int freeSlots[] = new int[16];
+	/** Number of free slots */
+	private int numFree;
+
+	/** Current-step probability */
+	private double prob[];
+	/** Next-step probability */
+	private double nextProb[];
+	/** Probability weighted with birth process distribution */
+	private double sum[];
+	/** State reward */
+	private double reward[];
+	/** Number of incoming transitions from states that are alive */
+	private int references[];
+	/** Start of the successors in the arena (-1 if successors have not been computed) */
+	private int succStart[];
+	/** Number of successors */
+	private int numSuccs[];
+	/** Whether the state's probability is above the relevance threshold */
+	private BitSet alive = new BitSet();
+
+	/** Arena of successor slots */
+	private int succSlots[] = new int[64];
+	/** Arena of successor rates */
+	private double succRates[] = new double[64];
+	/** Used size of the arena */
+	private int arenaSize;
+	/** Part of the arena no longer used (by deleted states) */
+	private int arenaGarbage;
+
+	/**
+	 * Create an empty state pool for states over the variables in {@code varList}
+	 * (which may be null, in which case states are not packed).
+	 */
+	FAUStatePool(VarList varList) throws PrismException
+	{
+		if (varList != null && StatePacker.canPack(varList)) {
+			packer = new StatePacker(varList);
+			numWords = packer.getNumWords();
+			scratch = new long[numWords];
+		}
+		int capacity = 1024;
+		if (packer != null) {
+			data = new long[capacity * numWords];
+		} else {
+			stateObjs = new State[capacity];
+		}
+		prob = new double[capacity];
+		nextProb = new double[capacity];
+		sum = new double[capacity];
+		reward = new double[capacity];
+		references = new int[capacity];
+		succStart = new int[capacity];
+		numSuccs = new int[capacity];
+		table = new int[2 * capacity];
+	}
+
+	/**
+	 * Are states stored in packed form?
+	 */
+	boolean isPacked()
+	{
+		return packer != null;
+	}
+
+	/**
+	 * Get the number of states stored.
+	 */
+	int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Get an upper bound on the slots in use (for iteration, along with {@link #isUsed(int)}).
+	 */
+	int getSlotLimit()
+	{
+		return numSlots;
+	}
+
+	/**
+	 * Is slot {@code slot} in use?
+	 */
+	boolean isUsed(int slot)
+	{
+		return used.get(slot);
+	}
+
+	/**
+	 * Get the slot of a state, or -1 if it is not stored.
+	 */
+	int find(State state) throws PrismException
+	{
+		prepareKey(state);
+		return table[findEntry()] - 1;
+	}
+
+	/**
+	 * Add a (new) state, and return its slot. The state is alive,
+	 * with zero probabilities and reward, and no successors.
+	 */
+	int add(State state) throws PrismException
+	{
+		prepareKey(state);
+		int entry = findEntry();
+		if (table[entry] != 0) {
+			throw new IllegalArgumentException("State " + state + " is already stored");
+		}
+		int slot = numFree > 0 ? freeSlots[--numFree] : allocateSlot();
+		if (packer != null) {
+			System.arraycopy(scratch, 0, data, slot * numWords, numWords);
+		} else {
+			stateObjs[slot] = state;
+		}
+		table[entry] = slot + 1;
+		used.set(slot);
+		size++;
+		prob[slot] = nextProb[slot] = sum[slot] = reward[slot] = 0.0;
+		references[slot] = 0;
+		succStart[slot] = -1;
+		numSuccs[slot] = 0;
+		alive.set(slot);
+		if (size > table.length * MAX_LOAD) {
+			rehash(table.length * 2);
+		}
+		return slot;
+	}
+
+	/**
+	 * Remove the state in slot {@code slot}, making the slot available for reuse.
+	 * The state should have been deleted (see {@link #delete(int)}) and have no references.
+	 */
+	void remove(int slot)
+	{
+		removeEntry(findEntryOfSlot(slot));
+		if (packer == null) {
+			stateObjs[slot] = null;
+		}
+		used.clear(slot);
+		alive.clear(slot);
+		size--;
+		if (numFree == freeSlots.length) {
+			freeSlots = Arrays.copyOf(freeSlots, 2 * numFree);
+		}
+		freeSlots[numFree++] = slot;
+	}
+
+	/**
+	 * Get the state in slot {@code slot} (unpacked into a new {@link State} object, if packed).
+	 */
+	State getState(int slot)
+	{
+		return packer != null ? packer.unpack(data, slot * numWords) : stateObjs[slot];
+	}
+
+	/**
+	 * Get a list of the states stored, in slot order.
+	 */
+	List<State> getStates()
+	{
+		List<State> list = new ArrayList<>(size);
+		for (int slot = used.nextSetBit(0); slot >= 0; slot = used.nextSetBit(slot + 1)) {
+			list.add(getState(slot));
+		}
+		return list;
+	}
+
+	// Per-state data
+
+	double getProb(int slot)
+	{
+		return prob[slot];
+	}
+
+	void setProb(int slot, double p)
+	{
+		prob[slot] = p;
+	}
+
+	void setNextProb(int slot, double p)
+	{
+		nextProb[slot] = p;
+	}
+
+	void addToNextProb(int slot, double add)
+	{
+		nextProb[slot] += add;
+	}
+
+	double getSum(int slot)
+	{
+		return sum[slot];
+	}
+
+	void setSum(int slot, double s)
+	{
+		sum[slot] = s;
+	}
+
+	/**
+	 * Add the current probability times {@code poisson} to the weighted sum probability.
+	 */
+	void addToSum(int slot, double poisson)
+	{
+		sum[slot] += poisson * prob[slot];
+	}
+
+	/**
+	 * Set the current probability to the next probability, and the latter to zero.
+	 */
+	void prepareNextIteration(int slot)
+	{
+		prob[slot] = nextProb[slot];
+		nextProb[slot] = 0.0;
+	}
+
+	double getReward(int slot)
+	{
+		return reward[slot];
+	}
+
+	void setReward(int slot, double r)
+	{
+		reward[slot] = r;
+	}
+
+	boolean isAlive(int slot)
+	{
+		return alive.get(slot);
+	}
+
+	void setAlive(int slot, boolean b)
+	{
+		alive.set(slot, b);
+	}
+
+	/**
+	 * Can the state in slot {@code slot} be removed, i.e., is it not alive,
+	 * and not the successor of any state that is?
+	 */
+	boolean canRemove(int slot)
+	{
+		return !alive.get(slot) && references[slot] == 0;
+	}
+
+	// Successors
+
+	/**
+	 * Have the successors of the state in slot {@code slot} been computed?
+	 */
+	boolean hasSuccs(int slot)
+	{
+		return succStart[slot] != -1;
+	}
+
+	/**
+	 * Get the number of successors of the state in slot {@code slot}.
+	 */
+	int getNumSuccs(int slot)
+	{
+		return numSuccs[slot];
+	}
+
+	/**
+	 * Get the index in the arena of the first successor of the state in slot {@code slot};
+	 * its successors are at indices {@code getSuccStart(slot)} to {@code getSuccStart(slot) + getNumSuccs(slot) - 1}.
+	 */
+	int getSuccStart(int slot)
+	{
+		return succStart[slot];
+	}
+
+	/**
+	 * Get the slot of the successor at index {@code i} of the arena.
+	 */
+	int getSuccSlot(int i)
+	{
+		return succSlots[i];
+	}
+
+	/**
+	 * Get the rate of the successor at index {@code i} of the arena.
+	 */
+	double getSuccRate(int i)
+	{
+		return succRates[i];
+	}
+
+	/**
+	 * Set the successors of the state in slot {@code slot} to be the first {@code n} entries
+	 * of {@code slots}/{@code rates}, incrementing the reference counts of the successors.
+	 */
+	void setSuccs(int slot, int slots[], double rates[], int n)
+	{
+		clearSuccs(slot);
+		if (arenaGarbage > arenaSize / 2) {
+			compactArena();
+		}
+		if (arenaSize + n > succSlots.length) {
+			int newLength = Math.max(succSlots.length * 2, arenaSize + n);
+			succSlots = Arrays.copyOf(succSlots, newLength);
+			succRates = Arrays.copyOf(succRates, newLength);
+		}
+		System.arraycopy(slots, 0, succSlots, arenaSize, n);
+		System.arraycopy(rates, 0, succRates, arenaSize, n);
+		succStart[slot] = arenaSize;
+		numSuccs[slot] = n;
+		arenaSize += n;
+		for (int i = 0; i < n; i++) {
+			references[slots[i]]++;
+		}
+	}
+
+	/**
+	 * Get the sum of the rates to the successors of the state in slot {@code slot}.
+	 */
+	double sumRates(int slot)
+	{
+		double sumRates = 0.0;
+		int start = succStart[slot];
+		for (int i = start, end = start + numSuccs[slot]; i < end; i++) {
+			sumRates += succRates[i];
+		}
+		return sumRates;
+	}
+
+	/**
+	 * Delete the state in slot {@code slot}, i.e., remove its successors
+	 * (decrementing their reference counts), mark it as not alive and set its probabilities to zero.
+	 * It is left in the pool, since it may still be the successor of some state that is alive.
+	 */
+	void delete(int slot)
+	{
+		clearSuccs(slot);
+		alive.clear(slot);
+		prob[slot] = 0.0;
+		nextProb[slot] = 0.0;
+	}
+
+	// Local utility methods
+
+	/**
+	 * Remove the successors of the state in slot {@code slot} (if any), decrementing their reference counts.
+	 */
+	private void clearSuccs(int slot)
+	{
+		int start = succStart[slot];
+		if (start == -1) {
+			return;
+		}
+		for (int i = start, end = start + numSuccs[slot]; i < end; i++) {
+			references[succSlots[i]]--;
+		}
+		arenaGarbage += numSuccs[slot];
+		succStart[slot] = -1;
+		numSuccs[slot] = 0;
+	}
+
+	/**
+	 * Compact the successor arena, removing the space left over by deleted states.
+	 */
+	private void compactArena()
+	{
+		int newSlots[] = new int[Math.max(64, 2 * (arenaSize - arenaGarbage))];
+		double newRates[] = new double[newSlots.length];
+		int k = 0;
+		for (int slot = used.nextSetBit(0); slot >= 0; slot = used.nextSetBit(slot + 1)) {
+			int start = succStart[slot];
+			if (start != -1) {
+				int n = numSuccs[slot];
+				System.arraycopy(succSlots, start, newSlots, k, n);
+				System.arraycopy(succRates, start, newRates, k, n);
+				succStart[slot] = k;
+				k += n;
+			}
+		}
+		succSlots = newSlots;
+		succRates = newRates;
+		arenaSize = k;
+		arenaGarbage = 0;
+	}
+
+	/**
+	 * Allocate a new slot (that has never been used), growing the per-slot arrays if needed.
+	 */
+	private int allocateSlot()
+	{
+		if (numSlots == prob.length) {
+			int capacity = 2 * numSlots;
+			if (packer != null) {
+				data = Arrays.copyOf(data, capacity * numWords);
+			} else {
+				stateObjs = Arrays.copyOf(stateObjs, capacity);
+			}
+			prob = Arrays.copyOf(prob, capacity);
+			nextProb = Arrays.copyOf(nextProb, capacity);
+			sum = Arrays.copyOf(sum, capacity);
+			reward = Arrays.copyOf(reward, capacity);
+			references = Arrays.copyOf(references, capacity);
+			succStart = Arrays.copyOf(succStart, capacity);
+			numSuccs = Arrays.copyOf(numSuccs, capacity);
+		}
+		return numSlots++;
+	}
+
+	/**
+	 * Prepare {@code state} as the key for a hash table lookup (packing it, if needed).
+	 */
+	private void prepareKey(State state) throws PrismException
+	{
+		if (packer != null) {
+			try {
+				packer.pack(state, scratch, 0);
+			} catch (PrismLangException e) {
+				throw new PrismException(e.getMessage());
+			}
+		} else {
+			key = state;
+		}
+	}
+
+	/**
+	 * Get the hash code of the key last prepared.
+	 */
+	private int keyHash()
+	{
+		return packer != null ? packer.hash(scratch, 0) : spread(key.hashCode());
+	}
+
+	/**
+	 * Get the hash code of the state in slot {@code slot}.
+	 */
+	private int slotHash(int slot)
+	{
+		return packer != null ? packer.hash(data, slot * numWords) : spread(stateObjs[slot].hashCode());
+	}
+
+	/**
+	 * Check whether the state in slot {@code slot} equals the key last prepared.
+	 */
+	private boolean slotEqualsKey(int slot)
+	{
+		return packer != null ? packer.equals(data, slot * numWords, scratch, 0) : stateObjs[slot].equals(key);
+	}
+
+	/**
+	 * Find the hash table entry for the key last prepared:
+	 * either the entry where it is stored or the (empty) entry where it should be inserted.
+	 */
+	private int findEntry()
+	{
+		int mask = table.length - 1;
+		int i = keyHash() & mask;
+		while (table[i] != 0 && !slotEqualsKey(table[i] - 1)) {
+			i = (i + 1) & mask;
+		}
+		return i;
+	}
+
+	/**
+	 * Find the hash table entry for the state in slot {@code slot}.
+	 */
+	private int findEntryOfSlot(int slot)
+	{
+		int mask = table.length - 1;
+		int i = slotHash(slot) & mask;
+		while (table[i] != slot + 1) {
+			i = (i + 1) & mask;
+		}
+		return i;
+	}
+
+	/**
+	 * Remove entry {@code i} of the hash table, shifting back later entries
+	 * of the same cluster so that lookups still find them.
+	 */
+	private void removeEntry(int i)
+	{
+		int mask = table.length - 1;
+		int j = i;
+		while (true) {
+			j = (j + 1) & mask;
+			if (table[j] == 0) {
+				break;
+			}
+			int k = slotHash(table[j] - 1) & mask;
+			// Entry j can stay if its home k lies cyclically in (i, j]
+			boolean stay = i <= j ? (i < k && k <= j) : (i < k || k <= j);
+			if (!stay) {
+				table[i] = table[j];
+				i = j;
+			}
+		}
+		table[i] = 0;
+	}
+
+	/**
+	 * Rebuild the hash table with a new capacity (a power of 2).
+	 */
+	private void rehash(int capacity)
+	{
+		table = new int[capacity];
+		int mask = capacity - 1;
+		for (int slot = used.nextSetBit(0); slot >= 0; slot = used.nextSetBit(slot + 1)) {
+			int i = slotHash(slot) & mask;
+			while (table[i] != 0) {
+				i = (i + 1) & mask;
+			}
+			table[i] = slot + 1;
+		}
+	}
+
+	/**
+	 * Spread the bits of a hash code, since table indices use the low ones.
+	 */
+	private static int spread(int h)
+	{
+		return h ^ (h >>> 16);
+	}
+}
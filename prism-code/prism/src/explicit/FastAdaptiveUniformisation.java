@@ -30,15 +30,13 @@ package explicit;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ListIterator;
-import java.util.Map;
 
 import parser.State;
 import parser.Values;
+import parser.VarList;
 import parser.ast.Expression;
 import parser.ast.ExpressionIdent;
 import parser.ast.LabelList;
@@ -54,7 +52,6 @@ import prism.PrismSettings;
  *   - by delta (as current)
  *   - by max probability loss per iteration (requires sort by prob)
  *   - by max number of states (requires sort by prob)
- * - compress states to Bitset (memory waste currently excessive e.g. for mapk)
  * - do not delete states immediately but only after they have been below
  *   delta for a specified number of iterations to avoid deleting and exploring
  *   the same states over and over again
@@ -77,320 +74,6 @@ import prism.PrismSettings;
  */
 public final class FastAdaptiveUniformisation extends PrismComponent
 {
-	/**
-	 * Stores properties of states needed for fast adaptive method.
-	 * This includes the current-step probability, next-state probability,
-	 * and the transient probability (sum of step probabilities weighted
-	 * with birth process distributions). It also contains the list of successor
-	 * states and the rates to them, the number of incoming transitions
-	 * (references) and a flag whether the state has a significant probability
-	 * mass (alive).
-	 */
-	private final static class StateProp
-	{
-		/** current-step probability.
-		 * should contain initial probability before actual analysis is started.
-		 * will contain transient probability after analysis. */
-		private double prob;
-		/** next-state probability */
-		private double nextProb;
-		/** sum probability weighted with birth process distribution */
-		private double sum;
-		/** reward of this state */
-		private double reward;
-		/** rates to successor states */
-		private double[] succRates;
-		/** successor states */
-		private StateProp[] succStates;
-		/** number of incoming transitions of relevant states */
-		private int references;
-		/** true if and only if state probability above relevance threshold */
-		private boolean alive;
-		
-		/**
-		 * Constructs a new state property object.
-		 */
-		StateProp()
-		{
-			prob = 0.0;
-			nextProb = 0.0;
-			sum = 0.0;
-			reward = 0.0;
-			succRates = null;
-			succStates = null;
-			references = 0;
-			alive = true;
-		}
-		
-		/**
-		 * Set current state probability.
-		 * 
-		 * @param prob current state probability to set
-		 */
-		void setProb(double prob)
-		{
-			this.prob = prob;
-		}
-
-		/**
-		 * Gets current state probability.
-		 * 
-		 * @return current state probability
-		 */
-		double getProb()
-		{
-			return prob;
-		}
-
-		/**
-		 * Sets next state probability.
-		 * 
-		 * @param nextProb next state probability to set
-		 */
-		void setNextProb(double nextProb)
-		{
-			this.nextProb = nextProb;
-		}
-
-		/**
-		 * Adds value to next state probability.
-		 * 
-		 * @param add value to add to next state probability
-		 */
-		void addToNextProb(double add)
-		{
-			this.nextProb += add;
-		}
-
-		/**
-		 * Sets weighted sum probability.
-		 * 
-		 * @param sum weighted sum probability to set.
-		 */
-		void setSum(double sum)
-		{
-			this.sum = sum;
-		}
-
-		/**
-		 * Adds current probability times {@code poisson} to weighted sum probability.
-		 * 
-		 * @param poisson this value times current probability will be added to sum probability
-		 */
-		void addToSum(double poisson)
-		{
-			sum += poisson * prob;
-		}
-
-		/**
-		 * Gets weighted sum probability.
-		 * 
-		 * @return weighted sum probability
-		 */
-		double getSum()
-		{
-			return sum;
-		}
-
-		/**
-		 * Prepares next iteration step.
-		 * Sets current probability to next probability, and sets next
-		 * probability to zero.
-		 */
-		void prepareNextIteration()
-		{
-			prob = nextProb;
-			nextProb = 0.0;
-		}
-
-		/**
-		 * Set state reward.
-		 * 
-		 * @param reward state reward to set
-		 */
-		void setReward(double reward)
-		{
-			this.reward = reward;
-		}
-
-		/**
-		 * Get state reward.
-		 * 
-		 * @return state reward
-		 */
-		double getReward()
-		{
-			return reward;
-		}
-
-		/**
-		 * Sets rates to successor states.
-		 * Expects an array of rates, so that the rate to the successor
-		 * state set by {@setSuccStates} is the one given by the corresponding
-		 * index. The value {@code null} is allowed here.
-		 * 
-		 * @param succRates rates to successor states.
-		 */
-		void setSuccRates(double[] succRates)
-		{
-			this.succRates = succRates;
-		}
-
-		/**
-		 * Sets successor states.
-		 * Expects an array of successor states, so that the rate set by
-		 * {@setSuccRates} is the one given by the corresponding index.
-		 * The value {@code null} is allowed here.
-		 * 
-		 * @param succStates successor states
-		 */
-		void setSuccStates(StateProp[] succStates)
-		{
-			this.succStates = succStates;
-			if (succStates != null) {
-				for (int succNr = 0; succNr < succStates.length; succNr++) {
-					succStates[succNr].incReferences();
-				}
-			}
-		}
-
-		/**
-		 * Returns number of successor states of this state.
-		 * 
-		 * @return number of successor states
-		 */
-		int getNumSuccs()
-		{
-			if (succRates == null) {
-				return 0;
-			} else {
-				return succRates.length;
-			}
-		}
-		
-		/**
-		 * Gets successor rates.
-		 * 
-		 * @return successor rates
-		 */
-		double[] getSuccRates()
-		{
-			return succRates;
-		}
-
-		/**
-		 * Gets successor states.
-		 * 
-		 * @return successor states
-		 */
-		StateProp[] getSuccStates()
-		{
-			return succStates;
-		}
-
-		/**
-		 * Sets whether state is alive.
-		 * 
-		 * @param alive whether state should be set to being alive
-		 */
-		void setAlive(boolean alive)
-		{
-			this.alive = alive;
-		}
-
-		/**
-		 * Checks whether state is alive.
-		 * 
-		 * @return true iff state is alive
-		 */
-		boolean isAlive()
-		{
-			return alive;
-		}
-
-		/**
-		 * Increments the number of references of this state.
-		 * The number of references should correspond to the number of alive
-		 * states which have this state as successor state.
-		 */
-		void incReferences()
-		{
-			references++;
-		}
-
-		/**
-		 * Decrements the number of references of this state.
-		 * The number of references should correspond to the number of alive
-		 * states which have this state as successor state.
-		 */
-		void decReferences()
-		{
-			references--;
-		}
-
-		/**
-		 * Deletes this state.
-		 * This means basically removing all of its successors. Beforehand,
-		 * their reference counter is decreased, because this state does no
-		 * longer count as a model state. It is left in the model however,
-		 * because it might still be the successor state of some alive state.
-		 */
-		void delete()
-		{
-			if (null != succStates) {
-				for (int succNr = 0; succNr < succStates.length; succNr++) {
-					succStates[succNr].decReferences();
-				}
-			}
-			succStates = null;
-			succRates = null;
-			alive = false;
-			prob = 0.0;
-			nextProb = 0.0;
-		}
-
-		/**
-		 * Checks whether this state can be removed.
-		 * This is only the case if its probability is below the threshold
-		 * specified, and then only if there are no transitions from alive
-		 * states into this state.
-		 * 
-		 * @return true if and only if this state can be removed
-		 */
-		boolean canRemove()
-		{
-			return !alive && (0 == references);
-		}
-
-		/**
-		 * Checks whether this state has successors or not.
-		 * Will be true if and only if successor state array is nonnull.
-		 * 
-		 * @return whether this state has successors or not
-		 */
-		boolean hasSuccs()
-		{
-			return succStates != null;
-		}
-
-		/**
-		 * Returns the sum of all rates leaving to successor states.
-		 * 
-		 * @return sum of all rates leaving to successor states
-		 */
-		double sumRates()
-		{
-			if (null == succRates) {
-				return 0.0;
-			}
-			double sumRates = 0.0;
-			for (int rateNr = 0; rateNr < succRates.length; rateNr++) {
-				sumRates += succRates[rateNr];
-			}
-			return sumRates;
-		}
-	}
-	
 	/**
 	 * Enum to store type of analysis to perform.
 	 */
@@ -422,14 +105,18 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 	private double value;
 	/** model constants */
 	private Values constantValues = null;
-	/** maps from state (assignment of variable values) to property object */
-	private LinkedHashMap<State,StateProp> states;
-	/** states for which successor rates are to be computed */
-	private ArrayList<State> addDistr;
-	/** states which are to be deleted */
-	private ArrayList<State> deleteStates;
-	/** initial size of state hash map */
-	private final int initSize = 3000;
+	/** active states and their properties (probabilities, successors, etc.) */
+	private FAUStatePool states;
+	/** slots of states for which successor rates are to be computed */
+	private int[] addDistr;
+	/** number of entries of addDistr used */
+	private int numAddDistr;
+	/** slots of states which are to be deleted */
+	private int[] deleteStates;
+	/** scratch space for successor slots of a state */
+	private int[] succSlotsTmp = new int[16];
+	/** scratch space for successor rates of a state */
+	private double[] succRatesTmp = new double[16];
 	/** maximal total leaving rate of all states alive */
 	private double maxRate = 0.0;
 	/** target state set - used for reachability (until or finally properties) */
@@ -557,21 +244,18 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 	{
 		this.sink = sink;
 		if (states != null) {
-			for (Map.Entry<State,StateProp> statePair : states.entrySet()) {
-				State state = statePair.getKey();
-				StateProp prop = statePair.getValue();
+			for (int slot = 0, limit = states.getSlotLimit(); slot < limit; slot++) {
+				if (!states.isUsed(slot)) {
+					continue;
+				}
+				State state = states.getState(slot);
 				modelGen.exploreState(state);
 				specialLabels.setLabel(0, modelGen.getNumTransitions() == 0 ? Expression.True() : Expression.False());
 				specialLabels.setLabel(1, initStates.contains(state) ? Expression.True() : Expression.False());
 				Expression evSink = sink.deepCopy();
 				evSink = (Expression) evSink.expandLabels(specialLabels);
 				if (evSink.evaluateBoolean(constantValues, state)) {
-					double[] succRates = new double[1];
-					StateProp[] succStates = new StateProp[1];
-					succRates[0] = 1.0;
-					succStates[0] = states.get(state);
-					prop.setSuccRates(succRates);
-					prop.setSuccStates(succStates);
+					setSelfLoop(slot);
 				}
 			}
 		}
@@ -616,9 +300,7 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 		}
 		
 		/* prepare fast adaptive uniformisation */
-		addDistr = new ArrayList<State>();
-		deleteStates = new ArrayList<State>();
-		states = new LinkedHashMap<State,StateProp>(initSize);
+		createStatePool();
 		value = 0.0;
 		initStates = new HashSet<State>();
 		ListIterator<State> it = initDist.statesList.listIterator();
@@ -631,22 +313,22 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 		it = initDist.statesList.listIterator();
 		for (int stateNr = 0; stateNr < initDist.size; stateNr++) {
 			State initState = it.next();
-			computeStateRatesAndRewards(initState);
-			states.get(initState).setProb(values[stateNr]);
-			maxRate = Math.max(maxRate, states.get(initState).sumRates() * 1.02);			
+			int slot = computeStateRatesAndRewards(initState);
+			states.setProb(slot, values[stateNr]);
+			maxRate = Math.max(maxRate, states.sumRates(slot) * 1.02);
 		}
 
 		/* run fast adaptive uniformisation */
 		computeTransientProbsAdaptive(time);
 
 		/* prepare and return results */
-		ArrayList<State> statesList = new ArrayList<State>(states.size());
+		List<State> statesList = states.getStates();
 		double[] probsArr = new double[states.size()];
 		int probsArrEntry = 0;
-		for (Map.Entry<State,StateProp> statePair : states.entrySet()) {
-			statesList.add(statePair.getKey());
-			probsArr[probsArrEntry] = statePair.getValue().getProb();
-			probsArrEntry++;
+		for (int slot = 0, limit = states.getSlotLimit(); slot < limit; slot++) {
+			if (states.isUsed(slot)) {
+				probsArr[probsArrEntry++] = states.getProb(slot);
+			}
 		}
 		StateValues probs = StateValues.createFromDoubleArray(probsArr, statesList);
 
@@ -667,9 +349,7 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 	public void computeTransientProbsAdaptive(double time) throws PrismException
 	{
 		if (addDistr == null) {
-			addDistr = new ArrayList<State>();
-			deleteStates = new ArrayList<State>();
-			states = new LinkedHashMap<State,StateProp>(initSize);
+			createStatePool();
 			value = 0.0;
 			prepareInitialDistribution();
 		}
@@ -680,44 +360,74 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 		}
 		if (initIval != 0.0) {
 			iterateAdaptiveInterval(initIval);
-			for (StateProp prop : states.values()) {
-				prop.setProb(prop.getSum());
-				prop.setSum(0.0);
-				prop.setNextProb(0.0);
-			}
+			startNextInterval();
 			updateStates();
 		}
 
 		for (int ivalNr = 0; ivalNr < numIntervals; ivalNr++) {
 			double interval = (time - initIval) / numIntervals;
 			iterateAdaptiveInterval(interval);
-			for (StateProp prop : states.values()) {
-				prop.setProb(prop.getSum());
-				prop.setSum(0.0);
-				prop.setNextProb(0.0);
-			}
+			startNextInterval();
 			updateStates();
 		}
 		if (AnalysisType.REW_INST == analysisType) {
-			for (StateProp prop : states.values()) {
-				value += prop.getProb() * prop.getReward();
+			for (int slot = 0, limit = states.getSlotLimit(); slot < limit; slot++) {
+				if (states.isUsed(slot)) {
+					value += states.getProb(slot) * states.getReward(slot);
+				}
 			}
 		} else {
-			for (Map.Entry<State,StateProp> statePair : states.entrySet()) {
-				State state = statePair.getKey();
-				StateProp prop = statePair.getValue();
+			for (int slot = 0, limit = states.getSlotLimit(); slot < limit; slot++) {
+				if (!states.isUsed(slot)) {
+					continue;
+				}
+				State state = states.getState(slot);
 				modelGen.exploreState(state);
 				specialLabels.setLabel(0, modelGen.getNumTransitions() == 0 ? Expression.True() : Expression.False());
 				specialLabels.setLabel(1, initStates.contains(state) ? Expression.True() : Expression.False());
 				Expression evTarget = target.deepCopy();
 				evTarget = (Expression) evTarget.expandLabels(specialLabels);
 				if (AnalysisType.REACH == analysisType) {
-					value += prop.getProb() * (evTarget.evaluateBoolean(constantValues, state) ? 1.0 : 0.0);
+					value += states.getProb(slot) * (evTarget.evaluateBoolean(constantValues, state) ? 1.0 : 0.0);
 				}
 			}
 		}
 	}
 
+	/**
+	 * Creates an empty pool of states (and associated storage) for the analysis.
+	 * States are stored in packed form if the model variables allow it.
+	 * 
+	 * @throws PrismException thrown if problems in underlying function occurs
+	 */
+	private void createStatePool() throws PrismException
+	{
+		VarList varList = null;
+		try {
+			varList = modelGen.createVarList();
+		} catch (PrismException e) {
+			// States will not be packed
+		}
+		states = new FAUStatePool(varList);
+		addDistr = new int[16];
+		deleteStates = new int[16];
+	}
+
+	/**
+	 * Prepares the states for the next time interval.
+	 * The probability of each state is set to its weighted sum probability.
+	 */
+	private void startNextInterval()
+	{
+		for (int slot = 0, limit = states.getSlotLimit(); slot < limit; slot++) {
+			if (states.isUsed(slot)) {
+				states.setProb(slot, states.getSum(slot));
+				states.setSum(slot, 0.0);
+				states.setNextProb(slot, 0.0);
+			}
+		}
+	}
+
 	/**
 	 * Performs fast adaptive uniformisation for a single time interval.
 	 * 
@@ -746,8 +456,10 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 				birthProcTimer = System.currentTimeMillis() - birthProcTimer;
 				birthProbSum += prob;
 				collectValuePostIter(prob, birthProbSum);
-				for (StateProp prop : states.values()) {
-					prop.addToSum(prob);
+				for (int slot = 0, limit = states.getSlotLimit(); slot < limit; slot++) {
+					if (states.isUsed(slot)) {
+						states.addToSum(slot, prob);
+					}
 				}
 				
 				mvMult(maxRate);
@@ -780,25 +492,28 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 	{
 		/* build backwards matrix and map values */
 		int numStates = states.size();
+		int limit = states.getSlotLimit();
 		int numTransitions = 0;
-		for (StateProp prop : states.values()) {
-			numTransitions += prop.getNumSuccs() + 1;
+		for (int slot = 0; slot < limit; slot++) {
+			if (states.isUsed(slot)) {
+				numTransitions += states.getNumSuccs(slot) + 1;
+			}
 		}
 		int stateNr = 0;
-		HashMap<StateProp,Integer> stateToNumber = new HashMap<StateProp,Integer>(numStates);
-		StateProp[] numberToState = new StateProp[numStates];
-		for (StateProp prop : states.values()) {
-			if (prop.isAlive()) {
-				stateToNumber.put(prop, stateNr);
-				numberToState[stateNr] = prop;
+		int[] slotToNumber = new int[limit];
+		int[] numberToSlot = new int[numStates];
+		for (int slot = 0; slot < limit; slot++) {
+			if (states.isUsed(slot) && states.isAlive(slot)) {
+				slotToNumber[slot] = stateNr;
+				numberToSlot[stateNr] = slot;
 				stateNr++;
 			}
 		}
 		int numAlive = stateNr;
-		for (StateProp prop : states.values()) {
-			if (!prop.isAlive()) {
-				stateToNumber.put(prop, stateNr);
-				numberToState[stateNr] = prop;
+		for (int slot = 0; slot < limit; slot++) {
+			if (states.isUsed(slot) && !states.isAlive(slot)) {
+				slotToNumber[slot] = stateNr;
+				numberToSlot[stateNr] = slot;
 				stateNr++;
 			}
 		}
@@ -807,33 +522,21 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 		int[] rows = new int[numStates + 1];
 		int[] cols = new int[numTransitions];
 		double[] outRates = new double[numStates];
-		for (StateProp prop : states.values()) {
-			StateProp[] succStates = prop.getSuccStates();
-			if (succStates != null) {
-				for (StateProp succ : succStates) {
-					rows[stateToNumber.get(succ) + 1]++;
-				}
-			}
-			rows[stateToNumber.get(prop) + 1]++;
-		}
-		for (stateNr = 0; stateNr < numStates; stateNr++) {
-			rows[stateNr + 1] += rows[stateNr];
-		}
+		countIncoming(rows, slotToNumber);
 
-		for (StateProp prop : states.values()) {
-			int stateNumber = stateToNumber.get(prop);
-			StateProp[] succStates = prop.getSuccStates();
-			double[] succRates = prop.getSuccRates();
-			if (succStates != null) {
-				for (int i = 0; i < succStates.length; i++) {
-					StateProp succState = succStates[i];
-					int succStateNumber = stateToNumber.get(succState);
-					double succRate = succRates[i];
-					cols[rows[succStateNumber]] = stateNumber;
-					inProbs[rows[succStateNumber]] = succRate / maxRate;
-					rows[succStateNumber]++;
-					outRates[stateNumber] += succRate;
-				}
+		for (int slot = 0; slot < limit; slot++) {
+			if (!states.isUsed(slot)) {
+				continue;
+			}
+			int stateNumber = slotToNumber[slot];
+			int start = states.getSuccStart(slot);
+			for (int i = start, end = start + states.getNumSuccs(slot); i < end; i++) {
+				int succStateNumber = slotToNumber[states.getSuccSlot(i)];
+				double succRate = states.getSuccRate(i);
+				cols[rows[succStateNumber]] = stateNumber;
+				inProbs[rows[succStateNumber]] = succRate / maxRate;
+				rows[succStateNumber]++;
+				outRates[stateNumber] += succRate;
 			}
 		}
 
@@ -843,30 +546,19 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 		}
 
 		Arrays.fill(rows, 0);
-		for (StateProp prop : states.values()) {
-			StateProp[] succStates = prop.getSuccStates();
-			if (succStates != null) {
-				for (StateProp succ : succStates) {
-					rows[stateToNumber.get(succ) + 1]++;
-				}
-			}
-			rows[stateToNumber.get(prop) + 1]++;
-		}
-		for (stateNr = 0; stateNr < numStates; stateNr++) {
-			rows[stateNr + 1] += rows[stateNr];
-		}
+		countIncoming(rows, slotToNumber);
 
 		double[] rewards = new double[numStates];
 		double[] probs = new double[numStates];
 		double[] nextProbs = new double[numStates];
 		double[] sum = new double[numStates];
-		for (stateNr = 0; stateNr < numberToState.length; stateNr++) {
-			StateProp prop = numberToState[stateNr];
+		for (stateNr = 0; stateNr < numStates; stateNr++) {
+			int slot = numberToSlot[stateNr];
 			if (analysisType == AnalysisType.REW_CUMUL) {
-				rewards[stateNr] = prop.getReward();
+				rewards[stateNr] = states.getReward(slot);
 			}
-			probs[stateNr] = prop.getProb();
-			sum[stateNr] = prop.getSum();
+			probs[stateNr] = states.getProb(slot);
+			sum[stateNr] = states.getSum(slot);
 		}
 
 		/* iterate using matrix */
@@ -897,15 +589,38 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 		}
 		
 		/* map back, update states and return current iteration */
-		for (stateNr = 0; stateNr < numberToState.length; stateNr++) {
-			StateProp prop = numberToState[stateNr];
-			prop.setProb(probs[stateNr]);
-			prop.setSum(sum[stateNr]);
+		for (stateNr = 0; stateNr < numStates; stateNr++) {
+			int slot = numberToSlot[stateNr];
+			states.setProb(slot, probs[stateNr]);
+			states.setSum(slot, sum[stateNr]);
 		}
 		updateStates();
 		return iters;
 	}
 
+	/**
+	 * For the backwards matrix built by {@code arrayIterate}, compute the start of the
+	 * row of each state (numbered via {@code slotToNumber}), i.e., {@code rows[n]} is the
+	 * total number of incoming transitions (including self-loops) of states numbered below n.
+	 */
+	private void countIncoming(int[] rows, int[] slotToNumber)
+	{
+		int numStates = rows.length - 1;
+		for (int slot = 0, limit = states.getSlotLimit(); slot < limit; slot++) {
+			if (!states.isUsed(slot)) {
+				continue;
+			}
+			int start = states.getSuccStart(slot);
+			for (int i = start, end = start + states.getNumSuccs(slot); i < end; i++) {
+				rows[slotToNumber[states.getSuccSlot(i)] + 1]++;
+			}
+			rows[slotToNumber[slot] + 1]++;
+		}
+		for (int stateNr = 0; stateNr < numStates; stateNr++) {
+			rows[stateNr + 1] += rows[stateNr];
+		}
+	}
+
 	/**
 	 * Update analysis value after iteration.
 	 * For certain analyses (currently cumulative rewards) we have to modify
@@ -928,8 +643,10 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 			break;
 		case REW_CUMUL:
 			double mixed = (1.0 - probSum) / maxRate;
-			for (StateProp prop : states.values()) {
-				value += prop.getProb() * mixed * prop.getReward();
+			for (int slot = 0, limit = states.getSlotLimit(); slot < limit; slot++) {
+				if (states.isUsed(slot)) {
+					value += states.getProb(slot) * mixed * states.getReward(slot);
+				}
 			}
 			break;
 		}
@@ -949,25 +666,29 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 	private void updateStates() throws PrismException
 	{
 		maxRate = 0.0;
-		addDistr.clear();
-		for (Map.Entry<State,StateProp> statePair : states.entrySet()) {
-			State state = statePair.getKey();
-			StateProp prop = statePair.getValue();
-			if (prop.getProb() > delta) {
-				prop.setAlive(true);
-				if (!prop.hasSuccs()) {
+		numAddDistr = 0;
+		for (int slot = 0, limit = states.getSlotLimit(); slot < limit; slot++) {
+			if (!states.isUsed(slot)) {
+				continue;
+			}
+			if (states.getProb(slot) > delta) {
+				states.setAlive(slot, true);
+				if (!states.hasSuccs(slot)) {
 					itersUnchanged = 0;
-					addDistr.add(state);
+					if (numAddDistr == addDistr.length) {
+						addDistr = Arrays.copyOf(addDistr, 2 * numAddDistr);
+					}
+					addDistr[numAddDistr++] = slot;
 				} else {
-					maxRate = Math.max(maxRate, prop.sumRates());
+					maxRate = Math.max(maxRate, states.sumRates(slot));
 				}
 			} else {
-				prop.delete();
+				states.delete(slot);
 			}
 		}
-		for (int stateNr = 0; stateNr < addDistr.size(); stateNr++) {
-			computeStateRatesAndRewards(addDistr.get(stateNr));
-			maxRate = Math.max(maxRate, states.get(addDistr.get(stateNr)).sumRates());
+		for (int i = 0; i < numAddDistr; i++) {
+			int slot = computeStateRatesAndRewards(states.getState(addDistr[i]));
+			maxRate = Math.max(maxRate, states.sumRates(slot));
 		}
 		maxRate *= 1.02;
 
@@ -983,17 +704,19 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 	private void removeDeletedStates()
 	{
 		boolean unchanged = true;
-		for (Map.Entry<State,StateProp> statePair : states.entrySet()) {
-			State state = statePair.getKey();
-			StateProp prop = statePair.getValue();
-			if (prop.canRemove()) {
-				deleteStates.add(state);
+		int numDelete = 0;
+		for (int slot = 0, limit = states.getSlotLimit(); slot < limit; slot++) {
+			if (states.isUsed(slot) && states.canRemove(slot)) {
+				if (numDelete == deleteStates.length) {
+					deleteStates = Arrays.copyOf(deleteStates, 2 * numDelete);
+				}
+				deleteStates[numDelete++] = slot;
 				unchanged = false;
 			}
 		}
 		if (!keepSumProb) {
-			for (int i = 0; i < deleteStates.size(); i++) {
-				states.remove(deleteStates.get(i));
+			for (int i = 0; i < numDelete; i++) {
+				states.remove(deleteStates[i]);
 			}
 		}
 		if (unchanged) {
@@ -1001,7 +724,6 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 		} else {
 			itersUnchanged = 0;
 		}
-		deleteStates.clear();
 	}
     
 	/**
@@ -1015,9 +737,9 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 		State initState = modelGen.getInitialState();
 		initStates.add(initState);
 		addToModel(initState);
-		computeStateRatesAndRewards(initState);
-		states.get(initState).setProb(1.0);
-		maxRate = states.get(initState).sumRates() * 1.02;
+		int slot = computeStateRatesAndRewards(initState);
+		states.setProb(slot, 1.0);
+		maxRate = states.sumRates(slot) * 1.02;
 	}
 
     /**
@@ -1028,8 +750,10 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 	public void computeTotalDiscreteLoss()
 	{
 		double totalProb = 0;
-		for (StateProp prop : states.values()) {
-			totalProb += prop.getSum();
+		for (int slot = 0, limit = states.getSlotLimit(); slot < limit; slot++) {
+			if (states.isUsed(slot)) {
+				totalProb += states.getSum(slot);
+			}
 		}
 		totalProb += totalProbSetZero;
 		
@@ -1051,17 +775,19 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 	 * @throws PrismException 
 	 */
 	public void clearSinkStates() throws PrismException {
-		for (Map.Entry<State,StateProp> statePair : states.entrySet()) {
-			State state = statePair.getKey();
-			StateProp prop = statePair.getValue();
+		for (int slot = 0, limit = states.getSlotLimit(); slot < limit; slot++) {
+			if (!states.isUsed(slot)) {
+				continue;
+			}
+			State state = states.getState(slot);
 			modelGen.exploreState(state);
 			specialLabels.setLabel(0, modelGen.getNumTransitions() == 0 ? Expression.True() : Expression.False());
 			specialLabels.setLabel(1, initStates.contains(state) ? Expression.True() : Expression.False());
 			Expression evSink = sink.deepCopy();
 			evSink = (Expression) evSink.expandLabels(specialLabels);
 			if (evSink.evaluateBoolean(constantValues, state)) {
-				totalProbSetZero += prop.getProb();
-				prop.setProb(0.0);
+				totalProbSetZero += states.getProb(slot);
+				states.setProb(slot, 0.0);
 			}
 		}
 	}
@@ -1072,14 +798,16 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 	 * and updates number of states
 	 * 
 	 * @param state state to add
+	 * @return slot of the state in the state pool
 	 * @throws PrismException thrown if something wrong happens in underlying methods
 	 */
-	private void addToModel(State state) throws PrismException
+	private int addToModel(State state) throws PrismException
 	{
-		StateProp prop = new StateProp();
-		prop.setReward(computeRewards(state));
-		states.put(state, prop);
+		double reward = computeRewards(state);
+		int slot = states.add(state);
+		states.setReward(slot, reward);
 		maxNumStates = Math.max(maxNumStates, states.size());
+		return slot;
 	}
 
 	/**
@@ -1088,54 +816,60 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 	 * {@code setRewardStruct}.
 	 * 
 	 * @param state state to compute successor rates and rewards for
+	 * @return slot of the state in the state pool
 	 * @throws PrismException thrown if something goes wrong
 	 */
-	private void computeStateRatesAndRewards(State state) throws PrismException
+	private int computeStateRatesAndRewards(State state) throws PrismException
 	{
-		double[] succRates;
-		StateProp[] succStates;
+		int slot = states.find(state);
 		modelGen.exploreState(state);
 		specialLabels.setLabel(0, modelGen.getNumTransitions() == 0 ? Expression.True() : Expression.False());
 		specialLabels.setLabel(1, initStates.contains(state) ? Expression.True() : Expression.False());
 		Expression evSink = sink.deepCopy();
 		evSink = (Expression) evSink.expandLabels(specialLabels);
 		if (evSink.evaluateBoolean(constantValues, state)) {
-			succRates = new double[1];
-			succStates = new StateProp[1];
-			succRates[0] = 1.0;
-			succStates[0] = states.get(state);
+			setSelfLoop(slot);
 		} else {
 			int ntAll = modelGen.getNumTransitions();
 			if (ntAll > 0) {
-				succRates = new double[ntAll];
-				succStates = new StateProp[ntAll];
-
+				if (ntAll > succSlotsTmp.length) {
+					succSlotsTmp = new int[ntAll];
+					succRatesTmp = new double[ntAll];
+				}
 				int t = 0;
 				for (int i = 0, nc = modelGen.getNumChoices(); i < nc; i++) {
 					for (int j = 0, ntChoice = modelGen.getNumTransitions(i); j < ntChoice; j++) {
 						State succState = modelGen.computeTransitionTarget(i, j);
-						StateProp succProp = states.get(succState);
-						if (null == succProp) {
-							addToModel(succState);
-							succProp = states.get(succState);
+						int succSlot = states.find(succState);
+						if (succSlot == -1) {
+							succSlot = addToModel(succState);
 
 							// re-explore state, as call to addToModel may have explored succState
 							modelGen.exploreState(state);
 						}
-						succRates[t] = modelGen.getTransitionProbability(i, j);
-						succStates[t] = succProp;
+						succRatesTmp[t] = modelGen.getTransitionProbability(i, j);
+						succSlotsTmp[t] = succSlot;
 						t++;
 					}
 				}
+				states.setSuccs(slot, succSlotsTmp, succRatesTmp, ntAll);
 			} else {
-				succRates = new double[1];
-				succStates = new StateProp[1];
-				succRates[0] = 1.0;
-				succStates[0] = states.get(state);
+				setSelfLoop(slot);
 			}
 		}
-		states.get(state).setSuccRates(succRates);
-		states.get(state).setSuccStates(succStates);
+		return slot;
+	}
+
+	/**
+	 * Make a state absorbing, i.e., set its successors to be a single self-loop with rate 1.
+	 * 
+	 * @param slot slot of the state in the state pool
+	 */
+	private void setSelfLoop(int slot)
+	{
+		succSlotsTmp[0] = slot;
+		succRatesTmp[0] = 1.0;
+		states.setSuccs(slot, succSlotsTmp, succRatesTmp, 1);
 	}
 
 	/**
@@ -1145,22 +879,25 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 	 */
 	private void mvMult(double maxRate)
 	{
-		for (StateProp prop : states.values()) {
-			double[] succRates = prop.getSuccRates();
-			StateProp[] succStates = prop.getSuccStates();
-			double stateProb = prop.getProb();
-			if (null != succStates) {
-				double sumRates = 0.0;
-				for (int succ = 0; succ < succStates.length; succ++) {
-				    double rate = succRates[succ];
-				    sumRates += rate;
-				    succStates[succ].addToNextProb((rate / maxRate) * stateProb);
-				}
-				prop.addToNextProb(((maxRate - sumRates) / maxRate) * prop.getProb());
+		int limit = states.getSlotLimit();
+		for (int slot = 0; slot < limit; slot++) {
+			if (!states.isUsed(slot) || !states.hasSuccs(slot)) {
+				continue;
+			}
+			double stateProb = states.getProb(slot);
+			double sumRates = 0.0;
+			int start = states.getSuccStart(slot);
+			for (int i = start, end = start + states.getNumSuccs(slot); i < end; i++) {
+				double rate = states.getSuccRate(i);
+				sumRates += rate;
+				states.addToNextProb(states.getSuccSlot(i), (rate / maxRate) * stateProb);
 			}
+			states.addToNextProb(slot, ((maxRate - sumRates) / maxRate) * stateProb);
 		}
-		for (StateProp prop : states.values()) {
-			prop.prepareNextIteration();
+		for (int slot = 0; slot < limit; slot++) {
+			if (states.isUsed(slot)) {
+				states.prepareNextIteration(slot);
+			}
 		}
 	}
 
@@ -63,13 +63,14 @@ public class IndexedSet<T> implements StateStorage<T>
 	@Override
 	public boolean add(T state)
 	{
-		Integer i = set.get(state);
+		// Single lookup: store with the next free index, unless already present
+		int n = set.size();
+		Integer i = set.putIfAbsent(state, n);
 		if (i != null) {
 			indexOfLastAdd = i;
 			return false;
 		} else {
-			indexOfLastAdd = set.size();
-			set.put(state, set.size());
+			indexOfLastAdd = n;
 			return true;
 		}
 	}
@@ -171,9 +172,11 @@ public class IndexedSet<T> implements StateStorage<T>
 	}
 	
 	/**
-	 * Build sort permutation. Assuming this was built as a sorted set,
-	 * this returns a permutation (integer array) mapping current indices
-	 * to new indices under the sorting order.
+	 * Build sort permutation. This returns a permutation (integer array) mapping
+	 * current indices to new indices under the sorting order.
+	 * If this was built as a sorted set, the order is already known;
+	 * otherwise, the objects are sorted (in parallel) using their natural ordering,
+	 * in which case they must implement {@link Comparable}.
 	 */
 	@Override
 	public int[] buildSortingPermutation()
@@ -184,12 +187,38 @@ public class IndexedSet<T> implements StateStorage<T>
 		n = set.size();
 		perm = new int[n];
 		i = 0;
-		for (Map.Entry<T, Integer> e : set.entrySet()) {
-			perm[e.getValue()] = i++;
+		if (set instanceof SortedMap) {
+			for (Map.Entry<T, Integer> e : set.entrySet()) {
+				perm[e.getValue()] = i++;
+			}
+		} else {
+			Map.Entry<T, Integer> entries[] = set.entrySet().toArray(newEntryArray(n));
+			Arrays.parallelSort(entries, IndexedSet::compareEntryKeys);
+			for (Map.Entry<T, Integer> e : entries) {
+				perm[e.getValue()] = i++;
+			}
 		}
 		
 		return perm;
 	}
+
+	/**
+	 * Create an array of map entries of size {@code n}.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> Map.Entry<T, Integer>[] newEntryArray(int n)
+	{
+		return (Map.Entry<T, Integer>[]) new Map.Entry<?, ?>[n];
+	}
+
+	/**
+	 * Compare the keys of two map entries, using their natural ordering.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> int compareEntryKeys(Map.Entry<T, Integer> e1, Map.Entry<T, Integer> e2)
+	{
+		return ((Comparable<? super T>) e1.getKey()).compareTo(e2.getKey());
+	}
 	
 	@Override
 	public String toString()
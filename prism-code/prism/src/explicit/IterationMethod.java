@@ -683,6 +683,9 @@ public abstract class IterationMethod {
 			mc.getLog().print(mvCount + " multiplications");
 			mc.getLog().println(" and " + timer / 1000.0 + " seconds.");
 
+			if (done) {
+				mc.keepIntervalIterationBounds(below.getSolnVector(), above.getSolnVector());
+			}
 			if (done && OptionsIntervalIteration.from(mc.getSettings()).isSelectMidpointForResult()) {
 				PrismUtils.selectMidpoint(below.getSolnVector(), above.getSolnVector());
 
@@ -840,6 +843,9 @@ public abstract class IterationMethod {
 			mc.getLog().print(mvCount + " multiplications");
 			mc.getLog().println(" and " + timer / 1000.0 + " seconds.");
 
+			if (done) {
+				mc.keepIntervalIterationBounds(below.getSolnVector(), above.getSolnVector());
+			}
 			if (done && OptionsIntervalIteration.from(mc.getSettings()).isSelectMidpointForResult()) {
 				PrismUtils.selectMidpoint(below.getSolnVector(), above.getSolnVector());
 
@@ -873,6 +879,487 @@ public abstract class IterationMethod {
 		}
 	}
 
+	/**
+	 * Perform the actual work of an optimistic value iteration, i.e., iterate until convergence or abort.
+	 * <br>
+	 * Value iteration from below is performed until (standard) convergence, then an upper bound is
+	 * guessed by adding epsilon to the values and verified by iterating from it: once applying
+	 * the iteration does not increase the guess for any state, it is a valid upper bound
+	 * (it is above the least fixed point). Then, lower and upper bounds are iterated until close.
+	 * If the guess turns out to be wrong, value iteration continues with a smaller threshold.
+	 * This usually needs far fewer iterations than interval iteration.
+	 * <br>
+	 * The iteration objects are as for interval iteration, but the iteration from above must
+	 * not enforce monotonicity. Its initial values are a (coarse) upper bound,
+	 * which is used to cap the guesses.
+	 *
+	 * @param mc ProbModelChecker (for log and settings)
+	 * @param description Description (for logging)
+	 * @param below The iteration object for the iteration from below
+	 * @param above The iteration object for the iteration from above
+	 * @param unknownStates The set of unknown states, i.e., whose value should be determined
+	 * @param startTime The start time (for logging purposes, obtained from a call to System.currentTimeMillis())
+	 * @param iterationsExport an ExportIterations object (optional, ignored if null)
+	 * @return a ModelChecker result with the solution vector and statistics
+	 * @throws PrismException on non-convergence (if mc.errorOnNonConverge is set)
+	 */
+	public ModelCheckerResult doOptimisticValueIteration(ProbModelChecker mc, String description, IterationIntervalIter below, IterationIntervalIter above, IntSet unknownStates, long timer, ExportIterations iterationsExport) throws PrismException
+	{
+		try {
+			OptimisticIteration ovi = new OptimisticIteration(mc, below, above, iterationsExport);
+			boolean done = ovi.solve(unknownStates);
+			long mvCount = ovi.sweeps * below.getModel().getNumTransitions(unknownStates.iterator());
+			return finishOptimisticValueIteration(mc, description, ovi, done, mvCount, timer, iterationsExport);
+		} finally {
+			if (iterationsExport != null)
+				iterationsExport.close();
+		}
+	}
+
+	/**
+	 * Perform the actual work of a topological optimistic value iteration, i.e., iterate until convergence or abort.
+	 * Non-singleton SCCs are solved in topological order, as for {@link #doOptimisticValueIteration}.
+	 *
+	 * @param mc ProbModelChecker (for log and settings)
+	 * @param description Description (for logging)
+	 * @param sccs The information about the SCCs and topological order
+	 * @param below The iteration object for the value iteration from below
+	 * @param above The iteration object for the value iteration from above
+	 * @param singletonSCCSolver The solver for singleton SCCs
+	 * @param startTime The start time (for logging purposes, obtained from a call to System.currentTimeMillis())
+	 * @param iterationsExport an ExportIterations object (optional, ignored if null)
+	 * @return a ModelChecker result with the solution vector and statistics
+	 * @throws PrismException on non-convergence (if mc.errorOnNonConverge is set)
+	 */
+	public ModelCheckerResult doTopologicalOptimisticValueIteration(ProbModelChecker mc, String description, SCCInfo sccs, IterationIntervalIter below, IterationIntervalIter above, SingletonSCCSolver singletonSCCSolver, long timer, ExportIterations iterationsExport) throws PrismException
+	{
+		try {
+			OptimisticIteration ovi = new OptimisticIteration(mc, below, above, iterationsExport);
+			long mvCount = 0;
+			int numSCCs = sccs.getNumSCCs();
+			int numNonSingletonSCCs = sccs.countNonSingletonSCCs();
+
+			boolean done = true;
+			for (int scc = 0; scc < numSCCs; scc++) {
+				if (sccs.isSingletonSCC(scc)) {
+					// get the single state in this SCC
+					int state = sccs.getStatesForSCC(scc).iterator().nextInt();
+					below.solveSingletonSCC(state, singletonSCCSolver);
+					above.solveSingletonSCC(state, singletonSCCSolver);
+
+					ovi.iters++;
+					mvCount += 2 * below.getModel().getNumTransitions(state);
+
+					if (iterationsExport != null) {
+						iterationsExport.exportVector(below.getSolnVector(), 0);
+						iterationsExport.exportVector(above.getSolnVector(), 1);
+					}
+
+					intervalIterationCheckForProblems(below.getSolnVector(), above.getSolnVector(), IntSet.asIntSet(state).iterator());
+				} else {
+					IntSet statesForSCC = sccs.getStatesForSCC(scc);
+					long sweeps = ovi.sweeps;
+					// iterations are bounded *in this SCC*
+					ovi.itersInSCC = 0;
+					boolean doneSCC = ovi.solve(statesForSCC);
+					below.doneWith(statesForSCC);
+					above.doneWith(statesForSCC);
+					mvCount += (ovi.sweeps - sweeps) * below.getModel().getNumTransitions(statesForSCC.iterator());
+					if (!doneSCC) {
+						done = false;
+						break;
+					}
+				}
+			}
+
+			return finishOptimisticValueIteration(mc, description + ", with " + numNonSingletonSCCs + " non-singleton SCCs", ovi, done, mvCount, timer, iterationsExport);
+		} finally {
+			if (iterationsExport != null)
+				iterationsExport.close();
+		}
+	}
+
+	/**
+	 * Perform the actual work of a sound value iteration (see {@link SoundValueIteration}),
+	 * i.e., iterate until convergence or abort.
+	 * <br>
+	 * The iteration objects are as for interval iteration, but only their solution vectors are used,
+	 * to store the lower and upper bounds. Their initial values are (coarse) bounds,
+	 * which are tightened by the sound value iteration.
+	 *
+	 * @param mc ProbModelChecker (for log and settings)
+	 * @param description Description (for logging)
+	 * @param svi The sound value iteration for the unknown states
+	 * @param below The iteration object for the lower bounds
+	 * @param above The iteration object for the upper bounds
+	 * @param unknownStates The set of unknown states, i.e., whose value should be determined
+	 * @param startTime The start time (for logging purposes, obtained from a call to System.currentTimeMillis())
+	 * @param iterationsExport an ExportIterations object (optional, ignored if null)
+	 * @return a ModelChecker result with the solution vector and statistics
+	 * @throws PrismException on non-convergence (if mc.errorOnNonConverge is set)
+	 */
+	public ModelCheckerResult doSoundValueIteration(ProbModelChecker mc, String description, SoundValueIteration svi, IterationIntervalIter below, IterationIntervalIter above, IntSet unknownStates, long timer, ExportIterations iterationsExport) throws PrismException
+	{
+		try {
+			int[] iters = new int[1];
+			boolean done = solveSound(mc, svi, below, above, unknownStates, iters, iterationsExport);
+			long mvCount = iters[0] * below.getModel().getNumTransitions(unknownStates.iterator());
+			return finishSoundValueIteration(mc, description, below, above, done, iters[0], mvCount, timer, iterationsExport);
+		} finally {
+			if (iterationsExport != null)
+				iterationsExport.close();
+		}
+	}
+
+	/**
+	 * Perform the actual work of a topological sound value iteration, i.e., iterate until convergence or abort.
+	 * Non-singleton SCCs are solved in topological order, as for {@link #doSoundValueIteration},
+	 * the bounds for earlier SCCs being used for the transitions leaving an SCC.
+	 *
+	 * @param mc ProbModelChecker (for log and settings)
+	 * @param description Description (for logging)
+	 * @param sccs The information about the SCCs and topological order
+	 * @param svi The sound value iteration for the unknown states
+	 * @param below The iteration object for the lower bounds
+	 * @param above The iteration object for the upper bounds
+	 * @param singletonSCCSolver The solver for singleton SCCs
+	 * @param startTime The start time (for logging purposes, obtained from a call to System.currentTimeMillis())
+	 * @param iterationsExport an ExportIterations object (optional, ignored if null)
+	 * @return a ModelChecker result with the solution vector and statistics
+	 * @throws PrismException on non-convergence (if mc.errorOnNonConverge is set)
+	 */
+	public ModelCheckerResult doTopologicalSoundValueIteration(ProbModelChecker mc, String description, SCCInfo sccs, SoundValueIteration svi, IterationIntervalIter below, IterationIntervalIter above, SingletonSCCSolver singletonSCCSolver, long timer, ExportIterations iterationsExport) throws PrismException
+	{
+		try {
+			int[] iters = new int[1];
+			long mvCount = 0;
+			int numSCCs = sccs.getNumSCCs();
+			int numNonSingletonSCCs = sccs.countNonSingletonSCCs();
+
+			boolean done = true;
+			for (int scc = 0; scc < numSCCs; scc++) {
+				if (sccs.isSingletonSCC(scc)) {
+					// get the single state in this SCC
+					int state = sccs.getStatesForSCC(scc).iterator().nextInt();
+					below.solveSingletonSCC(state, singletonSCCSolver);
+					above.solveSingletonSCC(state, singletonSCCSolver);
+
+					iters[0]++;
+					mvCount += 2 * below.getModel().getNumTransitions(state);
+
+					if (iterationsExport != null) {
+						iterationsExport.exportVector(below.getSolnVector(), 0);
+						iterationsExport.exportVector(above.getSolnVector(), 1);
+					}
+
+					intervalIterationCheckForProblems(below.getSolnVector(), above.getSolnVector(), IntSet.asIntSet(state).iterator());
+				} else {
+					IntSet statesForSCC = sccs.getStatesForSCC(scc);
+					int itersBefore = iters[0];
+					boolean doneSCC = solveSound(mc, svi, below, above, statesForSCC, iters, iterationsExport);
+					mvCount += (iters[0] - itersBefore) * below.getModel().getNumTransitions(statesForSCC.iterator());
+					if (!doneSCC) {
+						done = false;
+						break;
+					}
+				}
+			}
+
+			return finishSoundValueIteration(mc, description + ", with " + numNonSingletonSCCs + " non-singleton SCCs", below, above, done, iters[0], mvCount, timer, iterationsExport);
+		} finally {
+			if (iterationsExport != null)
+				iterationsExport.close();
+		}
+	}
+
+	/**
+	 * Run sound value iteration for the states in {@code states}, whose successors outside
+	 * {@code states} are already known (or bounded), for at most mc.maxIters iterations.
+	 * The iterations are added to {@code iters[0]}. Returns false if the maximum number of iterations was reached.
+	 */
+	private boolean solveSound(ProbModelChecker mc, SoundValueIteration svi, IterationIntervalIter below, IterationIntervalIter above, IntSet states, int[] iters, ExportIterations iterationsExport) throws PrismException
+	{
+		final int maxIters = mc.maxIters;
+		double[] lower = below.getSolnVector();
+		double[] upper = above.getSolnVector();
+		boolean done = false;
+		int itersInSCC = 0;
+		PeriodicTimer updatesTimer = new PeriodicTimer(ProbModelChecker.UPDATE_DELAY);
+		updatesTimer.start();
+
+		svi.start(states, lower, upper);
+		while (!done && itersInSCC < maxIters) {
+			svi.iterate();
+			iters[0]++;
+			itersInSCC++;
+
+			if (iterationsExport != null) {
+				iterationsExport.exportVector(lower, 0);
+				iterationsExport.exportVector(upper, 1);
+			}
+
+			intervalIterationCheckForProblems(lower, upper, states.iterator());
+
+			// Check termination
+			done = PrismUtils.doublesAreClose(lower, upper, states.iterator(), termCritParam, absolute);
+
+			if (!done && updatesTimer.triggered()) {
+				double diff = PrismUtils.measureSupNormInterval(lower, upper, absolute, states.iterator());
+				mc.getLog().print("Iteration " + iters[0] + ": ");
+				mc.getLog().print("max " + (absolute ? "" : "relative ") + "diff=" + PrismUtils.formatDouble(LOGGING_PRECISION, diff));
+				mc.getLog().println(", " + PrismUtils.formatDouble2dp(updatesTimer.elapsedMillisTotal() / 1000.0) + " sec so far");
+			}
+		}
+		svi.finish();
+		return done;
+	}
+
+	/**
+	 * Log statistics and create the result for a sound value iteration.
+	 */
+	private ModelCheckerResult finishSoundValueIteration(ProbModelChecker mc, String description, IterationIntervalIter below, IterationIntervalIter above, boolean done, int iters, long mvCount, long timer, ExportIterations iterationsExport) throws PrismException
+	{
+		double maxError = Double.POSITIVE_INFINITY;
+		if (done) {
+			maxError = PrismUtils.measureSupNormInterval(below.getSolnVector(), above.getSolnVector(), absolute);
+			mc.getLog().println("Max " + (absolute ? "" : "relative ") +
+					"diff between upper and lower bound on convergence: " + PrismUtils.formatDouble(LOGGING_PRECISION, maxError));
+		}
+
+		// Finished value iteration
+		timer = System.currentTimeMillis() - timer;
+		mc.getLog().print("Sound value iteration (" + description + ")");
+		mc.getLog().print(" took " + iters + " iterations, ");
+		mc.getLog().print(mvCount + " multiplications");
+		mc.getLog().println(" and " + timer / 1000.0 + " seconds.");
+
+		if (done) {
+			mc.keepIntervalIterationBounds(below.getSolnVector(), above.getSolnVector());
+		}
+		if (done && OptionsIntervalIteration.from(mc.getSettings()).isSelectMidpointForResult()) {
+			PrismUtils.selectMidpoint(below.getSolnVector(), above.getSolnVector());
+
+			if (iterationsExport != null) {
+				// export midpoint
+				iterationsExport.exportVector(below.getSolnVector(), 0);
+				iterationsExport.exportVector(below.getSolnVector(), 1);
+			}
+		}
+
+		// Non-convergence is an error (usually)
+		if (!done && mc.errorOnNonConverge) {
+			String msg = "Iterative method (sound value iteration) did not converge within " + iters + " iterations.";
+			msg += "\nConsider using a different numerical method or increasing the maximum number of iterations";
+			throw new PrismException(msg);
+		}
+
+		// Return results
+		ModelCheckerResult res = new ModelCheckerResult();
+		res.soln = below.getSolnVector();
+		res.accuracy = AccuracyFactory.guaranteedNumericalIterative(maxError, absolute);
+		res.numIters = iters;
+		res.timeTaken = timer / 1000.0;
+		return res;
+	}
+
+	/**
+	 * Log statistics and create the result for an optimistic value iteration.
+	 */
+	private ModelCheckerResult finishOptimisticValueIteration(ProbModelChecker mc, String description, OptimisticIteration ovi, boolean done, long mvCount, long timer, ExportIterations iterationsExport) throws PrismException
+	{
+		IterationIntervalIter below = ovi.below;
+		IterationIntervalIter above = ovi.above;
+		double maxError = Double.POSITIVE_INFINITY;
+		if (done) {
+			maxError = PrismUtils.measureSupNormInterval(below.getSolnVector(), above.getSolnVector(), absolute);
+			mc.getLog().println("Max " + (absolute ? "" : "relative ") +
+					"diff between upper and lower bound on convergence: " + PrismUtils.formatDouble(LOGGING_PRECISION, maxError));
+		}
+
+		// Finished value iteration
+		timer = System.currentTimeMillis() - timer;
+		mc.getLog().print("Optimistic value iteration (" + description + ")");
+		mc.getLog().print(" took " + ovi.iters + " iterations (" + ovi.guesses + " upper bound guesses), ");
+		mc.getLog().print(mvCount + " multiplications");
+		mc.getLog().println(" and " + timer / 1000.0 + " seconds.");
+
+		if (done) {
+			mc.keepIntervalIterationBounds(below.getSolnVector(), above.getSolnVector());
+		}
+		if (done && OptionsIntervalIteration.from(mc.getSettings()).isSelectMidpointForResult()) {
+			PrismUtils.selectMidpoint(below.getSolnVector(), above.getSolnVector());
+
+			if (iterationsExport != null) {
+				// export midpoint
+				iterationsExport.exportVector(below.getSolnVector(), 0);
+				iterationsExport.exportVector(below.getSolnVector(), 1);
+			}
+		}
+
+		// Non-convergence is an error (usually)
+		if (!done && mc.errorOnNonConverge) {
+			String msg = "Iterative method (optimistic value iteration) did not converge within " + ovi.iters + " iterations.";
+			msg += "\nConsider using a different numerical method or increasing the maximum number of iterations";
+			throw new PrismException(msg);
+		}
+
+		// Return results
+		ModelCheckerResult res = new ModelCheckerResult();
+		res.soln = below.getSolnVector();
+		res.accuracy = AccuracyFactory.guaranteedNumericalIterative(maxError, absolute);
+		res.numIters = ovi.iters;
+		res.timeTaken = timer / 1000.0;
+		return res;
+	}
+
+	/**
+	 * The iteration phases of optimistic value iteration, for a set of states
+	 * (all unknown states, or an SCC for topological iteration).
+	 */
+	private class OptimisticIteration
+	{
+		final ProbModelChecker mc;
+		final IterationIntervalIter below;
+		final IterationIntervalIter above;
+		final ExportIterations iterationsExport;
+		/** Initial values from above, an upper bound that caps the guesses */
+		final double[] cap;
+		/** Previous values (from below in the iteration phase, from above in the verification phase) */
+		final double[] prev;
+		/** Number of iterations (overall and in the current SCC), sweeps over the states (one per vector) and upper bound guesses */
+		int iters = 0;
+		int itersInSCC = 0;
+		long sweeps = 0;
+		int guesses = 0;
+
+		OptimisticIteration(ProbModelChecker mc, IterationIntervalIter below, IterationIntervalIter above, ExportIterations iterationsExport)
+		{
+			this.mc = mc;
+			this.below = below;
+			this.above = above;
+			this.iterationsExport = iterationsExport;
+			cap = above.getSolnVector().clone();
+			prev = new double[cap.length];
+		}
+
+		/**
+		 * Compute values for the states in {@code states}, assuming that those of all their
+		 * successors outside {@code states} are already known (or bounded).
+		 * Returns false if the maximum number of iterations was reached.
+		 */
+		boolean solve(IntSet states) throws PrismException
+		{
+			final int maxIters = mc.maxIters;
+			double epsilon = termCritParam;
+			int viItersTotal = 0;
+			PeriodicTimer updatesTimer = new PeriodicTimer(ProbModelChecker.UPDATE_DELAY);
+			updatesTimer.start();
+
+			while (itersInSCC < maxIters) {
+				// Value iteration from below until (standard) convergence
+				int viIters = 0;
+				boolean converged = false;
+				while (!converged && itersInSCC < maxIters) {
+					copy(below.getSolnVector(), states);
+					below.iterate(states);
+					step(1);
+					viIters++;
+					converged = PrismUtils.doublesAreClose(prev, below.getSolnVector(), states.iterator(), epsilon, absolute);
+					if (!converged && updatesTimer.triggered()) {
+						mc.getLog().print("Iteration " + iters + ": ");
+						mc.getLog().println(PrismUtils.formatDouble2dp(updatesTimer.elapsedMillisTotal() / 1000.0) + " sec so far");
+					}
+				}
+				if (!converged) {
+					return false;
+				}
+				viItersTotal += viIters;
+
+				// Guess upper bound (capped by the initial values from above)
+				guesses++;
+				double[] lower = below.getSolnVector();
+				double[] upper = above.getSolnVector();
+				for (PrimitiveIterator.OfInt it = states.iterator(); it.hasNext();) {
+					int s = it.nextInt();
+					double guess = absolute ? lower[s] + termCritParam : lower[s] + termCritParam * Math.max(Math.abs(lower[s]), termCritParam);
+					upper[s] = Math.min(guess, cap[s]);
+				}
+
+				// Verification: iterate from the guess, for at most as many iterations as value iteration so far
+				boolean verified = false;
+				for (int k = 0; k < viItersTotal && !verified && itersInSCC < maxIters; k++) {
+					copy(above.getSolnVector(), states);
+					below.iterate(states);
+					above.iterate(states);
+					step(2);
+					lower = below.getSolnVector();
+					upper = above.getSolnVector();
+					boolean allDown = true, allUp = true, crossed = false;
+					for (PrimitiveIterator.OfInt it = states.iterator(); it.hasNext();) {
+						int s = it.nextInt();
+						if (upper[s] > prev[s])
+							allDown = false;
+						if (upper[s] < prev[s])
+							allUp = false;
+						if (lower[s] > upper[s])
+							crossed = true;
+					}
+					if (allDown) {
+						// the iteration does not increase the guess: it is an upper bound
+						verified = true;
+					} else if (allUp || crossed) {
+						// the guess is (partly) below the actual values
+						break;
+					} else {
+						// continue from the smaller of the two values
+						for (PrimitiveIterator.OfInt it = states.iterator(); it.hasNext();) {
+							int s = it.nextInt();
+							upper[s] = Math.min(upper[s], prev[s]);
+						}
+					}
+				}
+
+				if (verified) {
+					// Sound upper bound: iterate both bounds until close
+					while (itersInSCC < maxIters) {
+						if (PrismUtils.doublesAreClose(below.getSolnVector(), above.getSolnVector(), states.iterator(), termCritParam, absolute)) {
+							return true;
+						}
+						below.iterate(states);
+						above.iterate(states);
+						step(2);
+						intervalIterationCheckForProblems(below.getSolnVector(), above.getSolnVector(), states.iterator());
+					}
+					return false;
+				}
+				// Guess failed: continue value iteration with a smaller threshold
+				epsilon /= 2;
+			}
+			return false;
+		}
+
+		/** Copy the values of {@code states} to {@code prev} */
+		private void copy(double[] soln, IntSet states)
+		{
+			for (PrimitiveIterator.OfInt it = states.iterator(); it.hasNext();) {
+				int s = it.nextInt();
+				prev[s] = soln[s];
+			}
+		}
+
+		/** Count one iteration, consisting of {@code numSweeps} sweeps */
+		private void step(int numSweeps)
+		{
+			iters++;
+			itersInSCC++;
+			sweeps += numSweeps;
+			if (iterationsExport != null) {
+				iterationsExport.exportVector(below.getSolnVector(), 0);
+				iterationsExport.exportVector(above.getSolnVector(), 1);
+			}
+		}
+	}
+
 	/**
 	 * Compares the current lower and upper solution vectors in an interval iteration
 	 * and throws an exception if lower bound values are larger than upper bound values,
@@ -881,7 +1368,7 @@ public abstract class IterationMethod {
 	 * @param upper the current upper iteration solution vector
 	 * @param states iterator over the states in question
 	 */
-	private static void intervalIterationCheckForProblems(double[] lower, double[] upper, PrimitiveIterator.OfInt states) throws PrismException
+	static void intervalIterationCheckForProblems(double[] lower, double[] upper, PrimitiveIterator.OfInt states) throws PrismException
 	{
 		while (states.hasNext()) {
 			int s = states.nextInt();
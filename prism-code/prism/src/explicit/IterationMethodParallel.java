@@ -0,0 +1,938 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package explicit;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import common.IntSet;
+import common.PeriodicTimer;
+import explicit.rewards.MCRewards;
+import explicit.rewards.MDPRewards;
+import prism.AccuracyFactory;
+import prism.OptionsIntervalIteration;
+import prism.PrismException;
+import prism.PrismUtils;
+
+/**
+ * IterationMethod that encapsulates the functionality of the Power or Jacobi method,
+ * with the rows of each matrix-vector multiplication split across a fork/join pool.
+ * <br>
+ * Parallel iteration is only used for DTMCSparse and MDPSparse models, whose
+ * single-row multiplication methods only read the (immutable) model;
+ * for other models, the sequential Power/Jacobi methods are used instead.
+ * Since each row is computed exactly as in the sequential method (and the convergence
+ * check is equivalent), results and iteration counts are identical to those.
+ * <br>
+ * Topological (value or interval) iteration additionally solves independent SCCs concurrently.
+ */
+class IterationMethodParallel extends IterationMethod
+{
+	/** Minimum number of rows per task (smaller sets of rows are done sequentially) */
+	private static final int MIN_ROWS_PER_TASK = 2048;
+	/** Minimum number of states of an SCC for its iterations to be parallelised over the rows (smaller SCCs are solved concurrently) */
+	private static final int MIN_STATES_PARALLEL_SCC = 2 * MIN_ROWS_PER_TASK;
+
+	/** Shared pool (re-created if a different number of threads is requested) */
+	private static ForkJoinPool sharedPool = null;
+
+	/**
+	 * Functional interface for computing the new value of a single row.
+	 */
+	@FunctionalInterface
+	interface RowOperator
+	{
+		double apply(int s);
+	}
+
+	/** Use Jacobi (rather than Power) method? */
+	private final boolean jacobi;
+	/** Number of threads */
+	private final int numThreads;
+	/** Sequential version of this method, used for models that are not supported */
+	private final IterationMethod sequential;
+
+	/**
+	 * Constructor.
+	 * @param absolute For convergence check, perform absolute comparison?
+	 * @param termCritParam For convergence check, the epsilon value to use
+	 * @param jacobi Use Jacobi (rather than Power) method?
+	 * @param numThreads Number of threads to use
+	 */
+	public IterationMethodParallel(boolean absolute, double epsilon, boolean jacobi, int numThreads)
+	{
+		super(absolute, epsilon);
+		this.jacobi = jacobi;
+		this.numThreads = numThreads;
+		sequential = jacobi ? new IterationMethodJacobi(absolute, epsilon) : new IterationMethodPower(absolute, epsilon);
+	}
+
+	/**
+	 * Is parallel iteration supported for this model?
+	 */
+	public static boolean isSupported(Model<?> model)
+	{
+		return model instanceof DTMCSparse || model instanceof MDPSparse;
+	}
+
+	/**
+	 * Get the pool used for parallel iteration with the given number of threads.
+	 */
+	static synchronized ForkJoinPool getPool(int numThreads)
+	{
+		if (sharedPool == null || sharedPool.getParallelism() != numThreads) {
+			if (sharedPool != null) {
+				sharedPool.shutdown();
+			}
+			sharedPool = new ForkJoinPool(numThreads);
+		}
+		return sharedPool;
+	}
+
+	// ------------ Parallel row operations ----------------------------
+
+	/**
+	 * Task computing {@code result[s] = op.apply(s)} for the rows {@code rows[lo..hi)}.
+	 * If {@code old} is non-null, returns the maximum difference between {@code old} and {@code result}
+	 * over these rows (see {@link #difference(double, double, boolean)}).
+	 */
+	private static class RowTask extends RecursiveTask<Double>
+	{
+		private static final long serialVersionUID = 1L;
+		private final int[] rows;
+		private final int lo;
+		private final int hi;
+		private final int grain;
+		private final RowOperator op;
+		private final double[] old;
+		private final double[] result;
+		private final boolean absolute;
+
+		RowTask(int[] rows, int lo, int hi, int grain, RowOperator op, double[] old, double[] result, boolean absolute)
+		{
+			this.rows = rows;
+			this.lo = lo;
+			this.hi = hi;
+			this.grain = grain;
+			this.op = op;
+			this.old = old;
+			this.result = result;
+			this.absolute = absolute;
+		}
+
+		@Override
+		protected Double compute()
+		{
+			if (hi - lo > grain) {
+				int mid = (lo + hi) >>> 1;
+				RowTask left = new RowTask(rows, lo, mid, grain, op, old, result, absolute);
+				left.fork();
+				double maxRight = new RowTask(rows, mid, hi, grain, op, old, result, absolute).compute();
+				return Math.max(left.join(), maxRight);
+			}
+			return applyRows(rows, lo, hi, op, old, result, absolute);
+		}
+	}
+
+	/**
+	 * Compute {@code result[s] = op.apply(s)} for the rows {@code rows[lo..hi)}.
+	 * If {@code old} is non-null, return the maximum difference between {@code old} and {@code result}.
+	 */
+	private static double applyRows(int[] rows, int lo, int hi, RowOperator op, double[] old, double[] result, boolean absolute)
+	{
+		double max = 0.0;
+		for (int i = lo; i < hi; i++) {
+			int s = rows[i];
+			result[s] = op.apply(s);
+			if (old != null) {
+				max = Math.max(max, difference(old[s], result[s], absolute));
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Difference between an old and a new value, for the convergence check.
+	 * The difference is below epsilon iff the values are close according to
+	 * {@link prism.PrismUtils#doublesAreClose(double, double, double, boolean)}.
+	 */
+	private static double difference(double d1, double d2, boolean absolute)
+	{
+		if (Double.isInfinite(d1)) {
+			return (Double.isInfinite(d2) && (d1 > 0) == (d2 > 0)) ? 0.0 : Double.POSITIVE_INFINITY;
+		} else if (Double.isInfinite(d2)) {
+			return Double.POSITIVE_INFINITY;
+		}
+		double diff;
+		if (absolute) {
+			diff = Math.abs(d1 - d2);
+		} else if (d2 == 0) {
+			diff = d1 == 0 ? 0.0 : Double.POSITIVE_INFINITY;
+		} else {
+			diff = Math.abs((d1 - d2) / d1);
+		}
+		return Double.isNaN(diff) ? Double.POSITIVE_INFINITY : diff;
+	}
+
+	/**
+	 * Compute {@code result[s] = op.apply(s)} for all rows in {@code rows}, in parallel.
+	 * If {@code old} is non-null, return the maximum difference between {@code old} and {@code result}
+	 * over these rows (otherwise, return 0).
+	 */
+	public double applyRows(int[] rows, RowOperator op, double[] old, double[] result)
+	{
+		int grain = Math.max(MIN_ROWS_PER_TASK, rows.length / (4 * numThreads) + 1);
+		if (numThreads == 1 || rows.length <= grain) {
+			return applyRows(rows, 0, rows.length, op, old, result, absolute);
+		}
+		return getPool(numThreads).invoke(new RowTask(rows, 0, rows.length, grain, op, old, result, absolute));
+	}
+
+	/**
+	 * Matrix-vector multiplication for a DTMC, in parallel over the rows in {@code rows}
+	 * (as for {@link DTMC#mvMult(double[], double[], java.util.PrimitiveIterator.OfInt)}).
+	 * The DTMC should be supported, see {@link #isSupported(Model)}.
+	 */
+	public void mvMult(DTMC<Double> dtmc, double vect[], double result[], int[] rows)
+	{
+		applyRows(rows, s -> dtmc.mvMultSingle(s, vect), null, result);
+	}
+
+	/**
+	 * Matrix-vector multiplication and min/max for an MDP, in parallel over the rows in {@code rows}
+	 * (as for {@link MDP#mvMultMinMax(double[], boolean, double[], java.util.PrimitiveIterator.OfInt, int[])}).
+	 * The MDP should be supported, see {@link #isSupported(Model)}.
+	 */
+	public void mvMultMinMax(MDP<Double> mdp, double vect[], boolean min, double result[], int[] rows, int strat[])
+	{
+		applyRows(rows, s -> mdp.mvMultMinMaxSingle(s, vect, min, strat), null, result);
+	}
+
+	// ------------ Iteration objects ----------------------------
+
+	/**
+	 * Functional interface for computing the new value of a single row from a solution vector.
+	 */
+	@FunctionalInterface
+	private interface VectorRowOperator
+	{
+		double apply(double[] soln, int s);
+	}
+
+	/**
+	 * Two-vector iteration where each new value {@code soln2[s]} is computed
+	 * from {@code soln} by a {@link VectorRowOperator}, in parallel.
+	 * <br>
+	 * For topological iteration, the states of an SCC can also be iterated over
+	 * in local storage (see {@link #computeLocal(int[], double[])}), so that
+	 * several SCCs can be solved concurrently without switching the vectors.
+	 */
+	private class ParallelTwoVectorIteration extends TwoVectorIteration
+	{
+		/** Computation of a single row */
+		private final VectorRowOperator op;
+		/** For interval iteration: post-processing settings (see {@link IterationMethod#twoVectorPostProcessing}) */
+		private final boolean fromBelow;
+		private final boolean enforceMonotonicity;
+		private final boolean checkMonotonicity;
+
+		/** The most recent set of states and its rows (the same set is usually iterated over repeatedly) */
+		private IntSet lastStates = null;
+		private int[] lastRows = null;
+
+		/** Constructor (for value iteration) */
+		ParallelTwoVectorIteration(Model<?> model, VectorRowOperator op)
+		{
+			super(model, null);
+			this.op = op;
+			fromBelow = enforceMonotonicity = checkMonotonicity = false;
+		}
+
+		/** Constructor (for interval iteration) */
+		ParallelTwoVectorIteration(Model<?> model, VectorRowOperator op, boolean fromBelow, boolean enforceMonotonicity, boolean checkMonotonicity)
+		{
+			super(model, (soln, soln2, states) -> {
+				twoVectorPostProcessing(soln, soln2, states, fromBelow, enforceMonotonicity, checkMonotonicity);
+			});
+			this.op = op;
+			this.fromBelow = fromBelow;
+			this.enforceMonotonicity = enforceMonotonicity;
+			this.checkMonotonicity = checkMonotonicity;
+		}
+
+		private double computeRow(int s)
+		{
+			return op.apply(soln, s);
+		}
+
+		private int[] getRows(IntSet states)
+		{
+			if (states != lastStates) {
+				lastRows = states.stream().toArray();
+				lastStates = states;
+			}
+			return lastRows;
+		}
+
+		@Override
+		public void doIterate(IntSet states)
+		{
+			applyRows(getRows(states), this::computeRow, null, soln2);
+		}
+
+		@Override
+		public boolean iterateAndCheckConvergence(IntSet states) throws PrismException
+		{
+			if (postProcessor != null) {
+				return super.iterateAndCheckConvergence(states);
+			}
+			// do the iteration, measuring the difference to the previous values
+			double diff = applyRows(getRows(states), this::computeRow, soln, soln2);
+			// switch vectors
+			double[] tmp = soln;
+			soln = soln2;
+			soln2 = tmp;
+
+			return diff < termCritParam;
+		}
+
+		/**
+		 * Compute the new values for the states {@code rows} from the current solution vector
+		 * and store them in {@code local} (indexed by position in {@code rows}),
+		 * including the post-processing for interval iteration.
+		 */
+		void computeLocal(int[] rows, double[] local) throws PrismException
+		{
+			for (int i = 0; i < rows.length; i++) {
+				int s = rows[i];
+				double old = soln[s];
+				double d = computeRow(s);
+				if (enforceMonotonicity) {
+					d = fromBelow ? Math.max(old, d) : Math.min(old, d);
+				}
+				if (checkMonotonicity) {
+					if (!fromBelow && old < d) {
+						throw new PrismException("Monotonicity violated (from above): old value " + old + " < new value " + d);
+					}
+					if (fromBelow && old > d) {
+						throw new PrismException("Monotonicity violated (from below): old value " + old + " > new value " + d);
+					}
+				}
+				local[i] = d;
+			}
+		}
+
+		/**
+		 * Store the values {@code local} (indexed by position in {@code rows})
+		 * for the states {@code rows} in both solution vectors.
+		 */
+		void storeLocal(int[] rows, double[] local)
+		{
+			for (int i = 0; i < rows.length; i++) {
+				soln[rows[i]] = soln2[rows[i]] = local[i];
+			}
+		}
+	}
+
+	@Override
+	public IterationValIter forMvMult(DTMC<Double> dtmc) throws PrismException
+	{
+		if (!isSupported(dtmc)) {
+			return sequential.forMvMult(dtmc);
+		}
+		if (jacobi) {
+			return new ParallelTwoVectorIteration(dtmc, (soln, s) -> dtmc.mvMultJacSingle(s, soln));
+		}
+		return new ParallelTwoVectorIteration(dtmc, (soln, s) -> dtmc.mvMultSingle(s, soln));
+	}
+
+	@Override
+	public IterationIntervalIter forMvMultInterval(DTMC<Double> dtmc, boolean fromBelow, boolean enforceMonotonicity, boolean checkMonotonicity) throws PrismException
+	{
+		if (!isSupported(dtmc)) {
+			return sequential.forMvMultInterval(dtmc, fromBelow, enforceMonotonicity, checkMonotonicity);
+		}
+		if (jacobi) {
+			return new ParallelTwoVectorIteration(dtmc, (soln, s) -> dtmc.mvMultJacSingle(s, soln), fromBelow, enforceMonotonicity, checkMonotonicity);
+		}
+		return new ParallelTwoVectorIteration(dtmc, (soln, s) -> dtmc.mvMultSingle(s, soln), fromBelow, enforceMonotonicity, checkMonotonicity);
+	}
+
+	@Override
+	public IterationValIter forMvMultRew(DTMC<Double> dtmc, MCRewards<Double> rew) throws PrismException
+	{
+		if (!isSupported(dtmc)) {
+			return sequential.forMvMultRew(dtmc, rew);
+		}
+		if (jacobi) {
+			return new ParallelTwoVectorIteration(dtmc, (soln, s) -> dtmc.mvMultRewJacSingle(s, soln, rew));
+		}
+		return new ParallelTwoVectorIteration(dtmc, (soln, s) -> dtmc.mvMultRewSingle(s, soln, rew));
+	}
+
+	@Override
+	public IterationIntervalIter forMvMultRewInterval(DTMC<Double> dtmc, MCRewards<Double> rew, boolean fromBelow, boolean enforceMonotonicity, boolean checkMonotonicity) throws PrismException
+	{
+		if (!isSupported(dtmc)) {
+			return sequential.forMvMultRewInterval(dtmc, rew, fromBelow, enforceMonotonicity, checkMonotonicity);
+		}
+		if (jacobi) {
+			return new ParallelTwoVectorIteration(dtmc, (soln, s) -> dtmc.mvMultRewJacSingle(s, soln, rew), fromBelow, enforceMonotonicity, checkMonotonicity);
+		}
+		return new ParallelTwoVectorIteration(dtmc, (soln, s) -> dtmc.mvMultRewSingle(s, soln, rew), fromBelow, enforceMonotonicity, checkMonotonicity);
+	}
+
+	@Override
+	public IterationValIter forMvMultMinMax(MDP<Double> mdp, boolean min, int[] strat) throws PrismException
+	{
+		if (jacobi || !isSupported(mdp)) {
+			return sequential.forMvMultMinMax(mdp, min, strat);
+		}
+		return new ParallelTwoVectorIteration(mdp, (soln, s) -> mdp.mvMultMinMaxSingle(s, soln, min, strat));
+	}
+
+	@Override
+	public IterationIntervalIter forMvMultMinMaxInterval(MDP<Double> mdp, boolean min, int[] strat, boolean fromBelow, boolean enforceMonotonicity,
+			boolean checkMonotonicity) throws PrismException
+	{
+		if (jacobi || !isSupported(mdp)) {
+			return sequential.forMvMultMinMaxInterval(mdp, min, strat, fromBelow, enforceMonotonicity, checkMonotonicity);
+		}
+		return new ParallelTwoVectorIteration(mdp, (soln, s) -> mdp.mvMultMinMaxSingle(s, soln, min, strat), fromBelow, enforceMonotonicity, checkMonotonicity);
+	}
+
+	@Override
+	public IterationValIter forMvMultRewMinMax(MDP<Double> mdp, MDPRewards<Double> rewards, boolean min, int[] strat) throws PrismException
+	{
+		if (jacobi || !isSupported(mdp)) {
+			return sequential.forMvMultRewMinMax(mdp, rewards, min, strat);
+		}
+		return new ParallelTwoVectorIteration(mdp, (soln, s) -> mdp.mvMultRewMinMaxSingle(s, soln, rewards, min, strat));
+	}
+
+	@Override
+	public IterationIntervalIter forMvMultRewMinMaxInterval(MDP<Double> mdp, MDPRewards<Double> rewards, boolean min, int[] strat, boolean fromBelow,
+			boolean enforceMonotonicity, boolean checkMonotonicity) throws PrismException
+	{
+		if (jacobi || !isSupported(mdp)) {
+			return sequential.forMvMultRewMinMaxInterval(mdp, rewards, min, strat, fromBelow, enforceMonotonicity, checkMonotonicity);
+		}
+		return new ParallelTwoVectorIteration(mdp, (soln, s) -> mdp.mvMultRewMinMaxSingle(s, soln, rewards, min, strat), fromBelow, enforceMonotonicity, checkMonotonicity);
+	}
+
+	@Override
+	public IterationValIter forMvMultMinMaxUnc(IDTMC<Double> idtmc, MinMax minMax) throws PrismException
+	{
+		return sequential.forMvMultMinMaxUnc(idtmc, minMax);
+	}
+
+	@Override
+	public IterationValIter forMvMultRewMinMaxUnc(IDTMC<Double> idtmc, MCRewards<Double> mcRewards, MinMax minMax) throws PrismException
+	{
+		return sequential.forMvMultRewMinMaxUnc(idtmc, mcRewards, minMax);
+	}
+
+	@Override
+	public IterationValIter forMvMultMinMaxUnc(IMDP<Double> imdp, MinMax minMax, int[] strat) throws PrismException
+	{
+		return sequential.forMvMultMinMaxUnc(imdp, minMax, strat);
+	}
+
+	@Override
+	public IterationValIter forMvMultRewMinMaxUnc(IMDP<Double> imdp, MDPRewards<Double> mdpRewards, MinMax minMax, int[] strat) throws PrismException
+	{
+		return sequential.forMvMultRewMinMaxUnc(imdp, mdpRewards, minMax, strat);
+	}
+
+	// ------------ Topological iteration ----------------------------
+
+	/**
+	 * The SCCs of an SCCInfo, grouped into levels of the condensation DAG:
+	 * SCCs in level 0 have no successors in other SCCs,
+	 * SCCs in level i+1 have successors in SCCs of level at most i.
+	 * So, SCCs in the same level are independent of each other.
+	 */
+	private static class SCCLevels
+	{
+		/** SCC indices, ordered by level (and topologically within a level) */
+		private final int[] order;
+		/** Start of each level in {@code order} (plus the end of the last level) */
+		private final int[] levelStart;
+
+		private SCCLevels(int[] order, int[] levelStart)
+		{
+			this.order = order;
+			this.levelStart = levelStart;
+		}
+
+		/**
+		 * Compute the levels for the SCCs {@code sccs} of {@code model},
+		 * or return null if the SCCs are not in (reverse) topological order.
+		 */
+		static SCCLevels compute(Model<?> model, SCCInfo sccs)
+		{
+			int numSCCs = sccs.getNumSCCs();
+			int[] level = new int[numSCCs];
+			int maxLevel = -1;
+			for (int scc = 0; scc < numSCCs; scc++) {
+				int lvl = 0;
+				PrimitiveIterator.OfInt it = sccs.getStatesForSCC(scc).iterator();
+				while (it.hasNext()) {
+					SuccessorsIterator succs = model.getSuccessors(it.nextInt());
+					while (succs.hasNext()) {
+						int sccSucc = sccs.getSCCIndex(succs.nextInt());
+						if (sccSucc == -1 || sccSucc == scc) {
+							continue;
+						}
+						if (sccSucc > scc) {
+							return null;
+						}
+						lvl = Math.max(lvl, level[sccSucc] + 1);
+					}
+				}
+				level[scc] = lvl;
+				maxLevel = Math.max(maxLevel, lvl);
+			}
+			// Sort SCCs by level (counting sort, so stable)
+			int[] levelStart = new int[maxLevel + 2];
+			for (int scc = 0; scc < numSCCs; scc++) {
+				levelStart[level[scc] + 1]++;
+			}
+			for (int l = 0; l <= maxLevel; l++) {
+				levelStart[l + 1] += levelStart[l];
+			}
+			int[] next = Arrays.copyOf(levelStart, maxLevel + 1);
+			int[] order = new int[numSCCs];
+			for (int scc = 0; scc < numSCCs; scc++) {
+				order[next[level[scc]]++] = scc;
+			}
+			return new SCCLevels(order, levelStart);
+		}
+
+		int getNumLevels()
+		{
+			return levelStart.length - 1;
+		}
+
+		/**
+		 * Get the SCCs of level {@code l} with less than {@code maxStates} states
+		 * (if {@code small} is true) or with at least {@code maxStates} states (otherwise).
+		 */
+		int[] getSCCs(SCCInfo sccs, int l, int maxStates, boolean small)
+		{
+			return Arrays.stream(order, levelStart[l], levelStart[l + 1]).filter(scc -> (sccs.getNumStatesInSCC(scc) < maxStates) == small).toArray();
+		}
+	}
+
+	/**
+	 * Statistics (and the first error) for a set of SCCs solved concurrently.
+	 */
+	private static class SCCStats
+	{
+		long iters = 0;
+		long mvCount = 0;
+		double error = 0.0;
+		int numFinishedNonSingleton = 0;
+		boolean done = true;
+		PrismException exception = null;
+
+		void add(SCCStats other)
+		{
+			iters += other.iters;
+			mvCount += other.mvCount;
+			error = Math.max(error, other.error);
+			numFinishedNonSingleton += other.numFinishedNonSingleton;
+			done &= other.done;
+			if (exception == null) {
+				exception = other.exception;
+			}
+		}
+	}
+
+	/**
+	 * Functional interface for solving a single SCC, updating {@code stats}.
+	 */
+	@FunctionalInterface
+	private interface SCCSolver
+	{
+		void solve(int scc, SCCStats stats) throws PrismException;
+	}
+
+	/**
+	 * Task solving the (independent) SCCs {@code sccList[lo..hi)}, splitting the range
+	 * while it contains more than {@link #MIN_ROWS_PER_TASK} states.
+	 */
+	private static class SCCTask extends RecursiveTask<SCCStats>
+	{
+		private static final long serialVersionUID = 1L;
+		private final int[] sccList;
+		private final long[] cumStates;
+		private final int lo;
+		private final int hi;
+		private final SCCSolver solver;
+
+		SCCTask(int[] sccList, long[] cumStates, int lo, int hi, SCCSolver solver)
+		{
+			this.sccList = sccList;
+			this.cumStates = cumStates;
+			this.lo = lo;
+			this.hi = hi;
+			this.solver = solver;
+		}
+
+		@Override
+		protected SCCStats compute()
+		{
+			if (hi - lo > 1 && cumStates[hi] - cumStates[lo] > MIN_ROWS_PER_TASK) {
+				int mid = (lo + hi) >>> 1;
+				SCCTask left = new SCCTask(sccList, cumStates, lo, mid, solver);
+				left.fork();
+				SCCStats stats = new SCCTask(sccList, cumStates, mid, hi, solver).compute();
+				stats.add(left.join());
+				return stats;
+			}
+			SCCStats stats = new SCCStats();
+			try {
+				for (int i = lo; i < hi; i++) {
+					solver.solve(sccList[i], stats);
+				}
+			} catch (PrismException e) {
+				stats.exception = e;
+			}
+			return stats;
+		}
+	}
+
+	/**
+	 * Solve the SCCs in {@code sccList} (which must be independent of each other) concurrently,
+	 * each using {@code solver}, and return the accumulated statistics.
+	 */
+	private SCCStats solveSCCsConcurrently(SCCInfo sccs, int[] sccList, SCCSolver solver) throws PrismException
+	{
+		long[] cumStates = new long[sccList.length + 1];
+		for (int i = 0; i < sccList.length; i++) {
+			cumStates[i + 1] = cumStates[i] + sccs.getNumStatesInSCC(sccList[i]);
+		}
+		SCCTask task = new SCCTask(sccList, cumStates, 0, sccList.length, solver);
+		SCCStats stats = cumStates[sccList.length] > MIN_ROWS_PER_TASK ? getPool(numThreads).invoke(task) : task.compute();
+		if (stats.exception != null) {
+			throw stats.exception;
+		}
+		return stats;
+	}
+
+	/**
+	 * Perform a topological value iteration, solving independent SCCs concurrently.
+	 * <br>
+	 * The SCCs are grouped into levels of the condensation DAG (see {@link SCCLevels}).
+	 * In each level, the small SCCs are first solved concurrently, each iterating
+	 * in local storage (the SCCs consist of disjoint states and only read the values
+	 * of states in lower levels, so they can share the solution vectors).
+	 * Then, the large SCCs of the level are solved one after another, as in
+	 * {@link IterationMethod#doTopologicalValueIteration}, with each iteration parallelised over the rows.
+	 * Each SCC undergoes exactly the same iterations as in the sequential topological iteration.
+	 * <br>
+	 * Falls back to the sequential method if the iteration is not parallel
+	 * or if iteration vectors are exported.
+	 */
+	@Override
+	public ModelCheckerResult doTopologicalValueIteration(ProbModelChecker mc, String description, SCCInfo sccs, IterationValIter iterator, SingletonSCCSolver singletonSCCSolver, long startTime, ExportIterations iterationsExport) throws PrismException
+	{
+		SCCLevels levels = null;
+		if (iterator instanceof ParallelTwoVectorIteration && iterationsExport == null) {
+			levels = SCCLevels.compute(iterator.getModel(), sccs);
+		}
+		if (levels == null) {
+			return super.doTopologicalValueIteration(mc, description, sccs, iterator, singletonSCCSolver, startTime, iterationsExport);
+		}
+		ParallelTwoVectorIteration iteration = (ParallelTwoVectorIteration) iterator;
+		Model<?> model = iteration.getModel();
+		final int maxIters = mc.maxIters;
+		int numNonSingletonSCCs = sccs.countNonSingletonSCCs();
+		int numLevels = levels.getNumLevels();
+
+		// Solution of a small SCC, in local storage
+		SCCSolver smallSCCSolver = (scc, stats) -> {
+			IntSet statesForSCC = sccs.getStatesForSCC(scc);
+			int[] rows = statesForSCC.stream().toArray();
+			if (rows.length == 1) {
+				iteration.solveSingletonSCC(rows[0], singletonSCCSolver);
+				stats.iters++;
+				stats.mvCount += model.getNumTransitions(rows[0]);
+				return;
+			}
+			double[] local = new double[rows.length];
+			boolean doneSCC = false;
+			int itersInSCC = 0;
+			double error = 0.0;
+			while (!doneSCC && itersInSCC < maxIters) {
+				itersInSCC++;
+				iteration.computeLocal(rows, local);
+				double[] soln = iteration.getSolnVector();
+				double diff = 0.0;
+				error = 0.0;
+				for (int i = 0; i < rows.length; i++) {
+					double old = soln[rows[i]];
+					diff = Math.max(diff, difference(old, local[i], absolute));
+					error = Math.max(error, absolute ? PrismUtils.measureSupNormAbs(local[i], old) : PrismUtils.measureSupNormRel(local[i], old));
+				}
+				iteration.storeLocal(rows, local);
+				doneSCC = diff < termCritParam;
+			}
+			stats.iters += itersInSCC;
+			stats.mvCount += itersInSCC * model.getNumTransitions(statesForSCC.iterator());
+			stats.error = Math.max(stats.error, error);
+			if (doneSCC) {
+				stats.numFinishedNonSingleton++;
+			} else {
+				stats.done = false;
+			}
+		};
+
+		PeriodicTimer updatesTimer = new PeriodicTimer(ProbModelChecker.UPDATE_DELAY);
+		updatesTimer.start();
+
+		SCCStats total = new SCCStats();
+		for (int l = 0; l < numLevels && total.done; l++) {
+			// small SCCs: concurrently
+			total.add(solveSCCsConcurrently(sccs, levels.getSCCs(sccs, l, MIN_STATES_PARALLEL_SCC, true), smallSCCSolver));
+			// large SCCs: one at a time, parallel over rows
+			for (int scc : levels.getSCCs(sccs, l, MIN_STATES_PARALLEL_SCC, false)) {
+				if (!total.done) {
+					break;
+				}
+				IntSet statesForSCC = sccs.getStatesForSCC(scc);
+				boolean doneSCC = false;
+				int itersInSCC = 0;
+				while (!doneSCC && itersInSCC < maxIters) {
+					total.iters++;
+					itersInSCC++;
+					doneSCC = iteration.iterateAndCheckConvergence(statesForSCC);
+					if (!doneSCC && updatesTimer.triggered()) {
+						mc.getLog().print("Iteration " + total.iters + ": ");
+						mc.getLog().print("Iteration " + itersInSCC + " in SCC " + (total.numFinishedNonSingleton + 1) + " of " + numNonSingletonSCCs);
+						mc.getLog().println(", " + PrismUtils.formatDouble2dp(updatesTimer.elapsedMillisTotal() / 1000.0) + " sec so far");
+					}
+				}
+				total.error = Math.max(total.error, iteration.getError());
+				iteration.doneWith(statesForSCC);
+				total.mvCount += itersInSCC * model.getNumTransitions(statesForSCC.iterator());
+				if (doneSCC) {
+					total.numFinishedNonSingleton++;
+				} else {
+					total.done = false;
+				}
+			}
+			if (total.done && updatesTimer.triggered()) {
+				mc.getLog().print("Level " + (l + 1) + " of " + numLevels + ": ");
+				mc.getLog().print("finished " + total.numFinishedNonSingleton + " of " + numNonSingletonSCCs + " non-singleton SCCs");
+				mc.getLog().println(", " + PrismUtils.formatDouble2dp(updatesTimer.elapsedMillisTotal() / 1000.0) + " sec so far");
+			}
+		}
+
+		// Finished value iteration
+		long timer = System.currentTimeMillis() - startTime;
+		mc.getLog().print("Value iteration (" + description + ", with " + numNonSingletonSCCs + " non-singleton SCCs in " + numLevels + " levels)");
+		mc.getLog().print(" took " + total.iters + " iterations, ");
+		mc.getLog().print(total.mvCount + " multiplications");
+		mc.getLog().println(" and " + timer / 1000.0 + " seconds.");
+
+		// Non-convergence is an error (usually)
+		if (!total.done && mc.errorOnNonConverge) {
+			String msg = "Iterative method did not converge within " + total.iters + " iterations.";
+			msg += "\nConsider using a different numerical method or increasing the maximum number of iterations";
+			throw new PrismException(msg);
+		}
+
+		// Return results
+		ModelCheckerResult res = new ModelCheckerResult();
+		res.soln = iteration.getSolnVector();
+		res.accuracy = AccuracyFactory.valueIteration(termCritParam, total.error, absolute);
+		res.numIters = (int) total.iters;
+		res.timeTaken = timer / 1000.0;
+		return res;
+	}
+
+	/**
+	 * Perform a topological interval iteration, solving independent SCCs concurrently
+	 * (see {@link #doTopologicalValueIteration(ProbModelChecker, String, SCCInfo, IterationValIter, SingletonSCCSolver, long, ExportIterations)}).
+	 * <br>
+	 * Falls back to the sequential method if the iterations are not parallel
+	 * or if iteration vectors are exported.
+	 */
+	@Override
+	public ModelCheckerResult doTopologicalIntervalIteration(ProbModelChecker mc, String description, SCCInfo sccs, IterationIntervalIter below, IterationIntervalIter above, SingletonSCCSolver singletonSCCSolver, long timer, ExportIterations iterationsExport) throws PrismException
+	{
+		SCCLevels levels = null;
+		if (below instanceof ParallelTwoVectorIteration && above instanceof ParallelTwoVectorIteration && iterationsExport == null) {
+			levels = SCCLevels.compute(below.getModel(), sccs);
+		}
+		if (levels == null) {
+			return super.doTopologicalIntervalIteration(mc, description, sccs, below, above, singletonSCCSolver, timer, iterationsExport);
+		}
+		ParallelTwoVectorIteration iterBelow = (ParallelTwoVectorIteration) below;
+		ParallelTwoVectorIteration iterAbove = (ParallelTwoVectorIteration) above;
+		Model<?> model = iterBelow.getModel();
+		final int maxIters = mc.maxIters;
+		final double adjustment = 2 * termCritParam;
+		int numNonSingletonSCCs = sccs.countNonSingletonSCCs();
+		int numLevels = levels.getNumLevels();
+
+		// Solution of a small SCC, in local storage
+		SCCSolver smallSCCSolver = (scc, stats) -> {
+			IntSet statesForSCC = sccs.getStatesForSCC(scc);
+			int[] rows = statesForSCC.stream().toArray();
+			if (rows.length == 1) {
+				iterBelow.solveSingletonSCC(rows[0], singletonSCCSolver);
+				iterAbove.solveSingletonSCC(rows[0], singletonSCCSolver);
+				stats.iters++;
+				stats.mvCount += 2 * model.getNumTransitions(rows[0]);
+				intervalIterationCheckForProblems(iterBelow.getSolnVector(), iterAbove.getSolnVector(), IntSet.asIntSet(rows[0]).iterator());
+				return;
+			}
+			// Adjust upper bound by adding 2*epsilon (see IterationMethod.doTopologicalIntervalIteration)
+			double[] solnAbove = iterAbove.getSolnVector();
+			for (int s : rows) {
+				solnAbove[s] += adjustment;
+			}
+			double[] localBelow = new double[rows.length];
+			double[] localAbove = new double[rows.length];
+			boolean doneSCC = false;
+			int itersInSCC = 0;
+			while (!doneSCC && itersInSCC < maxIters) {
+				itersInSCC++;
+				iterBelow.computeLocal(rows, localBelow);
+				iterAbove.computeLocal(rows, localAbove);
+				iterBelow.storeLocal(rows, localBelow);
+				iterAbove.storeLocal(rows, localAbove);
+				intervalIterationCheckForProblems(iterBelow.getSolnVector(), iterAbove.getSolnVector(), statesForSCC.iterator());
+				doneSCC = PrismUtils.doublesAreClose(iterBelow.getSolnVector(), iterAbove.getSolnVector(), statesForSCC.iterator(), termCritParam, absolute);
+			}
+			stats.iters += itersInSCC;
+			stats.mvCount += 2 * itersInSCC * model.getNumTransitions(statesForSCC.iterator());
+			if (doneSCC) {
+				stats.numFinishedNonSingleton++;
+			} else {
+				stats.done = false;
+			}
+		};
+
+		PeriodicTimer updatesTimer = new PeriodicTimer(ProbModelChecker.UPDATE_DELAY);
+		updatesTimer.start();
+
+		SCCStats total = new SCCStats();
+		for (int l = 0; l < numLevels && total.done; l++) {
+			// small SCCs: concurrently
+			total.add(solveSCCsConcurrently(sccs, levels.getSCCs(sccs, l, MIN_STATES_PARALLEL_SCC, true), smallSCCSolver));
+			// large SCCs: one at a time, parallel over rows
+			for (int scc : levels.getSCCs(sccs, l, MIN_STATES_PARALLEL_SCC, false)) {
+				if (!total.done) {
+					break;
+				}
+				IntSet statesForSCC = sccs.getStatesForSCC(scc);
+				PrimitiveIterator.OfInt it = statesForSCC.iterator();
+				final double[] solnAbove = above.getSolnVector();
+				while (it.hasNext()) {
+					solnAbove[it.nextInt()] += adjustment;
+				}
+				boolean doneSCC = false;
+				int itersInSCC = 0;
+				while (!doneSCC && itersInSCC < maxIters) {
+					total.iters++;
+					itersInSCC++;
+					below.iterate(statesForSCC);
+					above.iterate(statesForSCC);
+					intervalIterationCheckForProblems(below.getSolnVector(), above.getSolnVector(), statesForSCC.iterator());
+					doneSCC = PrismUtils.doublesAreClose(below.getSolnVector(), above.getSolnVector(), statesForSCC.iterator(), termCritParam, absolute);
+					if (!doneSCC && updatesTimer.triggered()) {
+						double diff = PrismUtils.measureSupNormInterval(below.getSolnVector(), above.getSolnVector(), absolute, statesForSCC.iterator());
+						mc.getLog().print("Iteration " + total.iters + ": ");
+						mc.getLog().print("max " + (absolute ? "" : "relative ") + "diff (for iteration " + itersInSCC + " in current SCC " + (total.numFinishedNonSingleton + 1) + " of " + numNonSingletonSCCs + ") = " + PrismUtils.formatDouble(LOGGING_PRECISION, diff));
+						mc.getLog().println(", " + PrismUtils.formatDouble2dp(updatesTimer.elapsedMillisTotal() / 1000.0) + " sec so far");
+					}
+				}
+				below.doneWith(statesForSCC);
+				above.doneWith(statesForSCC);
+				total.mvCount += 2 * itersInSCC * model.getNumTransitions(statesForSCC.iterator());
+				if (doneSCC) {
+					total.numFinishedNonSingleton++;
+				} else {
+					total.done = false;
+				}
+			}
+			if (total.done && updatesTimer.triggered()) {
+				mc.getLog().print("Level " + (l + 1) + " of " + numLevels + ": ");
+				mc.getLog().print("finished " + total.numFinishedNonSingleton + " of " + numNonSingletonSCCs + " non-singleton SCCs");
+				mc.getLog().println(", " + PrismUtils.formatDouble2dp(updatesTimer.elapsedMillisTotal() / 1000.0) + " sec so far");
+			}
+		}
+
+		double maxError = Double.POSITIVE_INFINITY;
+		if (total.done) {
+			maxError = PrismUtils.measureSupNormInterval(below.getSolnVector(), above.getSolnVector(), absolute);
+			mc.getLog().println("Max " + (absolute ? "" : "relative ") +
+					"diff between upper and lower bound on convergence: " + PrismUtils.formatDouble(LOGGING_PRECISION, maxError));
+		}
+
+		// Finished interval iteration
+		timer = System.currentTimeMillis() - timer;
+		mc.getLog().print("Interval iteration (" + description + ", with " + numNonSingletonSCCs + " non-singleton SCCs in " + numLevels + " levels)");
+		mc.getLog().print(" took " + total.iters + " iterations, ");
+		mc.getLog().print(total.mvCount + " multiplications");
+		mc.getLog().println(" and " + timer / 1000.0 + " seconds.");
+
+		if (total.done) {
+			mc.keepIntervalIterationBounds(below.getSolnVector(), above.getSolnVector());
+		}
+		if (total.done && OptionsIntervalIteration.from(mc.getSettings()).isSelectMidpointForResult()) {
+			PrismUtils.selectMidpoint(below.getSolnVector(), above.getSolnVector());
+		}
+
+		// Non-convergence is an error (usually)
+		if (!total.done && mc.errorOnNonConverge) {
+			String msg = "Iterative method (interval iteration) did not converge within " + total.iters + " iterations.";
+			msg += "\nConsider using a different numerical method or increasing the maximum number of iterations";
+			throw new PrismException(msg);
+		}
+
+		// Return results
+		ModelCheckerResult res = new ModelCheckerResult();
+		res.soln = below.getSolnVector();
+		res.accuracy = AccuracyFactory.guaranteedNumericalIterative(maxError, absolute);
+		res.numIters = (int) total.iters;
+		res.timeTaken = timer / 1000.0;
+		return res;
+	}
+
+	@Override
+	public String getDescriptionShort()
+	{
+		return sequential.getDescriptionShort() + " (" + numThreads + " threads)";
+	}
+}
@@ -0,0 +1,670 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package explicit;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import prism.PrismException;
+
+/**
+ * Krylov subspace methods (restarted GMRES and BiCGStab) for the linear equation
+ * systems {@code A x = b} arising for DTMCs, where {@code A = I - P'} for a
+ * substochastic matrix {@code P'}, i.e., a non-singular M-matrix:
+ * <ul>
+ * <li> reachability probabilities, where {@code P'} is the transition matrix
+ *      restricted to the states whose value is not yet known
+ *      (see {@link #forReachProbs(DTMC, BitSet, double[])});
+ * <li> steady-state probabilities of a BSCC, where {@code P'} is the transpose
+ *      of the transition matrix restricted to the BSCC without one fixed state
+ *      (see {@link #forSteadyState(DTMC, BitSet, int)}).
+ * </ul>
+ * The matrix {@code A} is stored in compressed sparse row format, with the
+ * entries of each row sorted by column. Both methods use right preconditioning,
+ * so the residual that is checked for convergence is the residual of the original system.
+ * <br>
+ * Convergence: the solution is accepted once the residual {@code r = b - A x} satisfies
+ * {@code ||r|| <= epsilon} (absolute) or {@code ||r|| <= epsilon * ||x||} (relative),
+ * using the maximum norm. Unlike for the stationary iterative methods, the relative
+ * criterion is normwise, not per state, since the updates of Krylov methods mix
+ * all entries of the solution: values that are much smaller than the largest
+ * one are only computed to the corresponding absolute accuracy.
+ */
+public class KrylovSolver
+{
+	/** Preconditioners */
+	public enum Preconditioner {
+		NONE, JACOBI, ILU0;
+		public String fullName()
+		{
+			switch (this) {
+			case NONE:
+				return "none";
+			case JACOBI:
+				return "Jacobi";
+			case ILU0:
+				return "ILU(0)";
+			default:
+				return this.toString();
+			}
+		}
+	};
+
+	/** Default restart parameter (dimension of the Krylov subspace) for GMRES */
+	public static final int DEFAULT_RESTART = 30;
+
+	/** Number of rows/columns */
+	private final int n;
+	/** Start of each row in {@code cols}/{@code vals} (plus the end of the last one) */
+	private final int[] rowStarts;
+	/** Column indices */
+	private final int[] cols;
+	/** Matrix entries */
+	private final double[] vals;
+	/** Position of the diagonal entry of each row in {@code cols}/{@code vals} */
+	private final int[] diagPos;
+	/** Right-hand side */
+	private final double[] b;
+
+	/** Preconditioner */
+	private Preconditioner preconditioner = Preconditioner.NONE;
+	/** Inverse diagonal (Jacobi) */
+	private double[] invDiag;
+	/** Incomplete LU factors, in the sparsity pattern of the matrix (ILU(0)) */
+	private double[] lu;
+
+	/** Restart parameter for GMRES */
+	private int restart = DEFAULT_RESTART;
+
+	/** Number of iterations (preconditioned matrix-vector products for GMRES, steps for BiCGStab) of the last solve */
+	private int numIters;
+	/** Maximum norm of the residual after the last solve */
+	private double residual;
+
+	private KrylovSolver(int n, int[] rowStarts, int[] cols, double[] vals, int[] diagPos, double[] b)
+	{
+		this.n = n;
+		this.rowStarts = rowStarts;
+		this.cols = cols;
+		this.vals = vals;
+		this.diagPos = diagPos;
+		this.b = b;
+	}
+
+	/**
+	 * Create for the equation system for reachability probabilities (or, more generally,
+	 * for {@code x(s) = sum_t P(s,t) * x(t)}) of a DTMC, over the states in {@code unknown}.
+	 * The values of all other states are taken from {@code soln}
+	 * (e.g., 1 for target states, 0 for states with probability 0).
+	 * The variables of the system are the states of {@code unknown}, in ascending order.
+	 * The system is only non-singular if every state of {@code unknown} can leave
+	 * {@code unknown}, e.g., after Prob0 precomputation.
+	 */
+	public static KrylovSolver forReachProbs(DTMC<Double> dtmc, BitSet unknown, double[] soln)
+	{
+		int[] index = indexStates(dtmc.getNumStates(), unknown, -1);
+		int n = unknown.cardinality();
+		int[] rowStarts = new int[n + 1];
+		int[] rowEnds = new int[n];
+		int i = 0;
+		for (int s = unknown.nextSetBit(0); s >= 0; s = unknown.nextSetBit(s + 1)) {
+			rowStarts[i + 1] = rowStarts[i] + dtmc.getNumTransitions(s) + 1;
+			i++;
+		}
+		int[] cols = new int[rowStarts[n]];
+		double[] vals = new double[rowStarts[n]];
+		double[] b = new double[n];
+		int[] pos = new int[1];
+		i = 0;
+		for (int s = unknown.nextSetBit(0); s >= 0; s = unknown.nextSetBit(s + 1)) {
+			final int row = i;
+			pos[0] = rowStarts[i];
+			cols[pos[0]] = i;
+			vals[pos[0]++] = 1.0;
+			dtmc.forEachDoubleTransition(s, (s2, t, prob) -> {
+				int j = index[t];
+				if (j < 0) {
+					b[row] += prob * soln[t];
+				} else {
+					cols[pos[0]] = j;
+					vals[pos[0]++] = -prob;
+				}
+			});
+			rowEnds[i] = pos[0];
+			i++;
+		}
+		return create(n, rowStarts, rowEnds, cols, vals, b);
+	}
+
+	/**
+	 * Create for the equation system for the steady-state probabilities of a BSCC {@code bscc}
+	 * of a DTMC, i.e., {@code x(t) = sum_s x(s) * P(s,t)}, where the value of state {@code fixed}
+	 * (which must be in {@code bscc}) is fixed to 1, so that the system is non-singular.
+	 * The variables of the system are the states of {@code bscc} other than {@code fixed},
+	 * in ascending order; the solution still needs to be normalised.
+	 */
+	public static KrylovSolver forSteadyState(DTMC<Double> dtmc, BitSet bscc, int fixed)
+	{
+		int[] index = indexStates(dtmc.getNumStates(), bscc, fixed);
+		int n = bscc.cardinality() - 1;
+		// Count entries of each row of the transposed matrix (including the diagonal)
+		int[] rowStarts = new int[n + 1];
+		for (int s = bscc.nextSetBit(0); s >= 0; s = bscc.nextSetBit(s + 1)) {
+			if (s != fixed) {
+				rowStarts[index[s] + 1]++;
+				dtmc.forEachDoubleTransition(s, (s2, t, prob) -> {
+					int j = index[t];
+					if (j >= 0) {
+						rowStarts[j + 1]++;
+					}
+				});
+			}
+		}
+		for (int i = 0; i < n; i++) {
+			rowStarts[i + 1] += rowStarts[i];
+		}
+		int[] cols = new int[rowStarts[n]];
+		double[] vals = new double[rowStarts[n]];
+		double[] b = new double[n];
+		int[] rowEnds = new int[n];
+		for (int i = 0; i < n; i++) {
+			cols[rowStarts[i]] = i;
+			vals[rowStarts[i]] = 1.0;
+			rowEnds[i] = rowStarts[i] + 1;
+		}
+		for (int s = bscc.nextSetBit(0); s >= 0; s = bscc.nextSetBit(s + 1)) {
+			if (s == fixed) {
+				dtmc.forEachDoubleTransition(s, (s2, t, prob) -> {
+					int j = index[t];
+					if (j >= 0) {
+						b[j] += prob;
+					}
+				});
+			} else {
+				final int col = index[s];
+				dtmc.forEachDoubleTransition(s, (s2, t, prob) -> {
+					int j = index[t];
+					if (j >= 0) {
+						cols[rowEnds[j]] = col;
+						vals[rowEnds[j]++] = -prob;
+					}
+				});
+			}
+		}
+		return create(n, rowStarts, rowEnds, cols, vals, b);
+	}
+
+	/**
+	 * Map the states in {@code states} (except {@code exclude}) to consecutive indices;
+	 * all other states are mapped to -1.
+	 */
+	private static int[] indexStates(int numStates, BitSet states, int exclude)
+	{
+		int[] index = new int[numStates];
+		Arrays.fill(index, -1);
+		int i = 0;
+		for (int s = states.nextSetBit(0); s >= 0; s = states.nextSetBit(s + 1)) {
+			if (s != exclude) {
+				index[s] = i++;
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Create from (unsorted) rows {@code [rowStarts[i],rowEnds[i])}, which each contain the diagonal
+	 * and may contain several entries for the same column: sort the rows by column,
+	 * add up duplicate entries and compact the arrays.
+	 */
+	private static KrylovSolver create(int n, int[] rowStarts, int[] rowEnds, int[] cols, double[] vals, double[] b)
+	{
+		int[] newStarts = new int[n + 1];
+		int[] diagPos = new int[n];
+		int nnz = 0;
+		for (int i = 0; i < n; i++) {
+			int from = rowStarts[i];
+			int to = rowEnds[i];
+			sortRow(cols, vals, from, to);
+			newStarts[i] = nnz;
+			for (int k = from; k < to; k++) {
+				if (nnz > newStarts[i] && cols[nnz - 1] == cols[k]) {
+					vals[nnz - 1] += vals[k];
+				} else {
+					cols[nnz] = cols[k];
+					vals[nnz] = vals[k];
+					if (cols[k] == i) {
+						diagPos[i] = nnz;
+					}
+					nnz++;
+				}
+			}
+		}
+		newStarts[n] = nnz;
+		return new KrylovSolver(n, newStarts, Arrays.copyOf(cols, nnz), Arrays.copyOf(vals, nnz), diagPos, b);
+	}
+
+	/**
+	 * Sort the entries {@code [from,to)} of {@code cols}/{@code vals} by column.
+	 */
+	private static void sortRow(int[] cols, double[] vals, int from, int to)
+	{
+		boolean sorted = true;
+		for (int k = from + 1; k < to && sorted; k++) {
+			sorted = cols[k - 1] <= cols[k];
+		}
+		if (sorted) {
+			return;
+		}
+		// Sort (column, offset) pairs, then permute the values accordingly
+		long[] keys = new long[to - from];
+		for (int k = from; k < to; k++) {
+			keys[k - from] = ((long) cols[k] << 32) | (k - from);
+		}
+		Arrays.sort(keys);
+		double[] rowVals = Arrays.copyOfRange(vals, from, to);
+		for (int k = from; k < to; k++) {
+			cols[k] = (int) (keys[k - from] >>> 32);
+			vals[k] = rowVals[(int) keys[k - from]];
+		}
+	}
+
+	// Setters/getters
+
+	/**
+	 * Set the preconditioner (and compute it).
+	 * @throws PrismException if the ILU(0) factorisation breaks down (zero pivot)
+	 */
+	public void setPreconditioner(Preconditioner preconditioner) throws PrismException
+	{
+		this.preconditioner = preconditioner;
+		invDiag = null;
+		lu = null;
+		switch (preconditioner) {
+		case JACOBI:
+			invDiag = new double[n];
+			for (int i = 0; i < n; i++) {
+				invDiag[i] = 1.0 / vals[diagPos[i]];
+			}
+			break;
+		case ILU0:
+			computeILU0();
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Set the restart parameter for GMRES.
+	 */
+	public void setRestart(int restart)
+	{
+		this.restart = Math.max(1, restart);
+	}
+
+	public Preconditioner getPreconditioner()
+	{
+		return preconditioner;
+	}
+
+	/**
+	 * Get the number of variables of the equation system.
+	 */
+	public int getNumVariables()
+	{
+		return n;
+	}
+
+	/**
+	 * Get the number of non-zero entries of the matrix.
+	 */
+	public int getNumEntries()
+	{
+		return rowStarts[n];
+	}
+
+	/**
+	 * Get the number of iterations of the last solve,
+	 * i.e., the number of (preconditioned) matrix-vector products for GMRES
+	 * and the number of steps (each with two products) for BiCGStab.
+	 */
+	public int getNumIters()
+	{
+		return numIters;
+	}
+
+	/**
+	 * Get the maximum norm of the residual {@code b - A x} after the last solve.
+	 */
+	public double getResidual()
+	{
+		return residual;
+	}
+
+	// Solvers
+
+	/**
+	 * Solve with restarted GMRES, starting from (and storing the result in) {@code x}.
+	 * @param x Initial solution, overwritten with the result
+	 * @param epsilon Convergence threshold
+	 * @param absolute Whether the convergence check is absolute (rather than relative)
+	 * @param maxIters Maximum number of iterations
+	 * @return whether the method converged
+	 */
+	public boolean solveGMRES(double[] x, double epsilon, boolean absolute, int maxIters)
+	{
+		int m = Math.min(restart, Math.max(n, 1));
+		double[][] v = new double[m + 1][];
+		double[][] h = new double[m + 1][m];
+		double[] cs = new double[m];
+		double[] sn = new double[m];
+		double[] g = new double[m + 1];
+		double[] r = new double[n];
+		double[] z = new double[n];
+		double[] y = new double[m];
+		numIters = 0;
+		while (true) {
+			computeResidual(x, r);
+			residual = normInf(r);
+			if (isConverged(residual, x, epsilon, absolute)) {
+				return true;
+			}
+			if (numIters >= maxIters || Double.isNaN(residual)) {
+				return false;
+			}
+			// Threshold for the 2-norm estimate of the residual within this cycle:
+			// the 2-norm bounds the maximum norm and, since A^-1 is non-negative
+			// and A has diagonal entries at most 1, x >= b for the solution,
+			// so this is at least as strict as the actual check above
+			double tol = epsilon * (absolute ? 1.0 : Math.max(normInf(x), normInf(b)));
+			double beta = norm2(r);
+			if (v[0] == null) {
+				v[0] = new double[n];
+			}
+			for (int i = 0; i < n; i++) {
+				v[0][i] = r[i] / beta;
+			}
+			Arrays.fill(g, 0.0);
+			g[0] = beta;
+			int k = 0;
+			while (k < m && numIters < maxIters) {
+				numIters++;
+				// w = A M^-1 v_k, orthogonalised against v_0..v_k (modified Gram-Schmidt)
+				applyPreconditioner(v[k], z);
+				if (v[k + 1] == null) {
+					v[k + 1] = new double[n];
+				}
+				double[] w = v[k + 1];
+				multiply(z, w);
+				for (int j = 0; j <= k; j++) {
+					double d = dot(w, v[j]);
+					h[j][k] = d;
+					axpy(-d, v[j], w);
+				}
+				double hNext = norm2(w);
+				if (hNext > 0) {
+					for (int i = 0; i < n; i++) {
+						w[i] /= hNext;
+					}
+				}
+				// Apply previous Givens rotations to the new column, then compute the next one
+				for (int j = 0; j < k; j++) {
+					double tmp = cs[j] * h[j][k] + sn[j] * h[j + 1][k];
+					h[j + 1][k] = -sn[j] * h[j][k] + cs[j] * h[j + 1][k];
+					h[j][k] = tmp;
+				}
+				double denom = Math.hypot(h[k][k], hNext);
+				cs[k] = denom == 0 ? 1.0 : h[k][k] / denom;
+				sn[k] = denom == 0 ? 0.0 : hNext / denom;
+				h[k][k] = denom;
+				g[k + 1] = -sn[k] * g[k];
+				g[k] = cs[k] * g[k];
+				k++;
+				if (Math.abs(g[k]) <= tol || hNext == 0) {
+					break;
+				}
+			}
+			// Solve the (upper triangular) least squares problem, then update x += M^-1 (V y)
+			for (int i = k - 1; i >= 0; i--) {
+				double d = g[i];
+				for (int j = i + 1; j < k; j++) {
+					d -= h[i][j] * y[j];
+				}
+				y[i] = h[i][i] == 0 ? 0.0 : d / h[i][i];
+			}
+			Arrays.fill(r, 0.0);
+			for (int j = 0; j < k; j++) {
+				axpy(y[j], v[j], r);
+			}
+			applyPreconditioner(r, z);
+			axpy(1.0, z, x);
+		}
+	}
+
+	/**
+	 * Solve with BiCGStab, starting from (and storing the result in) {@code x}.
+	 * The method is restarted (from the current residual) on breakdown.
+	 * @param x Initial solution, overwritten with the result
+	 * @param epsilon Convergence threshold
+	 * @param absolute Whether the convergence check is absolute (rather than relative)
+	 * @param maxIters Maximum number of iterations
+	 * @return whether the method converged
+	 */
+	public boolean solveBiCGStab(double[] x, double epsilon, boolean absolute, int maxIters)
+	{
+		double[] r = new double[n];
+		double[] rHat = new double[n];
+		double[] p = new double[n];
+		double[] pHat = new double[n];
+		double[] v = new double[n];
+		double[] s = new double[n];
+		double[] sHat = new double[n];
+		double[] t = new double[n];
+		numIters = 0;
+		while (true) {
+			computeResidual(x, r);
+			residual = normInf(r);
+			if (isConverged(residual, x, epsilon, absolute)) {
+				return true;
+			}
+			if (numIters >= maxIters || Double.isNaN(residual)) {
+				return false;
+			}
+			// (Re)start from the current residual
+			System.arraycopy(r, 0, rHat, 0, n);
+			Arrays.fill(p, 0.0);
+			Arrays.fill(v, 0.0);
+			double rho = 1.0, alpha = 1.0, omega = 1.0;
+			while (numIters < maxIters) {
+				numIters++;
+				double rhoNew = dot(rHat, r);
+				if (rhoNew == 0.0) {
+					break;
+				}
+				double beta = (rhoNew / rho) * (alpha / omega);
+				for (int i = 0; i < n; i++) {
+					p[i] = r[i] + beta * (p[i] - omega * v[i]);
+				}
+				applyPreconditioner(p, pHat);
+				multiply(pHat, v);
+				double rHatV = dot(rHat, v);
+				if (rHatV == 0.0) {
+					break;
+				}
+				alpha = rhoNew / rHatV;
+				for (int i = 0; i < n; i++) {
+					s[i] = r[i] - alpha * v[i];
+				}
+				axpy(alpha, pHat, x);
+				if (isConverged(normInf(s), x, epsilon, absolute)) {
+					break;
+				}
+				applyPreconditioner(s, sHat);
+				multiply(sHat, t);
+				double tt = dot(t, t);
+				omega = tt == 0.0 ? 0.0 : dot(t, s) / tt;
+				axpy(omega, sHat, x);
+				for (int i = 0; i < n; i++) {
+					r[i] = s[i] - omega * t[i];
+				}
+				rho = rhoNew;
+				if (omega == 0.0 || isConverged(normInf(r), x, epsilon, absolute)) {
+					break;
+				}
+			}
+		}
+	}
+
+	// Preconditioners
+
+	/**
+	 * Compute the incomplete LU factorisation without fill-in, i.e.,
+	 * in the sparsity pattern of the matrix (L has a unit diagonal, which is not stored).
+	 */
+	private void computeILU0() throws PrismException
+	{
+		lu = vals.clone();
+		int[] pos = new int[n];
+		Arrays.fill(pos, -1);
+		for (int i = 0; i < n; i++) {
+			for (int k = rowStarts[i]; k < rowStarts[i + 1]; k++) {
+				pos[cols[k]] = k;
+			}
+			// Eliminate the entries left of the diagonal (in order of increasing column)
+			for (int k = rowStarts[i]; k < diagPos[i]; k++) {
+				int c = cols[k];
+				double mult = lu[k] / lu[diagPos[c]];
+				lu[k] = mult;
+				for (int l = diagPos[c] + 1; l < rowStarts[c + 1]; l++) {
+					int p = pos[cols[l]];
+					if (p >= 0) {
+						lu[p] -= mult * lu[l];
+					}
+				}
+			}
+			for (int k = rowStarts[i]; k < rowStarts[i + 1]; k++) {
+				pos[cols[k]] = -1;
+			}
+			if (!(lu[diagPos[i]] != 0.0) || Double.isInfinite(lu[diagPos[i]])) {
+				throw new PrismException("Zero pivot in ILU(0) preconditioner; try a different preconditioner");
+			}
+		}
+	}
+
+	/**
+	 * Compute {@code z = M^-1 v} for the preconditioner {@code M}.
+	 */
+	private void applyPreconditioner(double[] v, double[] z)
+	{
+		switch (preconditioner) {
+		case JACOBI:
+			for (int i = 0; i < n; i++) {
+				z[i] = v[i] * invDiag[i];
+			}
+			break;
+		case ILU0:
+			// Forward substitution (L z = v), then backward substitution (U z = z)
+			for (int i = 0; i < n; i++) {
+				double d = v[i];
+				for (int k = rowStarts[i]; k < diagPos[i]; k++) {
+					d -= lu[k] * z[cols[k]];
+				}
+				z[i] = d;
+			}
+			for (int i = n - 1; i >= 0; i--) {
+				double d = z[i];
+				for (int k = diagPos[i] + 1; k < rowStarts[i + 1]; k++) {
+					d -= lu[k] * z[cols[k]];
+				}
+				z[i] = d / lu[diagPos[i]];
+			}
+			break;
+		default:
+			System.arraycopy(v, 0, z, 0, n);
+		}
+	}
+
+	// Vector operations
+
+	/**
+	 * Compute {@code result = A x}.
+	 */
+	private void multiply(double[] x, double[] result)
+	{
+		for (int i = 0; i < n; i++) {
+			result[i] = SparseRowKernels.dot(0.0, vals, cols, x, rowStarts[i], rowStarts[i + 1]);
+		}
+	}
+
+	/**
+	 * Compute {@code r = b - A x}.
+	 */
+	private void computeResidual(double[] x, double[] r)
+	{
+		for (int i = 0; i < n; i++) {
+			r[i] = b[i] - SparseRowKernels.dot(0.0, vals, cols, x, rowStarts[i], rowStarts[i + 1]);
+		}
+	}
+
+	private static boolean isConverged(double residualNorm, double[] x, double epsilon, boolean absolute)
+	{
+		return residualNorm <= epsilon * (absolute ? 1.0 : normInf(x));
+	}
+
+	private static double dot(double[] x, double[] y)
+	{
+		double d = 0.0;
+		for (int i = 0; i < x.length; i++) {
+			d += x[i] * y[i];
+		}
+		return d;
+	}
+
+	/**
+	 * Compute {@code y += a * x}.
+	 */
+	private static void axpy(double a, double[] x, double[] y)
+	{
+		for (int i = 0; i < x.length; i++) {
+			y[i] += a * x[i];
+		}
+	}
+
+	private static double norm2(double[] x)
+	{
+		return Math.sqrt(dot(x, x));
+	}
+
+	private static double normInf(double[] x)
+	{
+		double d = 0.0;
+		for (int i = 0; i < x.length; i++) {
+			d = Math.max(d, Math.abs(x[i]));
+		}
+		return d;
+	}
+}
@@ -324,7 +324,7 @@ public class MDPModelChecker extends ProbModelChecker
 		}
 
 		// Check for some unsupported combinations
-		if (mdpSolnMethod == MDPSolnMethod.VALUE_ITERATION && valIterDir == ValIterDir.ABOVE) {
+		if ((mdpSolnMethod == MDPSolnMethod.VALUE_ITERATION || mdpSolnMethod == MDPSolnMethod.PRIORITISED_VALUE_ITERATION) && valIterDir == ValIterDir.ABOVE) {
 			if (!(precomp && prob0))
 				throw new PrismException("Precomputation (Prob0) must be enabled for value iteration from above");
 			if (!min)
@@ -358,6 +358,18 @@ public class MDPModelChecker extends ProbModelChecker
 			doPmaxQuotient = false;
 		}
 
+		// Warm start from a previous solution for the same property, if available
+		// (only with Prob0 precomputation and, for Pmax, the MEC quotient, which make the solution
+		// the unique fixed point; not for policy iteration, which does not take initial values;
+		// and not with strategy generation, which for Pmax relies on iterating from 0)
+		String warmStartKey = null;
+		if (warmStartCache != null && init == null && known == null && !genStrat && precomp && prob0 && (min || doPmaxQuotient)) {
+			if (mdpSolnMethod != MDPSolnMethod.POLICY_ITERATION && mdpSolnMethod != MDPSolnMethod.MODIFIED_POLICY_ITERATION) {
+				warmStartKey = warmStartCache.nextKey(min ? "reach-min" : "reach-max");
+				lastIntervalIterationBounds = null;
+			}
+		}
+
 		// Start probabilistic reachability
 		timer = System.currentTimeMillis();
 		mainLog.println("\nStarting probabilistic reachability (" + (min ? "min" : "max") + ")...");
@@ -441,6 +453,7 @@ public class MDPModelChecker extends ProbModelChecker
 
 		// Compute probabilities (if needed)
 		if (numYes + numNo < n) {
+			WarmStartCache.Bounds warmStartPrev = warmStartKey == null ? null : warmStartCache.get(warmStartKey, mdp);
 
 			if (!min && doPmaxQuotient) {
 				MDPEquiv<Double> maxQuotient = maxQuotient(mdp, yes, no);
@@ -465,7 +478,8 @@ public class MDPModelChecker extends ProbModelChecker
 				                                                   min,
 				                                                   init,
 				                                                   known,
-				                                                   strat);
+				                                                   strat,
+				                                                   warmStartPrev == null ? null : getWarmStartBounds(quotientModel, warmStartPrev, noInQuotient, yesInQuotient, min));
 
 				res = new ModelCheckerResult();
 				res.numIters = res1.numIters;
@@ -480,9 +494,20 @@ public class MDPModelChecker extends ProbModelChecker
 						res.soln[i] = res1.soln[maxQuotient.mapStateToRestrictedModel(i)];
 					}
 				}
+				// Map any interval iteration bounds kept for warm starts back too
+				if (lastIntervalIterationBounds != null) {
+					double[] below = new double[n], above = new double[n];
+					for (int i = 0; i < n; i++) {
+						int j = maxQuotient.mapStateToRestrictedModel(i);
+						below[i] = yes.get(i) ? 1.0 : no.get(i) ? 0.0 : lastIntervalIterationBounds.below[j];
+						above[i] = yes.get(i) ? 1.0 : no.get(i) ? 0.0 : lastIntervalIterationBounds.above[j];
+					}
+					lastIntervalIterationBounds = new WarmStartCache.Bounds(below, above);
+				}
 				res.accuracy = res1.accuracy;
 			} else {
-				res = computeReachProbsNumeric(mdp, mdpSolnMethod, no, yes, min, init, known, strat);
+				WarmStartCache.Bounds warmStart = warmStartPrev == null ? null : getWarmStartBounds(mdp, warmStartPrev, no, yes, min);
+				res = computeReachProbsNumeric(mdp, mdpSolnMethod, no, yes, min, init, known, strat, warmStart);
 			}
 		} else {
 			res = new ModelCheckerResult();
@@ -494,6 +519,11 @@ public class MDPModelChecker extends ProbModelChecker
 		timer = System.currentTimeMillis() - timer;
 		mainLog.println("Probabilistic reachability took " + timer / 1000.0 + " seconds.");
 
+		if (warmStartKey != null) {
+			warmStartCache.put(warmStartKey, mdp, res.soln, lastIntervalIterationBounds);
+			lastIntervalIterationBounds = null;
+		}
+
 		// Store strategy
 		if (genStrat) {
 			res.strat = new MDStrategyArray<Double>(mdp, strat);
@@ -507,14 +537,47 @@ public class MDPModelChecker extends ProbModelChecker
 		return res;
 	}
 
-	protected ModelCheckerResult computeReachProbsNumeric(MDP<Double> mdp, MDPSolnMethod method, BitSet no, BitSet yes, boolean min, double init[], BitSet known, int strat[]) throws PrismException
+	/**
+	 * Get bounds on min/max reachability probabilities from previous lower/upper vectors {@code prev}
+	 * (from the warm-start cache), or null if none can be certified.
+	 * The solution must be the unique fixed point (e.g. thanks to Prob0 precomputation
+	 * for min, and additionally the MEC quotient for max).
+	 * @param mdp The MDP
+	 * @param prev The previous vectors
+	 * @param no Probability 0 states
+	 * @param yes Probability 1 states
+	 * @param min Min or max probabilities (true=min, false=max)
+	 */
+	protected WarmStartCache.Bounds getWarmStartBounds(MDP<Double> mdp, WarmStartCache.Bounds prev, BitSet no, BitSet yes, boolean min)
+	{
+		BitSet unknown = new BitSet();
+		unknown.set(0, mdp.getNumStates());
+		unknown.andNot(yes);
+		unknown.andNot(no);
+		WarmStartCache.Bounds bounds = WarmStartCache.bounds(prev, yes, no, unknown, (s, vect) -> mdp.mvMultMinMaxSingle(s, vect, min, null));
+		mainLog.println("Warm start: previous solution gives " + WarmStartCache.describe(bounds));
+		return bounds.isEmpty() ? null : bounds;
+	}
+
+	/**
+	 * Compute reachability probabilities numerically, for the states not in {@code yes} or {@code no},
+	 * optionally starting from (certified) bounds {@code warmStart} on the solution.
+	 */
+	protected ModelCheckerResult computeReachProbsNumeric(MDP<Double> mdp, MDPSolnMethod method, BitSet no, BitSet yes, boolean min, double init[], BitSet known, int strat[], WarmStartCache.Bounds warmStart) throws PrismException
 	{
 		ModelCheckerResult res = null;
 
+		// For interval iteration, warm-start bounds are used as they are; otherwise, iterate
+		// from the bound on the side of the chosen direction if possible, and from the other if not
+		if (warmStart != null && !doIntervalIteration) {
+			boolean fromAbove = warmStart.below == null || (valIterDir == ValIterDir.ABOVE && warmStart.above != null);
+			init = fromAbove ? warmStart.above : warmStart.below;
+		}
+
 		IterationMethod iterationMethod = null;
 		switch (method) {
 		case VALUE_ITERATION:
-			iterationMethod = new IterationMethodPower(termCrit == TermCrit.ABSOLUTE, termCritParam);
+			iterationMethod = createIterationMethodPower();
 			break;
 		case GAUSS_SEIDEL:
 			iterationMethod = new IterationMethodGS(termCrit == TermCrit.ABSOLUTE, termCritParam, false);
@@ -531,6 +594,9 @@ public class MDPModelChecker extends ProbModelChecker
 			}
 			res = computeReachProbsModPolIter(mdp, no, yes, min, strat);
 			break;
+		case PRIORITISED_VALUE_ITERATION:
+			res = doPrioritisedValueIterationReachProbs(mdp, no, yes, min, init, known, strat);
+			break;
 		default:
 			throw new PrismException("Unknown MDP solution method " + mdpSolnMethod.fullName());
 		}
@@ -539,7 +605,7 @@ public class MDPModelChecker extends ProbModelChecker
 			if (!doIntervalIteration) {
 				res = doValueIterationReachProbs(mdp, no, yes, min, init, known, iterationMethod, getDoTopologicalValueIteration(), strat);
 			} else {
-				res = doIntervalIterationReachProbs(mdp, no, yes, min, init, known, iterationMethod, getDoTopologicalValueIteration(), strat);
+				res = doIntervalIterationReachProbs(mdp, no, yes, min, init, known, iterationMethod, getDoTopologicalValueIteration(), strat, warmStart);
 			}
 		}
 
@@ -763,7 +829,7 @@ public class MDPModelChecker extends ProbModelChecker
 	protected ModelCheckerResult computeReachProbsValIter(MDP<Double> mdp, BitSet no, BitSet yes, boolean min, double init[], BitSet known, int strat[])
 			throws PrismException
 	{
-		IterationMethodPower iterationMethod = new IterationMethodPower(termCrit == TermCrit.ABSOLUTE, termCritParam);
+		IterationMethod iterationMethod = createIterationMethodPower();
 		return doValueIterationReachProbs(mdp, no, yes, min, init, known, iterationMethod, false, strat);
 	}
 
@@ -835,6 +901,17 @@ public class MDPModelChecker extends ProbModelChecker
 		if (iterationsExport != null)
 			iterationsExport.exportVector(init, 0);
 
+		// For mixed precision, start from a single-precision solution
+		// (only for min, where the solution is unique after Prob0 precomputation;
+		// for max, starting above the least fixed point could give a wrong result)
+		if (mixedPrecision && precomp && prob0) {
+			if (min) {
+				doMixedPrecisionIteration(MixedPrecisionIteration.forMDP(mdp, IntSet.asIntSet(unknown)), init, true);
+			} else {
+				mainLog.println("Note: mixed-precision value iteration is not used for maximum probabilities");
+			}
+		}
+
 		IterationMethod.IterationValIter iteration = iterationMethod.forMvMultMinMax(mdp, min, strat);
 		iteration.init(init);
 
@@ -857,6 +934,79 @@ public class MDPModelChecker extends ProbModelChecker
 		}
 	}
 
+	/**
+	 * Compute reachability probabilities using prioritised value iteration
+	 * (see {@link PrioritisedValueIteration}), i.e., updating single states
+	 * in order of their residual rather than sweeping over all states.
+	 * Optionally, store optimal (memoryless) strategy info.
+	 * @param mdp The MDP
+	 * @param no Probability 0 states
+	 * @param yes Probability 1 states
+	 * @param min Min or max probabilities (true=min, false=max)
+	 * @param init Optionally, an initial solution vector (will be overwritten)
+	 * @param known Optionally, a set of states for which the exact answer is known
+	 * @param strat Storage for (memoryless) strategy choice indices (ignored if null)
+	 * Note: if 'known' is specified (i.e. is non-null, 'init' must also be given and is used for the exact values.
+	 */
+	protected ModelCheckerResult doPrioritisedValueIterationReachProbs(MDP<Double> mdp, BitSet no, BitSet yes, boolean min, double init[], BitSet known, int strat[])
+			throws PrismException
+	{
+		// Start value iteration
+		long timer = System.currentTimeMillis();
+		String description = (min ? "min" : "max") + ", prioritised";
+		mainLog.println("Starting value iteration (" + description + ")...");
+
+		// Initialise solution vector, as for value iteration
+		int n = mdp.getNumStates();
+		double initVal = (valIterDir == ValIterDir.BELOW) ? 0.0 : 1.0;
+		if (init == null) {
+			init = new double[n];
+			Arrays.fill(init, initVal);
+		}
+		for (int i = 0; i < n; i++) {
+			if (known == null || !known.get(i)) {
+				init[i] = yes.get(i) ? 1.0 : no.get(i) ? 0.0 : init[i];
+			}
+		}
+
+		// Determine set of states actually need to compute values for
+		BitSet unknown = new BitSet();
+		unknown.set(0, n);
+		unknown.andNot(yes);
+		unknown.andNot(no);
+		if (known != null)
+			unknown.andNot(known);
+
+		// Run prioritised value iteration, allowing as many backups as maxIters full sweeps
+		PrioritisedValueIteration iteration = PrioritisedValueIteration.forMDP(mdp, unknown);
+		int numUnknown = iteration.getNumStates();
+		boolean absolute = termCrit == TermCrit.ABSOLUTE;
+		boolean done = iteration.solve(init, min, strat, absolute, termCritParam, (long) maxIters * numUnknown);
+
+		// Finished value iteration
+		long backups = iteration.getNumBackups();
+		int iters = numUnknown == 0 ? 0 : (int) ((backups + numUnknown - 1) / numUnknown);
+		timer = System.currentTimeMillis() - timer;
+		mainLog.print("Value iteration (" + description + ")");
+		mainLog.print(" took " + backups + " backups (" + iters + " sweeps' worth of " + numUnknown + " states)");
+		mainLog.println(" and " + timer / 1000.0 + " seconds.");
+
+		// Non-convergence is an error (usually)
+		if (!done && errorOnNonConverge) {
+			String msg = "Iterative method did not converge within " + iters + " iterations.";
+			msg += "\nConsider using a different numerical method or increasing the maximum number of iterations";
+			throw new PrismException(msg);
+		}
+
+		// Return results
+		ModelCheckerResult res = new ModelCheckerResult();
+		res.soln = init;
+		res.accuracy = AccuracyFactory.valueIteration(termCritParam, iteration.getError(), absolute);
+		res.numIters = iters;
+		res.timeTaken = timer / 1000.0;
+		return res;
+	}
+
 	/**
 	 * Compute reachability probabilities using interval iteration.
 	 * Optionally, store optimal (memoryless) strategy info.
@@ -873,19 +1023,32 @@ public class MDPModelChecker extends ProbModelChecker
 	 */
 	protected ModelCheckerResult doIntervalIterationReachProbs(MDP<Double> mdp, BitSet no, BitSet yes, boolean min, double init[], BitSet known, IterationMethod iterationMethod, boolean topological, int strat[])
 			throws PrismException
+	{
+		return doIntervalIterationReachProbs(mdp, no, yes, min, init, known, iterationMethod, topological, strat, null);
+	}
+
+	/**
+	 * Compute reachability probabilities using interval iteration,
+	 * optionally starting from (certified) bounds {@code warmStart} for the unknown states.
+	 * See {@link #doIntervalIterationReachProbs(MDP, BitSet, BitSet, boolean, double[], BitSet, IterationMethod, boolean, int[])}.
+	 */
+	protected ModelCheckerResult doIntervalIterationReachProbs(MDP<Double> mdp, BitSet no, BitSet yes, boolean min, double init[], BitSet known, IterationMethod iterationMethod, boolean topological, int strat[], WarmStartCache.Bounds warmStart)
+			throws PrismException
 	{
 		BitSet unknown;
 		int i, n;
 		double initBelow[], initAbove[];
 		long timer;
 
+		OptionsIntervalIteration iiOptions = OptionsIntervalIteration.from(this);
+
 		// Start value iteration
 		timer = System.currentTimeMillis();
 		String description = (min ? "min" : "max")
 				+ (topological ? ", topological": "" )
 				+ ", with " + iterationMethod.getDescriptionShort();
 
-		mainLog.println("Starting interval iteration (" + description + ")...");
+		mainLog.println("Starting " + (iiOptions.isOptimistic() ? "optimistic value" : iiOptions.isSound() ? "sound value" : "interval") + " iteration (" + description + ")...");
 
 		ExportIterations iterationsExport = null;
 		if (settings.getBoolean(PrismSettings.PRISM_EXPORT_ITERATIONS)) {
@@ -923,12 +1086,21 @@ public class MDPModelChecker extends ProbModelChecker
 		if (known != null)
 			unknown.andNot(known);
 
+		// Start from warm-start bounds, where available
+		if (warmStart != null) {
+			for (i = unknown.nextSetBit(0); i >= 0; i = unknown.nextSetBit(i + 1)) {
+				if (warmStart.below != null)
+					initBelow[i] = warmStart.below[i];
+				if (warmStart.above != null)
+					initAbove[i] = warmStart.above[i];
+			}
+		}
+
 		if (iterationsExport != null) {
 			iterationsExport.exportVector(initBelow, 0);
 			iterationsExport.exportVector(initAbove, 1);
 		}
 
-		OptionsIntervalIteration iiOptions = OptionsIntervalIteration.from(this);
 
 		final boolean enforceMonotonicFromBelow = iiOptions.isEnforceMonotonicityFromBelow();
 		final boolean enforceMonotonicFromAbove = iiOptions.isEnforceMonotonicityFromAbove();
@@ -942,7 +1114,7 @@ public class MDPModelChecker extends ProbModelChecker
 		}
 
 		IterationMethod.IterationIntervalIter below = iterationMethod.forMvMultMinMaxInterval(mdp, min, strat, true, enforceMonotonicFromBelow, checkMonotonic);
-		IterationMethod.IterationIntervalIter above = iterationMethod.forMvMultMinMaxInterval(mdp, min, strat, false, enforceMonotonicFromAbove, checkMonotonic);
+		IterationMethod.IterationIntervalIter above = iterationMethod.forMvMultMinMaxInterval(mdp, min, strat, false, enforceMonotonicFromAbove && !iiOptions.isOptimistic(), checkMonotonic && !iiOptions.isOptimistic());
 		below.init(initBelow);
 		above.init(initAbove);
 
@@ -958,10 +1130,24 @@ public class MDPModelChecker extends ProbModelChecker
 			};
 
 			// run the actual value iteration
-			return iterationMethod.doTopologicalIntervalIteration(this, description, sccs, below, above, singletonSCCSolver, timer, iterationsExport);
+			if (iiOptions.isOptimistic()) {
+				return iterationMethod.doTopologicalOptimisticValueIteration(this, description, sccs, below, above, singletonSCCSolver, timer, iterationsExport);
+			} else if (iiOptions.isSound()) {
+				SoundValueIteration svi = SoundValueIteration.forMDP(mdp, null, min, unknown, strat);
+				return iterationMethod.doTopologicalSoundValueIteration(this, description, sccs, svi, below, above, singletonSCCSolver, timer, iterationsExport);
+			} else {
+				return iterationMethod.doTopologicalIntervalIteration(this, description, sccs, below, above, singletonSCCSolver, timer, iterationsExport);
+			}
 		} else {
 			// run the actual value iteration
-			return iterationMethod.doIntervalIteration(this, description, below, above, unknownStates, timer, iterationsExport);
+			if (iiOptions.isOptimistic()) {
+				return iterationMethod.doOptimisticValueIteration(this, description, below, above, unknownStates, timer, iterationsExport);
+			} else if (iiOptions.isSound()) {
+				SoundValueIteration svi = SoundValueIteration.forMDP(mdp, null, min, unknown, strat);
+				return iterationMethod.doSoundValueIteration(this, description, svi, below, above, unknownStates, timer, iterationsExport);
+			} else {
+				return iterationMethod.doIntervalIteration(this, description, below, above, unknownStates, timer, iterationsExport);
+			}
 		}
 	}
 
@@ -1296,12 +1482,24 @@ public class MDPModelChecker extends ProbModelChecker
 		if (remain != null)
 			unknown.and(remain);
 
+		// If requested, multiply in parallel
+		IterationMethodParallel parallel = null;
+		int[] unknownRows = null;
+		if (solveThreads > 1 && IterationMethodParallel.isSupported(mdp)) {
+			parallel = new IterationMethodParallel(termCrit == TermCrit.ABSOLUTE, termCritParam, false, solveThreads);
+			unknownRows = unknown.stream().toArray();
+		}
+
 		// Start iterations
 		iters = 0;
 		while (iters < k) {
 			iters++;
 			// Matrix-vector multiply and min/max ops
-			mdp.mvMultMinMax(soln, min, soln2, unknown, false, strat);
+			if (parallel != null) {
+				parallel.mvMultMinMax(mdp, soln, min, soln2, unknownRows, strat);
+			} else {
+				mdp.mvMultMinMax(soln, min, soln2, unknown, false, strat);
+			}
 			if (genStrat) {
 				fmdStrat.setStepChoices(k - iters, strat);
 			}
@@ -2215,7 +2413,7 @@ public class MDPModelChecker extends ProbModelChecker
 		IterationMethod iterationMethod = null;
 		switch (method) {
 		case VALUE_ITERATION:
-			iterationMethod = new IterationMethodPower(termCrit == TermCrit.ABSOLUTE, termCritParam);
+			iterationMethod = createIterationMethodPower();
 			break;
 		case GAUSS_SEIDEL:
 			iterationMethod = new IterationMethodGS(termCrit == TermCrit.ABSOLUTE, termCritParam, false);
@@ -2257,7 +2455,7 @@ public class MDPModelChecker extends ProbModelChecker
 	protected ModelCheckerResult computeReachRewardsValIter(MDP<Double> mdp, MDPRewards<Double> mdpRewards, BitSet target, BitSet inf, boolean min, double init[], BitSet known, int strat[])
 			throws PrismException
 	{
-		IterationMethodPower iterationMethod = new IterationMethodPower(termCrit == TermCrit.ABSOLUTE, termCritParam);
+		IterationMethod iterationMethod = createIterationMethodPower();
 		return doValueIterationReachRewards(mdp, mdpRewards, iterationMethod, target, inf, min, init, known, false, strat);
 	}
 
@@ -2431,7 +2629,7 @@ public class MDPModelChecker extends ProbModelChecker
 		// Start value iteration
 		timer = System.currentTimeMillis();
 		String description = (min ? "min" : "max") + (topological ? ", topological" : "") + ", with " + iterationMethod.getDescriptionShort();
-		mainLog.println("Starting interval iteration (" + description + ")...");
+		mainLog.println("Starting " + (iiOptions.isOptimistic() ? "optimistic value" : iiOptions.isSound() ? "sound value" : "interval") + " iteration (" + description + ")...");
 
 		ExportIterations iterationsExport = null;
 		if (settings.getBoolean(PrismSettings.PRISM_EXPORT_ITERATIONS)) {
@@ -2480,7 +2678,7 @@ public class MDPModelChecker extends ProbModelChecker
 		}
 
 		IterationMethod.IterationIntervalIter below = iterationMethod.forMvMultRewMinMaxInterval(mdp, mdpRewards, min, strat, true, enforceMonotonicFromBelow, checkMonotonic);
-		IterationMethod.IterationIntervalIter above = iterationMethod.forMvMultRewMinMaxInterval(mdp, mdpRewards, min, strat, false, enforceMonotonicFromAbove, checkMonotonic);
+		IterationMethod.IterationIntervalIter above = iterationMethod.forMvMultRewMinMaxInterval(mdp, mdpRewards, min, strat, false, enforceMonotonicFromAbove && !iiOptions.isOptimistic(), checkMonotonic && !iiOptions.isOptimistic());
 		below.init(initBelow);
 		above.init(initAbove);
 
@@ -2497,10 +2695,24 @@ public class MDPModelChecker extends ProbModelChecker
 			};
 
 			// run the actual value iteration
-			rv = iterationMethod.doTopologicalIntervalIteration(this, description, sccs, below, above, singletonSCCSolver, timer, iterationsExport);
+			if (iiOptions.isOptimistic()) {
+				rv = iterationMethod.doTopologicalOptimisticValueIteration(this, description, sccs, below, above, singletonSCCSolver, timer, iterationsExport);
+			} else if (iiOptions.isSound()) {
+				SoundValueIteration svi = SoundValueIteration.forMDP(mdp, mdpRewards, min, unknown, strat);
+				rv = iterationMethod.doTopologicalSoundValueIteration(this, description, sccs, svi, below, above, singletonSCCSolver, timer, iterationsExport);
+			} else {
+				rv = iterationMethod.doTopologicalIntervalIteration(this, description, sccs, below, above, singletonSCCSolver, timer, iterationsExport);
+			}
 		} else {
 			// run the actual value iteration
-			rv = iterationMethod.doIntervalIteration(this, description, below, above, unknownStates, timer, iterationsExport);
+			if (iiOptions.isOptimistic()) {
+				rv = iterationMethod.doOptimisticValueIteration(this, description, below, above, unknownStates, timer, iterationsExport);
+			} else if (iiOptions.isSound()) {
+				SoundValueIteration svi = SoundValueIteration.forMDP(mdp, mdpRewards, min, unknown, strat);
+				rv = iterationMethod.doSoundValueIteration(this, description, svi, below, above, unknownStates, timer, iterationsExport);
+			} else {
+				rv = iterationMethod.doIntervalIteration(this, description, below, above, unknownStates, timer, iterationsExport);
+			}
 		}
 
 		double max_v = PrismUtils.findMaxFinite(rv.soln, unknownStates.iterator());
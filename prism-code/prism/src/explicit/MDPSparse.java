@@ -33,6 +33,7 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Iterator;
 import java.util.List;
@@ -60,8 +61,13 @@ public class MDPSparse extends MDPExplicit<Double>
 	/** Column (destination) indices for each transition (array of size numTransitions) */
 	protected int cols[];
 	/** Indices into nonZeros/cols giving the start of the transitions for each choice (distribution);
-	 * array is of size numDistrs+1 and last entry is always equal to numTransitions */
+	 * array is of size numDistrs+1 and last entry is always equal to numTransitions.
+	 * If distributions are shared (see {@link #choiceDistrs}), this is indexed by distribution, not choice. */
 	protected int choiceStarts[];
+	/** Index (into choiceStarts) of the distribution for each choice, if structurally identical
+	 * distributions are stored only once (array of size numDistrs); if null, distributions
+	 * are not shared and the ith choice uses the ith entry of choiceStarts */
+	protected int choiceDistrs[];
 	/** Indices into choiceStarts giving the start of the choices for each state;
 	 * array is of size numStates+1 and last entry is always equal to numDistrs */
 	protected int rowStarts[];
@@ -302,6 +308,60 @@ public class MDPSparse extends MDPExplicit<Double>
 		actions = new ChoiceActionsSimple(mdp.actions, permut).convertToSparseStorage(this);
 	}
 
+	/**
+	 * Constructor: Build new MDPSparse directly from a sparse matrix
+	 * (the arrays are stored, not copied; see the fields of this class for their format).
+	 * Initial states, deadlocks and other model info should be set separately.
+	 * @param numStates Number of states
+	 * @param rowStarts Start of the choices for each state (array of size numStates+1)
+	 * @param choiceStarts Start of the transitions for each choice (array of size numDistrs+1)
+	 * @param cols Destination of each transition
+	 * @param nonZeros Probability of each transition
+	 * @param actions Action label for each choice (or null if there are no actions)
+	 */
+	public MDPSparse(int numStates, int rowStarts[], int choiceStarts[], int cols[], double nonZeros[], Object actions[])
+	{
+		this(numStates, rowStarts, null, choiceStarts, cols, nonZeros, actions);
+	}
+
+	/**
+	 * Constructor: Build new MDPSparse directly from a sparse matrix in which
+	 * structurally identical distributions may be shared between choices
+	 * (the arrays are stored, not copied; see the fields of this class for their format).
+	 * Initial states, deadlocks and other model info should be set separately.
+	 * @param numStates Number of states
+	 * @param rowStarts Start of the choices for each state (array of size numStates+1)
+	 * @param choiceDistrs Distribution of each choice (or null if distributions are not shared)
+	 * @param choiceStarts Start of the transitions for each distribution
+	 * @param cols Destination of each transition
+	 * @param nonZeros Probability of each transition
+	 * @param actions Action label for each choice (or null if there are no actions)
+	 */
+	public MDPSparse(int numStates, int rowStarts[], int choiceDistrs[], int choiceStarts[], int cols[], double nonZeros[], Object actions[])
+	{
+		initialise(numStates);
+		this.rowStarts = rowStarts;
+		this.choiceDistrs = choiceDistrs;
+		this.choiceStarts = choiceStarts;
+		this.cols = cols;
+		this.nonZeros = nonZeros;
+		this.actions = actions;
+		// Compute stats
+		numDistrs = rowStarts[numStates];
+		if (choiceDistrs == null) {
+			numTransitions = choiceStarts[numDistrs];
+		} else {
+			numTransitions = 0;
+			for (int j = 0; j < numDistrs; j++) {
+				numTransitions += choiceEnd(j) - choiceStart(j);
+			}
+		}
+		maxNumDistrs = 0;
+		for (int s = 0; s < numStates; s++) {
+			maxNumDistrs = Math.max(maxNumDistrs, rowStarts[s + 1] - rowStarts[s]);
+		}
+	}
+
 	/**
 	 * Copy constructor for a (sub-)MDP from a given MDP.
 	 * The states and actions will be indexed as given by the order
@@ -473,9 +533,41 @@ public class MDPSparse extends MDPExplicit<Double>
 	@Override
 	public int getNumTransitions(int s)
 	{
+		if (choiceDistrs != null) {
+			int count = 0;
+			for (int j = rowStarts[s]; j < rowStarts[s + 1]; j++) {
+				count += choiceEnd(j) - choiceStart(j);
+			}
+			return count;
+		}
 		return choiceStarts[rowStarts[s + 1]] - choiceStarts[rowStarts[s]];
 	}
 
+	/**
+	 * Get the number of distinct distributions stored, i.e., the number of choices
+	 * unless structurally identical distributions are shared.
+	 */
+	public int getNumStoredDistributions()
+	{
+		return choiceDistrs == null ? numDistrs : choiceStarts.length - 1;
+	}
+
+	/**
+	 * Get the index (into nonZeros/cols) of the first transition of the {@code j}th choice (over all states).
+	 */
+	private int choiceStart(int j)
+	{
+		return choiceDistrs == null ? choiceStarts[j] : choiceStarts[choiceDistrs[j]];
+	}
+
+	/**
+	 * Get the index (into nonZeros/cols) after the last transition of the {@code j}th choice (over all states).
+	 */
+	private int choiceEnd(int j)
+	{
+		return choiceDistrs == null ? choiceStarts[j + 1] : choiceStarts[choiceDistrs[j] + 1];
+	}
+
 	private SuccessorsIterator colsIterator(int start, int end, boolean distinct)
 	{
 		return new SuccessorsIterator() {
@@ -504,6 +596,26 @@ public class MDPSparse extends MDPExplicit<Double>
 	@Override
 	public SuccessorsIterator getSuccessors(final int s)
 	{
+		// With shared distributions, the transitions of a state are not contiguous
+		if (choiceDistrs != null) {
+			return SuccessorsIterator.chain(new Iterator<SuccessorsIterator>()
+			{
+				int j = rowStarts[s];
+
+				@Override
+				public boolean hasNext()
+				{
+					return j < rowStarts[s + 1];
+				}
+
+				@Override
+				public SuccessorsIterator next()
+				{
+					int start = choiceStart(j), end = choiceEnd(j++);
+					return colsIterator(start, end, true);
+				}
+			});
+		}
 		// Assumes that only non-zero entries are stored
 		int start = choiceStarts[rowStarts[s]];
 		int end = choiceStarts[rowStarts[s + 1]];
@@ -564,8 +676,8 @@ public class MDPSparse extends MDPExplicit<Double>
 	@Override
 	public SuccessorsIterator getSuccessors(final int s, final int i)
 	{
-		int start = choiceStarts[rowStarts[s] + i];
-		int end = choiceStarts[rowStarts[s] + i + 1];
+		int start = choiceStart(rowStarts[s] + i);
+		int end = choiceEnd(rowStarts[s] + i);
 		// we assume here that the successors for a single choice are distinct
 		return colsIterator(start, end, true);
 	}
@@ -575,13 +687,13 @@ public class MDPSparse extends MDPExplicit<Double>
 	@Override
 	public int getNumTransitions(int s, int i)
 	{
-		return choiceStarts[rowStarts[s] + i + 1] - choiceStarts[rowStarts[s] + i];
+		return choiceEnd(rowStarts[s] + i) - choiceStart(rowStarts[s] + i);
 	}
 
 	@Override
 	public void forEachTransition(int s, int i, TransitionConsumer<Double> c)
 	{
-		for (int col = choiceStarts[rowStarts[s] + i], stop = choiceStarts[rowStarts[s] + i + 1]; col < stop; col++) {
+		for (int col = choiceStart(rowStarts[s] + i), stop = choiceEnd(rowStarts[s] + i); col < stop; col++) {
 			c.accept(s, cols[col], nonZeros[col]);
 		}
 	}
@@ -589,7 +701,7 @@ public class MDPSparse extends MDPExplicit<Double>
 	@Override
 	public void forEachDoubleTransition(int s, int i, DoubleTransitionConsumer c)
 	{
-		for (int col = choiceStarts[rowStarts[s] + i], stop = choiceStarts[rowStarts[s] + i + 1]; col < stop; col++) {
+		for (int col = choiceStart(rowStarts[s] + i), stop = choiceEnd(rowStarts[s] + i); col < stop; col++) {
 			c.accept(s, cols[col], nonZeros[col]);
 		}
 	}
@@ -599,9 +711,9 @@ public class MDPSparse extends MDPExplicit<Double>
 	{
 		return new Iterator<Entry<Integer, Double>>()
 		{
-			final int start = choiceStarts[rowStarts[s] + i];
+			final int start = choiceStart(rowStarts[s] + i);
 			int col = start;
-			final int end = choiceStarts[rowStarts[s] + i + 1];
+			final int end = choiceEnd(rowStarts[s] + i);
 
 			@Override
 			public boolean hasNext()
@@ -631,8 +743,8 @@ public class MDPSparse extends MDPExplicit<Double>
 			h1 = rowStarts[i + 1];
 			for (j = l1; j < h1; j++) {
 				some = false;
-				l2 = choiceStarts[j];
-				h2 = choiceStarts[j + 1];
+				l2 = choiceStart(j);
+				h2 = choiceEnd(j);
 				for (k = l2; k < h2; k++) {
 					// Assume that only non-zero entries are stored
 					if (u.get(cols[k])) {
@@ -668,8 +780,8 @@ public class MDPSparse extends MDPExplicit<Double>
 			for (j = l1; j < h1; j++) {
 				some = false;
 				all = true;
-				l2 = choiceStarts[j];
-				h2 = choiceStarts[j + 1];
+				l2 = choiceStart(j);
+				h2 = choiceEnd(j);
 				for (k = l2; k < h2; k++) {
 					// Assume that only non-zero entries are stored
 					if (!u.get(cols[k])) {
@@ -701,8 +813,8 @@ public class MDPSparse extends MDPExplicit<Double>
 			for (j = l1; j < h1; j++) {
 				some = false;
 				all = true;
-				l2 = choiceStarts[j];
-				h2 = choiceStarts[j + 1];
+				l2 = choiceStart(j);
+				h2 = choiceEnd(j);
 				for (k = l2; k < h2; k++) {
 					// Assume that only non-zero entries are stored
 					if (!u.get(cols[k])) {
@@ -743,8 +855,8 @@ public class MDPSparse extends MDPExplicit<Double>
 			for (j = l1; j < h1; j++) {
 				some = false;
 				all = true;
-				l2 = choiceStarts[j];
-				h2 = choiceStarts[j + 1];
+				l2 = choiceStart(j);
+				h2 = choiceEnd(j);
 				for (k = l2; k < h2; k++) {
 					// Assume that only non-zero entries are stored
 					if (v.get(cols[k])) {
@@ -779,8 +891,8 @@ public class MDPSparse extends MDPExplicit<Double>
 		j = rowStarts[s] + i;
 		some = false;
 		all = true;
-		l2 = choiceStarts[j];
-		h2 = choiceStarts[j + 1];
+		l2 = choiceStart(j);
+		h2 = choiceEnd(j);
 		for (k = l2; k < h2; k++) {
 			// Assume that only non-zero entries are stored
 			if (v.get(cols[k])) {
@@ -796,7 +908,7 @@ public class MDPSparse extends MDPExplicit<Double>
 	@Override
 	public double mvMultMinMaxSingle(int s, double vect[], boolean min, int strat[])
 	{
-		int j, k, l1, h1, l2, h2, stratCh = -1;
+		int j, l1, h1, l2, h2, stratCh = -1;
 		double d, minmax;
 		boolean first;
 
@@ -807,11 +919,9 @@ public class MDPSparse extends MDPExplicit<Double>
 		for (j = l1; j < h1; j++) {
 			// Compute sum for this distribution
 			d = 0.0;
-			l2 = choiceStarts[j];
-			h2 = choiceStarts[j + 1];
-			for (k = l2; k < h2; k++) {
-				d += nonZeros[k] * vect[cols[k]];
-			}
+			l2 = choiceStart(j);
+			h2 = choiceEnd(j);
+			d = SparseRowKernels.dot(d, nonZeros, cols, vect, l2, h2);
 			// Check whether we have exceeded min/max so far
 			if (first || (min && d < minmax) || (!min && d > minmax)) {
 				minmax = d;
@@ -837,7 +947,7 @@ public class MDPSparse extends MDPExplicit<Double>
 	@Override
 	public List<Integer> mvMultMinMaxSingleChoices(int s, double vect[], boolean min, double val)
 	{
-		int j, k, l1, h1, l2, h2;
+		int j, l1, h1, l2, h2;
 		double d;
 		List<Integer> res;
 
@@ -849,11 +959,9 @@ public class MDPSparse extends MDPExplicit<Double>
 		for (j = l1; j < h1; j++) {
 			// Compute sum for this distribution
 			d = 0.0;
-			l2 = choiceStarts[j];
-			h2 = choiceStarts[j + 1];
-			for (k = l2; k < h2; k++) {
-				d += nonZeros[k] * vect[cols[k]];
-			}
+			l2 = choiceStart(j);
+			h2 = choiceEnd(j);
+			d = SparseRowKernels.dot(d, nonZeros, cols, vect, l2, h2);
 			// Store strategy info if value matches
 			if (PrismUtils.doublesAreEqual(val, d)) {
 				res.add(j - l1);
@@ -866,17 +974,15 @@ public class MDPSparse extends MDPExplicit<Double>
 	@Override
 	public double mvMultSingle(int s, int i, double vect[])
 	{
-		int j, k, l2, h2;
+		int j, l2, h2;
 		double d;
 
 		j = rowStarts[s] + i;
 		// Compute sum for this distribution
 		d = 0.0;
-		l2 = choiceStarts[j];
-		h2 = choiceStarts[j + 1];
-		for (k = l2; k < h2; k++) {
-			d += nonZeros[k] * vect[cols[k]];
-		}
+		l2 = choiceStart(j);
+		h2 = choiceEnd(j);
+		d = SparseRowKernels.dot(d, nonZeros, cols, vect, l2, h2);
 
 		return d;
 	}
@@ -896,8 +1002,8 @@ public class MDPSparse extends MDPExplicit<Double>
 			diag = 1.0;
 			// Compute sum for this distribution
 			d = 0.0;
-			l2 = choiceStarts[j];
-			h2 = choiceStarts[j + 1];
+			l2 = choiceStart(j);
+			h2 = choiceEnd(j);
 			for (k = l2; k < h2; k++) {
 				if (cols[k] != s) {
 					d += nonZeros[k] * vect[cols[k]];
@@ -939,8 +1045,8 @@ public class MDPSparse extends MDPExplicit<Double>
 		diag = 1.0;
 		// Compute sum for this distribution
 		d = 0.0;
-		l2 = choiceStarts[j];
-		h2 = choiceStarts[j + 1];
+		l2 = choiceStart(j);
+		h2 = choiceEnd(j);
 		for (k = l2; k < h2; k++) {
 			if (cols[k] != s) {
 				d += nonZeros[k] * vect[cols[k]];
@@ -957,7 +1063,7 @@ public class MDPSparse extends MDPExplicit<Double>
 	@Override
 	public double mvMultRewMinMaxSingle(int s, double vect[], MDPRewards<Double> mdpRewards, boolean min, int strat[])
 	{
-		int j, k, l1, h1, l2, h2, stratCh = -1;
+		int j, l1, h1, l2, h2, stratCh = -1;
 		double d, minmax;
 		boolean first;
 
@@ -968,11 +1074,9 @@ public class MDPSparse extends MDPExplicit<Double>
 		for (j = l1; j < h1; j++) {
 			// Compute sum for this distribution
 			d = mdpRewards.getTransitionReward(s, j - l1);
-			l2 = choiceStarts[j];
-			h2 = choiceStarts[j + 1];
-			for (k = l2; k < h2; k++) {
-				d += nonZeros[k] * vect[cols[k]];
-			}
+			l2 = choiceStart(j);
+			h2 = choiceEnd(j);
+			d = SparseRowKernels.dot(d, nonZeros, cols, vect, l2, h2);
 			// Check whether we have exceeded min/max so far
 			if (first || (min && d < minmax) || (!min && d > minmax)) {
 				minmax = d;
@@ -1000,7 +1104,7 @@ public class MDPSparse extends MDPExplicit<Double>
 	@Override
 	public double mvMultRewSingle(int s, int i, double[] vect, MCRewards<Double> mcRewards)
 	{
-		int j, k, l2, h2;
+		int j, l2, h2;
 		double d;
 
 		j = rowStarts[s] + i;
@@ -1008,11 +1112,9 @@ public class MDPSparse extends MDPExplicit<Double>
 		// TODO: use transition rewards when added to DTMCss
 		// d = mcRewards.getTransitionReward(s);
 		d = 0;
-		l2 = choiceStarts[j];
-		h2 = choiceStarts[j + 1];
-		for (k = l2; k < h2; k++) {
-			d += nonZeros[k] * vect[cols[k]];
-		}
+		l2 = choiceStart(j);
+		h2 = choiceEnd(j);
+		d = SparseRowKernels.dot(d, nonZeros, cols, vect, l2, h2);
 		d += mcRewards.getStateReward(s);
 		return d;
 	}
@@ -1035,8 +1137,8 @@ public class MDPSparse extends MDPExplicit<Double>
 			// (note: have to add state rewards in the loop for Jacobi)
 			d = mdpRewards.getStateReward(s);
 			d += mdpRewards.getTransitionReward(s, j - l1);
-			l2 = choiceStarts[j];
-			h2 = choiceStarts[j + 1];
+			l2 = choiceStart(j);
+			h2 = choiceEnd(j);
 			for (k = l2; k < h2; k++) {
 				if (cols[k] != s) {
 					onlySelfloops = false;
@@ -1084,7 +1186,7 @@ public class MDPSparse extends MDPExplicit<Double>
 	@Override
 	public List<Integer> mvMultRewMinMaxSingleChoices(int s, double vect[], MDPRewards<Double> mdpRewards, boolean min, double val)
 	{
-		int j, k, l1, h1, l2, h2;
+		int j, l1, h1, l2, h2;
 		double d;
 		List<Integer> res;
 
@@ -1096,11 +1198,9 @@ public class MDPSparse extends MDPExplicit<Double>
 		for (j = l1; j < h1; j++) {
 			// Compute sum for this distribution
 			d = mdpRewards.getTransitionReward(s, j - l1);
-			l2 = choiceStarts[j];
-			h2 = choiceStarts[j + 1];
-			for (k = l2; k < h2; k++) {
-				d += nonZeros[k] * vect[cols[k]];
-			}
+			l2 = choiceStart(j);
+			h2 = choiceEnd(j);
+			d = SparseRowKernels.dot(d, nonZeros, cols, vect, l2, h2);
 			d += mdpRewards.getStateReward(s);
 			// Store strategy info if value matches
 			if (PrismUtils.doublesAreEqual(val, d)) {
@@ -1118,8 +1218,8 @@ public class MDPSparse extends MDPExplicit<Double>
 			int j, l2, h2;
 			int k = strat[s];
 			j = rowStarts[s] + k;
-			l2 = choiceStarts[j];
-			h2 = choiceStarts[j + 1];
+			l2 = choiceStart(j);
+			h2 = choiceEnd(j);
 			for (k = l2; k < h2; k++) {
 				dest[cols[k]] += nonZeros[k] * source[s];
 			}
@@ -1148,8 +1248,8 @@ public class MDPSparse extends MDPExplicit<Double>
 				if (o != null)
 					s += o + ":";
 				s += "{";
-				l2 = choiceStarts[j];
-				h2 = choiceStarts[j + 1];
+				l2 = choiceStart(j);
+				h2 = choiceEnd(j);
 				for (k = l2; k < h2; k++) {
 					if (k > l2)
 						s += ", ";
@@ -1164,6 +1264,21 @@ public class MDPSparse extends MDPExplicit<Double>
 		return s;
 	}
 
+	/**
+	 * Replace the transition probabilities of this MDP, in place, with those of {@code mdp},
+	 * which must have exactly the same transition structure (choices, action labels,
+	 * shared distributions and successor states). If not, false is returned and this MDP is left unchanged.
+	 */
+	public boolean copyProbabilitiesFrom(MDPSparse mdp)
+	{
+		if (numStates != mdp.numStates || !Arrays.equals(rowStarts, mdp.rowStarts) || !Arrays.equals(choiceDistrs, mdp.choiceDistrs)
+				|| !Arrays.equals(choiceStarts, mdp.choiceStarts) || !Arrays.equals(cols, mdp.cols) || !Arrays.equals(actions, mdp.actions)) {
+			return false;
+		}
+		System.arraycopy(mdp.nonZeros, 0, nonZeros, 0, nonZeros.length);
+		return true;
+	}
+
 	@Override
 	public boolean equals(Object o)
 	{
@@ -1180,6 +1295,8 @@ public class MDPSparse extends MDPExplicit<Double>
 			return false;
 		if (!Utils.intArraysAreEqual(choiceStarts, mdp.choiceStarts))
 			return false;
+		if (!Arrays.equals(choiceDistrs, mdp.choiceDistrs))
+			return false;
 		if (!Utils.intArraysAreEqual(rowStarts, mdp.rowStarts))
 			return false;
 		// TODO: compare actions (complicated: null = null,null,null,...)
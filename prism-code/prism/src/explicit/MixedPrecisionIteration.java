@@ -0,0 +1,240 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package explicit;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+
+import common.IntSet;
+import prism.PrismUtils;
+
+/**
+ * Single-precision phase of mixed-precision value iteration.
+ * <br>
+ * Value iteration is performed with {@code float} probabilities and vectors, which
+ * roughly halves the memory traffic per iteration for the probabilities and vectors
+ * (4 bytes per entry instead of 8). The resulting approximation is then meant to be
+ * used as the initial vector of standard (double-precision) value iteration,
+ * which finishes the computation to the requested accuracy.
+ * <br>
+ * For {@link DTMCSparse} and {@link MDPSparse}, the sparse matrix structure
+ * (row/choice starts and column indices) of the model is shared, and just
+ * the probabilities are converted to {@code float}, i.e., 4 extra bytes per transition.
+ * For other models, the rows needed are copied. Either way, the object should be
+ * discarded once {@link #solve} has been called, to free this memory before the
+ * double-precision phase.
+ * <br>
+ * Since the result of this phase is only used as a starting point, this is only
+ * sound if the equation system has a unique solution, i.e., for DTMCs and
+ * minimum probabilities in MDPs after Prob0 precomputation.
+ */
+class MixedPrecisionIteration
+{
+	/** Smallest convergence threshold used in single precision (below this, rounding errors dominate) */
+	static final double MIN_FLOAT_EPSILON = 1e-5;
+
+	/** States to iterate over */
+	private final int[] states;
+	/** For each state, the start of its choices in {@code choiceStarts} (plus the end of the last one);
+	 * null if each state {@code s} has a single choice, with index {@code s} (for DTMCs) */
+	private final int[] stateStarts;
+	/** For each choice, the index of its distribution in {@code choiceStarts}
+	 * (null if this is the index of the choice itself) */
+	private final int[] choiceDistrs;
+	/** Start of the transitions of each distribution in {@code cols}/{@code vals} (plus the end of the last one) */
+	private final int[] choiceStarts;
+	/** Transition targets */
+	private final int[] cols;
+	/** Transition probabilities, in single precision */
+	private final float[] vals;
+
+	private MixedPrecisionIteration(int[] states, int[] stateStarts, int[] choiceDistrs, int[] choiceStarts, int[] cols, float[] vals)
+	{
+		this.states = states;
+		this.stateStarts = stateStarts;
+		this.choiceDistrs = choiceDistrs;
+		this.choiceStarts = choiceStarts;
+		this.cols = cols;
+		this.vals = vals;
+	}
+
+	/**
+	 * Create for the rows of a DTMC corresponding to the states in {@code states}.
+	 */
+	public static MixedPrecisionIteration forDTMC(DTMC<Double> dtmc, IntSet states)
+	{
+		int[] stateList = states.stream().toArray();
+		if (dtmc instanceof DTMCSparse) {
+			DTMCSparse sparse = (DTMCSparse) dtmc;
+			return new MixedPrecisionIteration(stateList, null, null, sparse.rows, sparse.columns, toFloat(sparse.probabilities));
+		}
+		// Copy the rows needed (others are left empty)
+		int[] rows = new int[dtmc.getNumStates() + 1];
+		int numTransitions = 0;
+		for (int s : stateList) {
+			numTransitions += dtmc.getNumTransitions(s);
+		}
+		int[] cols = new int[numTransitions];
+		float[] vals = new float[numTransitions];
+		int k = 0, next = 0;
+		for (int s : stateList) {
+			for (; next <= s; next++) {
+				rows[next] = k;
+			}
+			for (Iterator<Map.Entry<Integer, Double>> it = dtmc.getTransitionsIterator(s); it.hasNext();) {
+				Map.Entry<Integer, Double> e = it.next();
+				cols[k] = e.getKey();
+				vals[k] = e.getValue().floatValue();
+				k++;
+			}
+		}
+		Arrays.fill(rows, next, rows.length, k);
+		return new MixedPrecisionIteration(stateList, null, null, rows, cols, vals);
+	}
+
+	/**
+	 * Create for the rows of an MDP corresponding to the states in {@code states}.
+	 */
+	public static MixedPrecisionIteration forMDP(MDP<Double> mdp, IntSet states)
+	{
+		int[] stateList = states.stream().toArray();
+		if (mdp instanceof MDPSparse) {
+			MDPSparse sparse = (MDPSparse) mdp;
+			return new MixedPrecisionIteration(stateList, sparse.rowStarts, sparse.choiceDistrs, sparse.choiceStarts, sparse.cols, toFloat(sparse.nonZeros));
+		}
+		// Copy the rows needed (others are left empty)
+		int[] stateStarts = new int[mdp.getNumStates() + 1];
+		int numChoices = 0, numTransitions = 0;
+		for (int s : stateList) {
+			int n = mdp.getNumChoices(s);
+			numChoices += n;
+			for (int j = 0; j < n; j++) {
+				numTransitions += mdp.getNumTransitions(s, j);
+			}
+		}
+		int[] choiceStarts = new int[numChoices + 1];
+		int[] cols = new int[numTransitions];
+		float[] vals = new float[numTransitions];
+		int c = 0, k = 0, next = 0;
+		for (int s : stateList) {
+			for (; next <= s; next++) {
+				stateStarts[next] = c;
+			}
+			for (int j = 0, n = mdp.getNumChoices(s); j < n; j++) {
+				choiceStarts[c++] = k;
+				for (Iterator<Map.Entry<Integer, Double>> it = mdp.getTransitionsIterator(s, j); it.hasNext();) {
+					Map.Entry<Integer, Double> e = it.next();
+					cols[k] = e.getKey();
+					vals[k] = e.getValue().floatValue();
+					k++;
+				}
+			}
+		}
+		Arrays.fill(stateStarts, next, stateStarts.length, c);
+		choiceStarts[numChoices] = k;
+		return new MixedPrecisionIteration(stateList, stateStarts, null, choiceStarts, cols, vals);
+	}
+
+	/**
+	 * Convert probabilities to single precision.
+	 */
+	private static float[] toFloat(double[] probs)
+	{
+		float[] vals = new float[probs.length];
+		for (int k = 0; k < probs.length; k++) {
+			vals[k] = (float) probs[k];
+		}
+		return vals;
+	}
+
+	/**
+	 * Perform value iteration in single precision, starting from (and storing the result in) {@code soln}.
+	 * For states with several choices, the minimum or maximum over the choices is taken.
+	 * Iteration stops once the difference between successive vectors is below
+	 * {@code max(epsilon, MIN_FLOAT_EPSILON)}, or after {@code maxIters} iterations.
+	 * Only the entries of {@code soln} for the states of this object are modified.
+	 * @param soln initial vector (over all states); overwritten with the result
+	 * @param min minimum (or maximum) over the choices
+	 * @param absolute absolute (or relative) convergence criterion
+	 * @param epsilon convergence threshold
+	 * @param maxIters maximum number of iterations
+	 * @return the number of iterations performed
+	 */
+	public int solve(double[] soln, boolean min, boolean absolute, double epsilon, int maxIters)
+	{
+		float[] vect = new float[soln.length];
+		for (int i = 0; i < soln.length; i++) {
+			vect[i] = (float) soln[i];
+		}
+		float[] result = vect.clone();
+		double eps = Math.max(epsilon, MIN_FLOAT_EPSILON);
+		int iters = 0;
+		boolean done = false;
+		while (!done && iters < maxIters) {
+			iters++;
+			done = true;
+			for (int s : states) {
+				float d;
+				if (stateStarts == null) {
+					d = dot(vect, s);
+				} else {
+					d = 0.0f;
+					for (int c = stateStarts[s]; c < stateStarts[s + 1]; c++) {
+						float sum = dot(vect, choiceDistrs == null ? c : choiceDistrs[c]);
+						if (c == stateStarts[s] || (min ? sum < d : sum > d)) {
+							d = sum;
+						}
+					}
+				}
+				result[s] = d;
+				if (done && !PrismUtils.doublesAreClose(d, vect[s], eps, absolute)) {
+					done = false;
+				}
+			}
+			float[] tmp = vect;
+			vect = result;
+			result = tmp;
+		}
+		for (int s : states) {
+			soln[s] = vect[s];
+		}
+		return iters;
+	}
+
+	/**
+	 * Multiply the row for distribution {@code d} by {@code vect}.
+	 */
+	private float dot(float[] vect, int d)
+	{
+		float sum = 0.0f;
+		for (int k = choiceStarts[d], end = choiceStarts[d + 1]; k < end; k++) {
+			sum += vals[k] * vect[cols[k]];
+		}
+		return sum;
+	}
+}
@@ -40,6 +40,7 @@ import java.util.function.IntPredicate;
 
 import common.IteratorTools;
 import explicit.graphviz.Decorator;
+import explicit.rewards.PrecomputedRewards;
 import parser.State;
 import parser.Values;
 import parser.VarList;
@@ -165,6 +166,15 @@ public interface Model<Value>
 		}
 		return labels;
 	}
+
+	/**
+	 * Get the reward values computed during construction of this model (optionally stored).
+	 * Returns null if there are none.
+	 */
+	default PrecomputedRewards getPrecomputedRewards()
+	{
+		return null;
+	}
 	
 	/**
 	 * Get the total number of transitions in the model.
@@ -26,6 +26,7 @@
 
 package explicit;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.List;
@@ -34,6 +35,7 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
 
+import explicit.rewards.PrecomputedRewards;
 import parser.State;
 import parser.Values;
 import parser.VarList;
@@ -73,6 +75,8 @@ public abstract class ModelExplicit<Value> implements Model<Value>
 	/** (Optionally) some labels (atomic propositions) associated with the model,
 	 * represented as a String->BitSet mapping from their names to the states that satisfy them. */
 	protected Map<String, BitSet> labels = new TreeMap<String, BitSet>();
+	/** (Optionally) reward values computed during model construction. */
+	protected PrecomputedRewards precomputedRewards;
 	
 	/**
 	 * (Optionally) the stored predecessor relation. Becomes inaccurate after the model is changed!
@@ -204,6 +208,14 @@ public abstract class ModelExplicit<Value> implements Model<Value>
 		this.varList = varList;
 	}
 
+	/**
+	 * Set the reward values computed during model construction (may be {@code null}).
+	 */
+	public void setPrecomputedRewards(PrecomputedRewards precomputedRewards)
+	{
+		this.precomputedRewards = precomputedRewards;
+	}
+
 	/**
 	 * Adds a label and the set the states that satisfy it.
 	 * Any existing label with the same name is overwritten.
@@ -367,6 +379,12 @@ public abstract class ModelExplicit<Value> implements Model<Value>
 		return labels.keySet();
 	}
 	
+	@Override
+	public PrecomputedRewards getPrecomputedRewards()
+	{
+		return precomputedRewards;
+	}
+
 	@Override
 	public Map<String, BitSet> getLabelToStatesMap()
 	{
@@ -382,6 +400,15 @@ public abstract class ModelExplicit<Value> implements Model<Value>
 	@Override
 	public abstract void checkForDeadlocks(BitSet except) throws PrismException;
 
+	/**
+	 * Export this model (a DTMC or MDP) to a file in binary format (see {@link BinaryModelFile}),
+	 * which can be loaded much faster than the PRISM explicit text files.
+	 */
+	public void exportToBinaryFile(File file) throws PrismException
+	{
+		BinaryModelFile.write(this, file);
+	}
+
 	@Override
 	public void exportStates(int exportType, VarList varList, PrismLog log) throws PrismException
 	{
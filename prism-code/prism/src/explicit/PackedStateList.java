@@ -0,0 +1,89 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package explicit;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+import parser.State;
+
+/**
+ * Read-only list of states, stored in packed form (see {@link StatePacker}).
+ * {@link State} objects are only created when elements of the list are accessed,
+ * so this uses far less memory than a list of State objects for large models.
+ */
+public class PackedStateList extends AbstractList<State> implements RandomAccess
+{
+	/** Packer used to encode/decode states */
+	protected StatePacker packer;
+	/** Packed states, {@code packer.getNumWords()} words each */
+	protected long data[];
+	/** Number of states */
+	protected int size;
+
+	/**
+	 * Create a list of {@code size} states, stored consecutively in {@code data}.
+	 * The array is stored, not copied.
+	 */
+	public PackedStateList(StatePacker packer, long data[], int size)
+	{
+		this.packer = packer;
+		this.data = data;
+		this.size = size;
+	}
+
+	/**
+	 * Get the packer used to encode/decode states.
+	 */
+	public StatePacker getPacker()
+	{
+		return packer;
+	}
+
+	/**
+	 * Get direct (read-only) access to the array of packed states.
+	 */
+	public long[] getPackedData()
+	{
+		return data;
+	}
+
+	@Override
+	public State get(int index)
+	{
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+		}
+		return packer.unpack(data, index * packer.getNumWords());
+	}
+
+	@Override
+	public int size()
+	{
+		return size;
+	}
+}
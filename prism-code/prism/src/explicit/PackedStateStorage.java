@@ -0,0 +1,457 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package explicit;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import parser.State;
+import prism.PrismException;
+import prism.PrismLangException;
+
+/**
+ * Class storing an indexed set of states, packed into {@code long} words (see {@link StatePacker}).
+ * <br><br>
+ * Packed states are stored consecutively, ordered by index (i.e., order of addition),
+ * and indexed by a primitive open-addressing hash table (linear probing).
+ * This needs around {@code 8 * (numWords + 1)} bytes per state, compared to
+ * well over 100 bytes per state for an {@link IndexedSet} of {@link State} objects.
+ * {@link State} objects are only created on demand, e.g. via {@link #getState(int)}.
+ * <br><br>
+ * Since {@link StateStorage} is defined over {@link State} objects, variable values
+ * that cannot be packed (wrong type, out of range) result in an {@link IllegalArgumentException}.
+ */
+public class PackedStateStorage implements StateStorage<State>
+{
+	/** Maximum load factor of the hash table */
+	protected static final double MAX_LOAD = 0.5;
+	/** Maximum load factor of the hash table, once it cannot grow any further */
+	protected static final double MAX_LOAD_FULL = 0.9;
+	/** Maximum length of an array (some JVMs reserve a few header words) */
+	protected static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+	/** Maximum size of the hash table (the largest power of 2 that is a valid array length) */
+	protected static final int MAX_TABLE_LENGTH = 1 << 30;
+
+	/** Packer used to encode/decode states */
+	protected StatePacker packer;
+	/** Number of words per packed state */
+	protected int numWords;
+	/** Packed states, in index order (at most MAX_ARRAY_LENGTH words, so offsets {@code i * numWords} fit in an int) */
+	protected long data[];
+	/** Number of states stored */
+	protected int size;
+	/** Hash table: entries are (state index + 1), or 0 for an empty slot */
+	protected int table[];
+	/** Scratch space for packing states */
+	protected long scratch[];
+	/** Index of the last state added (or looked up during an add) */
+	protected int indexOfLastAdd;
+
+	public PackedStateStorage(StatePacker packer)
+	{
+		this.packer = packer;
+		numWords = packer.getNumWords();
+		scratch = new long[numWords];
+		clear();
+	}
+
+	/**
+	 * Get the packer used to encode/decode states.
+	 */
+	public StatePacker getPacker()
+	{
+		return packer;
+	}
+
+	/**
+	 * Get the state with index {@code i}, unpacked into a new {@link State} object.
+	 */
+	public State getState(int i)
+	{
+		return packer.unpack(data, i * numWords);
+	}
+
+	@Override
+	public void clear()
+	{
+		data = new long[16 * numWords];
+		table = new int[32];
+		size = 0;
+		indexOfLastAdd = -1;
+	}
+
+	/**
+	 * Add a state, as for {@link #add(State)}, but throw a PrismException
+	 * if the storage is full, i.e., if it would exceed the maximum array length.
+	 */
+	public boolean addState(State state) throws PrismException
+	{
+		packInScratch(state);
+		int slot = findSlot(scratch, 0);
+		if (table[slot] != 0) {
+			indexOfLastAdd = table[slot] - 1;
+			return false;
+		}
+		// Store new state
+		long length = (long) (size + 1) * numWords;
+		if (length > data.length) {
+			data = Arrays.copyOf(data, grownLength(data.length, length, numWords));
+		}
+		if (table.length == MAX_TABLE_LENGTH && size + 1 > MAX_TABLE_LENGTH * MAX_LOAD_FULL) {
+			throw new PrismException("Packed state storage is full: the hash table for " + size + " states has reached the maximum array length (" + MAX_TABLE_LENGTH + ")");
+		}
+		System.arraycopy(scratch, 0, data, size * numWords, numWords);
+		table[slot] = size + 1;
+		indexOfLastAdd = size;
+		size++;
+		// (beyond the maximum size, the table just gets fuller)
+		if (size > table.length * MAX_LOAD && table.length < MAX_TABLE_LENGTH) {
+			rehash(table.length * 2);
+		}
+		return true;
+	}
+
+	/**
+	 * Add a state. If the storage is full (see {@link #addState(State)}),
+	 * an {@link IllegalStateException} is thrown.
+	 */
+	@Override
+	public boolean add(State state)
+	{
+		try {
+			return addState(state);
+		} catch (PrismException e) {
+			throw new IllegalStateException(e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public int get(State state)
+	{
+		packInScratch(state);
+		return table[findSlot(scratch, 0)] - 1;
+	}
+
+	@Override
+	public boolean contains(State state)
+	{
+		return get(state) != -1;
+	}
+
+	@Override
+	public int getIndexOfLastAdd()
+	{
+		return indexOfLastAdd;
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	@Override
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Get access to the (state, index) pairs stored. Note that this is a view over
+	 * the packed storage: {@link State} objects are created as the set is iterated over.
+	 */
+	@Override
+	public Set<Map.Entry<State, Integer>> getEntrySet()
+	{
+		return new AbstractSet<Map.Entry<State, Integer>>()
+		{
+			@Override
+			public Iterator<Map.Entry<State, Integer>> iterator()
+			{
+				return new Iterator<Map.Entry<State, Integer>>()
+				{
+					int next = 0;
+
+					@Override
+					public boolean hasNext()
+					{
+						return next < size;
+					}
+
+					@Override
+					public Map.Entry<State, Integer> next()
+					{
+						if (!hasNext()) {
+							throw new NoSuchElementException();
+						}
+						Map.Entry<State, Integer> e = new AbstractMap.SimpleImmutableEntry<>(getState(next), next);
+						next++;
+						return e;
+					}
+				};
+			}
+
+			@Override
+			public int size()
+			{
+				return size;
+			}
+		};
+	}
+
+	@Override
+	public ArrayList<State> toArrayList()
+	{
+		ArrayList<State> list = new ArrayList<State>(size);
+		toArrayList(list);
+		return list;
+	}
+
+	@Override
+	public void toArrayList(ArrayList<State> list)
+	{
+		for (int i = 0; i < size; i++) {
+			list.add(getState(i));
+		}
+	}
+
+	@Override
+	public ArrayList<State> toPermutedArrayList(int permut[])
+	{
+		ArrayList<State> list = new ArrayList<State>(size);
+		toPermutedArrayList(permut, list);
+		return list;
+	}
+
+	@Override
+	public void toPermutedArrayList(int permut[], ArrayList<State> list)
+	{
+		for (int i = 0; i < size; i++)
+			list.add(null);
+		for (int i = 0; i < size; i++) {
+			list.set(permut[i], getState(i));
+		}
+	}
+
+	/**
+	 * Create a (read-only) list of the states, ordered by index,
+	 * which keeps the states in packed form (see {@link PackedStateList}).
+	 */
+	public List<State> toPackedStateList()
+	{
+		return new PackedStateList(packer, Arrays.copyOf(data, size * numWords), size);
+	}
+
+	/**
+	 * Create a (read-only) list of the states, ordered by permuted index,
+	 * which keeps the states in packed form (see {@link PackedStateList}).
+	 * Index in new list is permut[old_index].
+	 * @param permut Permutation to apply
+	 */
+	public List<State> toPermutedPackedStateList(int permut[])
+	{
+		// Offsets are at most size * numWords, which addState keeps within MAX_ARRAY_LENGTH
+		long permData[] = new long[size * numWords];
+		for (int i = 0; i < size; i++) {
+			System.arraycopy(data, i * numWords, permData, permut[i] * numWords, numWords);
+		}
+		return new PackedStateList(packer, permData, size);
+	}
+
+	/**
+	 * Build sort permutation. Since states are stored in order of addition,
+	 * this sorts them (as for {@link State#compareTo(State)}, but without unpacking)
+	 * and returns a permutation (integer array) mapping current indices
+	 * to new indices under the sorting order. Sorting is done in parallel.
+	 */
+	@Override
+	public int[] buildSortingPermutation()
+	{
+		// Sort state indices, comparing packed states
+		int order[] = new int[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+		ForkJoinPool.commonPool().invoke(new MergeSortTask(order, new int[size], 0, size));
+		// Invert to get the permutation
+		int perm[] = new int[size];
+		for (int i = 0; i < size; i++) {
+			perm[order[i]] = i;
+		}
+		return perm;
+	}
+
+	@Override
+	public String toString()
+	{
+		return toArrayList().toString();
+	}
+
+	// Local utility methods
+
+	/**
+	 * Pack a state into {@code scratch}.
+	 */
+	private void packInScratch(State state)
+	{
+		try {
+			packer.pack(state, scratch, 0);
+		} catch (PrismLangException e) {
+			throw new IllegalArgumentException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Find the slot in the hash table for the packed state in {@code src} (from {@code offset}):
+	 * either the slot where it is stored or the (empty) slot where it should be inserted.
+	 */
+	private int findSlot(long src[], int offset)
+	{
+		int mask = table.length - 1;
+		int slot = packer.hash(src, offset) & mask;
+		while (true) {
+			int entry = table[slot];
+			if (entry == 0 || packer.equals(data, (entry - 1) * numWords, src, offset)) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	/**
+	 * Get the new length of an array of packed states with current length {@code current},
+	 * which needs to hold (at least) {@code needed} words:
+	 * double the length where possible, but at most the maximum array length.
+	 * Throws a PrismException if {@code needed} exceeds the maximum array length.
+	 */
+	static int grownLength(int current, long needed, int numWords) throws PrismException
+	{
+		if (needed > MAX_ARRAY_LENGTH) {
+			throw new PrismException("Packed state storage is full: " + (needed / numWords) + " states of " + numWords + " words exceed the maximum array length (" + MAX_ARRAY_LENGTH + ")");
+		}
+		return (int) Math.min(Math.max(2L * current, needed), MAX_ARRAY_LENGTH);
+	}
+
+	/**
+	 * Rebuild the hash table with a new capacity (a power of 2).
+	 */
+	private void rehash(int capacity)
+	{
+		table = new int[capacity];
+		for (int i = 0; i < size; i++) {
+			table[findSlot(data, i * numWords)] = i + 1;
+		}
+	}
+
+	/**
+	 * Task to sort the state indices in {@code order[lo..hi)} by their packed states
+	 * (stable merge sort, with the two halves of large ranges sorted in parallel).
+	 */
+	private class MergeSortTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+		/** Ranges smaller than this are sorted sequentially */
+		private static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+
+		private final int order[];
+		private final int tmp[];
+		private final int lo;
+		private final int hi;
+
+		MergeSortTask(int order[], int tmp[], int lo, int hi)
+		{
+			this.order = order;
+			this.tmp = tmp;
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (hi - lo < SEQUENTIAL_THRESHOLD) {
+				mergeSort(order, tmp, lo, hi);
+			} else {
+				int mid = (lo + hi) >>> 1;
+				invokeAll(new MergeSortTask(order, tmp, lo, mid), new MergeSortTask(order, tmp, mid, hi));
+				merge(order, tmp, lo, mid, hi);
+			}
+		}
+	}
+
+	/**
+	 * Sort the state indices in {@code order[lo..hi)} by their packed states (stable merge sort).
+	 */
+	private void mergeSort(int order[], int tmp[], int lo, int hi)
+	{
+		if (hi - lo < 2) {
+			return;
+		}
+		int mid = (lo + hi) >>> 1;
+		mergeSort(order, tmp, lo, mid);
+		mergeSort(order, tmp, mid, hi);
+		merge(order, tmp, lo, mid, hi);
+	}
+
+	/**
+	 * Merge the sorted ranges {@code order[lo..mid)} and {@code order[mid..hi)}.
+	 */
+	private void merge(int order[], int tmp[], int lo, int mid, int hi)
+	{
+		if (compareIndices(order[mid - 1], order[mid]) <= 0) {
+			return;
+		}
+		System.arraycopy(order, lo, tmp, lo, hi - lo);
+		int i = lo, j = mid, k = lo;
+		while (i < mid && j < hi) {
+			order[k++] = compareIndices(tmp[j], tmp[i]) < 0 ? tmp[j++] : tmp[i++];
+		}
+		while (i < mid) {
+			order[k++] = tmp[i++];
+		}
+		while (j < hi) {
+			order[k++] = tmp[j++];
+		}
+	}
+
+	/**
+	 * Compare the packed states with indices {@code i} and {@code j}.
+	 */
+	private int compareIndices(int i, int j)
+	{
+		return packer.compare(data, i * numWords, data, j * numWords);
+	}
+}
@@ -0,0 +1,307 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package explicit;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import parser.ast.Command;
+import parser.ast.Expression;
+import parser.ast.ExpressionReward;
+import parser.ast.ExpressionTemporal;
+import parser.ast.LabelList;
+import parser.ast.Module;
+import parser.ast.ModulesFile;
+import parser.ast.RewardStruct;
+import parser.ast.Update;
+import parser.ast.Updates;
+import parser.visitor.ASTTraverse;
+import prism.ModelType;
+import prism.PrismException;
+import prism.PrismLangException;
+import prism.PrismNotSupportedException;
+import simulator.ModulesFileModelGenerator;
+
+/**
+ * Ample-set partial-order reduction for explicit-state construction of MDPs
+ * (see e.g. Baier, Gr&ouml;&szlig;er, Ciesinski, "Partial order reduction for probabilistic systems", QEST'04).
+ * <br><br>
+ * Independence information is computed statically from the commands of the {@link ModulesFile}.
+ * A module is <i>independent</i> if none of its commands synchronise with other modules,
+ * none of the variables it updates are read or updated by any other module,
+ * none of the variables it reads are updated by any other module,
+ * none of the variables it updates are visible, i.e. appear in a label, a reward structure
+ * or one of the properties to be checked, and none of its actions (including the unlabelled one)
+ * is assigned a transition reward.
+ * <br><br>
+ * In a state where an independent module has exactly one enabled choice, that choice is a candidate
+ * (singleton) ample set: it is invisible and independent of all other choices, now and in the future,
+ * until it is taken. The caller is responsible for the cycle condition, e.g. by only using a candidate
+ * if all of its successor states are new (for breadth-first exploration, as in {@link ConstructModel}).
+ * Otherwise, the state is fully expanded.
+ * <br><br>
+ * This preserves probabilistic reachability properties (and, more generally, LTL without
+ * next-operators or step bounds) whose atomic propositions refer to the model's state only via
+ * its labels and the variables passed in as visible (see {@link #PartialOrderReduction(ModulesFileModelGenerator, Collection)}).
+ * Since the reduction changes the number of steps taken, it does not preserve next-operators,
+ * step bounds (including those of cumulative/instantaneous rewards) or expected rewards that
+ * accumulate state rewards; use {@link #checkPropertyPreserved(Expression, ModulesFile)} to check this.
+ */
+public class PartialOrderReduction
+{
+	/** Generator for the model being reduced */
+	private final ModulesFileModelGenerator<?> modelGen;
+	/** Is each module independent (see above)? */
+	private final boolean independent[];
+	/** For each action (0-indexed), the index of the only module using it, or -1 if it is shared */
+	private final int actionModule[];
+	/** Number of enabled choices, and the first one, for each module in the current state */
+	private final int numModuleChoices[];
+	private final int firstModuleChoice[];
+	/** Candidate ample choices in the current state */
+	private final List<Integer> candidates = new ArrayList<>();
+	/** Number of states reduced so far */
+	private int numReduced = 0;
+
+	/**
+	 * Check that the reduction preserves property {@code expr} (whose labels and property references
+	 * have already been expanded), i.e., that it has no next-operators, no step bounds
+	 * and no reward operators for reward structures with state rewards.
+	 * Throws a {@link PrismNotSupportedException} if not.
+	 */
+	public static void checkPropertyPreserved(Expression expr, ModulesFile modulesFile) throws PrismException
+	{
+		try {
+			expr.accept(new ASTTraverse()
+			{
+				public void visitPost(ExpressionTemporal e) throws PrismLangException
+				{
+					if (e.getOperator() == ExpressionTemporal.P_X) {
+						throw new PrismLangException("next-operators");
+					}
+					// (also C<=k and I=k)
+					if (e.hasBounds()) {
+						throw new PrismLangException("step bounds");
+					}
+				}
+
+				public void visitPost(ExpressionReward e) throws PrismLangException
+				{
+					int r;
+					try {
+						r = e.getRewardStructIndexByIndexObject(modulesFile.getRewardStructNames(), modulesFile.getConstantValues());
+					} catch (PrismException ex) {
+						// Assume the worst if the reward structure is not known (yet)
+						r = -1;
+					}
+					if (r == -1 || modulesFile.getRewardStruct(r).getNumStateItems() > 0) {
+						throw new PrismLangException("state rewards");
+					}
+				}
+			});
+		} catch (PrismLangException e) {
+			throw new PrismNotSupportedException("Partial-order reduction does not preserve properties with " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Set up partial-order reduction for the model explored by {@code modelGen}.
+	 * @param visibleVars Further variables to treat as visible, e.g. those referred to by the properties
+	 * to be checked (after expanding any labels from a properties file)
+	 */
+	public PartialOrderReduction(ModulesFileModelGenerator<?> modelGen, Collection<String> visibleVars) throws PrismException
+	{
+		this.modelGen = modelGen;
+		if (modelGen.getModelType() != ModelType.MDP) {
+			throw new PrismNotSupportedException("Partial-order reduction is only supported for MDPs");
+		}
+		ModulesFile modulesFile = modelGen.getModulesFile();
+		if (modulesFile.getSystemDefn() != null) {
+			throw new PrismNotSupportedException("Partial-order reduction is not supported for models with a system...endsystem construct");
+		}
+
+		// Find the variables read/written and the actions ("" if unlabelled) used by each module
+		int numModules = modulesFile.getNumModules();
+		List<Set<String>> reads = new ArrayList<>();
+		List<Set<String>> writes = new ArrayList<>();
+		List<Set<String>> actions = new ArrayList<>();
+		for (int m = 0; m < numModules; m++) {
+			Set<String> read = new HashSet<>();
+			Set<String> write = new HashSet<>();
+			Set<String> action = new HashSet<>();
+			for (Command command : modulesFile.getModule(m).getCommands()) {
+				action.add(command.getSynch());
+				// (all variables in guards, probabilities and update expressions)
+				read.addAll(command.getAllVars());
+				Updates updates = command.getUpdates();
+				for (int i = 0; i < updates.getNumUpdates(); i++) {
+					Update update = updates.getUpdate(i);
+					for (int j = 0; j < update.getNumElements(); j++) {
+						write.add(update.getVar(j));
+					}
+				}
+			}
+			reads.add(read);
+			writes.add(write);
+			actions.add(action);
+		}
+
+		// Find the visible variables (those in labels, reward structures and properties)
+		// and actions (those with transition rewards)
+		Set<String> visible = new HashSet<>(visibleVars);
+		Set<String> visibleActions = new HashSet<>();
+		LabelList labelList = modulesFile.getLabelList();
+		for (int i = 0; i < labelList.size(); i++) {
+			visible.addAll(labelList.getLabel(i).getAllVars());
+		}
+		for (int r = 0; r < modulesFile.getNumRewardStructs(); r++) {
+			RewardStruct rewStr = modulesFile.getRewardStruct(r);
+			visible.addAll(rewStr.getAllVars());
+			for (int i = 0; i < rewStr.getNumItems(); i++) {
+				if (rewStr.getRewardStructItem(i).isTransitionReward()) {
+					visibleActions.add(rewStr.getSynch(i));
+				}
+			}
+		}
+
+		// Find which module (if just one) uses each action
+		List<String> synchs = modulesFile.getSynchs();
+		actionModule = new int[synchs.size()];
+		for (int a = 0; a < synchs.size(); a++) {
+			actionModule[a] = -1;
+			int count = 0;
+			for (int m = 0; m < numModules; m++) {
+				if (modulesFile.getModule(m).usesSynch(synchs.get(a))) {
+					actionModule[a] = m;
+					count++;
+				}
+			}
+			if (count > 1) {
+				actionModule[a] = -1;
+			}
+		}
+
+		// Determine which modules are independent
+		independent = new boolean[numModules];
+		for (int m = 0; m < numModules; m++) {
+			Module module = modulesFile.getModule(m);
+			boolean indep = Collections.disjoint(writes.get(m), visible) && Collections.disjoint(actions.get(m), visibleActions);
+			for (String synch : module.getAllSynchs()) {
+				indep &= actionModule[synchs.indexOf(synch)] == m;
+			}
+			for (int k = 0; k < numModules && indep; k++) {
+				if (k != m) {
+					indep &= Collections.disjoint(writes.get(m), reads.get(k));
+					indep &= Collections.disjoint(writes.get(m), writes.get(k));
+					indep &= Collections.disjoint(reads.get(m), writes.get(k));
+				}
+			}
+			independent[m] = indep;
+		}
+		numModuleChoices = new int[numModules];
+		firstModuleChoice = new int[numModules];
+	}
+
+	/**
+	 * Get the number of independent modules (if zero, no reduction is possible).
+	 */
+	public int getNumIndependentModules()
+	{
+		int count = 0;
+		for (boolean indep : independent) {
+			if (indep) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Get the set of (indices of) independent modules, which determines the reduction.
+	 */
+	public BitSet getIndependentModules()
+	{
+		BitSet bs = new BitSet();
+		for (int m = 0; m < independent.length; m++) {
+			bs.set(m, independent[m]);
+		}
+		return bs;
+	}
+
+	/**
+	 * Get the candidate ample choices (i.e. indices of the only enabled choice of an independent module)
+	 * for the state currently being explored by the model generator. If the state has fewer than two
+	 * choices, there is nothing to reduce and the list is empty.
+	 * The list returned is reused by subsequent calls.
+	 */
+	public List<Integer> getCandidateAmpleChoices() throws PrismException
+	{
+		candidates.clear();
+		int nc = modelGen.getNumChoices();
+		if (nc < 2) {
+			return candidates;
+		}
+		int numModules = independent.length;
+		for (int m = 0; m < numModules; m++) {
+			numModuleChoices[m] = 0;
+		}
+		for (int i = 0; i < nc; i++) {
+			int a = modelGen.getChoiceModuleOrActionIndex(i);
+			int m = a < 0 ? -a - 1 : actionModule[a - 1];
+			if (m >= 0 && independent[m] && numModuleChoices[m]++ == 0) {
+				firstModuleChoice[m] = i;
+			}
+		}
+		for (int m = 0; m < numModules; m++) {
+			if (independent[m] && numModuleChoices[m] == 1) {
+				candidates.add(firstModuleChoice[m]);
+			}
+		}
+		return candidates;
+	}
+
+	/**
+	 * Record that the state currently being explored was reduced (i.e. just one candidate ample choice was used).
+	 */
+	public void notifyReduced()
+	{
+		numReduced++;
+	}
+
+	/**
+	 * Get the number of states that were reduced.
+	 */
+	public int getNumReducedStates()
+	{
+		return numReduced;
+	}
+}
@@ -97,6 +97,14 @@ public class ProbModelChecker extends NonProbModelChecker
 	protected SolnMethod solnMethod = SolnMethod.VALUE_ITERATION;
 	// Is non-convergence of an iterative method an error?
 	protected boolean errorOnNonConverge = true;
+	// Number of threads for (parallel) Power/Jacobi/value iteration
+	protected int solveThreads = 1;
+	// Use mixed-precision (float, then double) value iteration?
+	protected boolean mixedPrecision = false;
+	// Final lower/upper vectors of the last interval iteration (only kept for warm starts)
+	protected WarmStartCache.Bounds lastIntervalIterationBounds = null;
+	// Preconditioner for Krylov subspace methods (GMRES/BiCGStab)
+	protected KrylovSolver.Preconditioner krylovPreconditioner = KrylovSolver.Preconditioner.ILU0;
 
 	// Delay between occasional updates for slow processes, e.g. numerical solution (milliseconds)
 	public static final int UPDATE_DELAY = 5000;
@@ -106,7 +114,7 @@ public class ProbModelChecker extends NonProbModelChecker
 
 	// Method used for numerical solution
 	public enum LinEqMethod {
-		POWER, JACOBI, GAUSS_SEIDEL, BACKWARDS_GAUSS_SEIDEL, JOR, SOR, BACKWARDS_SOR;
+		POWER, JACOBI, GAUSS_SEIDEL, BACKWARDS_GAUSS_SEIDEL, JOR, SOR, BACKWARDS_SOR, GMRES, BICGSTAB;
 		public String fullName()
 		{
 			switch (this) {
@@ -124,6 +132,10 @@ public class ProbModelChecker extends NonProbModelChecker
 				return "SOR";
 			case BACKWARDS_SOR:
 				return "Backwards SOR";
+			case GMRES:
+				return "GMRES";
+			case BICGSTAB:
+				return "BiCGStab";
 			default:
 				return this.toString();
 			}
@@ -132,7 +144,7 @@ public class ProbModelChecker extends NonProbModelChecker
 
 	// Method used for solving MDPs
 	public enum MDPSolnMethod {
-		VALUE_ITERATION, GAUSS_SEIDEL, POLICY_ITERATION, MODIFIED_POLICY_ITERATION, LINEAR_PROGRAMMING;
+		VALUE_ITERATION, GAUSS_SEIDEL, POLICY_ITERATION, MODIFIED_POLICY_ITERATION, LINEAR_PROGRAMMING, PRIORITISED_VALUE_ITERATION;
 		public String fullName()
 		{
 			switch (this) {
@@ -146,6 +158,8 @@ public class ProbModelChecker extends NonProbModelChecker
 				return "Modified policy iteration";
 			case LINEAR_PROGRAMMING:
 				return "Linear programming";
+			case PRIORITISED_VALUE_ITERATION:
+				return "Prioritised value iteration";
 			default:
 				return this.toString();
 			}
@@ -209,6 +223,10 @@ public class ProbModelChecker extends NonProbModelChecker
 				setLinEqMethod(LinEqMethod.SOR);
 			} else if (s.equals("Backwards SOR")) {
 				setLinEqMethod(LinEqMethod.BACKWARDS_SOR);
+			} else if (s.equals("GMRES")) {
+				setLinEqMethod(LinEqMethod.GMRES);
+			} else if (s.equals("BiCGStab")) {
+				setLinEqMethod(LinEqMethod.BICGSTAB);
 			} else {
 				throw new PrismNotSupportedException("Explicit engine does not support linear equation solution method \"" + s + "\"");
 			}
@@ -224,6 +242,8 @@ public class ProbModelChecker extends NonProbModelChecker
 				setMDPSolnMethod(MDPSolnMethod.MODIFIED_POLICY_ITERATION);
 			} else if (s.equals("Linear programming")) {
 				setMDPSolnMethod(MDPSolnMethod.LINEAR_PROGRAMMING);
+			} else if (s.equals("Prioritised value iteration")) {
+				setMDPSolnMethod(MDPSolnMethod.PRIORITISED_VALUE_ITERATION);
 			} else {
 				throw new PrismNotSupportedException("Explicit engine does not support MDP solution method \"" + s + "\"");
 			}
@@ -259,6 +279,21 @@ public class ProbModelChecker extends NonProbModelChecker
 			setProb1(settings.getBoolean(PrismSettings.PRISM_PROB1));
 			// PRISM_USE_PRE
 			setPreRel(settings.getBoolean(PrismSettings.PRISM_PRE_REL));
+			// PRISM_SOLVE_THREADS
+			setSolveThreads(settings.getInteger(PrismSettings.PRISM_SOLVE_THREADS));
+			// PRISM_MIXED_PRECISION
+			setMixedPrecision(settings.getBoolean(PrismSettings.PRISM_MIXED_PRECISION));
+			// PRISM_KRYLOV_PRECONDITIONER
+			s = settings.getString(PrismSettings.PRISM_KRYLOV_PRECONDITIONER);
+			if (s.equals("None")) {
+				setKrylovPreconditioner(KrylovSolver.Preconditioner.NONE);
+			} else if (s.equals("Jacobi")) {
+				setKrylovPreconditioner(KrylovSolver.Preconditioner.JACOBI);
+			} else if (s.equals("ILU(0)")) {
+				setKrylovPreconditioner(KrylovSolver.Preconditioner.ILU0);
+			} else {
+				throw new PrismNotSupportedException("Unknown Krylov preconditioner \"" + s + "\"");
+			}
 			// PRISM_FAIRNESS
 			if (settings.getBoolean(PrismSettings.PRISM_FAIRNESS)) {
 				throw new PrismNotSupportedException("The explicit engine does not support model checking MDPs under fairness");
@@ -289,6 +324,9 @@ public class ProbModelChecker extends NonProbModelChecker
 		setValIterDir(other.getValIterDir());
 		setSolnMethod(other.getSolnMethod());
 		setErrorOnNonConverge(other.geterrorOnNonConverge());
+		setSolveThreads(other.getSolveThreads());
+		setMixedPrecision(other.getMixedPrecision());
+		setKrylovPreconditioner(other.getKrylovPreconditioner());
 	}
 
 	/**
@@ -310,6 +348,9 @@ public class ProbModelChecker extends NonProbModelChecker
 		mainLog.print("valIterDir = " + valIterDir + " ");
 		mainLog.print("solnMethod = " + solnMethod + " ");
 		mainLog.print("errorOnNonConverge = " + errorOnNonConverge + " ");
+		mainLog.print("solveThreads = " + solveThreads + " ");
+		mainLog.print("mixedPrecision = " + mixedPrecision + " ");
+		mainLog.print("krylovPreconditioner = " + krylovPreconditioner + " ");
 	}
 
 	// Set methods for flags/settings
@@ -342,6 +383,30 @@ public class ProbModelChecker extends NonProbModelChecker
 		this.linEqMethod = linEqMethod;
 	}
 
+	/**
+	 * Set number of threads used for Power/Jacobi/value iteration (1 means sequential).
+	 */
+	public void setSolveThreads(int solveThreads)
+	{
+		this.solveThreads = solveThreads;
+	}
+
+	/**
+	 * Set whether value iteration starts in single precision (then continues in double precision).
+	 */
+	public void setMixedPrecision(boolean mixedPrecision)
+	{
+		this.mixedPrecision = mixedPrecision;
+	}
+
+	/**
+	 * Set preconditioner used by the Krylov subspace methods (GMRES/BiCGStab).
+	 */
+	public void setKrylovPreconditioner(KrylovSolver.Preconditioner krylovPreconditioner)
+	{
+		this.krylovPreconditioner = krylovPreconditioner;
+	}
+
 	/**
 	 * Set method used to solve MDPs.
 	 */
@@ -458,6 +523,21 @@ public class ProbModelChecker extends NonProbModelChecker
 		return linEqMethod;
 	}
 
+	public int getSolveThreads()
+	{
+		return solveThreads;
+	}
+
+	public boolean getMixedPrecision()
+	{
+		return mixedPrecision;
+	}
+
+	public KrylovSolver.Preconditioner getKrylovPreconditioner()
+	{
+		return krylovPreconditioner;
+	}
+
 	public MDPSolnMethod getMDPSolnMethod()
 	{
 		return mdpSolnMethod;
@@ -526,6 +606,57 @@ public class ProbModelChecker extends NonProbModelChecker
 		return errorOnNonConverge;
 	}
 
+	/**
+	 * Create an IterationMethod for the Power method (i.e., value iteration),
+	 * which is parallelised if more than one solution thread has been requested.
+	 */
+	protected IterationMethod createIterationMethodPower()
+	{
+		boolean termCritAbsolute = termCrit == TermCrit.ABSOLUTE;
+		if (solveThreads > 1) {
+			return new IterationMethodParallel(termCritAbsolute, termCritParam, false, solveThreads);
+		}
+		return new IterationMethodPower(termCritAbsolute, termCritParam);
+	}
+
+	/**
+	 * Create an IterationMethod for the Jacobi method,
+	 * which is parallelised if more than one solution thread has been requested.
+	 */
+	protected IterationMethod createIterationMethodJacobi()
+	{
+		boolean termCritAbsolute = termCrit == TermCrit.ABSOLUTE;
+		if (solveThreads > 1) {
+			return new IterationMethodParallel(termCritAbsolute, termCritParam, true, solveThreads);
+		}
+		return new IterationMethodJacobi(termCritAbsolute, termCritParam);
+	}
+
+	/**
+	 * Perform the single-precision phase of mixed-precision value iteration,
+	 * storing the resulting approximation in {@code init}, to be refined by
+	 * subsequent (double-precision) value iteration.
+	 * @param iteration the single-precision copy of the relevant rows
+	 * @param init the initial solution vector (overwritten)
+	 * @param min minimum (or maximum) over choices
+	 */
+	protected void doMixedPrecisionIteration(MixedPrecisionIteration iteration, double init[], boolean min)
+	{
+		long timer = System.currentTimeMillis();
+		int iters = iteration.solve(init, min, termCrit == TermCrit.ABSOLUTE, termCritParam, maxIters);
+		timer = System.currentTimeMillis() - timer;
+		mainLog.println("Single-precision value iteration: " + iters + " iterations in " + timer / 1000.0 + " seconds, refining in double precision...");
+	}
+
+	/**
+	 * Called by interval iteration (once converged) with its final lower/upper vectors,
+	 * before a result is selected from them. These are kept (copied) if warm starts are enabled.
+	 */
+	void keepIntervalIterationBounds(double[] below, double[] above)
+	{
+		lastIntervalIterationBounds = warmStartCache == null ? null : new WarmStartCache.Bounds(below.clone(), above.clone());
+	}
+
 	// Model checking functions
 
 	@Override
@@ -533,6 +664,30 @@ public class ProbModelChecker extends NonProbModelChecker
 	{
 		StateValues res;
 
+		// Results for P, R and S operators (usually the expensive part) may be cached,
+		// so that subformulas shared between properties are only computed once
+		if (useSubformulaCache() && (expr instanceof ExpressionProb || expr instanceof ExpressionReward || expr instanceof ExpressionSS)) {
+			String key = getSubformulaCacheKey(expr);
+			res = subformulaCache.get(model, key, statesOfInterest);
+			if (res != null) {
+				mainLog.println("\nUsing cached result for subformula " + expr);
+				return res;
+			}
+			res = checkExpressionUncached(model, expr, statesOfInterest);
+			subformulaCache.put(model, key, statesOfInterest, res);
+			return res;
+		}
+		return checkExpressionUncached(model, expr, statesOfInterest);
+	}
+
+	/**
+	 * Model check an expression (see {@link #checkExpression(Model, Expression, BitSet)}),
+	 * without using the subformula cache for this expression itself.
+	 */
+	protected StateValues checkExpressionUncached(Model<?> model, Expression expr, BitSet statesOfInterest) throws PrismException
+	{
+		StateValues res;
+
 		// <<>> or [[]] operator
 		if (expr instanceof ExpressionStrategy) {
 			res = checkExpressionStrategy(model, (ExpressionStrategy) expr, statesOfInterest);
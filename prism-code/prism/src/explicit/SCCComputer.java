@@ -28,12 +28,14 @@
 
 package explicit;
 
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.function.Consumer;
 import java.util.function.IntPredicate;
 
 import prism.PrismComponent;
 import prism.PrismException;
+import prism.PrismSettings;
 
 /**
  * Abstract class for (explicit) classes that compute (B)SCCs,
@@ -46,12 +48,14 @@ public abstract class SCCComputer extends PrismComponent
 
 	// Method used for finding (B)SCCs
 	public enum SCCMethod {
-		TARJAN;
+		TARJAN, FORWARD_BACKWARD;
 		public String fullName()
 		{
 			switch (this) {
 			case TARJAN:
 				return "Tarjan";
+			case FORWARD_BACKWARD:
+				return "Forward-backward";
 			default:
 				return this.toString();
 			}
@@ -63,7 +67,10 @@ public abstract class SCCComputer extends PrismComponent
 	 */
 	public static SCCComputer createSCCComputer(PrismComponent parent, Model<?> model, SCCConsumer consumer) throws PrismException
 	{
-		// Only one algorithm implemented currently
+		PrismSettings settings = parent.getSettings();
+		if (settings != null && SCCMethod.FORWARD_BACKWARD.fullName().equals(settings.getString(PrismSettings.PRISM_EXPLICIT_SCC_METHOD))) {
+			return new SCCComputerFB(parent, model, consumer, settings.getInteger(PrismSettings.PRISM_SOLVE_THREADS));
+		}
 		return new SCCComputerTarjan(parent, model, consumer);
 	}
 
@@ -178,4 +185,97 @@ public abstract class SCCComputer extends PrismComponent
 		// false if there is a self-loop, i.e., a successor t == state
 		return !(model.someSuccessorsMatch(state, (t) -> {return t == state;}));
 	}
+
+	/**
+	 * The transition graph of a model, restricted to its relevant states,
+	 * in compressed sparse row form: the successors of state {@code s}
+	 * are {@code succs[start[s]..start[s+1])}, in the order given by {@link Model#getSuccessors(int)}.
+	 * Self-loops are not stored as edges, but recorded in {@code selfLoops}.
+	 */
+	protected static class SuccessorGraph
+	{
+		/** Number of states */
+		public final int numStates;
+		/** Start of the successors of each state (plus the end of those of the last state) */
+		public final int[] start;
+		/** Successors */
+		public final int[] succs;
+		/** Relevant states with a self-loop */
+		public final BitSet selfLoops;
+
+		private SuccessorGraph(int numStates, int[] start, int[] succs, BitSet selfLoops)
+		{
+			this.numStates = numStates;
+			this.start = start;
+			this.succs = succs;
+			this.selfLoops = selfLoops;
+		}
+
+		/**
+		 * Build the graph for a model, only including edges between relevant states,
+		 * i.e., states s for which {@code restrict.test(s)} is true ({@code null}: all states are relevant).
+		 */
+		public static SuccessorGraph build(Model<?> model, IntPredicate restrict) throws PrismException
+		{
+			int numStates = model.getNumStates();
+			int[] start = new int[numStates + 1];
+			BitSet selfLoops = new BitSet();
+			long numEdges = 0;
+			for (int s = 0; s < numStates; s++) {
+				start[s] = (int) numEdges;
+				if (restrict != null && !restrict.test(s)) {
+					continue;
+				}
+				SuccessorsIterator it = model.getSuccessors(s);
+				while (it.hasNext()) {
+					int t = it.nextInt();
+					if (t == s) {
+						selfLoops.set(s);
+					} else if (restrict == null || restrict.test(t)) {
+						numEdges++;
+					}
+				}
+				if (numEdges > Integer.MAX_VALUE - 8) {
+					throw new PrismException("Too many transitions for SCC computation");
+				}
+			}
+			start[numStates] = (int) numEdges;
+			int[] succs = new int[(int) numEdges];
+			for (int s = 0, pos = 0; s < numStates; s++) {
+				if (restrict != null && !restrict.test(s)) {
+					continue;
+				}
+				SuccessorsIterator it = model.getSuccessors(s);
+				while (it.hasNext()) {
+					int t = it.nextInt();
+					if (t != s && (restrict == null || restrict.test(t))) {
+						succs[pos++] = t;
+					}
+				}
+			}
+			return new SuccessorGraph(numStates, start, succs, selfLoops);
+		}
+
+		/**
+		 * Build the reverse (predecessor) graph.
+		 */
+		public SuccessorGraph reverse()
+		{
+			int[] revStart = new int[numStates + 1];
+			for (int t : succs) {
+				revStart[t + 1]++;
+			}
+			for (int s = 0; s < numStates; s++) {
+				revStart[s + 1] += revStart[s];
+			}
+			int[] next = Arrays.copyOf(revStart, numStates);
+			int[] preds = new int[succs.length];
+			for (int s = 0; s < numStates; s++) {
+				for (int j = start[s]; j < start[s + 1]; j++) {
+					preds[next[succs[j]]++] = s;
+				}
+			}
+			return new SuccessorGraph(numStates, revStart, preds, selfLoops);
+		}
+	}
 }
@@ -0,0 +1,350 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package explicit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import prism.PrismComponent;
+import prism.PrismException;
+
+/**
+ * Forward-backward SCC algorithm operating on a Model object.
+ * <br>
+ * Trivial singleton SCCs (states without relevant predecessors or successors)
+ * are first removed by trimming. The remaining states are then recursively
+ * split: the forward and backward reachable sets of a pivot state intersect
+ * in its SCC, and the three remaining parts contain no further SCC in common,
+ * so they can be processed independently (and in parallel).
+ * Each part is identified by a distinct colour of its states.
+ * <br>
+ * SCCs are reported to the consumer in reverse topological order
+ * (each SCC after all SCCs reachable from it), like for Tarjan's algorithm.
+ */
+public class SCCComputerFB extends SCCComputer
+{
+	/** Minimum number of states of a part to process it in a separate task */
+	private static final int MIN_STATES_PER_TASK = 4096;
+
+	/** Colour of states that are not relevant or already assigned to an SCC */
+	private static final int NO_COLOUR = -1;
+
+	/* The model to compute (B)SCCs for */
+	private Model<?> model;
+	/* Number of nodes (model states) */
+	private int numNodes;
+	/* Number of threads */
+	private int numThreads;
+
+	/* Transition graph of the model (relevant states only) and its reverse */
+	private SuccessorGraph graph;
+	private SuccessorGraph reverse;
+	/* Current colour of each node */
+	private int[] colours;
+	/* Next colour to give to a part */
+	private AtomicInteger nextColour;
+	/* SCC of each node (-1: none, i.e., not relevant) */
+	private int[] sccIds;
+	/* Next SCC index */
+	private AtomicInteger nextSCC;
+
+	/**
+	 * Build (B)SCC computer for a given model.
+	 * @param numThreads number of threads to use for the decomposition
+	 */
+	public SCCComputerFB(PrismComponent parent, Model<?> model, SCCConsumer consumer, int numThreads) throws PrismException
+	{
+		super(parent, consumer);
+		this.model = model;
+		this.numNodes = model.getNumStates();
+		this.numThreads = Math.max(1, numThreads);
+	}
+
+	// Methods for SCCComputer interface
+
+	@Override
+	public void computeSCCs(boolean filterTrivialSCCs, IntPredicate restrict) throws PrismException
+	{
+		consumer.notifyStart(model);
+		graph = SuccessorGraph.build(model, restrict);
+		reverse = graph.reverse();
+		colours = new int[numNodes];
+		sccIds = new int[numNodes];
+		Arrays.fill(sccIds, -1);
+		nextColour = new AtomicInteger(1);
+		nextSCC = new AtomicInteger(0);
+		for (int s = 0; s < numNodes; s++) {
+			colours[s] = (restrict == null || restrict.test(s)) ? 0 : NO_COLOUR;
+		}
+
+		trim();
+		int[] remaining = statesWithColour(0);
+		if (remaining.length > 0) {
+			FBTask task = new FBTask(remaining, 0);
+			if (numThreads > 1 && remaining.length >= MIN_STATES_PER_TASK) {
+				IterationMethodParallel.getPool(numThreads).invoke(task);
+			} else {
+				task.compute();
+			}
+		}
+		notifySCCs(filterTrivialSCCs);
+
+		graph = reverse = null;
+		colours = sccIds = null;
+		consumer.notifyDone();
+	}
+
+	// SCC Computation
+
+	/**
+	 * Repeatedly remove states without remaining predecessors or successors,
+	 * each of which forms a singleton SCC.
+	 */
+	private void trim()
+	{
+		int[] inDegree = new int[numNodes];
+		int[] outDegree = new int[numNodes];
+		int[] queue = new int[numNodes];
+		int head = 0, tail = 0;
+		for (int s = 0; s < numNodes; s++) {
+			if (colours[s] == 0) {
+				outDegree[s] = graph.start[s + 1] - graph.start[s];
+				inDegree[s] = reverse.start[s + 1] - reverse.start[s];
+				if (inDegree[s] == 0 || outDegree[s] == 0) {
+					queue[tail++] = s;
+					colours[s] = NO_COLOUR;
+				}
+			}
+		}
+		while (head < tail) {
+			int s = queue[head++];
+			sccIds[s] = nextSCC.getAndIncrement();
+			for (int j = graph.start[s]; j < graph.start[s + 1]; j++) {
+				int t = graph.succs[j];
+				if (colours[t] == 0 && --inDegree[t] == 0) {
+					queue[tail++] = t;
+					colours[t] = NO_COLOUR;
+				}
+			}
+			for (int j = reverse.start[s]; j < reverse.start[s + 1]; j++) {
+				int t = reverse.succs[j];
+				if (colours[t] == 0 && --outDegree[t] == 0) {
+					queue[tail++] = t;
+					colours[t] = NO_COLOUR;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Get the (sorted) states that currently have colour {@code colour}.
+	 */
+	private int[] statesWithColour(int colour)
+	{
+		return IntStream.range(0, numNodes).filter(s -> colours[s] == colour).toArray();
+	}
+
+	/**
+	 * Split the part {@code states}, all of colour {@code colour}, into the SCC of its first state
+	 * (which is assigned an SCC index) and the remaining forward, backward and unreached states,
+	 * which are recoloured and returned as new parts (empty parts are omitted).
+	 */
+	private List<FBTask> split(int[] states, int colour)
+	{
+		int pivot = states[0];
+		int[] queue = new int[states.length];
+		// Forward reachability from the pivot
+		int fwdColour = nextColour.getAndIncrement();
+		int head = 0, tail = 0;
+		queue[tail++] = pivot;
+		colours[pivot] = fwdColour;
+		while (head < tail) {
+			int s = queue[head++];
+			for (int j = graph.start[s]; j < graph.start[s + 1]; j++) {
+				int t = graph.succs[j];
+				if (colours[t] == colour) {
+					colours[t] = fwdColour;
+					queue[tail++] = t;
+				}
+			}
+		}
+		// Backward reachability from the pivot: forward states reached are in its SCC
+		int bwdColour = nextColour.getAndIncrement();
+		int scc = nextSCC.getAndIncrement();
+		head = tail = 0;
+		queue[tail++] = pivot;
+		colours[pivot] = NO_COLOUR;
+		sccIds[pivot] = scc;
+		while (head < tail) {
+			int s = queue[head++];
+			for (int j = reverse.start[s]; j < reverse.start[s + 1]; j++) {
+				int t = reverse.succs[j];
+				if (colours[t] == fwdColour) {
+					colours[t] = NO_COLOUR;
+					sccIds[t] = scc;
+					queue[tail++] = t;
+				} else if (colours[t] == colour) {
+					colours[t] = bwdColour;
+					queue[tail++] = t;
+				}
+			}
+		}
+		// Collect the remaining parts
+		List<FBTask> parts = new ArrayList<>(3);
+		for (int c : new int[] { fwdColour, bwdColour, colour }) {
+			int n = 0;
+			for (int s : states) {
+				if (colours[s] == c) {
+					queue[n++] = s;
+				}
+			}
+			if (n > 0) {
+				parts.add(new FBTask(Arrays.copyOf(queue, n), c));
+			}
+		}
+		return parts;
+	}
+
+	/**
+	 * Task decomposing a part of the states into SCCs.
+	 * Large parts resulting from a split are processed in separate tasks,
+	 * small ones by this task (using an explicit stack).
+	 */
+	private class FBTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+		private final int[] states;
+		private final int colour;
+
+		FBTask(int[] states, int colour)
+		{
+			this.states = states;
+			this.colour = colour;
+		}
+
+		@Override
+		protected void compute()
+		{
+			List<FBTask> forked = new ArrayList<>();
+			List<FBTask> todo = new ArrayList<>();
+			todo.add(this);
+			while (!todo.isEmpty()) {
+				FBTask part = todo.remove(todo.size() - 1);
+				for (FBTask next : split(part.states, part.colour)) {
+					if (numThreads > 1 && next.states.length >= MIN_STATES_PER_TASK) {
+						next.fork();
+						forked.add(next);
+					} else {
+						todo.add(next);
+					}
+				}
+			}
+			for (FBTask task : forked) {
+				task.join();
+			}
+		}
+	}
+
+	/**
+	 * Notify the consumer of the SCCs, in reverse topological order.
+	 * SCCs are numbered by their smallest state (and states within an SCC are reported
+	 * in ascending order), so that the order does not depend on how the SCCs were found.
+	 */
+	private void notifySCCs(boolean filterTrivialSCCs) throws PrismException
+	{
+		int numSCCs = nextSCC.get();
+		// Renumber SCCs by their smallest state
+		int[] renumber = new int[numSCCs];
+		Arrays.fill(renumber, -1);
+		int next = 0;
+		for (int s = 0; s < numNodes; s++) {
+			if (sccIds[s] != -1 && renumber[sccIds[s]] == -1) {
+				renumber[sccIds[s]] = next++;
+			}
+		}
+		// Group states by SCC (counting sort)
+		int[] sccStart = new int[numSCCs + 1];
+		for (int s = 0; s < numNodes; s++) {
+			if (sccIds[s] != -1) {
+				sccIds[s] = renumber[sccIds[s]];
+				sccStart[sccIds[s] + 1]++;
+			}
+		}
+		for (int i = 0; i < numSCCs; i++) {
+			sccStart[i + 1] += sccStart[i];
+		}
+		int[] sccStates = new int[sccStart[numSCCs]];
+		int[] pos = Arrays.copyOf(sccStart, numSCCs);
+		for (int s = 0; s < numNodes; s++) {
+			if (sccIds[s] != -1) {
+				sccStates[pos[sccIds[s]]++] = s;
+			}
+		}
+		// Kahn's algorithm on the condensation, starting from bottom SCCs
+		int[] numSuccs = new int[numSCCs];
+		for (int s = 0; s < numNodes; s++) {
+			for (int j = graph.start[s]; j < graph.start[s + 1]; j++) {
+				if (sccIds[graph.succs[j]] != sccIds[s]) {
+					numSuccs[sccIds[s]]++;
+				}
+			}
+		}
+		int[] queue = new int[numSCCs];
+		int head = 0, tail = 0;
+		for (int i = 0; i < numSCCs; i++) {
+			if (numSuccs[i] == 0) {
+				queue[tail++] = i;
+			}
+		}
+		while (head < tail) {
+			int scc = queue[head++];
+			int first = sccStates[sccStart[scc]];
+			boolean trivial = sccStart[scc + 1] - sccStart[scc] == 1 && !graph.selfLoops.get(first);
+			if (!(trivial && filterTrivialSCCs)) {
+				consumer.notifyStartSCC();
+				for (int j = sccStart[scc]; j < sccStart[scc + 1]; j++) {
+					consumer.notifyStateInSCC(sccStates[j]);
+				}
+				consumer.notifyEndSCC();
+			}
+			for (int j = sccStart[scc]; j < sccStart[scc + 1]; j++) {
+				int s = sccStates[j];
+				for (int k = reverse.start[s]; k < reverse.start[s + 1]; k++) {
+					int pred = sccIds[reverse.succs[k]];
+					if (pred != scc && --numSuccs[pred] == 0) {
+						queue[tail++] = pred;
+					}
+				}
+			}
+		}
+	}
+}
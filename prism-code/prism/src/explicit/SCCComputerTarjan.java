@@ -27,10 +27,8 @@
 
 package explicit;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.function.IntPredicate;
 
 import prism.PrismComponent;
@@ -38,6 +36,10 @@ import prism.PrismException;
 
 /**
  * Tarjan's SCC algorithm operating on a Model object.
+ * <br>
+ * The depth-first search uses an explicit call stack (rather than recursion),
+ * so it does not overflow the Java stack for models with long paths,
+ * and works on a compressed sparse row copy of the model's transition graph.
  */
 public class SCCComputerTarjan extends SCCComputer
 {
@@ -46,14 +48,24 @@ public class SCCComputerTarjan extends SCCComputer
 	/* Number of nodes (model states) */
 	private int numNodes;
 
+	/* Transition graph of the model (relevant states only) */
+	private SuccessorGraph graph;
 	/* Next index to give to a node */
 	private int index = 0;
-	/* Stack of nodes */
-	private List<Integer> stack = new LinkedList<Integer>();
-	/* List of nodes in the graph. Invariant: {@code nodeList.get(i).id == i} */
-	private ArrayList<Node> nodeList;
+	/* DFS index of each node (-1: not yet visited) */
+	private int[] indices;
+	/* Lowlink of each node */
+	private int[] lowlinks;
+	/* Stack of nodes (and its size) */
+	private int[] stack;
+	private int stackSize;
 	/* Nodes currently on the stack. */
 	private BitSet onStack;
+	/* DFS call stack of nodes (and its size) */
+	private int[] callStack;
+	private int callStackSize;
+	/* For each node on the call stack, the position of the next successor to explore */
+	private int[] edgePos;
 	/** Should we filter trivial SCCs? */
 	private boolean filterTrivialSCCs;
 	private IntPredicate restrict;
@@ -66,11 +78,6 @@ public class SCCComputerTarjan extends SCCComputer
 		super(parent, consumer);
 		this.model = model;
 		this.numNodes = model.getNumStates();
-		this.nodeList = new ArrayList<Node>(numNodes);
-		for (int i = 0; i < numNodes; i++) {
-			nodeList.add(new Node(i));
-		}
-		onStack = new BitSet();
 	}
 
 	// Methods for SCCComputer interface
@@ -93,81 +100,97 @@ public class SCCComputerTarjan extends SCCComputer
 	 */
 	public void tarjan() throws PrismException
 	{
+		graph = SuccessorGraph.build(model, restrict);
+		index = 0;
+		indices = new int[numNodes];
+		Arrays.fill(indices, -1);
+		lowlinks = new int[numNodes];
+		stack = new int[numNodes];
+		stackSize = 0;
+		onStack = new BitSet();
+		callStack = new int[numNodes];
+		callStackSize = 0;
+		edgePos = new int[numNodes];
 		for (int i = 0; i < numNodes; i++) {
 			if (restrict != null && !restrict.test(i))
 				continue; // skip state if not one of the relevant states
-			if (nodeList.get(i).lowlink == -1)
+			if (indices[i] == -1)
 				tarjan(i);
 		}
-
+		graph = null;
+		indices = lowlinks = stack = callStack = edgePos = null;
 	}
 
-	private void tarjan(int i) throws PrismException
+	/**
+	 * Depth-first search from node {@code root}, with an explicit call stack.
+	 */
+	private void tarjan(int root) throws PrismException
 	{
-		final Node v = nodeList.get(i);
-		v.index = index;
-		v.lowlink = index;
-		index++;
-		stack.add(0, i);
-		onStack.set(i);
-
-		boolean hadSelfloop = false;
-		SuccessorsIterator it = model.getSuccessors(i);
-		while (it.hasNext()) {
-			int e = it.nextInt();
-
-			if (e == i) {
-				hadSelfloop = true;
+		visit(root);
+		while (callStackSize > 0) {
+			int v = callStack[callStackSize - 1];
+			int pos = edgePos[callStackSize - 1];
+			if (pos < graph.start[v + 1]) {
+				edgePos[callStackSize - 1]++;
+				int e = graph.succs[pos];
+				if (indices[e] == -1) {
+					// "recursive call": lowlink of v is updated once e is finished
+					visit(e);
+				} else if (onStack.get(e)) {
+					lowlinks[v] = Math.min(lowlinks[v], indices[e]);
+				}
 				continue;
 			}
-
-			if (restrict != null && !restrict.test(e)) {
-				continue; // ignore edge to state that is not relevant
-			}
-
-			Node n = nodeList.get(e);
-			if (n.index == -1) {
-				tarjan(e);
-				v.lowlink = Math.min(v.lowlink, n.lowlink);
-			} else if (onStack.get(e)) {
-				v.lowlink = Math.min(v.lowlink, n.index);
+			// all successors of v done: "return" to the caller
+			callStackSize--;
+			if (lowlinks[v] == indices[v]) {
+				popSCC(v);
 			}
-		}
-		if (v.lowlink == v.index) {
-			// this is a singleton SCC if the top of the stack equals i
-			boolean singletonSCC = (stack.get(0) == i);
-			if (singletonSCC && filterTrivialSCCs) {
-				if (!hadSelfloop) { // singleton SCC & no selfloop -> trivial
-					stack.remove(0);
-					onStack.set(i, false);
-					return;
-				}
+			if (callStackSize > 0) {
+				int u = callStack[callStackSize - 1];
+				lowlinks[u] = Math.min(lowlinks[u], lowlinks[v]);
 			}
-
-			int n;
-			consumer.notifyStartSCC();
-			do {
-				n = stack.remove(0);
-				onStack.set(n, false);
-				consumer.notifyStateInSCC(n);
-			} while (n != i);
-			consumer.notifyEndSCC();
 		}
 	}
 
 	/**
-	 * A small class wrapping a node.
-	 * It carries extra information necessary for Tarjan's algorithm.
+	 * Start visiting node {@code i}: assign its index and push it onto both stacks.
 	 */
-	protected static class Node
+	private void visit(int i)
 	{
-		public int lowlink = -1;
-		public int index = -1;
-		public int id;
+		indices[i] = index;
+		lowlinks[i] = index;
+		index++;
+		stack[stackSize++] = i;
+		onStack.set(i);
+		callStack[callStackSize] = i;
+		edgePos[callStackSize] = graph.start[i];
+		callStackSize++;
+	}
 
-		public Node(int id)
-		{
-			this.id = id;
+	/**
+	 * Pop the SCC with root {@code i} from the stack and notify the consumer
+	 * (unless it is trivial and these are filtered).
+	 */
+	private void popSCC(int i) throws PrismException
+	{
+		// this is a singleton SCC if the top of the stack equals i
+		boolean singletonSCC = (stack[stackSize - 1] == i);
+		if (singletonSCC && filterTrivialSCCs) {
+			if (!graph.selfLoops.get(i)) { // singleton SCC & no selfloop -> trivial
+				stackSize--;
+				onStack.clear(i);
+				return;
+			}
 		}
+
+		int n;
+		consumer.notifyStartSCC();
+		do {
+			n = stack[--stackSize];
+			onStack.clear(n);
+			consumer.notifyStateInSCC(n);
+		} while (n != i);
+		consumer.notifyEndSCC();
 	}
 }
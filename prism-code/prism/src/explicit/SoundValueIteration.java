@@ -0,0 +1,364 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package explicit;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.PrimitiveIterator;
+
+import common.IntSet;
+import explicit.rewards.MCRewards;
+import explicit.rewards.MDPRewards;
+
+/**
+ * Sound value iteration (Quatmann and Katoen, CAV 2018) for reachability probabilities
+ * and expected total rewards in DTMCs and MDPs.
+ * <br>
+ * For a block of states (all states to be computed, or an SCC for topological iteration),
+ * it iterates, for increasing k, the value x_k (the probability of reaching the target,
+ * or the reward accumulated, within k steps without leaving the block)
+ * and the probability y_k of staying in the block for k steps.
+ * Once y_k &lt; 1 for all states, the least and greatest of x_k / (1 - y_k)
+ * bound the values of all states in the block, say by l and u,
+ * and the value of each state lies between x_k + y_k * l and x_k + y_k * u.
+ * These bounds close as y_k tends to 0, typically in far fewer iterations
+ * than interval iteration needs.
+ * <br>
+ * For MDPs, choices are picked with respect to the bound on the optimising side
+ * (u for max, l for min). That bound is only valid where the picked choices are optimal,
+ * so it is never moved past the decision values, i.e., the points where another choice
+ * would have been better (accumulated over the iterations). The other bound is valid for any choices.
+ * <br>
+ * Values of states outside the block are taken from the lower and upper solution vectors,
+ * so that bounds (rather than exact values) for earlier SCCs only widen the result.
+ */
+class SoundValueIteration
+{
+	/** Min or max (for MDPs) */
+	private final boolean min;
+	/** For each state of the model, its index in the compact storage below (or -1) */
+	private final int[] index;
+	/** For each state to be computed, the start of its choices in {@code choiceStarts} (plus the end of the last one) */
+	private final int[] stateStarts;
+	/** Start of the transitions of each choice in {@code cols}/{@code vals} (plus the end of the last one) */
+	private final int[] choiceStarts;
+	/** Transition targets (states of the model) */
+	private final int[] cols;
+	/** Transition probabilities */
+	private final double[] vals;
+	/** Reward of each choice (null for probabilities) */
+	private final double[] rews;
+	/** Storage for strategy choice indices (ignored if null) */
+	private final int[] strat;
+
+	/** Current block: its states, and for each state of the model, its position in the block (or -1) */
+	private int[] block;
+	private final int[] blockPos;
+	/** Contribution of the transitions leaving the block (and the reward), for each choice, from below and above */
+	private final double[] exitLo;
+	private final double[] exitHi;
+	/** x_k from below and above, y_k and the picked choice, for each state of the block */
+	private double[] xLo, xHi, y, xLoNext, xHiNext, yNext;
+	private int[] picked;
+	/** Values of the choices of a single state (x_k from below and above, y_k) */
+	private final double[] choiceLo, choiceHi, choiceY;
+	/** Bounds for all values in the block, and the bound from the decision values */
+	private double l, u, decision;
+	/** Solution vectors for the bounds of the individual states */
+	private double[] lo, hi;
+
+	private SoundValueIteration(boolean min, int numStates, int[] index, int[] stateStarts, int[] choiceStarts, int[] cols, double[] vals, double[] rews, int[] strat)
+	{
+		this.min = min;
+		this.index = index;
+		this.stateStarts = stateStarts;
+		this.choiceStarts = choiceStarts;
+		this.cols = cols;
+		this.vals = vals;
+		this.rews = rews;
+		this.strat = strat;
+		blockPos = new int[numStates];
+		Arrays.fill(blockPos, -1);
+		int numChoices = choiceStarts.length - 1;
+		exitLo = new double[numChoices];
+		exitHi = new double[numChoices];
+		int maxChoices = 0;
+		for (int i = 0; i < stateStarts.length - 1; i++) {
+			maxChoices = Math.max(maxChoices, stateStarts[i + 1] - stateStarts[i]);
+		}
+		choiceLo = new double[maxChoices];
+		choiceHi = new double[maxChoices];
+		choiceY = new double[maxChoices];
+	}
+
+	/**
+	 * Create for the states {@code unknown} of a DTMC, copying their rows.
+	 * @param dtmc The DTMC
+	 * @param mcRewards The rewards (null for probabilities)
+	 * @param unknown The states to compute values for
+	 */
+	public static SoundValueIteration forDTMC(DTMC<Double> dtmc, MCRewards<Double> mcRewards, BitSet unknown)
+	{
+		int numStates = dtmc.getNumStates();
+		int n = unknown.cardinality();
+		int[] index = new int[numStates];
+		Arrays.fill(index, -1);
+		long numTransitions = 0;
+		int i = 0;
+		for (int s = unknown.nextSetBit(0); s >= 0; s = unknown.nextSetBit(s + 1)) {
+			index[s] = i++;
+			numTransitions += dtmc.getNumTransitions(s);
+		}
+
+		int[] stateStarts = new int[n + 1];
+		int[] choiceStarts = new int[n + 1];
+		int[] cols = new int[(int) numTransitions];
+		double[] vals = new double[(int) numTransitions];
+		double[] rews = mcRewards == null ? null : new double[n];
+		int[] pos = new int[1];
+		i = 0;
+		for (int s = unknown.nextSetBit(0); s >= 0; s = unknown.nextSetBit(s + 1), i++) {
+			stateStarts[i] = i;
+			choiceStarts[i] = pos[0];
+			if (rews != null) {
+				rews[i] = mcRewards.getStateReward(s);
+			}
+			dtmc.forEachDoubleTransition(s, (s2, t, prob) -> {
+				cols[pos[0]] = t;
+				vals[pos[0]++] = prob;
+			});
+		}
+		stateStarts[n] = n;
+		choiceStarts[n] = pos[0];
+		return new SoundValueIteration(false, numStates, index, stateStarts, choiceStarts, cols, vals, rews, null);
+	}
+
+	/**
+	 * Create for the states {@code unknown} of an MDP, copying their rows.
+	 * @param mdp The MDP
+	 * @param mdpRewards The rewards (null for probabilities)
+	 * @param min Min or max (true=min, false=max)
+	 * @param unknown The states to compute values for
+	 * @param strat Storage for (memoryless) strategy choice indices (ignored if null)
+	 */
+	public static SoundValueIteration forMDP(MDP<Double> mdp, MDPRewards<Double> mdpRewards, boolean min, BitSet unknown, int[] strat)
+	{
+		int numStates = mdp.getNumStates();
+		int n = unknown.cardinality();
+		int[] index = new int[numStates];
+		Arrays.fill(index, -1);
+		int numChoices = 0;
+		long numTransitions = 0;
+		int i = 0;
+		for (int s = unknown.nextSetBit(0); s >= 0; s = unknown.nextSetBit(s + 1)) {
+			index[s] = i++;
+			numChoices += mdp.getNumChoices(s);
+			numTransitions += mdp.getNumTransitions(s);
+		}
+
+		int[] stateStarts = new int[n + 1];
+		int[] choiceStarts = new int[numChoices + 1];
+		int[] cols = new int[(int) numTransitions];
+		double[] vals = new double[(int) numTransitions];
+		double[] rews = mdpRewards == null ? null : new double[numChoices];
+		int[] pos = new int[2];
+		i = 0;
+		for (int s = unknown.nextSetBit(0); s >= 0; s = unknown.nextSetBit(s + 1), i++) {
+			stateStarts[i] = pos[0];
+			for (int c = 0, numChoicesS = mdp.getNumChoices(s); c < numChoicesS; c++) {
+				if (rews != null) {
+					rews[pos[0]] = mdpRewards.getStateReward(s) + mdpRewards.getTransitionReward(s, c);
+				}
+				choiceStarts[pos[0]++] = pos[1];
+				mdp.forEachDoubleTransition(s, c, (s2, t, prob) -> {
+					cols[pos[1]] = t;
+					vals[pos[1]++] = prob;
+				});
+			}
+		}
+		stateStarts[n] = pos[0];
+		choiceStarts[numChoices] = pos[1];
+		return new SoundValueIteration(min, numStates, index, stateStarts, choiceStarts, cols, vals, rews, strat);
+	}
+
+	/**
+	 * Start the iteration for a block of the states given on creation.
+	 * The values (or bounds) of all successors outside the block are taken
+	 * from {@code lo}/{@code hi}, whose entries for the block are (coarse) initial bounds.
+	 * These entries are tightened by {@link #iterate()}.
+	 */
+	public void start(IntSet states, double[] lo, double[] hi)
+	{
+		this.lo = lo;
+		this.hi = hi;
+		block = new int[(int) states.cardinality()];
+		int n = 0;
+		l = Double.POSITIVE_INFINITY;
+		u = Double.NEGATIVE_INFINITY;
+		for (PrimitiveIterator.OfInt it = states.iterator(); it.hasNext();) {
+			int s = it.nextInt();
+			blockPos[s] = n;
+			block[n++] = s;
+			l = Math.min(l, lo[s]);
+			u = Math.max(u, hi[s]);
+		}
+		decision = min ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+
+		// Contribution of the transitions leaving the block
+		for (int s : block) {
+			int i = index[s];
+			for (int c = stateStarts[i]; c < stateStarts[i + 1]; c++) {
+				double dLo = rews == null ? 0.0 : rews[c];
+				double dHi = dLo;
+				for (int k = choiceStarts[c]; k < choiceStarts[c + 1]; k++) {
+					int t = cols[k];
+					if (blockPos[t] < 0) {
+						dLo += vals[k] * lo[t];
+						dHi += vals[k] * hi[t];
+					}
+				}
+				exitLo[c] = dLo;
+				exitHi[c] = dHi;
+			}
+		}
+
+		xLo = new double[n];
+		xHi = new double[n];
+		y = new double[n];
+		Arrays.fill(y, 1.0);
+		xLoNext = new double[n];
+		xHiNext = new double[n];
+		yNext = new double[n];
+		picked = new int[n];
+	}
+
+	/**
+	 * Perform one iteration for the current block, updating the bounds in the solution vectors.
+	 */
+	public void iterate()
+	{
+		int n = block.length;
+		// the choices are compared at the bound on the optimising side
+		double at = min ? l : u;
+		for (int p = 0; p < n; p++) {
+			int i = index[block[p]];
+			int first = stateStarts[i], last = stateStarts[i + 1];
+			int best = 0;
+			for (int c = first; c < last; c++) {
+				double sumLo = exitLo[c], sumHi = exitHi[c], sumY = 0.0;
+				for (int k = choiceStarts[c]; k < choiceStarts[c + 1]; k++) {
+					int pos = blockPos[cols[k]];
+					if (pos >= 0) {
+						sumLo += vals[k] * xLo[pos];
+						sumHi += vals[k] * xHi[pos];
+						sumY += vals[k] * y[pos];
+					}
+				}
+				int j = c - first;
+				choiceLo[j] = sumLo;
+				choiceHi[j] = sumHi;
+				choiceY[j] = sumY;
+				// on ties, prefer the smaller y, which is at least as good for all values between l and u
+				if (j > 0) {
+					double val = (min ? sumLo : sumHi) + sumY * at;
+					double bestVal = (min ? choiceLo[best] : choiceHi[best]) + choiceY[best] * at;
+					if ((min ? val < bestVal : val > bestVal) || (val == bestVal && sumY < choiceY[best])) {
+						best = j;
+					}
+				}
+			}
+			// A choice with a smaller y than the picked one is better beyond the point
+			// at which their lines x + y * v cross (below it for max, above it for min)
+			double[] choiceX = min ? choiceLo : choiceHi;
+			for (int j = 0; j < last - first; j++) {
+				if (choiceY[j] < choiceY[best]) {
+					double cross = (choiceX[j] - choiceX[best]) / (choiceY[best] - choiceY[j]);
+					decision = min ? Math.min(decision, cross) : Math.max(decision, cross);
+				}
+			}
+			xLoNext[p] = choiceLo[best];
+			xHiNext[p] = choiceHi[best];
+			yNext[p] = choiceY[best];
+			picked[p] = best;
+		}
+
+		double[] tmp;
+		tmp = xLo; xLo = xLoNext; xLoNext = tmp;
+		tmp = xHi; xHi = xHiNext; xHiNext = tmp;
+		tmp = y; y = yNext; yNext = tmp;
+
+		// Update the bounds for the block, once no state is sure to stay in the block
+		double candLo = Double.POSITIVE_INFINITY, candHi = Double.NEGATIVE_INFINITY;
+		boolean allLeave = true;
+		for (int p = 0; p < n && allLeave; p++) {
+			if (y[p] < 1.0) {
+				candLo = Math.min(candLo, xLo[p] / (1.0 - y[p]));
+				candHi = Math.max(candHi, xHi[p] / (1.0 - y[p]));
+			} else {
+				allLeave = false;
+			}
+		}
+		if (allLeave) {
+			if (min) {
+				l = Math.max(l, Math.min(candLo, decision));
+				u = Math.min(u, candHi);
+			} else {
+				l = Math.max(l, candLo);
+				u = Math.min(u, Math.max(candHi, decision));
+			}
+		}
+
+		// Bounds for the individual states
+		for (int p = 0; p < n; p++) {
+			int s = block[p];
+			if (l > Double.NEGATIVE_INFINITY)
+				lo[s] = Math.max(lo[s], xLo[p] + y[p] * l);
+			if (u < Double.POSITIVE_INFINITY)
+				hi[s] = Math.min(hi[s], xHi[p] + y[p] * u);
+			// once the bounds (nearly) meet, they may cross by rounding errors
+			if (lo[s] > hi[s] && lo[s] - hi[s] <= 1e-12 * Math.abs(lo[s]))
+				lo[s] = hi[s] = (lo[s] + hi[s]) / 2;
+		}
+	}
+
+	/**
+	 * Finish the current block, storing the picked choices in the strategy (if required).
+	 */
+	public void finish()
+	{
+		for (int p = 0; p < block.length; p++) {
+			int s = block[p];
+			if (strat != null) {
+				strat[s] = picked[p];
+			}
+			blockPos[s] = -1;
+		}
+		block = null;
+		xLo = xHi = y = xLoNext = xHiNext = yNext = null;
+		picked = null;
+	}
+}
@@ -0,0 +1,750 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package explicit;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+
+import prism.PrismException;
+
+/**
+ * Class to build a {@link DTMCSparse} or {@link MDPSparse} incrementally, e.g. during model construction,
+ * without first building a mutable model (such as {@link DTMCSimple} or {@link MDPSimple}).
+ * <br><br>
+ * Transitions are appended to growable primitive arrays, one state at a time, in order of state index.
+ * For DTMCs, each state has a single row of transitions ({@link #startState(int)}, {@link #addTransition(int, double)},
+ * {@link #endState()}); for MDPs, transitions are grouped into choices ({@link #startChoice(Object)}, {@link #endChoice()}).
+ * As for {@link DTMCSimple} and {@link MDPSimple}, duplicate targets are summed
+ * and, for MDPs, duplicate choices (same action and distribution) of a state are only added once.
+ * Optionally, for MDPs, structurally identical distributions (same targets and probabilities),
+ * from any states, are stored only once and shared between choices (see {@link #setShareDistributions(boolean)}).
+ * <br><br>
+ * Once all states have been added, the final model is built, optionally applying a state index permutation
+ * (e.g. to sort the states), with the transitions of each row/choice ordered by (new) target index.
+ */
+public class SparseModelBuilder
+{
+	/** Is the model nondeterministic (an MDP, rather than a DTMC)? */
+	protected boolean nondet;
+	/** Should action labels be stored for choices? (MDPs only) */
+	protected boolean storeActions;
+
+	/** Number of states */
+	protected int numStates;
+	/** Initial states (in the order added) */
+	protected List<Integer> initialStates = new ArrayList<>();
+	/** Deadlock states */
+	protected BitSet deadlocks = new BitSet();
+	/** Should deadlocks be fixed, by adding self-loops? */
+	protected boolean fixDeadlocks;
+
+	/** Number of states whose transitions have been added */
+	protected int numRows;
+	/** Index (into choiceStarts) of the first choice of each state
+	 * (for DTMCs, each state has exactly one choice, its row of transitions) */
+	protected int rowStarts[] = new int[16];
+	/** Number of choices added */
+	protected int numChoices;
+	/** Number of distributions added (the same as numChoices, unless distributions are shared) */
+	protected int numDistrs;
+	/** Index (into cols/probs) of the first transition of each distribution, plus one extra entry
+	 * (distributions correspond to choices, unless they are shared) */
+	protected int choiceStarts[] = new int[16];
+	/** Should structurally identical distributions be stored only once? (MDPs only) */
+	protected boolean shareDistrs;
+	/** Index (into choiceStarts) of the distribution of each choice (only if distributions are shared) */
+	protected int choiceDistrs[];
+	/** Hash code of each distribution (only if distributions are shared) */
+	protected int distrHashes[];
+	/** Hash table (with linear probing) of distribution indices, -1 denoting an empty slot
+	 * (only if distributions are shared) */
+	protected int distrTable[];
+	/** Number of distributions in distrTable */
+	protected int distrTableSize;
+	/** Action labels of choices (if stored) */
+	protected Object actions[];
+	/** Action label of the choice currently being added */
+	protected Object currentAction;
+	/** Number of transitions added */
+	protected int numTransitions;
+	/** Target state of each transition */
+	protected int cols[] = new int[64];
+	/** Probability of each transition */
+	protected double probs[] = new double[64];
+
+	/**
+	 * Create a builder for a DTMC ({@code nondet} is false) or MDP ({@code nondet} is true).
+	 * @param nondet Build an MDP?
+	 * @param storeActions Store action labels for choices? (MDPs only)
+	 */
+	public SparseModelBuilder(boolean nondet, boolean storeActions)
+	{
+		this.nondet = nondet;
+		this.storeActions = nondet && storeActions;
+		if (this.storeActions) {
+			actions = new Object[16];
+		}
+	}
+
+	/**
+	 * Store structurally identical distributions (same targets and probabilities) only once,
+	 * sharing them between choices, in the MDP that is built? (MDPs only)
+	 * This reduces memory usage, and the amount of data read by model checking algorithms,
+	 * for models where many choices (of the same or different states) have the same distribution.
+	 * This should be set before any transitions are added.
+	 */
+	public void setShareDistributions(boolean shareDistrs)
+	{
+		if (numChoices > 0) {
+			throw new IllegalStateException("Distribution sharing must be set before adding transitions");
+		}
+		this.shareDistrs = nondet && shareDistrs;
+		if (this.shareDistrs) {
+			choiceDistrs = new int[16];
+			distrHashes = new int[16];
+			distrTable = new int[64];
+			Arrays.fill(distrTable, -1);
+		}
+	}
+
+	/**
+	 * Add a new state and return its index.
+	 */
+	public int addState()
+	{
+		return numStates++;
+	}
+
+	/**
+	 * Get the number of states added so far.
+	 */
+	public int getNumStates()
+	{
+		return numStates;
+	}
+
+	/**
+	 * Add a state to the list of initial states.
+	 */
+	public void addInitialState(int s)
+	{
+		initialStates.add(s);
+	}
+
+	/**
+	 * Start adding the transitions (DTMCs) or choices (MDPs) of state {@code s}.
+	 * States must be added in order of their indices.
+	 */
+	public void startState(int s)
+	{
+		if (s != numRows) {
+			throw new IllegalStateException("Transitions for state " + s + " added out of order");
+		}
+		rowStarts = ensureCapacity(rowStarts, numRows + 2);
+		rowStarts[numRows] = numChoices;
+		if (!nondet) {
+			startChoice(null);
+		}
+	}
+
+	/**
+	 * Finish adding the transitions (DTMCs) or choices (MDPs) of the current state.
+	 */
+	public void endState()
+	{
+		if (!nondet) {
+			normaliseChoice();
+			addChoice();
+		}
+		numRows++;
+		rowStarts[numRows] = numChoices;
+	}
+
+	/**
+	 * Start adding a choice, labelled with {@code action}, to the current state (MDPs only).
+	 */
+	public void startChoice(Object action)
+	{
+		choiceStarts = ensureCapacity(choiceStarts, numDistrs + 2);
+		choiceStarts[numDistrs] = numTransitions;
+		currentAction = storeActions ? action : null;
+	}
+
+	/**
+	 * Finish adding the current choice (MDPs only).
+	 * If it is identical to an existing choice for the same state, it is discarded.
+	 */
+	public void endChoice()
+	{
+		normaliseChoice();
+		// Discard duplicate choices
+		for (int c = rowStarts[numRows]; c < numChoices; c++) {
+			if (isCurrentChoiceEqualTo(c)) {
+				numTransitions = choiceStarts[numDistrs];
+				return;
+			}
+		}
+		addChoice();
+	}
+
+	/**
+	 * Get the number of choices added so far.
+	 */
+	public int getNumChoices()
+	{
+		return numChoices;
+	}
+
+	/**
+	 * Get the number of distinct distributions stored so far
+	 * (the same as the number of choices, unless distributions are shared).
+	 */
+	public int getNumDistributions()
+	{
+		return numDistrs;
+	}
+
+	/**
+	 * Add a transition, to state {@code dest} with probability {@code prob},
+	 * to the current state (DTMCs) or choice (MDPs).
+	 */
+	public void addTransition(int dest, double prob)
+	{
+		if (prob == 0.0) {
+			return;
+		}
+		if (numTransitions == cols.length) {
+			int newLength = cols.length * 2;
+			cols = Arrays.copyOf(cols, newLength);
+			probs = Arrays.copyOf(probs, newLength);
+		}
+		cols[numTransitions] = dest;
+		probs[numTransitions] = prob;
+		numTransitions++;
+	}
+
+	/**
+	 * Find the deadlock states (those with no transitions/choices)
+	 * and, optionally, fix them by adding self-loops when the model is built.
+	 */
+	public void findDeadlocks(boolean fix)
+	{
+		for (int s = 0; s < numRows; s++) {
+			int n = nondet ? rowStarts[s + 1] - rowStarts[s] : choiceStarts[s + 1] - choiceStarts[s];
+			if (n == 0) {
+				deadlocks.set(s);
+			}
+		}
+		fixDeadlocks = fix;
+	}
+
+	/**
+	 * Build a {@link DTMCSparse} from the transitions added.
+	 * If {@code permut} is non-null, old state index i becomes index permut[i].
+	 * Note: a states list, if needed, should be set separately afterwards.
+	 */
+	public DTMCSparse buildDTMC(int permut[])
+	{
+		checkComplete();
+		int permutInv[] = invertPermutation(permut);
+		// Compute new row starts
+		int rows[] = new int[numStates + 1];
+		for (int s = 0; s < numStates; s++) {
+			int sOld = permutInv == null ? s : permutInv[s];
+			rows[s + 1] = rows[s] + (isFixedDeadlock(sOld) ? 1 : choiceStarts[sOld + 1] - choiceStarts[sOld]);
+		}
+		// Copy transitions
+		int newCols[] = new int[rows[numStates]];
+		double newProbs[] = new double[rows[numStates]];
+		for (int s = 0; s < numStates; s++) {
+			int sOld = permutInv == null ? s : permutInv[s];
+			copyTransitions(sOld, s, permut, newCols, newProbs, rows[s]);
+		}
+		releaseStorage();
+		DTMCSparse dtmc = new DTMCSparse(numStates, rows, newCols, newProbs);
+		copyStateInfo(dtmc, permut);
+		return dtmc;
+	}
+
+	/**
+	 * Build an {@link MDPSparse} from the transitions added.
+	 * If {@code permut} is non-null, old state index i becomes index permut[i].
+	 * Note: a states list, if needed, should be set separately afterwards.
+	 */
+	public MDPSparse buildMDP(int permut[])
+	{
+		checkComplete();
+		int permutInv[] = invertPermutation(permut);
+		// Compute new row starts and choice starts
+		int newRowStarts[] = new int[numStates + 1];
+		for (int s = 0; s < numStates; s++) {
+			int sOld = permutInv == null ? s : permutInv[s];
+			newRowStarts[s + 1] = newRowStarts[s] + (isFixedDeadlock(sOld) ? 1 : rowStarts[sOld + 1] - rowStarts[sOld]);
+		}
+		int newNumChoices = newRowStarts[numStates];
+		if (shareDistrs) {
+			return buildSharedMDP(permut, permutInv, newRowStarts);
+		}
+		int newChoiceStarts[] = new int[newNumChoices + 1];
+		Object newActions[] = storeActions ? new Object[newNumChoices] : null;
+		for (int s = 0, c = 0; s < numStates; s++) {
+			int sOld = permutInv == null ? s : permutInv[s];
+			if (isFixedDeadlock(sOld)) {
+				newChoiceStarts[c + 1] = newChoiceStarts[c] + 1;
+				c++;
+			} else {
+				for (int cOld = rowStarts[sOld]; cOld < rowStarts[sOld + 1]; cOld++, c++) {
+					newChoiceStarts[c + 1] = newChoiceStarts[c] + choiceStarts[cOld + 1] - choiceStarts[cOld];
+					if (storeActions) {
+						newActions[c] = actions[cOld];
+					}
+				}
+			}
+		}
+		// Copy transitions
+		int newCols[] = new int[newChoiceStarts[newNumChoices]];
+		double newProbs[] = new double[newChoiceStarts[newNumChoices]];
+		for (int s = 0; s < numStates; s++) {
+			int sOld = permutInv == null ? s : permutInv[s];
+			if (isFixedDeadlock(sOld)) {
+				copyTransitions(-1, s, permut, newCols, newProbs, newChoiceStarts[newRowStarts[s]]);
+			} else {
+				for (int cOld = rowStarts[sOld], c = newRowStarts[s]; cOld < rowStarts[sOld + 1]; cOld++, c++) {
+					copyTransitions(cOld, s, permut, newCols, newProbs, newChoiceStarts[c]);
+				}
+			}
+		}
+		releaseStorage();
+		MDPSparse mdp = new MDPSparse(numStates, newRowStarts, newChoiceStarts, newCols, newProbs, newActions);
+		copyStateInfo(mdp, permut);
+		return mdp;
+	}
+
+	/**
+	 * Build an {@link MDPSparse} in which distributions are shared (see {@link #setShareDistributions(boolean)}).
+	 * Distributions keep their indices; self-loops for fixed deadlocks are added as extra distributions at the end.
+	 */
+	private MDPSparse buildSharedMDP(int permut[], int permutInv[], int newRowStarts[])
+	{
+		int newNumChoices = newRowStarts[numStates];
+		int newNumDistrs = numDistrs + newNumChoices - numChoices;
+		int newChoiceDistrs[] = new int[newNumChoices];
+		int newChoiceStarts[] = Arrays.copyOf(choiceStarts, newNumDistrs + 1);
+		for (int d = numDistrs; d < newNumDistrs; d++) {
+			newChoiceStarts[d + 1] = newChoiceStarts[d] + 1;
+		}
+		int newCols[] = new int[newChoiceStarts[newNumDistrs]];
+		double newProbs[] = new double[newChoiceStarts[newNumDistrs]];
+		Object newActions[] = storeActions ? new Object[newNumChoices] : null;
+		// Copy choices (and self-loops for fixed deadlocks)
+		for (int s = 0, c = 0, dNew = numDistrs; s < numStates; s++) {
+			int sOld = permutInv == null ? s : permutInv[s];
+			if (isFixedDeadlock(sOld)) {
+				copyTransitions(-1, s, permut, newCols, newProbs, newChoiceStarts[dNew]);
+				newChoiceDistrs[c++] = dNew++;
+			} else {
+				for (int cOld = rowStarts[sOld]; cOld < rowStarts[sOld + 1]; cOld++, c++) {
+					newChoiceDistrs[c] = choiceDistrs[cOld];
+					if (storeActions) {
+						newActions[c] = actions[cOld];
+					}
+				}
+			}
+		}
+		// Copy transitions of each (shared) distribution once
+		for (int d = 0; d < numDistrs; d++) {
+			copyTransitions(d, -1, permut, newCols, newProbs, newChoiceStarts[d]);
+		}
+		releaseStorage();
+		MDPSparse mdp = new MDPSparse(numStates, newRowStarts, newChoiceDistrs, newChoiceStarts, newCols, newProbs, newActions);
+		copyStateInfo(mdp, permut);
+		return mdp;
+	}
+
+	/**
+	 * Write the transitions added so far (e.g., for a checkpoint; see {@link ConstructModelCheckpoint}).
+	 * This should be done between states, i.e., not while adding the transitions of a state.
+	 */
+	public void writeTo(DataOutputStream out) throws IOException, PrismException
+	{
+		out.writeBoolean(nondet);
+		out.writeBoolean(storeActions);
+		out.writeBoolean(shareDistrs);
+		out.writeInt(numStates);
+		out.writeInt(numRows);
+		out.writeInt(numChoices);
+		out.writeInt(numDistrs);
+		out.writeInt(numTransitions);
+		int inits[] = new int[initialStates.size()];
+		for (int i = 0; i < inits.length; i++) {
+			inits[i] = initialStates.get(i);
+		}
+		ConstructModelCheckpoint.writeInts(out, inits, inits.length);
+		ConstructModelCheckpoint.writeInts(out, rowStarts, numRows + 1);
+		ConstructModelCheckpoint.writeInts(out, choiceStarts, numDistrs + 1);
+		if (shareDistrs) {
+			ConstructModelCheckpoint.writeInts(out, choiceDistrs, numChoices);
+		}
+		if (storeActions) {
+			ConstructModelCheckpoint.writeActions(out, actions, numChoices);
+		}
+		ConstructModelCheckpoint.writeInts(out, cols, numTransitions);
+		ConstructModelCheckpoint.writeDoubles(out, probs, numTransitions);
+	}
+
+	/**
+	 * Replace the contents of this (newly created) builder with the transitions
+	 * written by {@link #writeTo(DataOutputStream)}, so that construction can be resumed.
+	 */
+	public void readFrom(DataInputStream in) throws IOException
+	{
+		if (in.readBoolean() != nondet || in.readBoolean() != storeActions || in.readBoolean() != shareDistrs) {
+			throw new IOException("model type, action storage or distribution sharing does not match");
+		}
+		numStates = in.readInt();
+		numRows = in.readInt();
+		numChoices = in.readInt();
+		numDistrs = in.readInt();
+		numTransitions = in.readInt();
+		initialStates.clear();
+		for (int s : ConstructModelCheckpoint.readInts(in, 0)) {
+			initialStates.add(s);
+		}
+		rowStarts = ConstructModelCheckpoint.readInts(in, numRows + 2);
+		choiceStarts = ConstructModelCheckpoint.readInts(in, numDistrs + 2);
+		if (shareDistrs) {
+			choiceDistrs = ConstructModelCheckpoint.readInts(in, numChoices + 1);
+		}
+		if (storeActions) {
+			actions = ConstructModelCheckpoint.readActions(in, numChoices + 1);
+		}
+		cols = ConstructModelCheckpoint.readInts(in, 64);
+		probs = ConstructModelCheckpoint.readDoubles(in, 64);
+		// Rebuild the hash table of distributions
+		if (shareDistrs) {
+			distrHashes = new int[numDistrs + 1];
+			distrTable = new int[Math.max(64, Integer.highestOneBit(numDistrs) * 4)];
+			Arrays.fill(distrTable, -1);
+			distrTableSize = 0;
+			for (int d = 0; d < numDistrs; d++) {
+				distrHashes[d] = hashDistribution(choiceStarts[d], choiceStarts[d + 1]);
+				insertDistribution(d);
+			}
+		}
+	}
+
+	// Local utility methods
+
+	/**
+	 * Normalise the current choice (or, for DTMCs, row): sort transitions by target,
+	 * sum the probabilities of duplicate targets (in the order added) and remove zeros.
+	 */
+	private void normaliseChoice()
+	{
+		int start = choiceStarts[numDistrs];
+		sortByColumn(cols, probs, start, numTransitions);
+		int k = start;
+		for (int i = start; i < numTransitions;) {
+			int col = cols[i];
+			double prob = probs[i++];
+			while (i < numTransitions && cols[i] == col) {
+				prob += probs[i++];
+			}
+			if (prob != 0.0) {
+				cols[k] = col;
+				probs[k] = prob;
+				k++;
+			}
+		}
+		numTransitions = k;
+	}
+
+	/**
+	 * Add the current (normalised) choice (or, for DTMCs, row).
+	 * If distributions are shared, and an identical one has already been added,
+	 * the transitions of the choice are discarded and the existing distribution is used.
+	 */
+	private void addChoice()
+	{
+		if (storeActions) {
+			actions = ensureCapacity(actions, numChoices + 1);
+			actions[numChoices] = currentAction;
+		}
+		int d = numDistrs;
+		if (shareDistrs) {
+			d = findOrInsertDistribution();
+			choiceDistrs = ensureCapacity(choiceDistrs, numChoices + 1);
+			choiceDistrs[numChoices] = d;
+		}
+		if (d == numDistrs) {
+			numDistrs++;
+			choiceStarts[numDistrs] = numTransitions;
+		} else {
+			numTransitions = choiceStarts[numDistrs];
+		}
+		numChoices++;
+	}
+
+	/**
+	 * Find an existing distribution identical to the one currently being added
+	 * and return its index or, if there is none, insert the latter into the hash table
+	 * and return its (new) index, i.e., numDistrs.
+	 */
+	private int findOrInsertDistribution()
+	{
+		int start = choiceStarts[numDistrs];
+		int hash = hashDistribution(start, numTransitions);
+		int mask = distrTable.length - 1;
+		for (int i = hash & mask; distrTable[i] != -1; i = (i + 1) & mask) {
+			int d = distrTable[i];
+			if (distrHashes[d] == hash && distributionEquals(d, start, numTransitions)) {
+				return d;
+			}
+		}
+		distrHashes = ensureCapacity(distrHashes, numDistrs + 1);
+		distrHashes[numDistrs] = hash;
+		insertDistribution(numDistrs);
+		return numDistrs;
+	}
+
+	/**
+	 * Insert distribution {@code d} (whose hash is already stored) into the hash table, growing it if needed.
+	 */
+	private void insertDistribution(int d)
+	{
+		if (2 * (distrTableSize + 1) > distrTable.length) {
+			int oldTable[] = distrTable;
+			distrTable = new int[oldTable.length * 2];
+			Arrays.fill(distrTable, -1);
+			for (int dOld : oldTable) {
+				if (dOld != -1) {
+					insertIntoTable(dOld);
+				}
+			}
+		}
+		insertIntoTable(d);
+		distrTableSize++;
+	}
+
+	private void insertIntoTable(int d)
+	{
+		int mask = distrTable.length - 1;
+		int i = distrHashes[d] & mask;
+		while (distrTable[i] != -1) {
+			i = (i + 1) & mask;
+		}
+		distrTable[i] = d;
+	}
+
+	/**
+	 * Compute a hash code for the transitions {@code start..end-1}.
+	 */
+	private int hashDistribution(int start, int end)
+	{
+		int hash = 1;
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + cols[i];
+			hash = 31 * hash + Double.hashCode(probs[i]);
+		}
+		// Spread the bits, since the table index uses the low ones
+		return hash ^ (hash >>> 16);
+	}
+
+	/**
+	 * Check whether distribution {@code d} has exactly the transitions {@code start..end-1}.
+	 */
+	private boolean distributionEquals(int d, int start, int end)
+	{
+		int dStart = choiceStarts[d];
+		if (choiceStarts[d + 1] - dStart != end - start) {
+			return false;
+		}
+		for (int i = 0; i < end - start; i++) {
+			if (cols[dStart + i] != cols[start + i] || probs[dStart + i] != probs[start + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Check whether (existing) choice {@code c} is the same as the choice currently being added,
+	 * i.e., has the same action and the same distribution (using the same tolerance as {@link Distribution#equals(Object)}).
+	 */
+	private boolean isCurrentChoiceEqualTo(int c)
+	{
+		int d = shareDistrs ? choiceDistrs[c] : c;
+		int start1 = choiceStarts[d], start2 = choiceStarts[numDistrs];
+		int n = choiceStarts[d + 1] - start1;
+		if (n != numTransitions - start2) {
+			return false;
+		}
+		if (storeActions && !Objects.equals(actions[c], currentAction)) {
+			return false;
+		}
+		for (int i = 0; i < n; i++) {
+			if (cols[start1 + i] != cols[start2 + i] || Math.abs(probs[start1 + i] - probs[start2 + i]) >= Distribution.ACCURACY) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Copy the transitions of (old) choice/distribution {@code cOld} of state {@code s}, into {@code newCols}/{@code newProbs},
+	 * starting at index {@code offset}, permuting and sorting targets.
+	 * If {@code cOld} is -1, a self-loop for (new) state {@code s} is added instead.
+	 */
+	private void copyTransitions(int cOld, int s, int permut[], int newCols[], double newProbs[], int offset)
+	{
+		if (cOld == -1 || (!nondet && isFixedDeadlock(cOld))) {
+			newCols[offset] = s;
+			newProbs[offset] = 1.0;
+			return;
+		}
+		int start = choiceStarts[cOld], end = choiceStarts[cOld + 1];
+		for (int i = start; i < end; i++) {
+			newCols[offset + i - start] = permut == null ? cols[i] : permut[cols[i]];
+			newProbs[offset + i - start] = probs[i];
+		}
+		if (permut != null) {
+			sortByColumn(newCols, newProbs, offset, offset + end - start);
+		}
+	}
+
+	/**
+	 * Is (old) state {@code s} a deadlock that is to be fixed?
+	 */
+	private boolean isFixedDeadlock(int s)
+	{
+		return fixDeadlocks && deadlocks.get(s);
+	}
+
+	/**
+	 * Copy initial states and deadlocks to a newly built model.
+	 */
+	private void copyStateInfo(ModelExplicit<?> model, int permut[])
+	{
+		for (int s : initialStates) {
+			model.addInitialState(permut == null ? s : permut[s]);
+		}
+		for (int s = deadlocks.nextSetBit(0); s >= 0; s = deadlocks.nextSetBit(s + 1)) {
+			model.addDeadlockState(permut == null ? s : permut[s]);
+		}
+	}
+
+	/**
+	 * Check that the transitions of all states have been added.
+	 */
+	private void checkComplete()
+	{
+		if (numRows != numStates) {
+			throw new IllegalStateException("Transitions only added for " + numRows + " of " + numStates + " states");
+		}
+	}
+
+	/**
+	 * Discard the storage used during construction.
+	 */
+	private void releaseStorage()
+	{
+		rowStarts = choiceStarts = choiceDistrs = distrHashes = distrTable = cols = null;
+		probs = null;
+		actions = null;
+	}
+
+	/**
+	 * Invert a permutation (or return null, if it is null).
+	 */
+	private static int[] invertPermutation(int permut[])
+	{
+		if (permut == null) {
+			return null;
+		}
+		int permutInv[] = new int[permut.length];
+		for (int i = 0; i < permut.length; i++) {
+			permutInv[permut[i]] = i;
+		}
+		return permutInv;
+	}
+
+	/**
+	 * Sort the entries {@code from..to-1} of {@code cols} (and, correspondingly, {@code probs})
+	 * in ascending order. The sort is stable.
+	 */
+	static void sortByColumn(int cols[], double probs[], int from, int to)
+	{
+		int n = to - from;
+		if (n <= 32) {
+			// Insertion sort for short ranges
+			for (int i = from + 1; i < to; i++) {
+				int col = cols[i];
+				double prob = probs[i];
+				int j = i - 1;
+				while (j >= from && cols[j] > col) {
+					cols[j + 1] = cols[j];
+					probs[j + 1] = probs[j];
+					j--;
+				}
+				cols[j + 1] = col;
+				probs[j + 1] = prob;
+			}
+		} else {
+			// Otherwise, sort (column, position) pairs encoded as longs
+			long keys[] = new long[n];
+			for (int i = 0; i < n; i++) {
+				keys[i] = ((long) cols[from + i] << 32) | i;
+			}
+			Arrays.sort(keys);
+			int sortedCols[] = new int[n];
+			double sortedProbs[] = new double[n];
+			for (int i = 0; i < n; i++) {
+				int j = (int) keys[i];
+				sortedCols[i] = cols[from + j];
+				sortedProbs[i] = probs[from + j];
+			}
+			System.arraycopy(sortedCols, 0, cols, from, n);
+			System.arraycopy(sortedProbs, 0, probs, from, n);
+		}
+	}
+
+	private static int[] ensureCapacity(int array[], int capacity)
+	{
+		return capacity <= array.length ? array : Arrays.copyOf(array, Math.max(capacity, array.length * 2));
+	}
+
+	private static Object[] ensureCapacity(Object array[], int capacity)
+	{
+		return capacity <= array.length ? array : Arrays.copyOf(array, Math.max(capacity, array.length * 2));
+	}
+}
@@ -0,0 +1,87 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package explicit;
+
+/**
+ * Kernels for the rows of sparse matrix-vector multiplication,
+ * i.e., sums {@code init + sum_k vals[k] * vect[cols[k]]} over a segment {@code [from,to)}
+ * of the compressed sparse row arrays of {@link DTMCSparse} and {@link MDPSparse}.
+ * <br>
+ * Long rows (e.g. of uniformised CTMCs or densely connected models) are summed with four
+ * independent accumulators, which removes the dependency between successive additions and
+ * lets the JIT compiler overlap the gathers and multiply-adds of the row segment.
+ * Short rows, which are the common case, use the plain scalar loop and so give exactly
+ * the same result as before; for long rows, the result may differ by rounding.
+ */
+final class SparseRowKernels
+{
+	/** Minimum row length for which the unrolled kernel is used */
+	static final int MIN_UNROLLED_ROW_LENGTH = 16;
+
+	private SparseRowKernels()
+	{
+	}
+
+	/**
+	 * Compute {@code init + sum_{k=from}^{to-1} vals[k] * vect[cols[k]]}.
+	 */
+	static double dot(double init, double[] vals, int[] cols, double[] vect, int from, int to)
+	{
+		if (to - from < MIN_UNROLLED_ROW_LENGTH) {
+			double d = init;
+			for (int k = from; k < to; k++) {
+				d += vals[k] * vect[cols[k]];
+			}
+			return d;
+		}
+		return init + dotUnrolled(vals, cols, vect, from, to);
+	}
+
+	/**
+	 * Compute {@code sum_{k=from}^{to-1} vals[k] * vect[cols[k]]} with four accumulators.
+	 */
+	private static double dotUnrolled(double[] vals, int[] cols, double[] vect, int from, int to)
+	{
+		double d0 = 0.0, d1 = 0.0, d2 = 0.0, d3 = 0.0;
+		int k = from;
+		for (int stop = to - 3; k < stop; k += 4) {
+			// Gather first, so that the four loads can be issued together
+			double x0 = vect[cols[k]];
+			double x1 = vect[cols[k + 1]];
+			double x2 = vect[cols[k + 2]];
+			double x3 = vect[cols[k + 3]];
+			d0 += vals[k] * x0;
+			d1 += vals[k + 1] * x1;
+			d2 += vals[k + 2] * x2;
+			d3 += vals[k + 3] * x3;
+		}
+		for (; k < to; k++) {
+			d0 += vals[k] * vect[cols[k]];
+		}
+		return (d0 + d1) + (d2 + d3);
+	}
+}
@@ -121,6 +121,12 @@ public class StateModelChecker extends PrismComponent
 	// Store the final results vector after model checking?
 	protected boolean storeVector = false;
 
+	// Cache of solutions for warm starting numerical computations (null if not used)
+	protected WarmStartCache warmStartCache = null;
+
+	// Cache of results for subformulas shared between properties (null if not used)
+	protected SubformulaCache subformulaCache = null;
+
 	// Generate/store a strategy during model checking?
 	protected boolean genStrat = false;
 	// Should any generated strategies should be restricted to the states reachable under them?
@@ -248,6 +254,8 @@ public class StateModelChecker extends PrismComponent
 		setExportProductVector(other.getExportProductVector());
 		setExportProductVectorFilename(other.getExportProductVectorFilename());
 		setStoreVector(other.getStoreVector());
+		setWarmStartCache(other.getWarmStartCache());
+		setSubformulaCache(other.getSubformulaCache());
 		setGenStrat(other.getGenStrat());
 		setRestrictStratToReach(other.getRestrictStratToReach());
 		setDoBisim(other.getDoBisim());
@@ -322,6 +330,24 @@ public class StateModelChecker extends PrismComponent
 		this.storeVector = storeVector;
 	}
 
+	/**
+	 * Set the cache of solution vectors used to warm start numerical computations
+	 * (e.g. across the points of an experiment). Pass null to disable warm starts.
+	 */
+	public void setWarmStartCache(WarmStartCache warmStartCache)
+	{
+		this.warmStartCache = warmStartCache;
+	}
+
+	/**
+	 * Set the cache of results for subformulas (shared between properties).
+	 * Pass null to disable caching.
+	 */
+	public void setSubformulaCache(SubformulaCache subformulaCache)
+	{
+		this.subformulaCache = subformulaCache;
+	}
+
 	/**
 	 * Specify whether or not a strategy should be generated during model checking.
 	 */
@@ -429,6 +455,22 @@ public class StateModelChecker extends PrismComponent
 		return storeVector;
 	}
 
+	/**
+	 * Get the cache of solution vectors used to warm start numerical computations (null if not used).
+	 */
+	public WarmStartCache getWarmStartCache()
+	{
+		return warmStartCache;
+	}
+
+	/**
+	 * Get the cache of results for subformulas (null if not used).
+	 */
+	public SubformulaCache getSubformulaCache()
+	{
+		return subformulaCache;
+	}
+
 	/**
 	 * Whether or not a strategy should be generated during model checking.
 	 */
@@ -568,6 +610,11 @@ public class StateModelChecker extends PrismComponent
 		// Remove any existing filter info
 		currentFilter = null;
 
+		// Numerical computations are warm started from those for the same property
+		if (warmStartCache != null) {
+			warmStartCache.startProperty(expr.toString());
+		}
+
 		// If we need to store a copy of the results vector, add a "store" filter to represent this
 		if (storeVector) {
 			ExpressionFilter exprFilter = new ExpressionFilter("store", expr);
@@ -706,6 +753,32 @@ public class StateModelChecker extends PrismComponent
 		return res;
 	}
 
+	/**
+	 * Whether results of subformulas can currently be taken from/stored in the subformula cache.
+	 * This is not done if model checking has side effects, i.e., strategy generation or exports.
+	 */
+	protected boolean useSubformulaCache()
+	{
+		return subformulaCache != null && !genStrat && !exportTarget && !exportProductTrans && !exportProductStates && !exportProductVector;
+	}
+
+	/**
+	 * Get the key for subformula {@code expr} in the subformula cache: a canonical form
+	 * in which property references and labels from the properties file are expanded
+	 * and constants replaced with their values. The values of all model/property constants
+	 * are included too, since a built model may be reused when only constants that
+	 * do not affect its structure (e.g., probabilities) change.
+	 */
+	protected String getSubformulaCacheKey(Expression expr) throws PrismLangException
+	{
+		Expression key = expr.deepCopy();
+		if (propertiesFile != null) {
+			key = (Expression) key.expandPropRefsAndLabels(propertiesFile, propertiesFile.getLabelList());
+		}
+		key = (Expression) key.replaceConstants(constantValues);
+		return key.simplify().toString() + " @ " + constantValues;
+	}
+
 	/**
 	 * Model check a binary operator.
 	 * @param statesOfInterest the states of interest, see checkExpression()
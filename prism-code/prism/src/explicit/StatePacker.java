@@ -0,0 +1,224 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package explicit;
+
+import parser.State;
+import parser.VarList;
+import parser.ast.DeclarationBool;
+import parser.ast.DeclarationInt;
+import parser.ast.DeclarationType;
+import prism.PrismException;
+import prism.PrismLangException;
+
+/**
+ * Class to encode model states as fixed-width bit vectors, packed into {@code long} words,
+ * using the variable bounds from a {@link VarList}. Only bounded integer and Boolean
+ * variables are supported (see {@link #canPack(VarList)}).
+ * <br><br>
+ * Variables are stored in order, each one in {@code ceil(log2(range))} bits,
+ * starting from the most significant bits of the first word. No variable spans two words.
+ * This means that comparing the words of two packed states lexicographically,
+ * as unsigned values, gives the same ordering as {@link State#compareTo(State)}.
+ */
+public class StatePacker
+{
+	/** Variable info */
+	protected VarList varList;
+	/** Number of variables */
+	protected int numVars;
+	/** Number of (long) words needed to store a state */
+	protected int numWords;
+	/** For each variable, the index of the word in which it is stored */
+	protected int varWord[];
+	/** For each variable, the offset (in bits, from the right) within its word */
+	protected int varShift[];
+	/** For each variable, a mask for the (unshifted) encoded value */
+	protected long varMask[];
+	/** For each variable, its lower bound (0 for Booleans) */
+	protected int varLow[];
+	/** For each variable, its upper bound (1 for Booleans) */
+	protected int varHigh[];
+	/** For each variable, whether it is a Boolean */
+	protected boolean varIsBool[];
+
+	/**
+	 * Check whether the variables in a {@link VarList} can be packed by this class,
+	 * i.e., whether they are all bounded integers or Booleans.
+	 */
+	public static boolean canPack(VarList varList)
+	{
+		int n = varList.getNumVars();
+		for (int i = 0; i < n; i++) {
+			DeclarationType declType = varList.getDeclarationType(i);
+			if (!(declType instanceof DeclarationInt || declType instanceof DeclarationBool)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Create a StatePacker for the variables in a {@link VarList}.
+	 * Throws an exception if some variable cannot be packed (see {@link #canPack(VarList)}).
+	 */
+	public StatePacker(VarList varList) throws PrismException
+	{
+		if (!canPack(varList)) {
+			throw new PrismException("States can only be packed if all variables are bounded integers or Booleans");
+		}
+		this.varList = varList;
+		numVars = varList.getNumVars();
+		varWord = new int[numVars];
+		varShift = new int[numVars];
+		varMask = new long[numVars];
+		varLow = new int[numVars];
+		varHigh = new int[numVars];
+		varIsBool = new boolean[numVars];
+		// Lay out variables, most significant bits first
+		int word = 0;
+		int bitsLeft = 64;
+		for (int i = 0; i < numVars; i++) {
+			int bits = Math.max(1, varList.getRangeLogTwo(i));
+			if (bits > bitsLeft) {
+				word++;
+				bitsLeft = 64;
+			}
+			bitsLeft -= bits;
+			varWord[i] = word;
+			varShift[i] = bitsLeft;
+			varMask[i] = (1L << bits) - 1;
+			varIsBool[i] = varList.getDeclarationType(i) instanceof DeclarationBool;
+			varLow[i] = varIsBool[i] ? 0 : varList.getLow(i);
+			varHigh[i] = varIsBool[i] ? 1 : varList.getHigh(i);
+		}
+		// Always use at least one word, so that every state has a distinct location
+		numWords = word + 1;
+	}
+
+	/**
+	 * Get the number of (long) words needed to store a single packed state.
+	 */
+	public int getNumWords()
+	{
+		return numWords;
+	}
+
+	/**
+	 * Get the variable info used to pack states.
+	 */
+	public VarList getVarList()
+	{
+		return varList;
+	}
+
+	/**
+	 * Pack a state into the array {@code dest}, starting at index {@code offset}.
+	 * Throws an exception if a variable value is of the wrong type or out of range.
+	 */
+	public void pack(State state, long dest[], int offset) throws PrismLangException
+	{
+		for (int w = 0; w < numWords; w++) {
+			dest[offset + w] = 0;
+		}
+		Object varValues[] = state.varValues;
+		for (int i = 0; i < numVars; i++) {
+			Object val = varValues[i];
+			long enc;
+			if (val instanceof Integer && !varIsBool[i]) {
+				int intVal = (Integer) val;
+				if (intVal < varLow[i] || intVal > varHigh[i]) {
+					throw new PrismLangException("Value " + val + " out of range for variable " + varList.getName(i));
+				}
+				enc = intVal - varLow[i];
+			} else if (val instanceof Boolean && varIsBool[i]) {
+				enc = ((Boolean) val) ? 1 : 0;
+			} else {
+				// Anything else (e.g. exact arithmetic): use the general-purpose encoding
+				enc = varList.encodeToInt(i, val);
+			}
+			dest[offset + varWord[i]] |= enc << varShift[i];
+		}
+	}
+
+	/**
+	 * Unpack a state stored in the array {@code src}, starting at index {@code offset},
+	 * into a new {@link State} object.
+	 */
+	public State unpack(long src[], int offset)
+	{
+		State state = new State(numVars);
+		for (int i = 0; i < numVars; i++) {
+			int enc = (int) ((src[offset + varWord[i]] >>> varShift[i]) & varMask[i]);
+			state.varValues[i] = varList.decodeFromInt(i, enc);
+		}
+		return state;
+	}
+
+	/**
+	 * Compute a hash code for the packed state stored in {@code data}, starting at index {@code offset}.
+	 */
+	public int hash(long data[], int offset)
+	{
+		long h = 0;
+		for (int w = 0; w < numWords; w++) {
+			h = h * 31 + data[offset + w];
+		}
+		// Finalise (as for MurmurHash3), since values are packed into the high bits of words
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return (int) h;
+	}
+
+	/**
+	 * Check if the packed states stored in {@code a} (from {@code aOffset}) and {@code b} (from {@code bOffset}) are equal.
+	 */
+	public boolean equals(long a[], int aOffset, long b[], int bOffset)
+	{
+		for (int w = 0; w < numWords; w++) {
+			if (a[aOffset + w] != b[bOffset + w])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Compare the packed states stored in {@code a} (from {@code aOffset}) and {@code b} (from {@code bOffset}).
+	 * The result is consistent with {@link State#compareTo(State)} on the unpacked states.
+	 */
+	public int compare(long a[], int aOffset, long b[], int bOffset)
+	{
+		for (int w = 0; w < numWords; w++) {
+			int c = Long.compareUnsigned(a[aOffset + w], b[bOffset + w]);
+			if (c != 0)
+				return c;
+		}
+		return 0;
+	}
+}
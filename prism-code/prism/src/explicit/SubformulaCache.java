@@ -0,0 +1,223 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package explicit;
+
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import parser.type.TypeBool;
+import prism.PrismException;
+
+/**
+ * Cache of the results of model checking subformulas (e.g. P/R/S operators), so that
+ * subformulas shared by several properties are only computed once for a model.
+ * <br>
+ * The cache is for a single model (see {@link #setModel(Model)}), typically the top-level built one;
+ * results for other models, e.g. products built for a single property, are neither stored nor
+ * returned, so that the cache does not keep them alive.
+ * Results are keyed by a canonical string for the subformula (see
+ * {@link StateModelChecker#getSubformulaCacheKey(parser.ast.Expression)}),
+ * and may have been computed for a subset of states only ("states of interest").
+ * Copies are stored and returned, since callers modify results in place.
+ * The total (estimated) size of stored results is bounded, evicting the least recently
+ * used ones first.
+ */
+public class SubformulaCache
+{
+	/** A stored result */
+	private static class Entry
+	{
+		BitSet statesOfInterest;
+		StateValues values;
+		long size;
+	}
+
+	/** The model that results are stored for (null if none) */
+	private Model<?> model = null;
+	/** Stored results, in access order (least recently used first) */
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	/** Maximum total size of stored results (bytes) */
+	private long maxSize;
+	/** Current total size of stored results (bytes) */
+	private long size = 0;
+
+	/**
+	 * Create a cache storing results of total (estimated) size at most {@code maxSize} bytes.
+	 */
+	public SubformulaCache(long maxSize)
+	{
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Set the maximum total (estimated) size of stored results, in bytes.
+	 */
+	public void setMaxSize(long maxSize)
+	{
+		this.maxSize = maxSize;
+		evict();
+	}
+
+	/**
+	 * Set the model that results are stored for. If it differs from the current one,
+	 * all stored results are removed.
+	 */
+	public void setModel(Model<?> model)
+	{
+		if (model != this.model) {
+			clear();
+			this.model = model;
+		}
+	}
+
+	/**
+	 * Get the model that results are stored for (null if none).
+	 */
+	public Model<?> getModel()
+	{
+		return model;
+	}
+
+	/**
+	 * Get the maximum total (estimated) size of stored results, in bytes.
+	 */
+	public long getMaxSize()
+	{
+		return maxSize;
+	}
+
+	/**
+	 * Get the current total (estimated) size of stored results, in bytes.
+	 */
+	public long getSize()
+	{
+		return size;
+	}
+
+	/**
+	 * Get the number of stored results.
+	 */
+	public int getNumEntries()
+	{
+		return entries.size();
+	}
+
+	/**
+	 * Get (a copy of) the result stored for subformula {@code key} on {@code model},
+	 * if {@code model} is the one that results are stored for (see {@link #setModel(Model)}) and the
+	 * result covers (at least) the states in {@code statesOfInterest} (null denotes all states).
+	 * Returns null otherwise.
+	 */
+	public StateValues get(Model<?> model, String key, BitSet statesOfInterest) throws PrismException
+	{
+		if (model != this.model) {
+			return null;
+		}
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			return null;
+		}
+		if (entry.statesOfInterest != null) {
+			if (statesOfInterest == null) {
+				return null;
+			}
+			BitSet missing = (BitSet) statesOfInterest.clone();
+			missing.andNot(entry.statesOfInterest);
+			if (!missing.isEmpty()) {
+				return null;
+			}
+		}
+		return entry.values.deepCopy();
+	}
+
+	/**
+	 * Store (a copy of) result {@code values} for subformula {@code key} on {@code model},
+	 * computed for the states in {@code statesOfInterest} (null denotes all states).
+	 * Nothing is stored if {@code model} is not the one that results are stored for
+	 * (see {@link #setModel(Model)}), or the result is larger than the maximum size of the cache.
+	 */
+	public void put(Model<?> model, String key, BitSet statesOfInterest, StateValues values) throws PrismException
+	{
+		if (model != this.model) {
+			return;
+		}
+		remove(key);
+		long entrySize = estimateSize(values);
+		if (entrySize > maxSize) {
+			return;
+		}
+		Entry entry = new Entry();
+		entry.statesOfInterest = statesOfInterest == null ? null : (BitSet) statesOfInterest.clone();
+		entry.values = values.deepCopy();
+		entry.size = entrySize;
+		entries.put(key, entry);
+		size += entrySize;
+		evict();
+	}
+
+	/**
+	 * Remove all stored results (and the model they are stored for).
+	 */
+	public void clear()
+	{
+		model = null;
+		entries.clear();
+		size = 0;
+	}
+
+	private void remove(String key)
+	{
+		Entry entry = entries.remove(key);
+		if (entry != null) {
+			size -= entry.size;
+		}
+	}
+
+	/**
+	 * Evict least recently used results until the total size is within the maximum.
+	 */
+	private void evict()
+	{
+		Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+		while (size > maxSize && it.hasNext()) {
+			size -= it.next().getValue().size;
+			it.remove();
+		}
+	}
+
+	/**
+	 * Estimate the memory used by a vector of values (in bytes): one bit per state for
+	 * Booleans, otherwise a reference and a boxed value per state.
+	 */
+	public static long estimateSize(StateValues values)
+	{
+		long n = values.getSize();
+		return values.getType() instanceof TypeBool ? n / 8 + 1 : n * 24;
+	}
+}
@@ -0,0 +1,174 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package explicit;
+
+import parser.State;
+import parser.VarList;
+import prism.PrismException;
+
+/**
+ * Symmetry reduction for explicit-state model construction.
+ * <br><br>
+ * The model is assumed to comprise a block of consecutive, identical (i.e. fully symmetric) modules,
+ * preceded by {@code i} and followed by {@code j} other modules, as for the symbolic engines
+ * (see {@link prism.PrismSettings#PRISM_SYMM_RED_PARAMS}). Each state is mapped to a canonical
+ * representative by sorting the variable blocks of the symmetric modules (lexicographically,
+ * using the variable order within each module). This is the same representative as chosen by
+ * the symbolic implementation, so the reduced state space is the same too.
+ * <br><br>
+ * As for the symbolic engines, it is up to the user to ensure that the modules are genuinely
+ * symmetric, and that the labels, rewards and properties used do not distinguish between them.
+ */
+public class SymmetryReduction
+{
+	/** Index of first variable of the first symmetric module */
+	private final int firstVar;
+	/** Number of variables in each symmetric module */
+	private final int blockSize;
+	/** Number of symmetric modules */
+	private final int numBlocks;
+
+	/**
+	 * Create a symmetry reduction for a model with variables {@code varList},
+	 * from a parameter string of the form "i j" (see {@link prism.PrismSettings#PRISM_SYMM_RED_PARAMS}).
+	 * Modules are identified from the module indices of the variables in {@code varList}.
+	 */
+	public SymmetryReduction(VarList varList, String params) throws PrismException
+	{
+		// Parse symmetry reduction parameters
+		String ss[] = params.split(" ");
+		if (ss.length != 2)
+			throw new PrismException("Invalid parameters for symmetry reduction");
+		int numModulesBeforeSymm, numModulesAfterSymm;
+		try {
+			numModulesBeforeSymm = Integer.parseInt(ss[0].trim());
+			numModulesAfterSymm = Integer.parseInt(ss[1].trim());
+		} catch (NumberFormatException e) {
+			throw new PrismException("Invalid parameters for symmetry reduction");
+		}
+		int numVars = varList.getNumVars();
+		int numModules = 0;
+		for (int v = 0; v < numVars; v++) {
+			numModules = Math.max(numModules, varList.getModule(v) + 1);
+		}
+		numBlocks = numModules - (numModulesBeforeSymm + numModulesAfterSymm);
+		if (numModulesBeforeSymm < 0 || numModulesAfterSymm < 0 || numBlocks < 1)
+			throw new PrismException("Invalid parameters for symmetry reduction");
+
+		// Find the (contiguous) variables of each symmetric module and check they match
+		int firstVar = -1, blockSize = 0;
+		for (int m = 0; m < numBlocks; m++) {
+			int module = numModulesBeforeSymm + m;
+			int start = 0;
+			while (start < numVars && varList.getModule(start) != module)
+				start++;
+			int end = start;
+			while (end < numVars && varList.getModule(end) == module)
+				end++;
+			for (int v = end; v < numVars; v++) {
+				if (varList.getModule(v) == module)
+					throw new PrismException("Variables of module " + module + " are not contiguous, so symmetry reduction is not possible");
+			}
+			if (m == 0) {
+				firstVar = start;
+				blockSize = end - start;
+				if (blockSize == 0)
+					throw new PrismException("Symmetric modules must contain at least one variable");
+			} else if (start != firstVar + m * blockSize || end - start != blockSize) {
+				throw new PrismException("Symmetric modules must have the same number of variables");
+			} else {
+				for (int k = 0; k < blockSize; k++) {
+					int v0 = firstVar + k, v = start + k;
+					if (!varList.getType(v).equals(varList.getType(v0)) || varList.getLow(v) != varList.getLow(v0) || varList.getHigh(v) != varList.getHigh(v0))
+						throw new PrismException("Variable " + varList.getName(v) + " does not match " + varList.getName(v0) + " for symmetry reduction");
+				}
+			}
+		}
+		this.firstVar = firstVar;
+		this.blockSize = blockSize;
+	}
+
+	/**
+	 * Get the number of symmetric modules.
+	 */
+	public int getNumSymmetricModules()
+	{
+		return numBlocks;
+	}
+
+	/**
+	 * Get the canonical representative of a state. If {@code state} is already
+	 * canonical, it is returned unchanged; otherwise, a new State is returned.
+	 */
+	public State canonicalise(State state)
+	{
+		State canon = state;
+		Object vals[] = state.varValues;
+		// Insertion sort on blocks (the number of symmetric modules is usually small)
+		for (int b = 1; b < numBlocks; b++) {
+			int c = b;
+			while (c > 0 && compareBlocks(vals, c - 1, c) > 0) {
+				if (canon == state) {
+					canon = new State(state);
+					vals = canon.varValues;
+				}
+				swapBlocks(vals, c - 1, c);
+				c--;
+			}
+		}
+		return canon;
+	}
+
+	/**
+	 * Compare the variable blocks of symmetric modules {@code b1} and {@code b2}.
+	 */
+	private int compareBlocks(Object vals[], int b1, int b2)
+	{
+		int i1 = firstVar + b1 * blockSize;
+		int i2 = firstVar + b2 * blockSize;
+		for (int k = 0; k < blockSize; k++) {
+			int c = State.compareObjects(vals[i1 + k], vals[i2 + k]);
+			if (c != 0)
+				return c;
+		}
+		return 0;
+	}
+
+	/**
+	 * Swap the variable blocks of symmetric modules {@code b1} and {@code b2}.
+	 */
+	private void swapBlocks(Object vals[], int b1, int b2)
+	{
+		int i1 = firstVar + b1 * blockSize;
+		int i2 = firstVar + b2 * blockSize;
+		for (int k = 0; k < blockSize; k++) {
+			Object tmp = vals[i1 + k];
+			vals[i1 + k] = vals[i2 + k];
+			vals[i2 + k] = tmp;
+		}
+	}
+}
@@ -0,0 +1,210 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package explicit;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import prism.ModelType;
+
+/**
+ * Cache of solution vectors from previous numerical computations, used to warm start
+ * the same computation on a later model, typically the next point of an experiment
+ * (i.e., a sweep over undefined constants), where the model is structurally identical
+ * or very similar.
+ * <br>
+ * Vectors are stored per property and per numerical computation within its model checking
+ * (identified by the order in which they are done), and are only returned for a model
+ * with the same numbers of states and transitions. Since the models may still differ,
+ * a stored vector is never used as it is: {@link #bounds} turns it into a certified
+ * lower and/or upper bound for the new solution, so that value iteration converges
+ * from the correct side and interval iteration remains sound.
+ */
+public class WarmStartCache
+{
+	/**
+	 * Functional interface for a single-state Bellman operator,
+	 * i.e., computing the new value for state {@code s} from vector {@code vect}.
+	 */
+	@FunctionalInterface
+	public interface StateUpdate
+	{
+		double apply(int s, double[] vect);
+	}
+
+	/**
+	 * Lower and upper vectors for a solution, e.g. certified bounds derived from a previous solution.
+	 * Either may be null, if not available.
+	 */
+	public static class Bounds
+	{
+		/** Lower vector (certified bounds: a vector x with x &lt;= F(x)) */
+		public final double[] below;
+		/** Upper vector (certified bounds: a vector x with x &gt;= F(x)) */
+		public final double[] above;
+
+		public Bounds(double[] below, double[] above)
+		{
+			this.below = below;
+			this.above = above;
+		}
+
+		public boolean isEmpty()
+		{
+			return below == null && above == null;
+		}
+	}
+
+	/** Maximum number of sweeps used when trying to certify a bound */
+	public static final int MAX_REPAIR_SWEEPS = 5;
+
+	/** Stored vectors, along with the size of the model they were computed for */
+	private static class Entry
+	{
+		ModelType modelType;
+		int numStates;
+		int numTransitions;
+		Bounds vects;
+	}
+
+	private final Map<String, Entry> entries = new HashMap<>();
+	private String currentProperty = "";
+	private int numComputations = 0;
+
+	/**
+	 * Start model checking of a (new) property: subsequent keys from {@link #nextKey(String)}
+	 * are numbered from 0 again.
+	 */
+	public void startProperty(String property)
+	{
+		currentProperty = property;
+		numComputations = 0;
+	}
+
+	/**
+	 * Get the key for the next numerical computation (of kind {@code kind}, e.g. "reach-min")
+	 * for the current property.
+	 */
+	public String nextKey(String kind)
+	{
+		return currentProperty + "#" + (numComputations++) + ":" + kind;
+	}
+
+	/**
+	 * Get the (lower/upper) vectors stored for {@code key}, if there are any and they were computed
+	 * for a model with the same type and numbers of states/transitions as {@code model}.
+	 * Returns null otherwise.
+	 */
+	public Bounds get(String key, Model<?> model)
+	{
+		Entry entry = entries.get(key);
+		if (entry == null || entry.modelType != model.getModelType() || entry.numStates != model.getNumStates() || entry.numTransitions != model.getNumTransitions()) {
+			return null;
+		}
+		return entry.vects;
+	}
+
+	/**
+	 * Store (copies of) the result of a computation for {@code model} under {@code key}:
+	 * its solution vector {@code soln} and, optionally, the lower/upper vectors
+	 * {@code bounds} it was selected from (e.g. by interval iteration).
+	 */
+	public void put(String key, Model<?> model, double[] soln, Bounds bounds)
+	{
+		Entry entry = new Entry();
+		entry.modelType = model.getModelType();
+		entry.numStates = model.getNumStates();
+		entry.numTransitions = model.getNumTransitions();
+		if (bounds == null) {
+			double[] copy = soln.clone();
+			entry.vects = new Bounds(copy, copy);
+		} else {
+			entry.vects = new Bounds(bounds.below.clone(), bounds.above.clone());
+		}
+		entries.put(key, entry);
+	}
+
+	/**
+	 * Remove all stored vectors.
+	 */
+	public void clear()
+	{
+		entries.clear();
+	}
+
+	/**
+	 * Derive bounds for the fixed point of a (monotone) Bellman operator F from previous vectors {@code prev}.
+	 * Values for {@code yes}/{@code no} states are fixed to 1/0. The lower bound is obtained from the
+	 * previous lower vector by repeatedly lowering any value above its update, until a sweep over the
+	 * {@code unknown} states changes nothing, at which point x &lt;= F(x) holds; the upper bound symmetrically,
+	 * yielding x &gt;= F(x). Each is given up on after {@link #MAX_REPAIR_SWEEPS} sweeps.
+	 * For a monotonic sweep, the previous lower (resp. upper) vector, if it was itself certified,
+	 * remains so whenever F grows (resp. shrinks), and then needs no repair at all.
+	 * <br>
+	 * These are bounds on the solution, and iterating F from either converges to it,
+	 * only if F has a unique fixed point (on the {@code unknown} states), which the caller must ensure
+	 * (e.g. by Prob0 precomputation for DTMCs and minimum probabilities of MDPs).
+	 */
+	public static Bounds bounds(Bounds prev, BitSet yes, BitSet no, BitSet unknown, StateUpdate update)
+	{
+		return new Bounds(repair(prev.below, yes, no, unknown, update, true), repair(prev.above, yes, no, unknown, update, false));
+	}
+
+	/**
+	 * Get a description of {@code bounds} for the log.
+	 */
+	public static String describe(Bounds bounds)
+	{
+		if (bounds.below != null) {
+			return bounds.above != null ? "lower and upper bound" : "lower bound";
+		}
+		return bounds.above != null ? "upper bound" : "neither lower nor upper bound";
+	}
+
+	private static double[] repair(double[] prev, BitSet yes, BitSet no, BitSet unknown, StateUpdate update, boolean below)
+	{
+		double[] x = new double[prev.length];
+		for (int s = 0; s < x.length; s++) {
+			x[s] = yes.get(s) ? 1.0 : no.get(s) ? 0.0 : Math.min(Math.max(prev[s], 0.0), 1.0);
+		}
+		for (int sweep = 0; sweep < MAX_REPAIR_SWEEPS; sweep++) {
+			boolean changed = false;
+			for (int s = unknown.nextSetBit(0); s >= 0; s = unknown.nextSetBit(s + 1)) {
+				double d = update.apply(s, x);
+				if (below ? d < x[s] : d > x[s]) {
+					x[s] = d;
+					changed = true;
+				}
+			}
+			if (!changed) {
+				return x;
+			}
+		}
+		return null;
+	}
+}
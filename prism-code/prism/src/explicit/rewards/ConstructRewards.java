@@ -27,13 +27,11 @@
 
 package explicit.rewards;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
-import java.io.IOException;
 import java.util.List;
 
 import explicit.DTMC;
+import explicit.ExplicitFilesParser;
 import explicit.MDP;
 import explicit.Model;
 import parser.State;
@@ -46,6 +44,7 @@ import prism.PrismComponent;
 import prism.PrismException;
 import prism.PrismLangException;
 import prism.PrismNotSupportedException;
+import prism.PrismSettings;
 import prism.RewardGenerator;
 import prism.RewardGenerator.RewardLookup;
 
@@ -116,6 +115,14 @@ public class ConstructRewards extends PrismComponent
 			rewards = rewSimple = new StateRewardsSimple<Value>();
 		}
 		rewards.setEvaluator(rewardGen.getRewardEvaluator());
+		// Use rewards computed during model construction, if available
+		PrecomputedRewards pre = getPrecomputedRewards(mc, rewardGen);
+		if (dbl && pre != null && pre.hasStateRewards(r)) {
+			for (int s = 0; s < numStates; s++) {
+				rewSA.addToStateReward(s, getAndCheckStateReward(s, pre, r, statesList));
+			}
+			return rewards;
+		}
 		// Add rewards to it
 		for (int s = 0; s < numStates; s++) {
 			if (rewardGen.rewardStructHasStateRewards(r)) {
@@ -136,6 +143,7 @@ public class ConstructRewards extends PrismComponent
 	 * @param rewardGen The RewardGenerator defining the rewards
 	 * @param r The index of the reward structure to build
 	 */
+	@SuppressWarnings("unchecked")
 	public <Value> Rewards<Value> buildMDPRewardStructure(MDP<Value> mdp, RewardGenerator<Value> rewardGen, int r) throws PrismException
 	{
 		int numStates = mdp.getNumStates();
@@ -144,10 +152,15 @@ public class ConstructRewards extends PrismComponent
 		// Create reward structure object
 		rewSimple = new MDPRewardsSimple<>(numStates);
 		rewSimple.setEvaluator(rewardGen.getRewardEvaluator());
+		// Use rewards computed during model construction, where available
+		boolean dbl = rewardGen.getRewardEvaluator().one() instanceof Double;
+		PrecomputedRewards pre = dbl ? getPrecomputedRewards(mdp, rewardGen) : null;
+		boolean preState = pre != null && pre.hasStateRewards(r);
+		boolean preAction = pre != null && pre.hasActionRewards(r);
 		// Add rewards to it
 		for (int s = 0; s < numStates; s++) {
 			if (rewardGen.rewardStructHasStateRewards(r)) {
-				Value rew = getAndCheckStateReward(s, rewardGen, r, statesList);
+				Value rew = preState ? (Value) getAndCheckStateReward(s, pre, r, statesList) : getAndCheckStateReward(s, rewardGen, r, statesList);
 				rewSimple.addToStateReward(s, rew);
 			}
 			if (rewardGen.rewardStructHasTransitionRewards(r)) {
@@ -157,13 +170,59 @@ public class ConstructRewards extends PrismComponent
 				}
 				int numChoices = mdp.getNumChoices(s);
 				for (int k = 0; k < numChoices; k++) {
-					Value rew = getAndCheckStateActionReward(s, mdp.getAction(s, k), rewardGen, r, statesList);
+					Object action = mdp.getAction(s, k);
+					int i = preAction ? pre.getActionIndex(s, action) : -1;
+					Value rew = i != -1 ? (Value) getAndCheckStateActionReward(s, pre, r, i, statesList) : getAndCheckStateActionReward(s, action, rewardGen, r, statesList);
 					rewSimple.addToTransitionReward(s, k, rew);
 				}
 			}
 		}
 		return rewSimple;
 	}
+
+	/**
+	 * Get the rewards computed, from a reward generator, during construction of a model, if any (null if none).
+	 */
+	private PrecomputedRewards getPrecomputedRewards(Model<?> model, RewardGenerator<?> rewardGen)
+	{
+		PrecomputedRewards pre = model.getPrecomputedRewards();
+		return (pre != null && pre.getRewardGenerator() == rewardGen && pre.getNumStates() == model.getNumStates()) ? pre : null;
+	}
+
+	/**
+	 * Get a state reward for a specific state and reward structure from rewards computed during model construction.
+	 * Also check that the state reward is legal. Throw an exception if not.
+	 * @param s The index of the state
+	 * @param pre The precomputed rewards
+	 * @param r The index of the reward structure to build
+	 * @param statesLists List of states (maybe needed for error reporting)
+	 */
+	private Double getAndCheckStateReward(int s, PrecomputedRewards pre, int r, List<State> statesList) throws PrismException
+	{
+		double rew = pre.getStateReward(r, s);
+		if (!Double.isFinite(rew) || rew < 0) {
+			checkStateReward(rew, statesList == null ? s : statesList.get(s), null);
+		}
+		return rew;
+	}
+
+	/**
+	 * Get a state-action reward for a specific state and reward structure from rewards computed during model construction.
+	 * Also check that the reward is legal. Throw an exception if not.
+	 * @param s The index of the state
+	 * @param pre The precomputed rewards
+	 * @param r The index of the reward structure to build
+	 * @param i The index of the (action, reward) pair (see {@link PrecomputedRewards#getActionIndex(int, Object)})
+	 * @param statesLists List of states (maybe needed for error reporting)
+	 */
+	private Double getAndCheckStateActionReward(int s, PrecomputedRewards pre, int r, int i, List<State> statesList) throws PrismException
+	{
+		double rew = pre.getActionReward(r, i);
+		if (!Double.isFinite(rew) || rew < 0) {
+			checkTransitionReward(rew, statesList == null ? s : statesList.get(s), null);
+		}
+		return rew;
+	}
 	
 	/**
 	 * Get a state reward for a specific state and reward structure from a RewardGenerator.
@@ -351,39 +410,13 @@ public class ConstructRewards extends PrismComponent
 	 */
 	public MCRewards<Double> buildMCRewardsFromPrismExplicit(DTMC<Double> mc, File rews, File rewt) throws PrismException
 	{
-		String s, ss[];
-		int i, lineNum = 0;
-		double reward;
 		StateRewardsArray rewSA = new StateRewardsArray(mc.getNumStates());
 
 		if (rews != null) {
-			// Open state rewards file, automatic close
-			try (BufferedReader in = new BufferedReader(new FileReader(rews))) {
-				// Ignore first line
-				s = in.readLine();
-				lineNum = 1;
-				if (s == null) {
-					throw new PrismException("Missing first line of state rewards file");
-				}
-				// Go though list of state rewards in file
-				s = in.readLine();
-				lineNum++;
-				while (s != null) {
-					s = s.trim();
-					if (s.length() > 0) {
-						ss = s.split(" ");
-						i = Integer.parseInt(ss[0]);
-						reward = Double.parseDouble(ss[1]);
-						checkStateReward(reward, i, null);
-						rewSA.setStateReward(i, reward);
-					}
-					s = in.readLine();
-					lineNum++;
-				}
-			} catch (IOException e) {
-				throw new PrismException("Could not read state rewards from file \"" + rews + "\"" + e);
-			} catch (NumberFormatException e) {
-				throw new PrismException("Problem in state rewards file (line " + lineNum + ") for MDP");
+			double rewards[] = createExplicitFilesParser().parseStateRewards(rews, mc.getNumStates());
+			for (int i = 0; i < rewards.length; i++) {
+				checkStateReward(rewards[i], i, null);
+				rewSA.setStateReward(i, rewards[i]);
 			}
 		}
 
@@ -402,78 +435,43 @@ public class ConstructRewards extends PrismComponent
 	 */
 	public MDPRewards<Double> buildMDPRewardsFromPrismExplicit(MDP<Double> mdp, File rews, File rewt) throws PrismException
 	{
-		String s, ss[];
-		int i, j, lineNum = 0;
-		double reward;
-		MDPRewardsSimple<Double> rs = new MDPRewardsSimple<>(mdp.getNumStates());
+		int numStates = mdp.getNumStates();
+		MDPRewardsSimple<Double> rs = new MDPRewardsSimple<>(numStates);
+		ExplicitFilesParser parser = createExplicitFilesParser();
 
 		if (rews != null) {
-			// Open state rewards file, automatic close
-			try (BufferedReader in = new BufferedReader(new FileReader(rews))) {
-				// Ignore first line
-				s = in.readLine();
-				lineNum = 1;
-				if (s == null) {
-					throw new PrismException("Missing first line of state rewards file");
+			double rewards[] = parser.parseStateRewards(rews, numStates);
+			for (int i = 0; i < rewards.length; i++) {
+				checkStateReward(rewards[i], i, null);
+				if (rewards[i] != 0.0) {
+					rs.setStateReward(i, rewards[i]);
 				}
-				// Go though list of state rewards in file
-				s = in.readLine();
-				lineNum++;
-				while (s != null) {
-					s = s.trim();
-					if (s.length() > 0) {
-						ss = s.split(" ");
-						i = Integer.parseInt(ss[0]);
-						reward = Double.parseDouble(ss[1]);
-						checkStateReward(reward, i, null);
-						rs.setStateReward(i, reward);
-					}
-					s = in.readLine();
-					lineNum++;
-				}
-			} catch (IOException e) {
-				throw new PrismException("Could not read state rewards from file \"" + rews + "\"" + e);
-			} catch (NumberFormatException e) {
-				throw new PrismException("Problem in state rewards file (line " + lineNum + ") for MDP");
 			}
 		}
 
 		if (rewt != null) {
-			// Open transition rewards file, automatic close
-			try (BufferedReader in = new BufferedReader(new FileReader(rewt))) {
-				// Ignore first line
-				s = in.readLine();
-				lineNum = 1;
-				if (s == null) {
-					throw new PrismException("Missing first line of transition rewards file");
-				}
-				// Go though list of transition rewards in file
-				s = in.readLine();
-				lineNum++;
-				while (s != null) {
-					s = s.trim();
-					if (s.length() > 0) {
-						ss = s.split(" ");
-						i = Integer.parseInt(ss[0]);
-						j = Integer.parseInt(ss[1]);
-						reward = Double.parseDouble(ss[3]);
-						checkTransitionReward(reward, i, null);
-						rs.setTransitionReward(i, j, reward);
-					}
-					s = in.readLine();
-					lineNum++;
-				}
-
-			} catch (IOException e) {
-				throw new PrismException("Could not read transition rewards from file \"" + rewt + "\"" + e);
-			} catch (NumberFormatException e) {
-				throw new PrismException("Problem in transition rewards file (line " + lineNum + ") for MDP");
+			// Lines are: state, choice, target, reward
+			ExplicitFilesParser.Records recs = parser.parse(rewt, "transition rewards file \"" + rewt + "\"", new int[] { numStates, Integer.MAX_VALUE, numStates }, false);
+			for (int k = 0; k < recs.getNumRecords(); k++) {
+				int i = recs.getInt(0, k);
+				int j = recs.getInt(1, k);
+				double reward = recs.getValue(k);
+				checkTransitionReward(reward, i, null);
+				rs.setTransitionReward(i, j, reward);
 			}
 		}
 
 		return rs;
 	}
 
+	/**
+	 * Create a parser for explicit files, using the number of threads from the settings.
+	 */
+	private ExplicitFilesParser createExplicitFilesParser()
+	{
+		return new ExplicitFilesParser(settings == null ? 1 : settings.getInteger(PrismSettings.PRISM_IMPORT_THREADS));
+	}
+
 	/**
 	 * Check that a state reward is legal. Throw an exception if not.
 	 * Optionally, provide a state where the error occurs (as an Object),
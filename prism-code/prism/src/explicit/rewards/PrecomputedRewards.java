@@ -0,0 +1,373 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package explicit.rewards;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+
+import explicit.ConstructModelCheckpoint;
+import prism.PrismException;
+import prism.RewardGenerator;
+
+/**
+ * Reward values for the reward structures of a {@link RewardGenerator},
+ * computed during model construction (see {@link explicit.ConstructModel}),
+ * and stored in primitive arrays indexed by state.
+ * {@link ConstructRewards} uses these, where available, rather than
+ * querying the reward generator again for every state and choice.
+ * <br><br>
+ * State-action rewards are stored, for each state, as a list of (action, reward) pairs,
+ * one for each distinct action of the state's choices.
+ * Values are added one state at a time, in order of state index,
+ * and a state index permutation can be applied once all states have been added.
+ * Reward structures for which values cannot be computed (e.g., because they are
+ * negative in some state) can be dropped; they are then built in the usual way, if needed.
+ */
+public class PrecomputedRewards
+{
+	/** Reward generator that rewards were computed from */
+	protected RewardGenerator<?> rewardGen;
+	/** Number of reward structures */
+	protected int numRewardStructs;
+
+	/** Number of states added */
+	protected int numStates;
+	/** State rewards for each reward structure (null if not stored) */
+	protected double stateRewards[][];
+	/** State-action rewards for each reward structure (null if not stored), one per (action, reward) pair */
+	protected double actionRewards[][];
+	/** Index of the first (action, reward) pair of each state, plus one extra entry */
+	protected int actionStarts[];
+	/** Number of (action, reward) pairs */
+	protected int numActions;
+	/** Actions of (action, reward) pairs */
+	protected Object actions[];
+
+	/**
+	 * Create storage for rewards computed from {@code rewardGen}.
+	 * @param rewardGen The reward generator
+	 * @param storeStateRewards Which reward structures to store state rewards for
+	 * @param storeActionRewards Which reward structures to store state-action rewards for
+	 */
+	public PrecomputedRewards(RewardGenerator<?> rewardGen, boolean storeStateRewards[], boolean storeActionRewards[])
+	{
+		this.rewardGen = rewardGen;
+		numRewardStructs = storeStateRewards.length;
+		stateRewards = new double[numRewardStructs][];
+		actionRewards = new double[numRewardStructs][];
+		boolean anyActions = false;
+		for (int r = 0; r < numRewardStructs; r++) {
+			if (storeStateRewards[r]) {
+				stateRewards[r] = new double[16];
+			}
+			if (storeActionRewards[r]) {
+				actionRewards[r] = new double[16];
+				anyActions = true;
+			}
+		}
+		if (anyActions) {
+			actionStarts = new int[16];
+			actions = new Object[16];
+		}
+	}
+
+	// Mutators (for use during model construction)
+
+	/**
+	 * Add a new state (with all rewards zero) and return its index.
+	 */
+	public int addState()
+	{
+		int s = numStates++;
+		for (int r = 0; r < numRewardStructs; r++) {
+			if (stateRewards[r] != null) {
+				stateRewards[r] = ensureCapacity(stateRewards[r], numStates);
+				stateRewards[r][s] = 0.0;
+			}
+		}
+		if (actionStarts != null) {
+			if (actionStarts.length < numStates + 1) {
+				actionStarts = Arrays.copyOf(actionStarts, Math.max(actionStarts.length * 2, numStates + 1));
+			}
+			actionStarts[s] = numActions;
+			actionStarts[numStates] = numActions;
+		}
+		return s;
+	}
+
+	/**
+	 * Set the state reward, for reward structure {@code r}, of the state last added.
+	 */
+	public void setStateReward(int r, double rew)
+	{
+		if (stateRewards[r] != null) {
+			stateRewards[r][numStates - 1] = rew;
+		}
+	}
+
+	/**
+	 * Add an action to the state last added, if not already present,
+	 * and return true if it was added. Its rewards are then set with
+	 * {@link #setActionReward(int, double)}.
+	 */
+	public boolean addAction(Object action)
+	{
+		if (actionStarts == null) {
+			return false;
+		}
+		for (int k = actionStarts[numStates - 1]; k < numActions; k++) {
+			if (Objects.equals(actions[k], action)) {
+				return false;
+			}
+		}
+		int k = numActions++;
+		if (actions.length < numActions) {
+			actions = Arrays.copyOf(actions, actions.length * 2);
+		}
+		actions[k] = action;
+		for (int r = 0; r < numRewardStructs; r++) {
+			if (actionRewards[r] != null) {
+				actionRewards[r] = ensureCapacity(actionRewards[r], numActions);
+				actionRewards[r][k] = 0.0;
+			}
+		}
+		actionStarts[numStates] = numActions;
+		return true;
+	}
+
+	/**
+	 * Set the state-action reward, for reward structure {@code r},
+	 * of the action last added (see {@link #addAction(Object)}).
+	 */
+	public void setActionReward(int r, double rew)
+	{
+		if (actionRewards[r] != null) {
+			actionRewards[r][numActions - 1] = rew;
+		}
+	}
+
+	/**
+	 * Discard the (state and state-action) rewards for reward structure {@code r}.
+	 */
+	public void removeRewardStruct(int r)
+	{
+		stateRewards[r] = null;
+		actionRewards[r] = null;
+	}
+
+	/**
+	 * Trim storage, once all states have been added, and optionally apply a
+	 * state index permutation: state index i becomes index permut[i].
+	 * @param permut State permutation (or null if none)
+	 */
+	public void finish(int permut[])
+	{
+		for (int r = 0; r < numRewardStructs; r++) {
+			if (stateRewards[r] != null) {
+				double rews[] = new double[numStates];
+				for (int s = 0; s < numStates; s++) {
+					rews[permut == null ? s : permut[s]] = stateRewards[r][s];
+				}
+				stateRewards[r] = rews;
+			}
+		}
+		if (actionStarts == null) {
+			return;
+		}
+		if (permut == null) {
+			actionStarts = Arrays.copyOf(actionStarts, numStates + 1);
+			actions = Arrays.copyOf(actions, numActions);
+			for (int r = 0; r < numRewardStructs; r++) {
+				if (actionRewards[r] != null) {
+					actionRewards[r] = Arrays.copyOf(actionRewards[r], numActions);
+				}
+			}
+			return;
+		}
+		// Permute the (action, reward) lists of states
+		int newStarts[] = new int[numStates + 1];
+		for (int s = 0; s < numStates; s++) {
+			newStarts[permut[s] + 1] = actionStarts[s + 1] - actionStarts[s];
+		}
+		for (int s = 0; s < numStates; s++) {
+			newStarts[s + 1] += newStarts[s];
+		}
+		Object newActions[] = new Object[numActions];
+		double newRews[][] = new double[numRewardStructs][];
+		for (int r = 0; r < numRewardStructs; r++) {
+			if (actionRewards[r] != null) {
+				newRews[r] = new double[numActions];
+			}
+		}
+		for (int s = 0; s < numStates; s++) {
+			int from = actionStarts[s];
+			int to = newStarts[permut[s]];
+			int n = actionStarts[s + 1] - from;
+			System.arraycopy(actions, from, newActions, to, n);
+			for (int r = 0; r < numRewardStructs; r++) {
+				if (newRews[r] != null) {
+					System.arraycopy(actionRewards[r], from, newRews[r], to, n);
+				}
+			}
+		}
+		actionStarts = newStarts;
+		actions = newActions;
+		actionRewards = newRews;
+	}
+
+	/**
+	 * Write the rewards added so far (e.g., for a checkpoint; see {@link explicit.ConstructModelCheckpoint}).
+	 */
+	public void writeTo(DataOutputStream out) throws IOException, PrismException
+	{
+		out.writeInt(numRewardStructs);
+		out.writeInt(numStates);
+		out.writeInt(numActions);
+		for (int r = 0; r < numRewardStructs; r++) {
+			out.writeBoolean(stateRewards[r] != null);
+			if (stateRewards[r] != null) {
+				ConstructModelCheckpoint.writeDoubles(out, stateRewards[r], numStates);
+			}
+			out.writeBoolean(actionRewards[r] != null);
+			if (actionRewards[r] != null) {
+				ConstructModelCheckpoint.writeDoubles(out, actionRewards[r], numActions);
+			}
+		}
+		out.writeBoolean(actionStarts != null);
+		if (actionStarts != null) {
+			ConstructModelCheckpoint.writeInts(out, actionStarts, numStates + 1);
+			ConstructModelCheckpoint.writeActions(out, actions, numActions);
+		}
+	}
+
+	/**
+	 * Replace the contents of this (newly created) object with the rewards
+	 * written by {@link #writeTo(DataOutputStream)}, so that model construction can be resumed.
+	 */
+	public void readFrom(DataInputStream in) throws IOException
+	{
+		if (in.readInt() != numRewardStructs) {
+			throw new IOException("number of reward structures does not match");
+		}
+		numStates = in.readInt();
+		numActions = in.readInt();
+		for (int r = 0; r < numRewardStructs; r++) {
+			stateRewards[r] = in.readBoolean() ? ConstructModelCheckpoint.readDoubles(in, 16) : null;
+			actionRewards[r] = in.readBoolean() ? ConstructModelCheckpoint.readDoubles(in, 16) : null;
+		}
+		if (in.readBoolean() != (actionStarts != null)) {
+			throw new IOException("reward structures do not match");
+		}
+		if (actionStarts != null) {
+			actionStarts = ConstructModelCheckpoint.readInts(in, numStates + 2);
+			actions = ConstructModelCheckpoint.readActions(in, 16);
+		}
+	}
+
+	// Accessors
+
+	/**
+	 * Get the number of reward structures (of the reward generator).
+	 */
+	public int getNumRewardStructs()
+	{
+		return numRewardStructs;
+	}
+
+	/**
+	 * Get the reward generator that the rewards were computed from.
+	 */
+	public RewardGenerator<?> getRewardGenerator()
+	{
+		return rewardGen;
+	}
+
+	/**
+	 * Get the number of states.
+	 */
+	public int getNumStates()
+	{
+		return numStates;
+	}
+
+	/**
+	 * Are state rewards stored for reward structure {@code r}?
+	 */
+	public boolean hasStateRewards(int r)
+	{
+		return r >= 0 && r < numRewardStructs && stateRewards[r] != null;
+	}
+
+	/**
+	 * Are state-action rewards stored for reward structure {@code r}?
+	 */
+	public boolean hasActionRewards(int r)
+	{
+		return r >= 0 && r < numRewardStructs && actionRewards[r] != null;
+	}
+
+	/**
+	 * Get the state reward, for reward structure {@code r}, of state {@code s}.
+	 */
+	public double getStateReward(int r, int s)
+	{
+		return stateRewards[r][s];
+	}
+
+	/**
+	 * Get the index of the (action, reward) pair for action {@code action} of state {@code s},
+	 * or -1 if there is none.
+	 */
+	public int getActionIndex(int s, Object action)
+	{
+		for (int k = actionStarts[s]; k < actionStarts[s + 1]; k++) {
+			if (Objects.equals(actions[k], action)) {
+				return k;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Get the state-action reward, for reward structure {@code r}, of the (action, reward) pair {@code k}
+	 * (see {@link #getActionIndex(int, Object)}).
+	 */
+	public double getActionReward(int r, int k)
+	{
+		return actionRewards[r][k];
+	}
+
+	// Local utility methods
+
+	private static double[] ensureCapacity(double arr[], int size)
+	{
+		return arr.length >= size ? arr : Arrays.copyOf(arr, Math.max(arr.length * 2, size));
+	}
+}
@@ -27,8 +27,10 @@
 package parser.ast;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import parser.EvaluateContext;
@@ -40,6 +42,7 @@ import parser.type.Type;
 import parser.type.TypeInterval;
 import parser.visitor.ASTTraverse;
 import parser.visitor.ASTVisitor;
+import parser.visitor.ClassifyUndefinedConstants;
 import parser.visitor.DeepCopy;
 import parser.visitor.ModulesFileSemanticCheck;
 import parser.visitor.ModulesFileSemanticCheckAfterConstants;
@@ -1299,6 +1302,16 @@ public class ModulesFile extends ASTElement implements ModelInfo, RewardGenerato
 		return constantList.getUndefinedConstants();
 	}
 
+	/**
+	 * Classify the undefined constants in the model according to the parts of the model
+	 * (structure, probabilities, rewards, labels) that they affect, directly or indirectly.
+	 * See {@link ClassifyUndefinedConstants} for details.
+	 */
+	public Map<String, EnumSet<ClassifyUndefinedConstants.Usage>> getUndefinedConstantUsages()
+	{
+		return ClassifyUndefinedConstants.classify(this);
+	}
+
 	@Override
 	public void setSomeUndefinedConstants(EvaluateContext ecUndefined) throws PrismLangException
 	{
@@ -0,0 +1,176 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package parser.visitor;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import parser.ast.ASTElement;
+import parser.ast.ConstantList;
+import parser.ast.Expression;
+import parser.ast.ExpressionConstant;
+import parser.ast.ExpressionLabel;
+import parser.ast.LabelList;
+import parser.ast.ModulesFile;
+import parser.ast.Updates;
+import prism.PrismLangException;
+
+/**
+ * Classify the undefined constants of a ModulesFile according to the parts of the model that they affect
+ * (including indirect uses, via the definitions of other constants).
+ * A constant affects the {@link Usage#STRUCTURE} if it appears anywhere other than in the
+ * probabilities/rates of updates, the reward structures or the labels,
+ * e.g. in guards, update assignments, variable declarations or initial states.
+ */
+public class ClassifyUndefinedConstants extends ASTTraverse
+{
+	/**
+	 * The parts of a model that can depend on a constant.
+	 */
+	public enum Usage
+	{
+		STRUCTURE, PROBABILITIES, REWARDS, LABELS
+	}
+
+	private ConstantList constantList;
+	private LabelList labelList;
+	private Map<String, EnumSet<Usage>> usages;
+	private Usage current = Usage.STRUCTURE;
+
+	/**
+	 * Constructor.
+	 * @param usages Map (from constant names) in which to store the usages found
+	 * @param constantList The constant definitions of the model
+	 * @param labelList The labels of the model
+	 */
+	public ClassifyUndefinedConstants(Map<String, EnumSet<Usage>> usages, ConstantList constantList, LabelList labelList)
+	{
+		this.usages = usages;
+		this.constantList = constantList;
+		this.labelList = labelList;
+	}
+
+	/**
+	 * Classify the undefined constants of a ModulesFile.
+	 * Every undefined constant is included in the returned map (with an empty set if unused).
+	 */
+	public static Map<String, EnumSet<Usage>> classify(ModulesFile modulesFile)
+	{
+		Map<String, EnumSet<Usage>> usages = new TreeMap<>();
+		for (String name : modulesFile.getUndefinedConstants()) {
+			usages.put(name, EnumSet.noneOf(Usage.class));
+		}
+		ClassifyUndefinedConstants visitor = new ClassifyUndefinedConstants(usages, modulesFile.getConstantList(), modulesFile.getLabelList());
+		try {
+			modulesFile.accept(visitor);
+		} catch (PrismLangException e) {
+			// Should not happen; ignore.
+		}
+		return usages;
+	}
+
+	@Override
+	public Object visit(ModulesFile e) throws PrismLangException
+	{
+		// Formulas have already been expanded, and constant definitions
+		// are only of interest where they are used, so skip them here
+		if (e.getLabelList() != null) {
+			visitAs(Usage.LABELS, e.getLabelList());
+		}
+		int n = e.getNumGlobals();
+		for (int i = 0; i < n; i++) {
+			if (e.getGlobal(i) != null) e.getGlobal(i).accept(this);
+		}
+		n = e.getNumModules();
+		for (int i = 0; i < n; i++) {
+			if (e.getModule(i) != null) e.getModule(i).accept(this);
+		}
+		if (e.getSystemDefn() != null) e.getSystemDefn().accept(this);
+		n = e.getNumRewardStructs();
+		for (int i = 0; i < n; i++) {
+			if (e.getRewardStruct(i) != null) visitAs(Usage.REWARDS, e.getRewardStruct(i));
+		}
+		if (e.getInitialStates() != null) e.getInitialStates().accept(this);
+		n = e.getNumObservableVarLists();
+		for (int i = 0; i < n; i++) {
+			if (e.getObservableVarList(i) != null) e.getObservableVarList(i).accept(this);
+		}
+		n = e.getNumObservableDefinitions();
+		for (int i = 0; i < n; i++) {
+			if (e.getObservableDefinition(i) != null) e.getObservableDefinition(i).accept(this);
+		}
+		return null;
+	}
+
+	@Override
+	public Object visit(Updates e) throws PrismLangException
+	{
+		int n = e.getNumUpdates();
+		for (int i = 0; i < n; i++) {
+			if (e.getProbability(i) != null) visitAs(Usage.PROBABILITIES, e.getProbability(i));
+			if (e.getUpdate(i) != null) e.getUpdate(i).accept(this);
+		}
+		return null;
+	}
+
+	@Override
+	public void visitPost(ExpressionConstant e) throws PrismLangException
+	{
+		addUsages(e);
+	}
+
+	@Override
+	public void visitPost(ExpressionLabel e) throws PrismLangException
+	{
+		addUsages(e);
+	}
+
+	/**
+	 * Record the current usage for the undefined constants used by an expression,
+	 * directly or within the definitions of other constants or labels.
+	 */
+	private void addUsages(Expression e)
+	{
+		List<String> names = e.getAllUndefinedConstantsRecursively(constantList, labelList, null);
+		for (String name : names) {
+			usages.computeIfAbsent(name, k -> EnumSet.noneOf(Usage.class)).add(current);
+		}
+	}
+
+	/**
+	 * Visit part of the model, recording any constants found as having the given usage.
+	 */
+	private void visitAs(Usage usage, ASTElement e) throws PrismLangException
+	{
+		Usage previous = current;
+		current = usage;
+		e.accept(this);
+		current = previous;
+	}
+}
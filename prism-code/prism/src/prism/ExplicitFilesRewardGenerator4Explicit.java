@@ -27,6 +27,8 @@
 
 package prism;
 
+import explicit.ExplicitFilesParser;
+
 import java.io.File;
 import java.util.Collections;
 import java.util.List;
@@ -37,11 +39,15 @@ import java.util.List;
 public class ExplicitFilesRewardGenerator4Explicit extends ExplicitFilesRewardGenerator
 {
 	protected double[][] stateRewards; // state reward structures
+	protected int numThreads = 1; // number of threads used to parse files
 
 	public ExplicitFilesRewardGenerator4Explicit(PrismComponent parent, List<File> stateRewardsFiles, int numStates) throws PrismException
 	{
 		super(parent, stateRewardsFiles, numStates);
 		stateRewards = new double[getNumRewardStructs()][];
+		if (settings != null) {
+			numThreads = settings.getInteger(PrismSettings.PRISM_IMPORT_THREADS);
+		}
 	}
 
 	public ExplicitFilesRewardGenerator4Explicit(PrismComponent parent, File stateRewardsFiles, int numStates) throws PrismException
@@ -62,7 +68,8 @@ public class ExplicitFilesRewardGenerator4Explicit extends ExplicitFilesRewardGe
 	}
 
 	/**
-	 * Lazily load rewards from file when requested.
+	 * Lazily load rewards from file when requested
+	 * (parsing the whole file at once, using {@link ExplicitFilesParser}).
 	 *
 	 * @param r The index of the reward structure to use
 	 * @param s The index of the state in which to evaluate the rewards
@@ -73,8 +80,7 @@ public class ExplicitFilesRewardGenerator4Explicit extends ExplicitFilesRewardGe
 	public Double getStateReward(int r, int s) throws PrismException
 	{
 		if (stateRewards[r] == null) {
-			stateRewards[r] = new double[numStates];
-			extractStateRewards(r);
+			stateRewards[r] = new ExplicitFilesParser(numThreads).parseStateRewards(stateRewardsFiles.get(r).file, numStates);
 		}
 		return stateRewards[r][s];
 	}
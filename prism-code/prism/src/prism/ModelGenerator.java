@@ -471,4 +471,16 @@ public interface ModelGenerator<Value> extends ModelInfo
 		// Undefined by default
 		throw new PrismException("Observation not defined");
 	}
+	
+	/**
+	 * Create a new, independent copy of this ModelGenerator, in the same state
+	 * with respect to constant values, but not sharing any data used for exploration.
+	 * This allows states to be explored concurrently, using one copy per thread.
+	 * Throws an exception if copying is not supported (which is the default).
+	 */
+	public default ModelGenerator<Value> createCopy() throws PrismException
+	{
+		// Not supported by default
+		throw new PrismNotSupportedException("Copying of this model generator is not supported");
+	}
 }
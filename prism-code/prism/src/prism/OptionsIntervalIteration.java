@@ -63,6 +63,12 @@ public class OptionsIntervalIteration
 	/** Enforce monotonicity in iteration from above? (default true) */
 	private boolean enforceMonotonicityAbove = true;
 
+	/** Use optimistic value iteration instead? (default false) */
+	private boolean optimistic = false;
+
+	/** Use sound value iteration instead? (default false) */
+	private boolean sound = false;
+
 	/** Manual lower bound (default none) */
 	private Double manualLowerBound = null;
 
@@ -132,6 +138,18 @@ public class OptionsIntervalIteration
 		return enforceMonotonicityAbove;
 	}
 
+	/** Use optimistic value iteration (guess and verify an upper bound) instead? */
+	public boolean isOptimistic()
+	{
+		return optimistic;
+	}
+
+	/** Use sound value iteration (bounds from step-bounded values and stay probabilities) instead? */
+	public boolean isSound()
+	{
+		return sound;
+	}
+
 	/** Is there a manual lower bound? */
 	public boolean hasManualLowerBound()
 	{
@@ -169,6 +187,8 @@ public class OptionsIntervalIteration
 		sb.append(" [no]monotonicbelow  Enforce monotonicity in iteration from below (default = yes)\n");
 		sb.append(" [no]monotonicabove  Enforce monotonicity in iteration from above (default = yes)\n");
 		sb.append(" [no]checkmonotonic  Check monotonicity, for testing (default = no)\n");
+		sb.append(" [no]optimistic      Use optimistic value iteration, i.e., guess and verify upper bounds (explicit engine, default = no)\n");
+		sb.append(" [no]sound           Use sound value iteration, i.e., derive bounds from step-bounded values (explicit engine, default = no)\n");
 		sb.append("\nExample: boundmethod=default,upper=3.0,noselectmidpoint,checkmonotonic\n");
 
 		return sb.toString();
@@ -203,6 +223,18 @@ public class OptionsIntervalIteration
 			case "nomonotonicabove":
 				enforceMonotonicityAbove = !option.startsWith("no");
 				break;
+			case   "optimistic":
+			case "nooptimistic":
+				optimistic = !option.startsWith("no");
+				// alternative to sound value iteration (the last one given applies)
+				sound &= !optimistic;
+				break;
+			case   "sound":
+			case "nosound":
+				sound = !option.startsWith("no");
+				// alternative to optimistic value iteration (the last one given applies)
+				optimistic &= !sound;
+				break;
 			case "lower":
 			case "upper": {
 				if (extra == null)
@@ -31,8 +31,12 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import common.iterable.Range;
 import dv.DoubleVector;
@@ -44,6 +48,7 @@ import explicit.DTMCModelChecker;
 import explicit.ExplicitFiles2Model;
 import explicit.FastAdaptiveUniformisation;
 import explicit.FastAdaptiveUniformisationModelChecker;
+import explicit.ModelExplicit;
 import explicit.ModelModelGenerator;
 import explicit.PartiallyObservableModel;
 import hybrid.PrismHybrid;
@@ -61,12 +66,17 @@ import param.ParamResult;
 import parser.PrismParser;
 import parser.State;
 import parser.Values;
+import parser.VarList;
+import parser.ast.DeclarationInt;
+import parser.ast.DeclarationType;
 import parser.ast.Expression;
 import parser.ast.ForLoop;
 import parser.ast.LabelList;
 import parser.ast.ModulesFile;
 import parser.ast.PropertiesFile;
 import parser.ast.Property;
+import parser.type.Type;
+import parser.visitor.ClassifyUndefinedConstants;
 import prism.Accuracy.AccuracyLevel;
 import pta.DigitalClocks;
 import pta.PTAModelChecker;
@@ -115,6 +125,8 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 	public static final int BSOR = 9;
 	public static final int PSOR = 10;
 	public static final int BPSOR = 11;
+	public static final int GMRES = 12;
+	public static final int BICGSTAB = 13;
 
 	// methods for solving MDPs
 	public static final int MDP_VALITER = 1;
@@ -122,6 +134,7 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 	public static final int MDP_POLITER = 3;
 	public static final int MDP_MODPOLITER = 4;
 	public static final int MDP_LP = 5;
+	public static final int MDP_PRIOVALITER = 6;
 
 	// methods for solving multi-objective queries on MDPs
 	public static final int MDP_MULTI_VALITER = 1;
@@ -225,7 +238,7 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 	//------------------------------------------------------------------------------
 
 	public enum ModelSource {
-		PRISM_MODEL, MODEL_GENERATOR, EXPLICIT_FILES, BUILT_MODEL
+		PRISM_MODEL, MODEL_GENERATOR, EXPLICIT_FILES, BINARY_FILE, BUILT_MODEL
 	}
 
 	public enum ModelBuildType {
@@ -262,6 +275,17 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 
 	// The last strategy that was generated
 	private Strategy<?> strategy = null;
+
+	// Solutions kept for warm starting explicit numerical computations (e.g. across experiments)
+	private explicit.WarmStartCache warmStartCache = new explicit.WarmStartCache();
+	// Results of subformulas for the current (explicit) model, shared between properties
+	private explicit.SubformulaCache subformulaCache = new explicit.SubformulaCache(0);
+	// Variables referred to by properties checked on the current model, which must be
+	// treated as visible when building it with partial-order reduction
+	private Set<String> porVisibleVars = new HashSet<>();
+	// Whether partial-order reduction is disabled for the current model,
+	// because a property checked on it is not preserved by the reduction
+	private boolean porDisabled = false;
 	
 	// Info for explicit files load
 	private File explicitFilesStatesFile = null;
@@ -270,6 +294,9 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 	private List<File> explicitFilesStateRewardsFiles = new ArrayList<>();
 	private int explicitFilesNumStates = -1;
 
+	// Model read from a binary model file (see explicit.BinaryModelFile)
+	private explicit.ModelExplicit<Double> binaryFileModel = null;
+
 	// Has the CUDD library been initialised yet?
 	private boolean cuddStarted = false;
 
@@ -1035,6 +1062,8 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 	 */
 	public void notifySettings(PrismSettings settings)
 	{
+		// Cached subformula results may depend on the settings used to compute them
+		subformulaCache.clear();
 		if (cuddStarted) {
 			JDD.SetCUDDEpsilon(settings.getDouble(PrismSettings.PRISM_CUDD_EPSILON));
 			try {
@@ -1579,8 +1608,12 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		currentModelGenerator = null;
 		currentRewardGenerator = null;
 		currentDefinedMFConstants = null;
-		// Clear built model storage too
+		binaryFileModel = null;
+		porVisibleVars.clear();
+		porDisabled = false;
+		// Clear built model storage too (and solutions kept for warm starts)
 		clearBuiltModel();
+		warmStartCache.clear();
 	}
 	
 	/**
@@ -1605,8 +1638,11 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		// If we build a ModelGenerator too, that can be used for rewards too
 		currentRewardGenerator = modulesFile;
 		currentDefinedMFConstants = null;
-		// Clear any existing built model(s)
+		porVisibleVars.clear();
+		porDisabled = false;
+		// Clear any existing built model(s) and solutions kept for warm starts
 		clearBuiltModel();
+		warmStartCache.clear();
 		// Print basic model info
 		mainLog.println();
 		mainLog.println("Type:        " + currentModelInfo.getModelType());
@@ -1654,8 +1690,11 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 			currentRewardGenerator = new RewardGenerator<Object>() {};
 		}
 		currentDefinedMFConstants = null;
-		// Clear any existing built model(s)
+		porVisibleVars.clear();
+		porDisabled = false;
+		// Clear any existing built model(s) and solutions kept for warm starts
 		clearBuiltModel();
+		warmStartCache.clear();
 		// Print basic model info
 		mainLog.println();
 		mainLog.println("Generator: " + currentModelGenerator.getClass().getName());
@@ -1695,8 +1734,15 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 			return;
 		}
 
-		// Clear any existing built model(s)
-		clearBuiltModel();
+		// Clear any existing built model(s), unless the changed constants do not
+		// affect the model structure, in which case the model can (possibly) be reused
+		EnumSet<ClassifyUndefinedConstants.Usage> changedUsages = getChangedConstantUsages(definedMFConstants, exact);
+		boolean reuseModel = changedUsages != null && !changedUsages.contains(ClassifyUndefinedConstants.Usage.STRUCTURE);
+		if (reuseModel) {
+			clearStrategy();
+		} else {
+			clearBuiltModel();
+		}
 		// Store constants here and in ModulesFile
 		currentDefinedMFConstants = definedMFConstants;
 		currentDefinedMFConstantsAreExact = exact;
@@ -1706,6 +1752,9 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		if (currentModelGenerator != null) {
 			currentModelGenerator.setSomeUndefinedConstants(definedMFConstants, exact);
 		}
+		if (reuseModel && !updateBuiltModelConstants(changedUsages)) {
+			clearBuiltModel();
+		}
 
 		// If required, export parsed PRISM model, with constants expanded
 		if (exportPrismConst) {
@@ -1792,6 +1841,82 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		currentDefinedMFConstants = null;
 	}
 
+	/**
+	 * Load a model (DTMC or MDP) from a binary model file (see {@link explicit.BinaryModelFile}).
+	 * The file is read immediately; the model can only be used with the explicit engine.
+	 * If the file does not include states, a single variable x is used, whose value is the state index.
+	 * @param file The binary model file
+	 */
+	public void loadModelFromBinaryFile(File file) throws PrismException
+	{
+		currentModelSource = ModelSource.BINARY_FILE;
+		// Clear any existing built model(s)
+		clearBuiltModel();
+		// Read model
+		binaryFileModel = explicit.BinaryModelFile.read(file);
+		if (binaryFileModel.getStatesList() == null) {
+			VarList varList = new VarList();
+			varList.addVar("x", new DeclarationInt(Expression.Int(0), Expression.Int(Math.max(binaryFileModel.getNumStates() - 1, 0))), -1);
+			List<State> states = new ArrayList<>(binaryFileModel.getNumStates());
+			for (int i = 0; i < binaryFileModel.getNumStates(); i++) {
+				states.add(new State(1).setValue(0, i));
+			}
+			binaryFileModel.setVarList(varList);
+			binaryFileModel.setStatesList(states);
+		}
+		// Construct ModelInfo (and an empty RewardGenerator: binary files do not store rewards)
+		ModelType modelType = binaryFileModel.getModelType();
+		VarList varList = binaryFileModel.getVarList();
+		List<String> labelNames = new ArrayList<>(binaryFileModel.getLabels());
+		currentModelInfo = new ModelInfo()
+		{
+			@Override
+			public ModelType getModelType()
+			{
+				return modelType;
+			}
+
+			@Override
+			public List<String> getVarNames()
+			{
+				List<String> varNames = new ArrayList<>();
+				for (int v = 0; v < varList.getNumVars(); v++) {
+					varNames.add(varList.getName(v));
+				}
+				return varNames;
+			}
+
+			@Override
+			public List<Type> getVarTypes()
+			{
+				List<Type> varTypes = new ArrayList<>();
+				for (int v = 0; v < varList.getNumVars(); v++) {
+					varTypes.add(varList.getType(v));
+				}
+				return varTypes;
+			}
+
+			@Override
+			public DeclarationType getVarDeclarationType(int i)
+			{
+				return varList.getDeclarationType(i);
+			}
+
+			@Override
+			public List<String> getLabelNames()
+			{
+				return labelNames;
+			}
+		};
+		currentModulesFile = null;
+		currentRewardGenerator = new RewardGenerator<Double>()
+		{
+		};
+		// Reset dependent info
+		currentModelType = modelType;
+		currentDefinedMFConstants = null;
+	}
+
 	/**
 	 * Get the type of the currently stored model.
 	 */
@@ -1849,6 +1974,7 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 				throw new PrismException("There is no currently loaded model generator");
 			case BUILT_MODEL:
 			case EXPLICIT_FILES:
+			case BINARY_FILE:
 				// If possible, model building from files creates a ModelGenerator too 
 				buildModelIfRequired();
 				break;
@@ -1960,6 +2086,20 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 	 */
 	private void chooseEngineForModelBuild()
 	{
+		// Binary model files can only be used with the explicit engine
+		if (currentModelSource == ModelSource.BINARY_FILE) {
+			if (getCurrentEngine() == PrismEngine.SYMBOLIC) {
+				mainLog.println("\nSwitching to explicit engine, which supports binary model files...");
+				engineOld = getEngine();
+				engineSwitched = true;
+				try {
+					setEngine(Prism.EXPLICIT);
+				} catch (PrismException e) {
+					// Won't happen
+				}
+			}
+			return;
+		}
 		// For some models, automatically switch engine
 		switch (currentModelType) {
 			case IDTMC:
@@ -2058,6 +2198,10 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 					}
 					ConstructModel constructModel = new ConstructModel(this);
 					constructModel.setFixDeadlocks(getFixDeadlocks());
+					if (porDisabled) {
+						constructModel.setPartialOrderReduction(false);
+					}
+					constructModel.setPartialOrderReductionVisibleVars(porVisibleVars);
 					currentModelExpl = constructModel.constructModel(currentModelGenerator);
 					currentModel = null;
 					currentModelBuildType = ModelBuildType.EXPLICIT;
@@ -2074,6 +2218,13 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 					efrg4e.setStatesList(currentModelExpl.getStatesList());
 					currentRewardGenerator = efrg4e;
 					break;
+				case BINARY_FILE:
+					currentModelExpl = binaryFileModel;
+					currentModel = null;
+					currentModelBuildType = ModelBuildType.EXPLICIT;
+					// Also build a ModelGenerator (e.g. for simulation)
+					currentModelGenerator = new ModelModelGenerator<>(currentModelExpl, currentModelInfo);
+					break;
 				default:
 					throw new PrismException("Cannot do explicit model construction for model source " + currentModelSource);
 				}
@@ -2408,6 +2559,23 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		}
 	}
 
+	/**
+	 * Export the currently loaded model (a DTMC or MDP, built with the explicit engine)
+	 * to a binary model file (see {@link explicit.BinaryModelFile}).
+	 * @param file File to export to
+	 */
+	public void exportBuiltModelToBinaryFile(File file) throws PrismException
+	{
+		// Build model, if necessary
+		buildModelIfRequired();
+		if (currentModelBuildType != ModelBuildType.EXPLICIT) {
+			throw new PrismNotSupportedException("Binary model export is only supported by the explicit engine");
+		}
+
+		mainLog.println("\nExporting model in binary format " + getDestinationStringForFile(file));
+		explicit.BinaryModelFile.write(currentModelExpl, file);
+	}
+
 	/**
 	 * Export the currently loaded model's state rewards to a file (or files, or stdout).
 	 * If there is more than 1 reward structure, then multiple files are generated
@@ -3114,6 +3282,12 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 			setEngine(Prism.EXPLICIT);
 		}
 		try {
+			// For partial-order reduction, the property must be preserved by the reduction
+			// and the variables referred to by it must be visible
+			if (getCurrentEngine() == PrismEngine.EXPLICIT && currentModelType == ModelType.MDP && settings.getBoolean(PrismSettings.PRISM_POR)) {
+				preparePartialOrderReduction(propertiesFile, prop.getExpression());
+			}
+
 			// Build model, if necessary
 			buildModelIfRequired();
 
@@ -3172,6 +3346,42 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		return res;
 	}
 
+	/**
+	 * Prepare partial-order reduction for checking property {@code expr}: if the reduction
+	 * does not preserve the property, disable it for the current model; otherwise, make the
+	 * variables referred to by the property (including via labels from the properties file)
+	 * visible for the reduction. If either changes, the model is rebuilt when next needed.
+	 */
+	private void preparePartialOrderReduction(PropertiesFile propertiesFile, Expression expr) throws PrismException
+	{
+		if (porDisabled) {
+			return;
+		}
+		Expression exprExpanded = expr.deepCopy();
+		if (propertiesFile != null) {
+			exprExpanded = (Expression) exprExpanded.expandPropRefsAndLabels(propertiesFile, propertiesFile.getLabelList());
+		}
+		if (currentModulesFile != null) {
+			try {
+				explicit.PartialOrderReduction.checkPropertyPreserved(exprExpanded, currentModulesFile);
+			} catch (PrismNotSupportedException e) {
+				mainLog.printWarning(e.getMessage() + ", so building the full model");
+				porDisabled = true;
+				if (currentModelBuildType == ModelBuildType.EXPLICIT) {
+					clearBuiltModel();
+				}
+				return;
+			}
+		}
+		List<String> vars = exprExpanded.getAllVars();
+		if (!porVisibleVars.containsAll(vars)) {
+			porVisibleVars.addAll(vars);
+			if (currentModelBuildType == ModelBuildType.EXPLICIT) {
+				clearBuiltModel();
+			}
+		}
+	}
+
 	/**
 	 * Perform model checking of a property on the currently loaded PTA PRISM model and return result.
 	 * @param propertiesFile Parent property file of property (for labels/constants/...)
@@ -4027,6 +4237,78 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		}*/
 	}
 
+	/**
+	 * Determine which parts of the currently built model are affected by a change of the
+	 * (undefined) model constants to {@code definedMFConstants}, see {@link ClassifyUndefinedConstants}.
+	 * This is only done for models built by the explicit engine from a PRISM model;
+	 * otherwise (or if there is no built model) null is returned.
+	 */
+	private EnumSet<ClassifyUndefinedConstants.Usage> getChangedConstantUsages(Values definedMFConstants, boolean exact)
+	{
+		if (currentModelSource != ModelSource.PRISM_MODEL || currentModulesFile == null || currentModelGenerator == null) {
+			return null;
+		}
+		if (!(currentModelExpl instanceof ModelExplicit) || currentModelBuildType != ModelBuildType.EXPLICIT) {
+			return null;
+		}
+		if (currentDefinedMFConstants == null || definedMFConstants == null || currentDefinedMFConstantsAreExact != exact) {
+			return null;
+		}
+		if (!new HashSet<>(currentDefinedMFConstants.getNames()).equals(new HashSet<>(definedMFConstants.getNames()))) {
+			return null;
+		}
+		Map<String, EnumSet<ClassifyUndefinedConstants.Usage>> usages = currentModulesFile.getUndefinedConstantUsages();
+		EnumSet<ClassifyUndefinedConstants.Usage> changedUsages = EnumSet.noneOf(ClassifyUndefinedConstants.Usage.class);
+		int n = definedMFConstants.getNumValues();
+		for (int i = 0; i < n; i++) {
+			String name = definedMFConstants.getName(i);
+			Object oldValue = currentDefinedMFConstants.getValue(currentDefinedMFConstants.getIndexOf(name));
+			if (!Objects.equals(oldValue, definedMFConstants.getValue(i))) {
+				EnumSet<ClassifyUndefinedConstants.Usage> usage = usages.get(name);
+				if (usage == null) {
+					return null;
+				}
+				changedUsages.addAll(usage);
+			}
+		}
+		return changedUsages;
+	}
+
+	/**
+	 * Update the currently built (explicit) model after a change of model constants
+	 * that only affects the parts of the model in {@code changedUsages} (probabilities/rewards/labels).
+	 * Transition probabilities are re-evaluated in place, if possible (see {@link ConstructModel#rebuildProbabilities}),
+	 * precomputed rewards are discarded (so that they are recomputed when needed)
+	 * and attached labels are re-evaluated.
+	 * Returns false if the model could not be updated, and so needs to be rebuilt.
+	 */
+	private boolean updateBuiltModelConstants(EnumSet<ClassifyUndefinedConstants.Usage> changedUsages) throws PrismException
+	{
+		ModelExplicit<?> model = (ModelExplicit<?>) currentModelExpl;
+		if (changedUsages.contains(ClassifyUndefinedConstants.Usage.PROBABILITIES)) {
+			mainLog.println("\nRe-evaluating transition probabilities of built model...");
+			long l = System.currentTimeMillis();
+			ConstructModel constructModel = new ConstructModel(this);
+			constructModel.setFixDeadlocks(getFixDeadlocks());
+			if (!constructModel.rebuildProbabilities(currentModelGenerator, model)) {
+				mainLog.println("Transition structure has changed, so the model will be rebuilt");
+				return false;
+			}
+			l = System.currentTimeMillis() - l;
+			mainLog.println("Time for re-evaluation: " + l / 1000.0 + " seconds.");
+		} else {
+			mainLog.println("\nReusing built model (changed constants only affect rewards/labels)");
+		}
+		model.setConstantValues(new Values(currentModelGenerator.getConstantValues()));
+		if (changedUsages.contains(ClassifyUndefinedConstants.Usage.REWARDS)) {
+			model.setPrecomputedRewards(null);
+		}
+		if (changedUsages.contains(ClassifyUndefinedConstants.Usage.LABELS) && !model.getLabels().isEmpty()) {
+			ConstructModel.attachLabels(currentModelGenerator, model);
+		}
+		return true;
+	}
+
 	/**
 	 * Clear the built model if needed (free/deallocate memory etc).
 	 * This resets {@code currentModel} and {@code currentModelExpl} to {@code null}.
@@ -4041,6 +4323,7 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		currentModelExpl = null;
 		currentModelBuildType = null;
 		clearStrategy();
+		subformulaCache.clear();
 	}
 
 	/**
@@ -4123,6 +4406,10 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		mc.setExportProductVector(exportProductVector);
 		mc.setExportProductVectorFilename(exportProductVectorFilename);
 		mc.setStoreVector(storeVector);
+		mc.setWarmStartCache(settings.getBoolean(PrismSettings.PRISM_WARM_START) ? warmStartCache : null);
+		subformulaCache.setMaxSize(settings.getInteger(PrismSettings.PRISM_SUBFORMULA_CACHE) * 1024L * 1024L);
+		subformulaCache.setModel(currentModelExpl);
+		mc.setSubformulaCache(subformulaCache.getMaxSize() > 0 ? subformulaCache : null);
 		mc.setGenStrat(genStrat);
 		mc.setRestrictStratToReach(restrictStratToReach);
 		mc.setDoBisim(doBisim);
@@ -75,6 +75,7 @@ public class PrismCL implements PrismModelListener
 	private boolean importpepa = false;
 	private boolean importprismpp = false;
 	private boolean importtrans = false;
+	private boolean importbinary = false;
 	private boolean importstates = false;
 	private boolean importlabels = false;
 	private boolean importstaterewards = false;
@@ -83,6 +84,7 @@ public class PrismCL implements PrismModelListener
 	private boolean steadystate = false;
 	private boolean dotransient = false;
 	private boolean exporttrans = false;
+	private boolean exportbinary = false;
 	private boolean exportstaterewards = false;
 	private boolean exporttransrewards = false;
 	private boolean exportstates = false;
@@ -145,6 +147,7 @@ public class PrismCL implements PrismModelListener
 	private String importModelWarning = null;
 	private String propertiesFilename = null;
 	private String exportTransFilename = null;
+	private String exportBinaryFilename = null;
 	private String exportStateRewardsFilename = null;
 	private String exportTransRewardsFilename = null;
 	private String exportStatesFilename = null;
@@ -686,6 +689,9 @@ public class PrismCL implements PrismModelListener
 				}
 				mainLog.println("...");
 				prism.loadModelFromExplicitFiles(sf, new File(modelFilename), lf, srf, typeOverride);
+			} else if (importbinary) {
+				mainLog.print("\nImporting binary model file \"" + modelFilename + "\"...\n");
+				prism.loadModelFromBinaryFile(new File(modelFilename));
 			} else {
 				mainLog.print("\nParsing model file \"" + modelFilename + "\"...\n");
 				modulesFile = prism.parseModelFile(new File(modelFilename), typeOverride);
@@ -776,6 +782,7 @@ public class PrismCL implements PrismModelListener
 	{
 		if (param || prism.getSettings().getBoolean(PrismSettings.PRISM_EXACT_ENABLED)) {
 			if (exporttrans ||
+			    exportbinary ||
 			    exportstaterewards ||
 			    exporttransrewards ||
 			    exportstates ||
@@ -812,6 +819,17 @@ public class PrismCL implements PrismModelListener
 				mainLog.printWarning("The -exportplain switch is now deprecated. Please use -exporttrans in future.");
 		}
 
+		// export model to a binary file
+		if (exportbinary) {
+			try {
+				prism.exportBuiltModelToBinaryFile(new File(exportBinaryFilename));
+			}
+			// in case of error, report it and proceed
+			catch (PrismException e) {
+				error(e);
+			}
+		}
+
 		// export state rewards to a file
 		if (exportstaterewards) {
 			try {
@@ -2081,7 +2099,7 @@ public class PrismCL implements PrismModelListener
 		if (filenameArgs.size() > 2) {
 			errorAndExit("Invalid argument syntax");
 		}
-		if (importtrans) {
+		if (importtrans || importbinary) {
 			if (filenameArgs.size() > 1) {
 				errorAndExit("Two models provided (" + filenameArgs.get(0) + ", " + modelFilename + ")");
 			} else if (filenameArgs.size() == 1) {
@@ -2090,7 +2108,7 @@ public class PrismCL implements PrismModelListener
 		} else {
 			if (filenameArgs.size() > 0) {
 				modelFilename = filenameArgs.get(0);
-				if (modelFilename.endsWith(".all")) {
+				if (modelFilename.endsWith(".all") || modelFilename.endsWith(".bin")) {
 					processImportModelSwitch(modelFilename);
 				}
 			}
@@ -2145,6 +2163,12 @@ public class PrismCL implements PrismModelListener
 				importLabelsFilename = basename + ".lab";
 			} else if (ext.equals("srew")) {
 				getStateRewardsFilenames(basename, true);
+			} else if (ext.equals("bin")) {
+				if (exts.length > 1) {
+					throw new PrismException("A binary model file (.bin) cannot be combined with other files for -importmodel");
+				}
+				importbinary = true;
+				modelFilename = basename + ".bin";
 			}
 			// Unknown extension
 			else {
@@ -2152,7 +2176,7 @@ public class PrismCL implements PrismModelListener
 			}
 		}
 		// Check at least the transition matrix was imported
-		if (!importtrans) {
+		if (!importtrans && !importbinary) {
 			throw new PrismException("You must import the transition matrix when using -importmodel (use option \"tra\" or \"all\")");
 		}
 		// No options supported currently
@@ -2303,6 +2327,12 @@ public class PrismCL implements PrismModelListener
 			} else if (ext.equals("dot")) {
 				exporttransdotstates = true;
 				exportTransDotStatesFilename = basename.equals("stdout") ? "stdout" : basename + ".dot";
+			} else if (ext.equals("bin")) {
+				if (basename.equals("stdout")) {
+					throw new PrismException("Cannot export a binary model file to stdout");
+				}
+				exportbinary = true;
+				exportBinaryFilename = basename + ".bin";
 			}
 			// Unknown extension
 			else {
@@ -2600,6 +2630,8 @@ public class PrismCL implements PrismModelListener
 				exportModelLabelsFilename = exportModelLabelsFilename.replaceFirst("modelFileBasename", modelFileBasename);
 			if (exporttransdotstates)
 				exportTransDotStatesFilename = exportTransDotStatesFilename.replaceFirst("modelFileBasename", modelFileBasename);
+			if (exportbinary)
+				exportBinaryFilename = exportBinaryFilename.replaceFirst("modelFileBasename", modelFileBasename);
 		}
 	}
 
@@ -2856,6 +2888,7 @@ public class PrismCL implements PrismModelListener
 			mainLog.println("Possible extensions are: .tra, .sta, .lab, .srew");
 			mainLog.println("Use extension .all to import all, e.g.:");
 			mainLog.println("\n -importmodel in.all\n");
+			mainLog.println("Use extension .bin (on its own) to import a binary model file written by -exportmodel (explicit engine only).");
 		}
 		// -importresults
 		else if (sw.equals("importresults")) {
@@ -2901,6 +2934,8 @@ public class PrismCL implements PrismModelListener
 			mainLog.println("\n -exportmodel out.all\n");
 			mainLog.println("Omit the file basename to use the basename of the model file, e.g.:");
 			mainLog.println("\n -exportmodel .all\n");
+			mainLog.println("Use extension .bin to export a DTMC/MDP built by the explicit engine as a binary model file,");
+			mainLog.println("which is much faster to import than the text files (rewards are not included).");
 			mainLog.println("If provided, <options> is a comma-separated list of options taken from:");
 			mainLog.println(" * mrmc - export data in MRMC format");
 			mainLog.println(" * matlab - export data in Matlab format");
@@ -117,7 +117,22 @@ public class PrismSettings implements Observer
 	public static final	String PRISM_EXTRA_DD_INFO					= "prism.extraDDInfo";
 	public static final	String PRISM_EXTRA_REACH_INFO				= "prism.extraReachInfo";
 	public static final String PRISM_SCC_METHOD						= "prism.sccMethod";
+	public static final String PRISM_EXPLICIT_SCC_METHOD				= "prism.explicitSCCMethod";
 	public static final String PRISM_SYMM_RED_PARAMS					= "prism.symmRedParams";
+	public static final String PRISM_PACK_STATES					= "prism.packStates";
+	public static final String PRISM_CONSTRUCT_THREADS				= "prism.constructThreads";
+	public static final String PRISM_COMPILE_EXPRS					= "prism.compileExprs";
+	public static final String PRISM_IMPORT_THREADS				= "prism.importThreads";
+	public static final String PRISM_CONSTRUCT_CHECKPOINT			= "prism.constructCheckpoint";
+	public static final String PRISM_CONSTRUCT_CHECKPOINT_INTERVAL	= "prism.constructCheckpointInterval";
+	public static final String PRISM_CONSTRUCT_RESUME				= "prism.constructResume";
+	public static final String PRISM_POR							= "prism.por";
+	public static final String PRISM_SHARE_DISTRS					= "prism.shareDistrs";
+	public static final String PRISM_SOLVE_THREADS					= "prism.solveThreads";
+	public static final String PRISM_MIXED_PRECISION				= "prism.mixedPrecision";
+	public static final String PRISM_KRYLOV_PRECONDITIONER			= "prism.krylovPreconditioner";
+	public static final String PRISM_WARM_START					= "prism.warmStart";
+	public static final String PRISM_SUBFORMULA_CACHE				= "prism.subformulaCache";
 	public static final	String PRISM_EXACT_ENABLED					= "prism.exact.enabled";
 	public static final String PRISM_PTA_METHOD					= "prism.ptaMethod";
 	public static final String PRISM_TRANSIENT_METHOD				= "prism.transientMethod";
@@ -253,10 +268,12 @@ public class PrismSettings implements Observer
 			{ CHOICE_TYPE,		PRISM_TRANSIENT_METHOD,					"Transient probability computation method",	"3.3",		"Uniformisation",															"Uniformisation,Fast adaptive uniformisation",																
 																			"Which method to use for computing transient probabilities in CTMCs." },
 			// NUMERICAL SOLUTION OPTIONS:
-			{ CHOICE_TYPE,		PRISM_LIN_EQ_METHOD,					"Linear equations method",				"2.1",			"Jacobi",																	"Power,Jacobi,Gauss-Seidel,Backwards Gauss-Seidel,Pseudo-Gauss-Seidel,Backwards Pseudo-Gauss-Seidel,JOR,SOR,Backwards SOR,Pseudo-SOR,Backwards Pseudo-SOR",
+			{ CHOICE_TYPE,		PRISM_LIN_EQ_METHOD,					"Linear equations method",				"2.1",			"Jacobi",																	"Power,Jacobi,Gauss-Seidel,Backwards Gauss-Seidel,Pseudo-Gauss-Seidel,Backwards Pseudo-Gauss-Seidel,JOR,SOR,Backwards SOR,Pseudo-SOR,Backwards Pseudo-SOR,GMRES,BiCGStab",
 																			"Which iterative method to use when solving linear equation systems." },
 			{ DOUBLE_TYPE,		PRISM_LIN_EQ_METHOD_PARAM,				"Over-relaxation parameter",			"2.1",			Double.valueOf(0.9),															"",																							
 																			"Over-relaxation parameter for iterative numerical methods such as JOR/SOR." },
+			{ CHOICE_TYPE,		PRISM_KRYLOV_PRECONDITIONER,			"Krylov preconditioner",				"4.8",			"ILU(0)",																	"None,Jacobi,ILU(0)",
+																			"Which preconditioner to use for the Krylov subspace methods GMRES/BiCGStab (explicit engine only)." },
 			{ BOOLEAN_TYPE,		PRISM_TOPOLOGICAL_VI,				"Use topological value iteration",				"4.3.1",		false,																		"",
 																			"Use topological value iteration in iterative numerical methods."},
 			{ BOOLEAN_TYPE,		PRISM_PMAX_QUOTIENT,				"For Pmax computations, compute in the MEC quotient",				"4.3.1",		false,																		"",
@@ -265,7 +282,7 @@ public class PrismSettings implements Observer
 																				"Use interval iteration (from above and below) in iterative numerical methods."},
 			{ STRING_TYPE,		PRISM_INTERVAL_ITER_OPTIONS,				"Interval iteration options",				"4.3.1",		"",																		"",
 																	"Interval iteration options, a comma-separated list of the following:\n" + OptionsIntervalIteration.getOptionsDescription() },
-			{ CHOICE_TYPE,		PRISM_MDP_SOLN_METHOD,					"MDP solution method",				"4.0",			"Value iteration",																"Value iteration,Gauss-Seidel,Policy iteration,Modified policy iteration,Linear programming",
+			{ CHOICE_TYPE,		PRISM_MDP_SOLN_METHOD,					"MDP solution method",				"4.0",			"Value iteration",																"Value iteration,Gauss-Seidel,Policy iteration,Modified policy iteration,Linear programming,Prioritised value iteration",
 																			"Which method to use when solving Markov decision processes." },
 			{ CHOICE_TYPE,		PRISM_MDP_MULTI_SOLN_METHOD,			"MDP multi-objective solution method",				"4.0.3",			"Value iteration",											"Value iteration,Gauss-Seidel,Linear programming",
 																			"Which method to use when solving multi-objective queries on Markov decision processes." },
@@ -306,8 +323,36 @@ public class PrismSettings implements Observer
 																			"Use steady-state detection during CTMC transient probability computation." },
 			{ CHOICE_TYPE,		PRISM_SCC_METHOD,						"SCC decomposition method",				"3.2",			"Lockstep",																	"Xie-Beerel,Lockstep,SCC-Find",																
 																			"Which algorithm to use for (symbolic) decomposition of a graph into strongly connected components (SCCs)." },
+			{ CHOICE_TYPE,		PRISM_EXPLICIT_SCC_METHOD,				"Explicit SCC decomposition method",	"4.8",			"Tarjan",																	"Tarjan,Forward-backward",
+																			"Which algorithm to use for decomposition of a graph into strongly connected components (SCCs) in the explicit engine. Forward-backward uses the number of explicit numerical solution threads." },
 			{ STRING_TYPE,		PRISM_SYMM_RED_PARAMS,					"Symmetry reduction parameters",		"3.2",			"",																	"",																
 																			"Parameters for symmetry reduction (format: \"i j\" where i and j are the number of modules before and after the symmetric ones; empty string means symmetry reduction disabled)." },
+			{ BOOLEAN_TYPE,		PRISM_PACK_STATES,						"Pack states in explicit model construction",		"4.8",			Boolean.valueOf(false),															"",
+																			"Store states as packed bit vectors during explicit-state model construction (needs bounded variables), to reduce memory usage." },
+			{ INTEGER_TYPE,		PRISM_CONSTRUCT_THREADS,				"Explicit model construction threads",		"4.8",			Integer.valueOf(1),															"1,",
+																			"Number of threads used to explore states during explicit-state model construction (1 means sequential exploration)." },
+			{ BOOLEAN_TYPE,		PRISM_COMPILE_EXPRS,					"Compile model expressions",		"4.8",			Boolean.valueOf(true),															"",
+																			"Compile guards, probabilities/rates and updates of the model, rather than interpreting them, during explicit-state model construction and simulation (floating-point evaluation only)." },
+			{ INTEGER_TYPE,		PRISM_IMPORT_THREADS,					"Explicit model import threads",		"4.8",			Integer.valueOf(1),															"1,",
+																			"Number of threads used to parse explicit files (transitions and state rewards) when importing a DTMC or MDP into the explicit engine." },
+			{ STRING_TYPE,		PRISM_CONSTRUCT_CHECKPOINT,				"Explicit model construction checkpoint file",		"4.8",			"",															"",
+																			"File to which checkpoints (snapshots of the states and transitions built so far) are periodically written during explicit-state model construction (empty means no checkpoints)." },
+			{ INTEGER_TYPE,		PRISM_CONSTRUCT_CHECKPOINT_INTERVAL,	"Explicit model construction checkpoint interval",		"4.8",			Integer.valueOf(600),															"0,",
+																			"Minimum time (in seconds) between checkpoints during explicit-state model construction." },
+			{ BOOLEAN_TYPE,		PRISM_CONSTRUCT_RESUME,					"Resume explicit model construction",		"4.8",			Boolean.valueOf(false),															"",
+																			"Resume explicit-state model construction from the checkpoint file, if it exists." },
+			{ BOOLEAN_TYPE,		PRISM_POR,								"Partial-order reduction",		"4.8",			Boolean.valueOf(false),															"",
+																			"Apply (ample set) partial-order reduction during explicit-state construction of MDPs. This preserves probabilistic reachability (and LTL) properties without next-operators or step bounds that refer to the model's state only via its labels." },
+			{ BOOLEAN_TYPE,		PRISM_SHARE_DISTRS,						"Share identical distributions",		"4.8",			Boolean.valueOf(false),															"",
+																			"Store structurally identical distributions (same targets and probabilities) only once, sharing them between choices, when building sparse MDPs in the explicit engine." },
+			{ INTEGER_TYPE,		PRISM_SOLVE_THREADS,					"Explicit numerical solution threads",		"4.8",			Integer.valueOf(1),															"1,",
+																			"Number of threads used for the matrix-vector multiplications of the Power/Jacobi methods and value iteration in the explicit engine (1 means sequential solution)." },
+			{ BOOLEAN_TYPE,		PRISM_MIXED_PRECISION,					"Mixed-precision value iteration",		"4.8",			Boolean.valueOf(false),															"",
+																			"Start value iteration for reachability probabilities in the explicit engine with single-precision (float) transition probabilities and vectors, then finish it in double precision to the requested accuracy." },
+			{ BOOLEAN_TYPE,		PRISM_WARM_START,						"Warm start across experiments",		"4.8",			Boolean.valueOf(false),															"",
+																			"When checking a property for several values of undefined constants, start the explicit engine's numerical computation of reachability probabilities from the solution for the previous values, if the model has the same size (only where this is sound, e.g. from certified lower/upper bounds for interval iteration)." },
+			{ INTEGER_TYPE,		PRISM_SUBFORMULA_CACHE,					"Subformula cache size (MB)",		"4.8",			Integer.valueOf(0),															"0,",
+																			"Memory (in MB) for caching the results of P, R and S subformulas in the explicit engine, so that subformulas shared between properties are only computed once per model (0 means no caching)." },
 			{ STRING_TYPE,		PRISM_AR_OPTIONS,						"Abstraction refinement options",		"3.3",			"",																	"",																
 																			"Various options passed to the asbtraction-refinement engine (e.g. for PTA model checking)." },
 			{ BOOLEAN_TYPE,		PRISM_PATH_VIA_AUTOMATA,				"All path formulas via automata",			"4.2.1",			Boolean.valueOf(false),									"",
@@ -1096,6 +1141,10 @@ public class PrismSettings implements Observer
 			set(PRISM_LIN_EQ_METHOD, "Pseudo-SOR");
 		} else if (sw.equals("bpsor")) {
 			set(PRISM_LIN_EQ_METHOD, "Backwards Pseudo-SOR");
+		} else if (sw.equals("gmres")) {
+			set(PRISM_LIN_EQ_METHOD, "GMRES");
+		} else if (sw.equals("bicgstab")) {
+			set(PRISM_LIN_EQ_METHOD, "BiCGStab");
 		} else if (sw.equals("valiter")) {
 			set(PRISM_MDP_SOLN_METHOD, "Value iteration");
 			set(PRISM_MDP_MULTI_SOLN_METHOD, "Value iteration");
@@ -1104,6 +1153,8 @@ public class PrismSettings implements Observer
 			set(PRISM_MDP_SOLN_METHOD, "Policy iteration");
 		} else if (sw.equals("modpoliter")) {
 			set(PRISM_MDP_SOLN_METHOD, "Modified policy iteration");
+		} else if (sw.equals("priovaliter")) {
+			set(PRISM_MDP_SOLN_METHOD, "Prioritised value iteration");
 		} else if (sw.equals("linprog") || sw.equals("lp")) {
 			set(PRISM_MDP_SOLN_METHOD, "Linear programming");
 			set(PRISM_MDP_MULTI_SOLN_METHOD, "Linear programming");
@@ -1155,6 +1206,22 @@ public class PrismSettings implements Observer
 				throw new PrismException("No value specified for -" + sw + " switch");
 			}
 		}
+		// Preconditioner for Krylov methods
+		else if (sw.equals("krylovprecond")) {
+			if (i < args.length - 1) {
+				s = args[++i];
+				if (s.equals("none"))
+					set(PRISM_KRYLOV_PRECONDITIONER, "None");
+				else if (s.equals("jacobi"))
+					set(PRISM_KRYLOV_PRECONDITIONER, "Jacobi");
+				else if (s.equals("ilu0"))
+					set(PRISM_KRYLOV_PRECONDITIONER, "ILU(0)");
+				else
+					throw new PrismException("Unrecognised option for -" + sw + " switch (options are: none, jacobi, ilu0)");
+			} else {
+				throw new PrismException("No parameter specified for -" + sw + " switch");
+			}
+		}
 		// Termination criterion (iterative methods)
 		else if (sw.equals("relative") || sw.equals("rel")) {
 			set(PRISM_TERM_CRIT, "Relative");
@@ -1300,6 +1367,20 @@ public class PrismSettings implements Observer
 				throw new PrismException("No parameter specified for -" + sw + " switch");
 			}
 		}
+		// SCC computation algorithm (explicit engine)
+		else if (sw.equals("explicitsccmethod")) {
+			if (i < args.length - 1) {
+				s = args[++i];
+				if (s.equals("tarjan"))
+					set(PRISM_EXPLICIT_SCC_METHOD, "Tarjan");
+				else if (s.equals("fb"))
+					set(PRISM_EXPLICIT_SCC_METHOD, "Forward-backward");
+				else
+					throw new PrismException("Unrecognised option for -" + sw + " switch (options are: tarjan, fb)");
+			} else {
+				throw new PrismException("No parameter specified for -" + sw + " switch");
+			}
+		}
 		// Enable symmetry reduction
 		else if (sw.equals("symm")) {
 			if (i < args.length - 2) {
@@ -1308,6 +1389,118 @@ public class PrismSettings implements Observer
 				throw new PrismException("-symm switch requires two parameters (num. modules before/after symmetric ones)");
 			}
 		}
+		// Packed state storage (explicit model construction)
+		else if (sw.equals("packstates")) {
+			set(PRISM_PACK_STATES, true);
+		}
+		// Number of threads for explicit model construction
+		else if (sw.equals("constructthreads")) {
+			if (i < args.length - 1) {
+				try {
+					j = Integer.parseInt(args[++i]);
+					if (j < 1)
+						throw new NumberFormatException("");
+					set(PRISM_CONSTRUCT_THREADS, j);
+				} catch (NumberFormatException e) {
+					throw new PrismException("Invalid value for -" + sw + " switch");
+				}
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		}
+		// Compilation of model expressions (explicit model construction/simulation)
+		else if (sw.equals("compileexprs")) {
+			set(PRISM_COMPILE_EXPRS, true);
+		}
+		else if (sw.equals("nocompileexprs")) {
+			set(PRISM_COMPILE_EXPRS, false);
+		}
+		// Checkpoints for explicit model construction
+		else if (sw.equals("constructcheckpoint")) {
+			if (i < args.length - 1) {
+				set(PRISM_CONSTRUCT_CHECKPOINT, args[++i]);
+			} else {
+				throw new PrismException("No file specified for -" + sw + " switch");
+			}
+		}
+		else if (sw.equals("constructcheckpointinterval")) {
+			if (i < args.length - 1) {
+				try {
+					j = Integer.parseInt(args[++i]);
+					if (j < 0)
+						throw new NumberFormatException("");
+					set(PRISM_CONSTRUCT_CHECKPOINT_INTERVAL, j);
+				} catch (NumberFormatException e) {
+					throw new PrismException("Invalid value for -" + sw + " switch");
+				}
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		}
+		else if (sw.equals("constructresume")) {
+			set(PRISM_CONSTRUCT_RESUME, true);
+		}
+		// Partial-order reduction (explicit MDP construction)
+		else if (sw.equals("por")) {
+			set(PRISM_POR, true);
+		}
+		// Sharing of identical distributions (explicit MDP construction)
+		else if (sw.equals("sharedistrs")) {
+			set(PRISM_SHARE_DISTRS, true);
+		}
+		// Number of threads for explicit numerical solution
+		else if (sw.equals("solvethreads")) {
+			if (i < args.length - 1) {
+				try {
+					j = Integer.parseInt(args[++i]);
+					if (j < 1)
+						throw new NumberFormatException("");
+					set(PRISM_SOLVE_THREADS, j);
+				} catch (NumberFormatException e) {
+					throw new PrismException("Invalid value for -" + sw + " switch");
+				}
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		}
+		// Mixed-precision value iteration (explicit engine)
+		else if (sw.equals("mixedprecision")) {
+			set(PRISM_MIXED_PRECISION, true);
+		}
+		// Warm start numerical solution across experiments (explicit engine)
+		else if (sw.equals("warmstart")) {
+			set(PRISM_WARM_START, true);
+		}
+		// Cache for subformula results (explicit engine)
+		else if (sw.equals("subformulacache")) {
+			if (i < args.length - 1) {
+				try {
+					j = Integer.parseInt(args[++i]);
+					if (j < 0)
+						throw new NumberFormatException("");
+					set(PRISM_SUBFORMULA_CACHE, j);
+				} catch (NumberFormatException e) {
+					throw new PrismException("Invalid value for -" + sw + " switch");
+				}
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		}
+		// Number of threads for parsing imported explicit files
+		else if (sw.equals("importthreads")) {
+			if (i < args.length - 1) {
+				try {
+					j = Integer.parseInt(args[++i]);
+					if (j < 1)
+						throw new NumberFormatException("");
+					set(PRISM_IMPORT_THREADS, j);
+				} catch (NumberFormatException e) {
+					throw new PrismException("Invalid value for -" + sw + " switch");
+				}
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		}
 		// Abstraction-refinement engine options string (append if already partially specified)
 		else if (sw.equals("aroptions")) {
 			if (i < args.length - 1) {
@@ -1856,13 +2049,17 @@ public class PrismSettings implements Observer
 		mainLog.println("-bsor .......................... Use Backwards SOR for numerical computation");
 		mainLog.println("-psor .......................... Use Pseudo SOR for numerical computation");
 		mainLog.println("-bpsor ......................... Use Backwards Pseudo SOR for numerical computation");
+		mainLog.println("-gmres ......................... Use (restarted) GMRES for numerical computation (explicit engine)");
+		mainLog.println("-bicgstab ...................... Use BiCGStab for numerical computation (explicit engine)");
 		mainLog.println("-omega <x> ..................... Set over-relaxation parameter (for JOR/SOR/...) [default: 0.9]");
+		mainLog.println("-krylovprecond <name> .......... Set preconditioner for GMRES/BiCGStab (none, jacobi, ilu0) [default: ilu0]");
 		mainLog.println();
 		mainLog.println("SOLUTION METHODS (MDPS):");
 		mainLog.println("-valiter ....................... Use value iteration for solving MDPs [default]");
 		mainLog.println("-gaussseidel (or -gs) .......... Use Gauss-Seidel value iteration for solving MDPs");
 		mainLog.println("-politer ....................... Use policy iteration for solving MDPs");
 		mainLog.println("-modpoliter .................... Use modified policy iteration for solving MDPs");
+		mainLog.println("-priovaliter ................... Use prioritised (asynchronous) value iteration for solving MDPs");
 		mainLog.println("-intervaliter (or -ii) ......... Use interval iteration to solve MDPs/MCs (see -help -ii)");
 		mainLog.println("-topological ................... Use topological value iteration");
 		mainLog.println();
@@ -1888,6 +2085,7 @@ public class PrismSettings implements Observer
 		mainLog.println("-zerorewardcheck ............... Check for absence of zero-reward loops");
 		mainLog.println("-nossdetect .................... Disable steady-state detection for CTMC transient computations");
 		mainLog.println("-sccmethod <name> .............. Specify (symbolic) SCC computation method (xiebeerel, lockstep, sccfind)");
+		mainLog.println("-explicitsccmethod <name> ...... Specify explicit engine SCC computation method (tarjan, fb)");
 		mainLog.println("-symm <string> ................. Symmetry reduction options string");
 		mainLog.println("-aroptions <string> ............ Abstraction-refinement engine options string");
 		mainLog.println("-pathviaautomata ............... Handle all path formulas via automata constructions");
@@ -1898,6 +2096,10 @@ public class PrismSettings implements Observer
 		mainLog.println("-ltl2dasyntax <x> .............. Specify output format for -ltl2datool switch (lbt, spin, spot, rabinizer)");
 		mainLog.println("-exportiterations .............. Export vectors for iteration algorithms to file");
 		mainLog.println("-pmaxquotient .................. For Pmax computations in MDPs, compute in the MEC quotient");
+		mainLog.println("-solvethreads <n> .............. Set number of threads for explicit Power/Jacobi/value iteration [default: 1]");
+		mainLog.println("-mixedprecision ................ Start explicit value iteration in single precision, then refine in double");
+		mainLog.println("-warmstart ..................... In experiments, start explicit solution from the previous point's result");
+		mainLog.println("-subformulacache <n> ........... Cache explicit P/R/S subformula results, using up to <n> MB [default: 0 (off)]");
 		
 		mainLog.println();
 		mainLog.println("MULTI-OBJECTIVE MODEL CHECKING:");
@@ -1934,6 +2136,17 @@ public class PrismSettings implements Observer
 		mainLog.println("-paramsubsumeregions <b> ....... Subsume adjacent regions during analysis [default: true]");
 		mainLog.println("-paramdagmaxerror <b> .......... Maximal error probability allowed for DAG function representation [default: 1E-100]");
 		mainLog.println();
+		mainLog.println("EXPLICIT MODEL CONSTRUCTION OPTIONS:");
+		mainLog.println("-packstates .................... Store states as packed bit vectors (needs bounded variables)");
+		mainLog.println("-constructthreads <n> .......... Set number of threads used to explore states [default: 1]");
+		mainLog.println("-nocompileexprs ................ Interpret (rather than compile) guards, probabilities/rates and updates");
+		mainLog.println("-importthreads <n> ............. Set number of threads used to parse imported explicit files [default: 1]");
+		mainLog.println("-constructcheckpoint <file> .... Periodically write checkpoints of model construction to <file>");
+		mainLog.println("-constructcheckpointinterval <n> Set minimum time (in secs) between checkpoints [default: 600]");
+		mainLog.println("-constructresume ............... Resume model construction from the checkpoint file, if present");
+		mainLog.println("-por ........................... Apply partial-order reduction when building MDPs");
+		mainLog.println("-sharedistrs ................... Store identical distributions of MDPs only once");
+		mainLog.println();
 		mainLog.println("FAST ADAPTIVE UNIFORMISATION (FAU) OPTIONS:");
 		mainLog.println("-fauepsilon <x> ................ Set probability threshold of birth process in FAU [default: 1e-6]");
 		mainLog.println("-faudelta <x> .................. Set probability threshold for irrelevant states in FAU [default: 1e-12]");
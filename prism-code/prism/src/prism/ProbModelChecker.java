@@ -100,6 +100,9 @@ public class ProbModelChecker extends NonProbModelChecker
 		prob0 = prism.getProb0();
 		prob1 = prism.getProb1();
 		bsccComp = prism.getBSCCComp();
+		if (prism.getLinEqMethod() == Prism.GMRES || prism.getLinEqMethod() == Prism.BICGSTAB) {
+			throw new PrismNotSupportedException("GMRES/BiCGStab are currently only supported by the explicit engine");
+		}
 		PrismNative.setCompact(prism.getCompact());
 		PrismNative.setLinEqMethod(prism.getLinEqMethod());
 		PrismNative.setLinEqMethodParam(prism.getLinEqMethodParam());
@@ -28,6 +28,7 @@ package simulator;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import parser.State;
 import parser.VarList;
@@ -65,6 +66,9 @@ public class ChoiceListFlexi<Value> implements Choice<Value>
 	// i.e., an expression over clock variables
 	// denoting when it can be taken.
 	protected Expression clockGuard;
+	
+	// Compiled versions of updates (optional, may be null)
+	protected Map<Update,ExpressionCompiler.UpdateExpr> compiledUpdates;
 
 	/**
 	 * Create empty choice.
@@ -100,6 +104,7 @@ public class ChoiceListFlexi<Value> implements Choice<Value>
 			probability.add(p);
 		}
 		clockGuard = ch.clockGuard;
+		compiledUpdates = ch.compiledUpdates;
 	}
 
 	// Set methods
@@ -114,6 +119,15 @@ public class ChoiceListFlexi<Value> implements Choice<Value>
 		this.moduleOrActionIndex = moduleOrActionIndex;
 	}
 
+	/**
+	 * Set the compiled versions of updates, used (where present) to compute target states
+	 * (see {@link ExpressionCompiler}); may be null.
+	 */
+	public void setCompiledUpdates(Map<Update,ExpressionCompiler.UpdateExpr> compiledUpdates)
+	{
+		this.compiledUpdates = compiledUpdates;
+	}
+
 	/**
 	 * Set the clock guard
 	 */
@@ -255,16 +269,20 @@ public class ChoiceListFlexi<Value> implements Choice<Value>
 	public State computeTarget(int i, State currentState, VarList varList) throws PrismLangException
 	{
 		State newState = new State(currentState);
-		for (Update up : updates.get(i))
-			up.update(currentState, newState, eval.exact(), varList);
+		computeTarget(i, currentState, newState, varList);
 		return newState;
 	}
 
 	@Override
 	public void computeTarget(int i, State currentState, State newState, VarList varList) throws PrismLangException
 	{
-		for (Update up : updates.get(i))
-			up.update(currentState, newState, eval.exact(), varList);
+		for (Update up : updates.get(i)) {
+			ExpressionCompiler.UpdateExpr f = compiledUpdates == null ? null : compiledUpdates.get(up);
+			if (f != null)
+				f.update(currentState, newState);
+			else
+				up.update(currentState, newState, eval.exact(), varList);
+		}
 	}
 
 	@Override
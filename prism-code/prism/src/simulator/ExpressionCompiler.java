@@ -0,0 +1,515 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package simulator;
+
+import common.SafeCast;
+import parser.EvaluateContext.EvalMode;
+import parser.EvaluateContextState;
+import parser.State;
+import parser.Values;
+import parser.ast.Expression;
+import parser.ast.ExpressionBinaryOp;
+import parser.ast.ExpressionFunc;
+import parser.ast.ExpressionITE;
+import parser.ast.ExpressionLiteral;
+import parser.ast.ExpressionUnaryOp;
+import parser.ast.ExpressionVar;
+import parser.ast.Update;
+import parser.type.Type;
+import parser.type.TypeBool;
+import parser.type.TypeDouble;
+import parser.type.TypeInt;
+import prism.PrismLangException;
+
+/**
+ * Class to compile expressions (guards, probabilities/rates, updates) into trees of closures
+ * that evaluate them directly over the variable values of a {@link State}, using primitive
+ * arithmetic, rather than by interpreting the AST via an {@link parser.EvaluateContext}.
+ * <br><br>
+ * Compilation assumes floating-point evaluation (i.e., {@link EvalMode#FP}) and that
+ * constants have already been replaced with their values.
+ * The commonly used operators and functions are compiled; other subexpressions
+ * (e.g. {@code pow}, {@code log}, undefined constants) are evaluated by the interpreter.
+ * Compiled code does not try to reproduce the interpreter's error reporting: if it
+ * fails (e.g. on integer overflow), the whole expression is re-evaluated by the interpreter,
+ * which gives the same result or error as if no compilation had been done.
+ * <br><br>
+ * Compiled expressions re-use an evaluation context, so they are not thread-safe.
+ */
+public class ExpressionCompiler
+{
+	/** Compiled Boolean-valued expression */
+	@FunctionalInterface
+	public interface BooleanExpr
+	{
+		public boolean evaluate(State state) throws PrismLangException;
+	}
+
+	/** Compiled integer-valued expression */
+	@FunctionalInterface
+	public interface IntExpr
+	{
+		public int evaluate(State state) throws PrismLangException;
+	}
+
+	/** Compiled double-valued expression */
+	@FunctionalInterface
+	public interface DoubleExpr
+	{
+		public double evaluate(State state) throws PrismLangException;
+	}
+
+	/** Compiled update (see {@link Update#update(State, State, boolean, parser.VarList)}) */
+	@FunctionalInterface
+	public interface UpdateExpr
+	{
+		public void update(State oldState, State newState) throws PrismLangException;
+	}
+
+	/** Compiled value of a single update element, cast to the type of its variable */
+	@FunctionalInterface
+	private interface ValueExpr
+	{
+		public Object evaluate(State state) throws PrismLangException;
+	}
+
+	/** Evaluation context, for subexpressions evaluated by the interpreter */
+	protected EvaluateContextState ec;
+
+	/**
+	 * Create an expression compiler.
+	 * @param constantValues Values of constants, if any remain in expressions (may be null)
+	 */
+	public ExpressionCompiler(Values constantValues)
+	{
+		ec = new EvaluateContextState(constantValues, new State(0));
+		ec.setEvaluationMode(EvalMode.FP);
+	}
+
+	/**
+	 * Compile a Boolean-valued expression.
+	 */
+	public BooleanExpr compileBoolean(Expression expr) throws PrismLangException
+	{
+		BooleanExpr f;
+		try {
+			f = compileB(expr);
+		} catch (RuntimeException e) {
+			return interpretB(expr);
+		}
+		return state -> {
+			try {
+				return f.evaluate(state);
+			} catch (RuntimeException e) {
+				return expr.evaluateBoolean(ec.setState(state));
+			}
+		};
+	}
+
+	/**
+	 * Compile a numerical expression, to be evaluated as a double.
+	 */
+	public DoubleExpr compileDouble(Expression expr) throws PrismLangException
+	{
+		DoubleExpr f;
+		try {
+			f = compileD(expr);
+		} catch (RuntimeException e) {
+			return interpretD(expr);
+		}
+		return state -> {
+			try {
+				return f.evaluate(state);
+			} catch (RuntimeException e) {
+				return expr.evaluateDouble(ec.setState(state));
+			}
+		};
+	}
+
+	/**
+	 * Compile an update, i.e., a list of assignments to variables
+	 * (whose indices must already have been set).
+	 */
+	public UpdateExpr compileUpdate(Update update) throws PrismLangException
+	{
+		int n = update.getNumElements();
+		int indices[] = new int[n];
+		ValueExpr values[] = new ValueExpr[n];
+		try {
+			for (int i = 0; i < n; i++) {
+				indices[i] = update.getVarIndex(i);
+				values[i] = compileValue(update.getExpression(i), update.getType(i));
+				if (indices[i] < 0) {
+					return (oldState, newState) -> update.update(oldState, newState, false, null);
+				}
+			}
+		} catch (RuntimeException e) {
+			return (oldState, newState) -> update.update(oldState, newState, false, null);
+		}
+		return (oldState, newState) -> {
+			try {
+				for (int i = 0; i < n; i++) {
+					newState.varValues[indices[i]] = values[i].evaluate(oldState);
+				}
+			} catch (RuntimeException e) {
+				update.update(oldState, newState, false, null);
+			}
+		};
+	}
+
+	// Compilation of subexpressions
+
+	/**
+	 * Compile the value of an update element, of type {@code type}.
+	 */
+	private ValueExpr compileValue(Expression expr, Type type) throws PrismLangException
+	{
+		if (type instanceof TypeInt && expr.getType() instanceof TypeInt) {
+			IntExpr f = compileI(expr);
+			return state -> f.evaluate(state);
+		} else if (type instanceof TypeBool) {
+			BooleanExpr f = compileB(expr);
+			return state -> f.evaluate(state);
+		} else if (type instanceof TypeDouble) {
+			DoubleExpr f = compileD(expr);
+			return state -> f.evaluate(state);
+		}
+		return state -> type.castValueTo(expr.evaluate(ec.setState(state)));
+	}
+
+	/**
+	 * Compile a Boolean-valued expression (without fallback to the interpreter on failure).
+	 */
+	private BooleanExpr compileB(Expression expr) throws PrismLangException
+	{
+		if (!(expr.getType() instanceof TypeBool)) {
+			return interpretB(expr);
+		}
+		if (expr instanceof ExpressionLiteral) {
+			boolean b = (Boolean) expr.evaluate(ec);
+			return state -> b;
+		}
+		if (expr instanceof ExpressionVar && ((ExpressionVar) expr).getIndex() >= 0) {
+			int v = ((ExpressionVar) expr).getIndex();
+			return state -> (Boolean) state.varValues[v];
+		}
+		if (expr instanceof ExpressionUnaryOp) {
+			ExpressionUnaryOp e = (ExpressionUnaryOp) expr;
+			BooleanExpr f = compileB(e.getOperand());
+			switch (e.getOperator()) {
+			case ExpressionUnaryOp.NOT:
+				return state -> !f.evaluate(state);
+			case ExpressionUnaryOp.PARENTH:
+				return f;
+			}
+		}
+		if (expr instanceof ExpressionITE) {
+			ExpressionITE e = (ExpressionITE) expr;
+			BooleanExpr f1 = compileB(e.getOperand1());
+			BooleanExpr f2 = compileB(e.getOperand2());
+			BooleanExpr f3 = compileB(e.getOperand3());
+			return state -> f1.evaluate(state) ? f2.evaluate(state) : f3.evaluate(state);
+		}
+		if (expr instanceof ExpressionBinaryOp) {
+			BooleanExpr f = compileBinaryB((ExpressionBinaryOp) expr);
+			if (f != null) {
+				return f;
+			}
+		}
+		return interpretB(expr);
+	}
+
+	/**
+	 * Compile a Boolean-valued binary operator (or return null if not supported).
+	 */
+	private BooleanExpr compileBinaryB(ExpressionBinaryOp e) throws PrismLangException
+	{
+		Type t1 = e.getOperand1().getType();
+		Type t2 = e.getOperand2().getType();
+		int op = e.getOperator();
+		switch (op) {
+		case ExpressionBinaryOp.IMPLIES:
+		case ExpressionBinaryOp.IFF:
+		case ExpressionBinaryOp.OR:
+		case ExpressionBinaryOp.AND: {
+			BooleanExpr f1 = compileB(e.getOperand1());
+			BooleanExpr f2 = compileB(e.getOperand2());
+			switch (op) {
+			case ExpressionBinaryOp.IMPLIES:
+				return state -> !f1.evaluate(state) || f2.evaluate(state);
+			case ExpressionBinaryOp.IFF:
+				return state -> f1.evaluate(state) == f2.evaluate(state);
+			case ExpressionBinaryOp.OR:
+				return state -> f1.evaluate(state) || f2.evaluate(state);
+			default:
+				return state -> f1.evaluate(state) && f2.evaluate(state);
+			}
+		}
+		case ExpressionBinaryOp.EQ:
+		case ExpressionBinaryOp.NE: {
+			boolean eq = op == ExpressionBinaryOp.EQ;
+			if (t1 instanceof TypeBool && t2 instanceof TypeBool) {
+				BooleanExpr f1 = compileB(e.getOperand1());
+				BooleanExpr f2 = compileB(e.getOperand2());
+				return state -> (f1.evaluate(state) == f2.evaluate(state)) == eq;
+			} else if (t1 instanceof TypeInt && t2 instanceof TypeInt) {
+				IntExpr f1 = compileI(e.getOperand1());
+				IntExpr f2 = compileI(e.getOperand2());
+				return state -> (f1.evaluate(state) == f2.evaluate(state)) == eq;
+			} else if (isNumerical(t1) && isNumerical(t2)) {
+				// As for Double.equals(), which is used by the interpreter
+				DoubleExpr f1 = compileD(e.getOperand1());
+				DoubleExpr f2 = compileD(e.getOperand2());
+				return state -> (Double.compare(f1.evaluate(state), f2.evaluate(state)) == 0) == eq;
+			}
+			return null;
+		}
+		case ExpressionBinaryOp.GT:
+		case ExpressionBinaryOp.GE:
+		case ExpressionBinaryOp.LT:
+		case ExpressionBinaryOp.LE:
+			if (t1 instanceof TypeInt && t2 instanceof TypeInt) {
+				IntExpr f1 = compileI(e.getOperand1());
+				IntExpr f2 = compileI(e.getOperand2());
+				switch (op) {
+				case ExpressionBinaryOp.GT:
+					return state -> f1.evaluate(state) > f2.evaluate(state);
+				case ExpressionBinaryOp.GE:
+					return state -> f1.evaluate(state) >= f2.evaluate(state);
+				case ExpressionBinaryOp.LT:
+					return state -> f1.evaluate(state) < f2.evaluate(state);
+				default:
+					return state -> f1.evaluate(state) <= f2.evaluate(state);
+				}
+			} else if (isNumerical(t1) && isNumerical(t2)) {
+				DoubleExpr f1 = compileD(e.getOperand1());
+				DoubleExpr f2 = compileD(e.getOperand2());
+				switch (op) {
+				case ExpressionBinaryOp.GT:
+					return state -> f1.evaluate(state) > f2.evaluate(state);
+				case ExpressionBinaryOp.GE:
+					return state -> f1.evaluate(state) >= f2.evaluate(state);
+				case ExpressionBinaryOp.LT:
+					return state -> f1.evaluate(state) < f2.evaluate(state);
+				default:
+					return state -> f1.evaluate(state) <= f2.evaluate(state);
+				}
+			}
+			return null;
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Compile an integer-valued expression (without fallback to the interpreter on failure).
+	 */
+	private IntExpr compileI(Expression expr) throws PrismLangException
+	{
+		if (!(expr.getType() instanceof TypeInt)) {
+			return interpretI(expr);
+		}
+		if (expr instanceof ExpressionLiteral) {
+			int i = (Integer) expr.evaluate(ec);
+			return state -> i;
+		}
+		if (expr instanceof ExpressionVar && ((ExpressionVar) expr).getIndex() >= 0) {
+			int v = ((ExpressionVar) expr).getIndex();
+			return state -> (Integer) state.varValues[v];
+		}
+		if (expr instanceof ExpressionUnaryOp) {
+			ExpressionUnaryOp e = (ExpressionUnaryOp) expr;
+			IntExpr f = compileI(e.getOperand());
+			switch (e.getOperator()) {
+			case ExpressionUnaryOp.MINUS:
+				return state -> Math.negateExact(f.evaluate(state));
+			case ExpressionUnaryOp.PARENTH:
+				return f;
+			}
+		}
+		if (expr instanceof ExpressionITE) {
+			ExpressionITE e = (ExpressionITE) expr;
+			BooleanExpr f1 = compileB(e.getOperand1());
+			IntExpr f2 = compileI(e.getOperand2());
+			IntExpr f3 = compileI(e.getOperand3());
+			return state -> f1.evaluate(state) ? f2.evaluate(state) : f3.evaluate(state);
+		}
+		if (expr instanceof ExpressionBinaryOp) {
+			ExpressionBinaryOp e = (ExpressionBinaryOp) expr;
+			if (e.getOperand1().getType() instanceof TypeInt && e.getOperand2().getType() instanceof TypeInt) {
+				IntExpr f1 = compileI(e.getOperand1());
+				IntExpr f2 = compileI(e.getOperand2());
+				switch (e.getOperator()) {
+				case ExpressionBinaryOp.PLUS:
+					return state -> Math.addExact(f1.evaluate(state), f2.evaluate(state));
+				case ExpressionBinaryOp.MINUS:
+					return state -> Math.subtractExact(f1.evaluate(state), f2.evaluate(state));
+				case ExpressionBinaryOp.TIMES:
+					return state -> Math.multiplyExact(f1.evaluate(state), f2.evaluate(state));
+				}
+			}
+		}
+		if (expr instanceof ExpressionFunc) {
+			ExpressionFunc e = (ExpressionFunc) expr;
+			switch (e.getNameCode()) {
+			case ExpressionFunc.MIN:
+			case ExpressionFunc.MAX: {
+				boolean min = e.getNameCode() == ExpressionFunc.MIN;
+				IntExpr fs[] = new IntExpr[e.getNumOperands()];
+				for (int i = 0; i < fs.length; i++) {
+					fs[i] = compileI(e.getOperand(i));
+				}
+				return state -> {
+					int res = fs[0].evaluate(state);
+					for (int i = 1; i < fs.length; i++) {
+						res = min ? Math.min(res, fs[i].evaluate(state)) : Math.max(res, fs[i].evaluate(state));
+					}
+					return res;
+				};
+			}
+			case ExpressionFunc.FLOOR: {
+				DoubleExpr f = compileD(e.getOperand(0));
+				return state -> SafeCast.toIntExact(Math.floor(f.evaluate(state)));
+			}
+			case ExpressionFunc.CEIL: {
+				DoubleExpr f = compileD(e.getOperand(0));
+				return state -> SafeCast.toIntExact(Math.ceil(f.evaluate(state)));
+			}
+			case ExpressionFunc.MOD: {
+				IntExpr f1 = compileI(e.getOperand(0));
+				IntExpr f2 = compileI(e.getOperand(1));
+				return state -> {
+					int i1 = f1.evaluate(state);
+					int i2 = f2.evaluate(state);
+					if (i2 <= 0) {
+						// Error (reported by the interpreter)
+						throw new ArithmeticException();
+					}
+					int rem = i1 % i2;
+					return (rem < 0) ? rem + i2 : rem;
+				};
+			}
+			}
+		}
+		return interpretI(expr);
+	}
+
+	/**
+	 * Compile a numerical expression, evaluated as a double (without fallback to the interpreter on failure).
+	 */
+	private DoubleExpr compileD(Expression expr) throws PrismLangException
+	{
+		if (expr.getType() instanceof TypeInt) {
+			IntExpr f = compileI(expr);
+			return state -> f.evaluate(state);
+		}
+		if (!(expr.getType() instanceof TypeDouble)) {
+			return interpretD(expr);
+		}
+		if (expr instanceof ExpressionLiteral) {
+			double d = (Double) expr.evaluate(ec);
+			return state -> d;
+		}
+		if (expr instanceof ExpressionUnaryOp) {
+			ExpressionUnaryOp e = (ExpressionUnaryOp) expr;
+			DoubleExpr f = compileD(e.getOperand());
+			switch (e.getOperator()) {
+			case ExpressionUnaryOp.MINUS:
+				return state -> -f.evaluate(state);
+			case ExpressionUnaryOp.PARENTH:
+				return f;
+			}
+		}
+		if (expr instanceof ExpressionITE) {
+			ExpressionITE e = (ExpressionITE) expr;
+			BooleanExpr f1 = compileB(e.getOperand1());
+			DoubleExpr f2 = compileD(e.getOperand2());
+			DoubleExpr f3 = compileD(e.getOperand3());
+			return state -> f1.evaluate(state) ? f2.evaluate(state) : f3.evaluate(state);
+		}
+		if (expr instanceof ExpressionBinaryOp) {
+			ExpressionBinaryOp e = (ExpressionBinaryOp) expr;
+			if (isNumerical(e.getOperand1().getType()) && isNumerical(e.getOperand2().getType())) {
+				DoubleExpr f1 = compileD(e.getOperand1());
+				DoubleExpr f2 = compileD(e.getOperand2());
+				switch (e.getOperator()) {
+				case ExpressionBinaryOp.PLUS:
+					return state -> f1.evaluate(state) + f2.evaluate(state);
+				case ExpressionBinaryOp.MINUS:
+					return state -> f1.evaluate(state) - f2.evaluate(state);
+				case ExpressionBinaryOp.TIMES:
+					return state -> f1.evaluate(state) * f2.evaluate(state);
+				case ExpressionBinaryOp.DIVIDE:
+					return state -> f1.evaluate(state) / f2.evaluate(state);
+				}
+			}
+		}
+		if (expr instanceof ExpressionFunc) {
+			ExpressionFunc e = (ExpressionFunc) expr;
+			switch (e.getNameCode()) {
+			case ExpressionFunc.MIN:
+			case ExpressionFunc.MAX: {
+				boolean min = e.getNameCode() == ExpressionFunc.MIN;
+				DoubleExpr fs[] = new DoubleExpr[e.getNumOperands()];
+				for (int i = 0; i < fs.length; i++) {
+					fs[i] = compileD(e.getOperand(i));
+				}
+				return state -> {
+					double res = fs[0].evaluate(state);
+					for (int i = 1; i < fs.length; i++) {
+						res = min ? Math.min(res, fs[i].evaluate(state)) : Math.max(res, fs[i].evaluate(state));
+					}
+					return res;
+				};
+			}
+			}
+		}
+		return interpretD(expr);
+	}
+
+	// Subexpressions that are evaluated by the interpreter
+
+	private BooleanExpr interpretB(Expression expr)
+	{
+		return state -> expr.evaluateBoolean(ec.setState(state));
+	}
+
+	private IntExpr interpretI(Expression expr)
+	{
+		return state -> expr.evaluateInt(ec.setState(state));
+	}
+
+	private DoubleExpr interpretD(Expression expr)
+	{
+		return state -> expr.evaluateDouble(ec.setState(state));
+	}
+
+	private static boolean isNumerical(Type type)
+	{
+		return type instanceof TypeInt || type instanceof TypeDouble;
+	}
+}
@@ -29,6 +29,7 @@ import prism.ModelType;
 import prism.PrismComponent;
 import prism.PrismException;
 import prism.PrismLangException;
+import prism.PrismNotSupportedException;
 import prism.RewardGenerator;
 
 public class ModulesFileModelGenerator<Value> implements ModelGenerator<Value>, RewardGenerator<Value>
@@ -264,6 +265,15 @@ public class ModulesFileModelGenerator<Value> implements ModelGenerator<Value>,
 		transitionListIntBuilt = false;
 	}
 	
+	/**
+	 * Get the model (ModulesFile) that this generator explores,
+	 * with the values of any (defined) constants substituted in.
+	 */
+	public ModulesFile getModulesFile()
+	{
+		return modulesFile;
+	}
+
 	// Methods for ModelInfo interface
 	
 	@Override
@@ -294,6 +304,23 @@ public class ModulesFileModelGenerator<Value> implements ModelGenerator<Value>,
 		return mfConstants;
 	}
 	
+	@Override
+	public ModelGenerator<Value> createCopy() throws PrismException
+	{
+		if (mfConstants == null) {
+			throw new PrismNotSupportedException("Cannot copy model generator before undefined constants are set");
+		}
+		// Rational functions share a (non thread-safe) factory
+		if (eval instanceof Evaluator.EvaluatorFunction) {
+			throw new PrismNotSupportedException("Copying of model generator is not supported for parametric models");
+		}
+		// The copy is based on the (initialised) modules file, where constants have been set,
+		// but shares the original one, e.g., for error messages
+		ModulesFileModelGenerator<Value> copy = new ModulesFileModelGenerator<>(modulesFile, eval, parent);
+		copy.originalModulesFile = originalModulesFile;
+		return copy;
+	}
+	
 	@Override
 	public boolean containsUnboundedVariables()
 	{
@@ -505,6 +532,16 @@ public class ModulesFileModelGenerator<Value> implements ModelGenerator<Value>,
 		return a < 0 ? null : modulesFile.getSynch(a - 1);
 	}
 
+	/**
+	 * Get the module/action index of the {@code index}th choice in the current state:
+	 * -i for independent in ith module, i for synchronous on ith action
+	 * (in both cases, modules/actions are 1-indexed).
+	 */
+	public int getChoiceModuleOrActionIndex(int index) throws PrismException
+	{
+		return getTransitionList().getChoiceModuleOrActionIndex(index);
+	}
+
 	@Override
 	public String getChoiceActionString(int index) throws PrismException
 	{
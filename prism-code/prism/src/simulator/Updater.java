@@ -30,6 +30,7 @@ import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -61,6 +62,8 @@ public class Updater<Value> extends PrismComponent
 	// Settings:
 	// Do we check that probabilities sum to 1?
 	protected boolean doProbChecks = true;
+	// Do we compile guards/probabilities/updates (where possible)?
+	protected boolean doCompile = true;
 	
 	// Info on model being explored
 	protected ModulesFile modulesFile;
@@ -75,6 +78,11 @@ public class Updater<Value> extends PrismComponent
 	protected int numRewardStructs;
 	// For real-time models, info about which vars are clocks (bitset over variable indices)
 	protected BitSet clockVars;
+	// Compiled guards (element i,j is for command j of module i), probabilities/rates
+	// (null entry if not specified, i.e., 1) and updates; all null if not compiled
+	protected ExpressionCompiler.BooleanExpr compiledGuards[][];
+	protected Map<Updates,ExpressionCompiler.DoubleExpr[]> compiledProbs;
+	protected Map<Update,ExpressionCompiler.UpdateExpr> compiledUpdates;
 	
 	// Temporary storage:
 
@@ -99,6 +107,7 @@ public class Updater<Value> extends PrismComponent
 	{
 		// Store some settings
 		doProbChecks = parent.getSettings().getBoolean(PrismSettings.PRISM_DO_PROB_CHECKS);
+		doCompile = parent.getSettings().getBoolean(PrismSettings.PRISM_COMPILE_EXPRS);
 		
 		// Get info from model
 		this.modulesFile = modulesFile;
@@ -158,6 +167,49 @@ public class Updater<Value> extends PrismComponent
 			enabledModules[j] = new BitSet(numModules);
 		}
 		clockGuards = new HashMap<Updates, Expression>();
+		
+		// Compile expressions, if required
+		// (only for floating-point evaluation, and not for real-time models)
+		if (doCompile && eval.one() instanceof Double && !modelType.realTime()) {
+			try {
+				compileExpressions();
+			} catch (PrismLangException e) {
+				// Just interpret expressions if compilation fails
+				compiledGuards = null;
+				compiledProbs = null;
+				compiledUpdates = null;
+			}
+		}
+	}
+
+	/**
+	 * Compile the guards, probabilities/rates and updates of all commands
+	 * (see {@link ExpressionCompiler}).
+	 */
+	private void compileExpressions() throws PrismLangException
+	{
+		ExpressionCompiler compiler = new ExpressionCompiler(modulesFile.getConstantValues());
+		compiledGuards = new ExpressionCompiler.BooleanExpr[numModules][];
+		compiledProbs = new IdentityHashMap<>();
+		compiledUpdates = new IdentityHashMap<>();
+		for (int m = 0; m < numModules; m++) {
+			Module module = modulesFile.getModule(m);
+			int n = module.getNumCommands();
+			compiledGuards[m] = new ExpressionCompiler.BooleanExpr[n];
+			for (int i = 0; i < n; i++) {
+				Command command = module.getCommand(i);
+				compiledGuards[m][i] = compiler.compileBoolean(command.getGuard());
+				Updates ups = command.getUpdates();
+				int numUpdates = ups.getNumUpdates();
+				ExpressionCompiler.DoubleExpr probs[] = new ExpressionCompiler.DoubleExpr[numUpdates];
+				for (int j = 0; j < numUpdates; j++) {
+					Expression p = ups.getProbability(j);
+					probs[j] = p == null ? null : compiler.compileDouble(p);
+					compiledUpdates.put(ups.getUpdate(j), compiler.compileUpdate(ups.getUpdate(j)));
+				}
+				compiledProbs.put(ups, probs);
+			}
+		}
 	}
 
 	/**
@@ -304,6 +356,8 @@ public class Updater<Value> extends PrismComponent
 				if (!Expression.isFalse(clockGuard)) {
 					guardSat = true;
 				}
+			} else if (compiledGuards != null) {
+				guardSat = compiledGuards[m][i].evaluate(state);
 			} else {
 				guardSat = command.getGuard().evaluateBoolean(ec.setState(state));
 			}
@@ -324,8 +378,13 @@ public class Updater<Value> extends PrismComponent
 	 * Evaluate the probability (or rate) of the ith update, in the context of a state.
 	 * If the probability is not specified in the update, it is assumed to be 1.
 	 */
+	@SuppressWarnings("unchecked")
 	protected Value getProbabilityInState(Updates ups, int i, State state) throws PrismLangException
 	{
+		if (compiledProbs != null) {
+			ExpressionCompiler.DoubleExpr p = compiledProbs.get(ups)[i];
+			return p == null ? eval.one() : (Value) Double.valueOf(p.evaluate(state));
+		}
 		Expression p = ups.getProbability(i);
 		if (p == null) {
 			return eval.one();
@@ -352,6 +411,7 @@ public class Updater<Value> extends PrismComponent
 		// Create choice and add all info
 		ch = new ChoiceListFlexi<Value>(eval);
 		ch.setModuleOrActionIndex(moduleOrActionIndex);
+		ch.setCompiledUpdates(compiledUpdates);
 		n = ups.getNumUpdates();
 		sum = eval.zero();
 		for (i = 0; i < n; i++) {
@@ -0,0 +1,164 @@
+package explicit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import parser.State;
+import parser.VarList;
+import parser.ast.DeclarationBool;
+import parser.ast.DeclarationInt;
+import parser.ast.DeclarationIntUnbounded;
+import parser.ast.Expression;
+import prism.PrismException;
+
+public class BinaryModelFileTest
+{
+	/**
+	 * Variables: x:[-1..2], b:bool, u:int (unbounded).
+	 */
+	private VarList createVarList() throws PrismException
+	{
+		VarList varList = new VarList();
+		varList.addVar("x", new DeclarationInt(Expression.Int(-1), Expression.Int(2)), 0);
+		varList.addVar("b", new DeclarationBool(), 0);
+		varList.addVar("u", new DeclarationIntUnbounded(), 1);
+		return varList;
+	}
+
+	private List<State> createStates(int n)
+	{
+		List<State> states = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			State s = new State(3);
+			s.setValue(0, i % 4 - 1);
+			s.setValue(1, i % 2 == 0);
+			s.setValue(2, 1000 * i - 7);
+			states.add(s);
+		}
+		return states;
+	}
+
+	private File roundTripFile() throws IOException
+	{
+		File file = File.createTempFile("prism-binary-model", ".bin");
+		file.deleteOnExit();
+		return file;
+	}
+
+	@Test
+	public void testDTMC() throws PrismException, IOException
+	{
+		DTMCSimple<Double> dtmc = new DTMCSimple<>(4);
+		dtmc.addInitialState(0);
+		dtmc.setProbability(0, 1, 0.5);
+		dtmc.setProbability(0, 2, 0.5);
+		dtmc.setProbability(1, 3, 1.0);
+		dtmc.setProbability(2, 0, 0.25);
+		dtmc.setProbability(2, 3, 0.75);
+		dtmc.findDeadlocks(true);
+		BitSet goal = new BitSet();
+		goal.set(3);
+		dtmc.addLabel("goal", goal);
+		dtmc.setVarList(createVarList());
+		dtmc.setStatesList(createStates(4));
+		DTMCSparse sparse = new DTMCSparse(dtmc);
+
+		File file = roundTripFile();
+		sparse.exportToBinaryFile(file);
+		ModelExplicit<Double> loaded = BinaryModelFile.read(file);
+
+		assertTrue(loaded instanceof DTMCSparse);
+		assertEquals(sparse.infoString(), loaded.infoString());
+		for (int s = 0; s < 4; s++) {
+			assertEquals(sparse.getNumTransitions(s), ((DTMC<Double>) loaded).getNumTransitions(s));
+		}
+		assertEquals(sparse.toString(), loaded.toString());
+		assertEquals(List.of(0), toList(loaded.getInitialStates()));
+		assertEquals(List.of(3), toList(loaded.getDeadlockStates()));
+		assertEquals(goal, loaded.getLabelStates("goal"));
+		assertEquals(createStates(4), new ArrayList<>(loaded.getStatesList()));
+		assertEquals("u", loaded.getVarList().getName(2));
+	}
+
+	@Test
+	public void testMDP() throws PrismException, IOException
+	{
+		MDPSimple<Double> mdp = new MDPSimple<>(3);
+		mdp.addInitialState(1);
+		Distribution<Double> d = Distribution.ofDouble();
+		d.add(1, 0.3);
+		d.add(2, 0.7);
+		mdp.addActionLabelledChoice(0, d, "a");
+		d = Distribution.ofDouble();
+		d.add(0, 1.0);
+		mdp.addActionLabelledChoice(0, d, null);
+		d = Distribution.ofDouble();
+		d.add(2, 1.0);
+		mdp.addActionLabelledChoice(1, d, "b");
+		mdp.addActionLabelledChoice(2, d, "a");
+		MDPSparse sparse = new MDPSparse(mdp);
+
+		File file = roundTripFile();
+		sparse.exportToBinaryFile(file);
+		ModelExplicit<Double> loaded = BinaryModelFile.read(file);
+
+		assertTrue(loaded instanceof MDPSparse);
+		MDP<Double> mdpLoaded = (MDP<Double>) loaded;
+		assertEquals(sparse.toString(), loaded.toString());
+		assertEquals(4, mdpLoaded.getNumChoices());
+		assertEquals("a", mdpLoaded.getAction(0, 0));
+		assertNull(mdpLoaded.getAction(0, 1));
+		assertEquals("b", mdpLoaded.getAction(1, 0));
+		assertEquals(List.of(1), toList(loaded.getInitialStates()));
+		// No states stored
+		assertNull(loaded.getStatesList());
+	}
+
+	@Test
+	public void testBadFile() throws IOException
+	{
+		File file = roundTripFile();
+		try (FileWriter out = new FileWriter(file)) {
+			out.write("1 2\n0 1 1.0\n");
+		}
+		assertThrows(PrismException.class, () -> BinaryModelFile.read(file));
+	}
+
+	@Test
+	public void testCorruptCounts() throws PrismException, IOException
+	{
+		DTMCSimple<Double> dtmc = new DTMCSimple<>(2);
+		dtmc.addInitialState(0);
+		dtmc.setProbability(0, 1, 1.0);
+		dtmc.setProbability(1, 1, 1.0);
+		File file = roundTripFile();
+		new DTMCSparse(dtmc).exportToBinaryFile(file);
+		// Overwrite the number of states (after magic number, version and model type "DTMC")
+		for (int count : new int[] { -5, Integer.MAX_VALUE }) {
+			try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+				raf.seek(8 + 4 + 4 + 4);
+				raf.writeInt(Integer.reverseBytes(count));
+			}
+			assertThrows(PrismException.class, () -> BinaryModelFile.read(file));
+		}
+	}
+
+	private static List<Integer> toList(Iterable<Integer> it)
+	{
+		List<Integer> list = new ArrayList<>();
+		it.forEach(list::add);
+		return list;
+	}
+}
@@ -0,0 +1,259 @@
+package explicit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import explicit.rewards.PrecomputedRewards;
+import parser.State;
+import parser.ast.DeclarationBool;
+import parser.ast.DeclarationInt;
+import parser.ast.DeclarationType;
+import parser.ast.Expression;
+import parser.type.Type;
+import parser.type.TypeBool;
+import parser.type.TypeInt;
+import prism.ModelGenerator;
+import prism.ModelType;
+import prism.PrismComponent;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+import prism.RewardGenerator;
+
+public class ConstructModelCheckpointTest
+{
+	/**
+	 * MDP with variables x:[0..n] and b:bool, labelled actions, a label and a reward structure.
+	 * Exploration fails after {@code failAfter} states have been explored (if non-negative).
+	 */
+	private static class TestMDPGenerator implements ModelGenerator<Double>, RewardGenerator<Double>
+	{
+		private final int n;
+		private final int failAfter;
+		private int numExplored = 0;
+		private int x;
+		private boolean b;
+
+		TestMDPGenerator(int n, int failAfter)
+		{
+			this.n = n;
+			this.failAfter = failAfter;
+		}
+
+		@Override
+		public ModelType getModelType()
+		{
+			return ModelType.MDP;
+		}
+
+		@Override
+		public List<String> getVarNames()
+		{
+			return Arrays.asList("x", "b");
+		}
+
+		@Override
+		public List<Type> getVarTypes()
+		{
+			return Arrays.asList(TypeInt.getInstance(), TypeBool.getInstance());
+		}
+
+		@Override
+		public DeclarationType getVarDeclarationType(int i)
+		{
+			return i == 0 ? new DeclarationInt(Expression.Int(0), Expression.Int(n)) : new DeclarationBool();
+		}
+
+		@Override
+		public List<String> getLabelNames()
+		{
+			return Arrays.asList("goal");
+		}
+
+		@Override
+		public State getInitialState()
+		{
+			return new State(2).setValue(0, 0).setValue(1, false);
+		}
+
+		@Override
+		public void exploreState(State state) throws PrismException
+		{
+			if (numExplored++ == failAfter) {
+				throw new PrismException("Simulated crash");
+			}
+			x = (Integer) state.varValues[0];
+			b = (Boolean) state.varValues[1];
+		}
+
+		@Override
+		public int getNumChoices()
+		{
+			return x > 0 ? 2 : 1;
+		}
+
+		@Override
+		public int getNumTransitions(int i)
+		{
+			return i == 0 && x < n ? 2 : 1;
+		}
+
+		@Override
+		public Object getTransitionAction(int i, int offset)
+		{
+			return i == 0 ? "up" : null;
+		}
+
+		@Override
+		public Double getTransitionProbability(int i, int offset)
+		{
+			return getNumTransitions(i) == 1 ? 1.0 : (offset == 0 ? 0.7 : 0.3);
+		}
+
+		@Override
+		public State computeTransitionTarget(int i, int offset)
+		{
+			if (i == 0) {
+				return new State(2).setValue(0, offset == 0 ? Math.min(x + 1, n) : x).setValue(1, b);
+			} else {
+				return new State(2).setValue(0, x - 1).setValue(1, !b);
+			}
+		}
+
+		@Override
+		public boolean isLabelTrue(int i)
+		{
+			return x == n;
+		}
+
+		@Override
+		public List<String> getRewardStructNames()
+		{
+			return Arrays.asList("r");
+		}
+
+		@Override
+		public boolean rewardStructHasTransitionRewards(int r)
+		{
+			return true;
+		}
+
+		@Override
+		public boolean isRewardLookupSupported(RewardLookup lookup)
+		{
+			return lookup == RewardLookup.BY_STATE;
+		}
+
+		@Override
+		public Double getStateReward(int r, State state)
+		{
+			return (double) (Integer) state.varValues[0];
+		}
+
+		@Override
+		public Double getStateActionReward(int r, State state, Object action)
+		{
+			return "up".equals(action) ? 1.5 : 0.0;
+		}
+	}
+
+	private ConstructModel createConstructModel(File checkpointFile, boolean packStates) throws PrismException
+	{
+		PrismComponent parent = new PrismComponent();
+		parent.setLog(new PrismDevNullLog());
+		ConstructModel constructModel = new ConstructModel(parent);
+		constructModel.setCheckpointFile(checkpointFile);
+		constructModel.setCheckpointInterval(0);
+		constructModel.setResume(true);
+		constructModel.setPackStates(packStates);
+		return constructModel;
+	}
+
+	private File createCheckpointFile() throws IOException
+	{
+		File file = File.createTempFile("prism-checkpoint", ".ckp");
+		file.delete();
+		file.deleteOnExit();
+		return file;
+	}
+
+	@Test
+	public void testResumeMDP() throws PrismException, IOException
+	{
+		for (boolean packStates : new boolean[] { false, true }) {
+			Model<Double> expected = createConstructModel(null, packStates).constructModel(new TestMDPGenerator(20, -1));
+			File file = createCheckpointFile();
+			// Crash part way through, then resume
+			PrismException e = assertThrows(PrismException.class, () -> createConstructModel(file, packStates).constructModel(new TestMDPGenerator(20, 25)));
+			assertEquals("Simulated crash", e.getMessage());
+			assertTrue(file.exists());
+			TestMDPGenerator modelGen = new TestMDPGenerator(20, -1);
+			Model<Double> resumed = createConstructModel(file, packStates).constructModel(modelGen);
+			assertFalse(file.exists());
+			// Only the states not explored before the crash are explored again
+			assertEquals(expected.getNumStates() - 25, modelGen.numExplored);
+
+			assertEquals(expected.getNumStates(), resumed.getNumStates());
+			assertEquals(expected.toString(), resumed.toString());
+			assertEquals(expected.getStatesList(), resumed.getStatesList());
+			assertEquals(expected.getLabelStates("goal"), resumed.getLabelStates("goal"));
+			PrecomputedRewards rewsExpected = expected.getPrecomputedRewards();
+			PrecomputedRewards rewsResumed = resumed.getPrecomputedRewards();
+			assertNotNull(rewsResumed);
+			for (int s = 0; s < expected.getNumStates(); s++) {
+				assertEquals(rewsExpected.getStateReward(0, s), rewsResumed.getStateReward(0, s));
+				int k = rewsResumed.getActionIndex(s, "up");
+				assertEquals(rewsExpected.getActionReward(0, rewsExpected.getActionIndex(s, "up")), rewsResumed.getActionReward(0, k));
+			}
+		}
+	}
+
+	@Test
+	public void testResumeReachability() throws PrismException, IOException
+	{
+		List<State> expected = createConstructModel(null, false).computeReachableStates(new TestMDPGenerator(30, -1));
+		File file = createCheckpointFile();
+		assertThrows(PrismException.class, () -> createConstructModel(file, false).computeReachableStates(new TestMDPGenerator(30, 10)));
+		List<State> resumed = createConstructModel(file, false).computeReachableStates(new TestMDPGenerator(30, -1));
+		assertEquals(expected, resumed);
+	}
+
+	@Test
+	public void testMismatch() throws PrismException, IOException
+	{
+		File file = createCheckpointFile();
+		assertThrows(PrismException.class, () -> createConstructModel(file, false).constructModel(new TestMDPGenerator(20, 5)));
+		// Checkpoint written for a model construction, not just reachability
+		PrismException e = assertThrows(PrismException.class, () -> createConstructModel(file, false).computeReachableStates(new TestMDPGenerator(20, -1)));
+		assertTrue(e.getMessage().contains("does not match"), e.getMessage());
+	}
+
+	@Test
+	public void testReductionMismatch() throws PrismException, IOException
+	{
+		TestMDPGenerator modelGen = new TestMDPGenerator(20, -1);
+		File file = createCheckpointFile();
+		IndexedSet<State> states = new IndexedSet<>(true);
+		states.add(modelGen.getInitialState());
+		ConstructModelCheckpoint.write(file, modelGen, modelGen.createVarList(), states, 0, null, null, null, null, null);
+		// States of a checkpoint written without symmetry reduction are not canonical
+		PrismException e = assertThrows(PrismException.class, () -> ConstructModelCheckpoint.read(file, modelGen, modelGen.createVarList(), new IndexedSet<>(true), null, null, null, null, "0 0", null));
+		assertTrue(e.getMessage().contains("does not match"), e.getMessage());
+		// Likewise for partial-order reduction
+		BitSet porModules = new BitSet();
+		porModules.set(1);
+		e = assertThrows(PrismException.class, () -> ConstructModelCheckpoint.read(file, modelGen, modelGen.createVarList(), new IndexedSet<>(true), null, null, null, null, null, porModules));
+		assertTrue(e.getMessage().contains("does not match"), e.getMessage());
+		assertEquals(0, ConstructModelCheckpoint.read(file, modelGen, modelGen.createVarList(), new IndexedSet<>(true), null, null, null, null, null, null));
+	}
+}
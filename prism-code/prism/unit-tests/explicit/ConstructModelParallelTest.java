@@ -0,0 +1,210 @@
+package explicit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import explicit.rewards.PrecomputedRewards;
+import parser.State;
+import parser.ast.DeclarationInt;
+import parser.ast.DeclarationType;
+import parser.ast.Expression;
+import parser.type.Type;
+import parser.type.TypeInt;
+import prism.ModelGenerator;
+import prism.ModelType;
+import prism.PrismComponent;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+import prism.RewardGenerator;
+
+public class ConstructModelParallelTest
+{
+	/**
+	 * MDP on a grid x:[0..n-1], y:[0..n-1], with moves in x or y (wrapping around),
+	 * a label and a reward structure. Exploration fails at state (failX,0) (if non-negative).
+	 */
+	private static class GridMDPGenerator implements ModelGenerator<Double>, RewardGenerator<Double>
+	{
+		private final int n;
+		private final int failX;
+		private int x;
+		private int y;
+
+		GridMDPGenerator(int n, int failX)
+		{
+			this.n = n;
+			this.failX = failX;
+		}
+
+		@Override
+		public ModelGenerator<Double> createCopy()
+		{
+			return new GridMDPGenerator(n, failX);
+		}
+
+		@Override
+		public ModelType getModelType()
+		{
+			return ModelType.MDP;
+		}
+
+		@Override
+		public List<String> getVarNames()
+		{
+			return Arrays.asList("x", "y");
+		}
+
+		@Override
+		public List<Type> getVarTypes()
+		{
+			return Arrays.asList(TypeInt.getInstance(), TypeInt.getInstance());
+		}
+
+		@Override
+		public DeclarationType getVarDeclarationType(int i)
+		{
+			return new DeclarationInt(Expression.Int(0), Expression.Int(n - 1));
+		}
+
+		@Override
+		public List<String> getLabelNames()
+		{
+			return Arrays.asList("diag");
+		}
+
+		@Override
+		public State getInitialState()
+		{
+			return new State(2).setValue(0, 0).setValue(1, 0);
+		}
+
+		@Override
+		public void exploreState(State state) throws PrismException
+		{
+			x = (Integer) state.varValues[0];
+			y = (Integer) state.varValues[1];
+			if (x == failX && y == 0) {
+				throw new PrismException("Error at x=" + x);
+			}
+		}
+
+		@Override
+		public int getNumChoices()
+		{
+			return 2;
+		}
+
+		@Override
+		public int getNumTransitions(int i)
+		{
+			return 2;
+		}
+
+		@Override
+		public Object getTransitionAction(int i, int offset)
+		{
+			return i == 0 ? "a" : "b";
+		}
+
+		@Override
+		public Double getTransitionProbability(int i, int offset)
+		{
+			return offset == 0 ? 0.6 : 0.4;
+		}
+
+		@Override
+		public State computeTransitionTarget(int i, int offset)
+		{
+			int d = offset == 0 ? 1 : n - 1;
+			if (i == 0) {
+				return new State(2).setValue(0, (x + d) % n).setValue(1, y);
+			} else {
+				return new State(2).setValue(0, x).setValue(1, (y + d) % n);
+			}
+		}
+
+		@Override
+		public boolean isLabelTrue(int i)
+		{
+			return x == y;
+		}
+
+		@Override
+		public List<String> getRewardStructNames()
+		{
+			return Arrays.asList("r");
+		}
+
+		@Override
+		public boolean rewardStructHasTransitionRewards(int r)
+		{
+			return true;
+		}
+
+		@Override
+		public boolean isRewardLookupSupported(RewardLookup lookup)
+		{
+			return lookup == RewardLookup.BY_STATE;
+		}
+
+		@Override
+		public Double getStateReward(int r, State state)
+		{
+			return (double) (Integer) state.varValues[0];
+		}
+
+		@Override
+		public Double getStateActionReward(int r, State state, Object action)
+		{
+			return "a".equals(action) ? 1.5 : 0.5;
+		}
+	}
+
+	private ConstructModel createConstructModel(int numThreads, boolean packStates) throws PrismException
+	{
+		PrismComponent parent = new PrismComponent();
+		parent.setLog(new PrismDevNullLog());
+		ConstructModel constructModel = new ConstructModel(parent);
+		constructModel.setNumThreads(numThreads);
+		constructModel.setPackStates(packStates);
+		return constructModel;
+	}
+
+	@Test
+	public void testParallelConstruction() throws PrismException
+	{
+		// 10000 states, i.e., several batches
+		Model<Double> expected = createConstructModel(1, false).constructModel(new GridMDPGenerator(100, -1));
+		for (boolean packStates : new boolean[] { false, true }) {
+			for (int numThreads : new int[] { 2, 3 }) {
+				Model<Double> model = createConstructModel(numThreads, packStates).constructModel(new GridMDPGenerator(100, -1));
+				assertEquals(expected.getNumStates(), model.getNumStates());
+				assertEquals(expected.toString(), model.toString());
+				assertEquals(expected.getStatesList(), model.getStatesList());
+				assertEquals(expected.getLabelStates("diag"), model.getLabelStates("diag"));
+				PrecomputedRewards rewsExpected = expected.getPrecomputedRewards();
+				PrecomputedRewards rews = model.getPrecomputedRewards();
+				for (int s = 0; s < expected.getNumStates(); s++) {
+					assertEquals(rewsExpected.getStateReward(0, s), rews.getStateReward(0, s));
+					assertEquals(rewsExpected.getActionReward(0, rewsExpected.getActionIndex(s, "a")), rews.getActionReward(0, rews.getActionIndex(s, "a")));
+				}
+			}
+		}
+		List<State> reach = createConstructModel(2, false).computeReachableStates(new GridMDPGenerator(100, -1));
+		assertEquals(createConstructModel(1, false).computeReachableStates(new GridMDPGenerator(100, -1)), reach);
+	}
+
+	@Test
+	public void testParallelErrors() throws PrismException
+	{
+		// Errors are reported as for sequential exploration
+		PrismException expected = assertThrows(PrismException.class, () -> createConstructModel(1, false).constructModel(new GridMDPGenerator(100, 60)));
+		PrismException e = assertThrows(PrismException.class, () -> createConstructModel(2, false).constructModel(new GridMDPGenerator(100, 60)));
+		assertEquals(expected.getMessage(), e.getMessage());
+	}
+}
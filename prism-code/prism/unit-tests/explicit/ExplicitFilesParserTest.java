@@ -0,0 +1,177 @@
+package explicit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import prism.PrismException;
+import prism.PrismPrintStreamLog;
+import prism.PrismSettings;
+
+public class ExplicitFilesParserTest
+{
+	private File writeFile(String contents) throws IOException
+	{
+		File file = File.createTempFile("prism-explicit-parser", ".txt");
+		file.deleteOnExit();
+		try (FileWriter out = new FileWriter(file)) {
+			out.write(contents);
+		}
+		return file;
+	}
+
+	private File exportTra(Model<Double> model) throws IOException, PrismException
+	{
+		File file = File.createTempFile("prism-explicit-parser", ".tra");
+		file.deleteOnExit();
+		try (PrintStream out = new PrintStream(file)) {
+			model.exportToPrismExplicitTra(new PrismPrintStreamLog(out), PrismSettings.DEFAULT_EXPORT_MODEL_PRECISION);
+		}
+		return file;
+	}
+
+	/**
+	 * Parsers using small chunks (and several threads) and a single chunk/thread.
+	 */
+	private List<ExplicitFilesParser> createParsers()
+	{
+		ExplicitFilesParser parser1 = new ExplicitFilesParser(1);
+		ExplicitFilesParser parser2 = new ExplicitFilesParser(3);
+		parser2.setChunkSize(7);
+		return List.of(parser1, parser2);
+	}
+
+	private static Map<Integer, Double> toMap(Iterator<Map.Entry<Integer, Double>> it)
+	{
+		Map<Integer, Double> map = new TreeMap<>();
+		it.forEachRemaining(e -> map.put(e.getKey(), e.getValue()));
+		return map;
+	}
+
+	@Test
+	public void testParseDouble()
+	{
+		String strs[] = { "0", "1", "1.0", "0.5", "-0.25", "+3", "0.1", "0.3333333333333333", "0.33333333333333331",
+				"1e-5", "2.5E+10", "123456789012345678901234567890", "1e300", "4.9e-324", "0.000000000000000000000000123",
+				"Infinity", ".5", "5." };
+		for (String str : strs) {
+			byte bytes[] = (" " + str + " ").getBytes(StandardCharsets.US_ASCII);
+			assertEquals(Double.parseDouble(str), ExplicitFilesParser.parseDouble(bytes, 1, bytes.length - 1), str);
+		}
+		for (String str : new String[] { "", "-", "abc", "1/3", "1e" }) {
+			byte bytes[] = str.getBytes(StandardCharsets.US_ASCII);
+			assertTrue(Double.isNaN(ExplicitFilesParser.parseDouble(bytes, 0, bytes.length)), str);
+		}
+	}
+
+	@Test
+	public void testDTMC() throws PrismException, IOException
+	{
+		Random random = new Random(42);
+		int n = 40;
+		DTMCSimple<Double> dtmc = new DTMCSimple<>(n);
+		for (int s = 0; s < n - 1; s++) {
+			int k = 1 + random.nextInt(4);
+			for (int i = 0; i < k; i++) {
+				dtmc.setProbability(s, random.nextInt(n), 1.0 / k);
+			}
+		}
+		File file = exportTra(dtmc);
+		DTMCSimple<Double> expected = new DTMCSimple<>();
+		expected.buildFromPrismExplicit(file.getPath());
+		for (ExplicitFilesParser parser : createParsers()) {
+			DTMCSparse parsed = parser.parseDTMC(file);
+			assertEquals(n, parsed.getNumStates());
+			assertEquals(expected.getNumTransitions(), parsed.getNumTransitions());
+			for (int s = 0; s < n; s++) {
+				assertEquals(toMap(expected.getTransitionsIterator(s)), toMap(parsed.getTransitionsIterator(s)));
+			}
+			assertEquals(List.of(n - 1), toList(parsed.getDeadlockStates()));
+		}
+		// Fixing deadlocks adds self-loops
+		ExplicitFilesParser parser = new ExplicitFilesParser(1);
+		parser.setFixDeadlocks(true);
+		DTMCSparse parsed = parser.parseDTMC(file);
+		assertEquals(Map.of(n - 1, 1.0), toMap(parsed.getTransitionsIterator(n - 1)));
+	}
+
+	@Test
+	public void testMDP() throws PrismException, IOException
+	{
+		Random random = new Random(7);
+		int n = 30;
+		MDPSimple<Double> mdp = new MDPSimple<>(n);
+		for (int s = 0; s < n; s++) {
+			int numChoices = 1 + random.nextInt(3);
+			for (int c = 0; c < numChoices; c++) {
+				Distribution<Double> distr = Distribution.ofDouble();
+				int k = 1 + random.nextInt(3);
+				for (int i = 0; i < k; i++) {
+					distr.add(random.nextInt(n), 1.0 / k);
+				}
+				mdp.addActionLabelledChoice(s, distr, random.nextBoolean() ? "a" + c : null);
+			}
+		}
+		File file = exportTra(mdp);
+		MDPSimple<Double> expected = new MDPSimple<>();
+		expected.buildFromPrismExplicit(file.getPath());
+		for (ExplicitFilesParser parser : createParsers()) {
+			MDPSparse parsed = parser.parseMDP(file);
+			assertEquals(expected.getNumChoices(), parsed.getNumChoices());
+			assertEquals(expected.getNumTransitions(), parsed.getNumTransitions());
+			for (int s = 0; s < n; s++) {
+				assertEquals(expected.getNumChoices(s), parsed.getNumChoices(s));
+				for (int c = 0; c < expected.getNumChoices(s); c++) {
+					assertEquals(expected.getAction(s, c), parsed.getAction(s, c));
+					assertEquals(toMap(expected.getTransitionsIterator(s, c)), toMap(parsed.getTransitionsIterator(s, c)));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testStateRewards() throws PrismException, IOException
+	{
+		File file = writeFile("# Reward structure \"r\"\n# State rewards\n4 2\n1 0.5\n\n3 7\n");
+		for (ExplicitFilesParser parser : createParsers()) {
+			assertArrayEquals(new double[] { 0.0, 0.5, 0.0, 7.0 }, parser.parseStateRewards(file, 4));
+		}
+	}
+
+	@Test
+	public void testErrors() throws IOException
+	{
+		for (ExplicitFilesParser parser : createParsers()) {
+			File file = writeFile("3 2\n0 1 0.5\n0 3 0.5\n");
+			PrismException e = assertThrows(PrismException.class, () -> parser.parseDTMC(file));
+			assertTrue(e.getMessage().contains("line 3"), e.getMessage());
+			File file2 = writeFile("3 2\n0 1 0.5\n1 x 0.5\n");
+			e = assertThrows(PrismException.class, () -> parser.parseDTMC(file2));
+			assertTrue(e.getMessage().contains("line 3"), e.getMessage());
+			File file3 = writeFile("2 2 2\n0 0 1 1.0\n0 2 1 1.0\n");
+			assertThrows(PrismException.class, () -> parser.parseMDP(file3));
+		}
+	}
+
+	private static List<Integer> toList(Iterable<Integer> it)
+	{
+		List<Integer> list = new ArrayList<>();
+		it.forEach(list::add);
+		return list;
+	}
+}
@@ -0,0 +1,123 @@
+package explicit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import parser.State;
+import parser.VarList;
+import parser.ast.DeclarationBool;
+import parser.ast.DeclarationInt;
+import parser.ast.Expression;
+import prism.PrismException;
+
+public class FAUStatePoolTest
+{
+	private VarList createVarList() throws PrismException
+	{
+		VarList varList = new VarList();
+		varList.addVar("x", new DeclarationInt(Expression.Int(0), Expression.Int(200)), 0);
+		varList.addVar("y", new DeclarationInt(Expression.Int(-5), Expression.Int(5)), 0);
+		varList.addVar("b", new DeclarationBool(), 0);
+		return varList;
+	}
+
+	private State createState(Random random)
+	{
+		return new State(3).setValue(0, random.nextInt(201)).setValue(1, random.nextInt(11) - 5).setValue(2, random.nextBoolean());
+	}
+
+	/**
+	 * Create pools with packed states and with State objects.
+	 */
+	private List<FAUStatePool> createPools() throws PrismException
+	{
+		FAUStatePool packed = new FAUStatePool(createVarList());
+		assertTrue(packed.isPacked());
+		FAUStatePool unpacked = new FAUStatePool(null);
+		assertFalse(unpacked.isPacked());
+		return List.of(packed, unpacked);
+	}
+
+	@Test
+	public void testAddFindRemove() throws PrismException
+	{
+		for (FAUStatePool pool : createPools()) {
+			Random random = new Random(1);
+			Map<State, Integer> expected = new HashMap<>();
+			int maxSlots = 0;
+			for (int iter = 0; iter < 20000; iter++) {
+				State state = createState(random);
+				Integer slot = expected.get(state);
+				assertEquals(slot == null ? -1 : slot, pool.find(state));
+				if (slot == null) {
+					slot = pool.add(state);
+					pool.setProb(slot, iter);
+					expected.put(state, slot);
+				} else if (random.nextBoolean()) {
+					pool.delete(slot);
+					pool.remove(slot);
+					expected.remove(state);
+				}
+				maxSlots = Math.max(maxSlots, expected.size());
+			}
+			assertEquals(expected.size(), pool.size());
+			// Slots of removed states are reused
+			assertEquals(maxSlots, pool.getSlotLimit());
+			for (Map.Entry<State, Integer> e : expected.entrySet()) {
+				assertEquals((int) e.getValue(), pool.find(e.getKey()));
+				assertEquals(e.getKey(), pool.getState(e.getValue()));
+				assertTrue(pool.isUsed(e.getValue()));
+			}
+			assertEquals(expected.size(), pool.getStates().size());
+		}
+	}
+
+	@Test
+	public void testSuccessors() throws PrismException
+	{
+		for (FAUStatePool pool : createPools()) {
+			Random random = new Random(2);
+			List<Integer> slots = new ArrayList<>();
+			while (slots.size() < 50) {
+				State state = createState(random);
+				if (pool.find(state) == -1) {
+					slots.add(pool.add(state));
+				}
+			}
+			// Each state i has successors i+1 and i+2 (mod 50), with rates i and 1
+			for (int round = 0; round < 20; round++) {
+				for (int i = 0; i < 50; i++) {
+					int succs[] = { slots.get((i + 1) % 50), slots.get((i + 2) % 50) };
+					double rates[] = { i, 1.0 };
+					pool.setSuccs(slots.get(i), succs, rates, 2);
+				}
+			}
+			for (int i = 0; i < 50; i++) {
+				int slot = slots.get(i);
+				assertTrue(pool.hasSuccs(slot));
+				assertEquals(2, pool.getNumSuccs(slot));
+				int start = pool.getSuccStart(slot);
+				assertEquals((int) slots.get((i + 1) % 50), pool.getSuccSlot(start));
+				assertEquals((int) slots.get((i + 2) % 50), pool.getSuccSlot(start + 1));
+				assertEquals(i + 1.0, pool.sumRates(slot));
+				assertFalse(pool.canRemove(slot));
+			}
+			// A state can only be removed once it is not alive and has no predecessors that are alive
+			pool.delete(slots.get(0));
+			assertFalse(pool.canRemove(slots.get(0)));
+			pool.delete(slots.get(48));
+			pool.delete(slots.get(49));
+			assertTrue(pool.canRemove(slots.get(0)));
+			assertFalse(pool.hasSuccs(slots.get(0)));
+		}
+	}
+}
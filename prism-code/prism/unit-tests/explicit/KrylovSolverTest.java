@@ -0,0 +1,137 @@
+package explicit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import explicit.ProbModelChecker.LinEqMethod;
+import explicit.ProbModelChecker.TermCrit;
+import prism.PrismComponent;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+
+public class KrylovSolverTest
+{
+	/**
+	 * Random walk on states 0..n with a high self-loop probability (so stationary methods converge slowly)
+	 * and occasional long jumps; states 0 and n are absorbing.
+	 */
+	private static DTMCSimple<Double> stiffChain(int n, long seed)
+	{
+		Random random = new Random(seed);
+		DTMCSimple<Double> dtmc = new DTMCSimple<>(n + 1);
+		dtmc.setProbability(0, 0, 1.0);
+		dtmc.setProbability(n, n, 1.0);
+		for (int s = 1; s < n; s++) {
+			dtmc.setProbability(s, s, 0.9);
+			if (random.nextInt(10) == 0) {
+				dtmc.setProbability(s, s - 1, 0.04);
+				dtmc.setProbability(s, s + 1, 0.04);
+				dtmc.addToProbability(s, random.nextInt(n + 1), 0.02);
+			} else {
+				dtmc.setProbability(s, s - 1, 0.05);
+				dtmc.setProbability(s, s + 1, 0.05);
+			}
+		}
+		return dtmc;
+	}
+
+	/**
+	 * Random strongly connected DTMC with {@code n} states.
+	 */
+	private static DTMCSimple<Double> randomIrreducibleDTMC(int n, long seed)
+	{
+		Random random = new Random(seed);
+		DTMCSimple<Double> dtmc = new DTMCSimple<>(n);
+		for (int s = 0; s < n; s++) {
+			dtmc.setProbability(s, (s + 1) % n, 0.5);
+			dtmc.addToProbability(s, random.nextInt(n), 0.3);
+			dtmc.addToProbability(s, random.nextInt(n), 0.2);
+		}
+		return dtmc;
+	}
+
+	private static DTMCModelChecker createModelChecker(LinEqMethod linEqMethod, KrylovSolver.Preconditioner preconditioner) throws PrismException
+	{
+		PrismComponent parent = new PrismComponent();
+		parent.setLog(new PrismDevNullLog());
+		DTMCModelChecker mc = new DTMCModelChecker(parent);
+		mc.setLinEqMethod(linEqMethod);
+		mc.setKrylovPreconditioner(preconditioner);
+		mc.setTermCrit(TermCrit.ABSOLUTE);
+		mc.setTermCritParam(1e-12);
+		mc.setMaxIters(1000000);
+		return mc;
+	}
+
+	@Test
+	public void testReachProbs() throws PrismException
+	{
+		int n = 300;
+		DTMCSimple<Double> dtmc = stiffChain(n, 42);
+		BitSet target = new BitSet();
+		target.set(n);
+		ModelCheckerResult resGS = createModelChecker(LinEqMethod.GAUSS_SEIDEL, KrylovSolver.Preconditioner.NONE).computeReachProbs(dtmc, null, target, null, null);
+		for (LinEqMethod method : new LinEqMethod[] { LinEqMethod.GMRES, LinEqMethod.BICGSTAB }) {
+			for (KrylovSolver.Preconditioner preconditioner : KrylovSolver.Preconditioner.values()) {
+				ModelCheckerResult res = createModelChecker(method, preconditioner).computeReachProbs(dtmc, null, target, null, null);
+				for (int s = 0; s <= n; s++) {
+					assertEquals(resGS.soln[s], res.soln[s], 1e-6, method + "/" + preconditioner + ", state " + s);
+				}
+				// Far fewer iterations than Gauss-Seidel on this (slowly mixing) chain
+				assertTrue(res.numIters * 10 < resGS.numIters, method + "/" + preconditioner + ": " + res.numIters + " vs. " + resGS.numIters);
+			}
+		}
+	}
+
+	@Test
+	public void testSteadyState() throws PrismException
+	{
+		int n = 200;
+		DTMCSimple<Double> dtmc = randomIrreducibleDTMC(n, 7);
+		BitSet bscc = new BitSet();
+		bscc.set(0, n);
+		double[] expected = createModelChecker(LinEqMethod.POWER, KrylovSolver.Preconditioner.NONE).computeSteadyStateProbsForBSCC(dtmc, bscc, null).soln;
+		for (LinEqMethod method : new LinEqMethod[] { LinEqMethod.GMRES, LinEqMethod.BICGSTAB }) {
+			for (KrylovSolver.Preconditioner preconditioner : KrylovSolver.Preconditioner.values()) {
+				double[] soln = createModelChecker(method, preconditioner).computeSteadyStateProbsForBSCC(dtmc, bscc, null).soln;
+				double sum = 0.0;
+				for (int s = 0; s < n; s++) {
+					assertEquals(expected[s], soln[s], 1e-8, method + "/" + preconditioner + ", state " + s);
+					sum += soln[s];
+				}
+				assertEquals(1.0, sum, 1e-12);
+			}
+		}
+	}
+
+	@Test
+	public void testILU0TridiagonalIsExact() throws PrismException
+	{
+		// For a tridiagonal matrix, ILU(0) is the exact LU factorisation
+		int n = 100;
+		DTMCSimple<Double> dtmc = new DTMCSimple<>(n + 1);
+		dtmc.setProbability(0, 0, 1.0);
+		dtmc.setProbability(n, n, 1.0);
+		for (int s = 1; s < n; s++) {
+			dtmc.setProbability(s, s - 1, 0.5);
+			dtmc.setProbability(s, s + 1, 0.5);
+		}
+		BitSet unknown = new BitSet();
+		unknown.set(1, n);
+		double[] soln = new double[n + 1];
+		soln[n] = 1.0;
+		KrylovSolver solver = KrylovSolver.forReachProbs(dtmc, unknown, soln);
+		solver.setPreconditioner(KrylovSolver.Preconditioner.ILU0);
+		double[] x = new double[n - 1];
+		assertTrue(solver.solveGMRES(x, 1e-12, true, 100));
+		assertEquals(1, solver.getNumIters());
+		for (int s = 1; s < n; s++) {
+			assertEquals((double) s / n, x[s - 1], 1e-12);
+		}
+	}
+}
@@ -0,0 +1,186 @@
+package explicit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import common.IntSet;
+import explicit.ProbModelChecker.LinEqMethod;
+import explicit.ProbModelChecker.MDPSolnMethod;
+import explicit.ProbModelChecker.TermCrit;
+import prism.PrismComponent;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+
+public class MixedPrecisionIterationTest
+{
+	/**
+	 * Random DTMC with {@code n} states, where state 0 is the target and state 1 a sink.
+	 * Every other state moves to the target with probability between 0.01 and 0.05,
+	 * to the sink with probability 0.02 and otherwise to (mostly nearby) states.
+	 */
+	private static DTMCSimple<Double> randomDTMC(int n, long seed)
+	{
+		Random random = new Random(seed);
+		DTMCSimple<Double> dtmc = new DTMCSimple<>(n);
+		dtmc.setProbability(0, 0, 1.0);
+		dtmc.setProbability(1, 1, 1.0);
+		for (int s = 2; s < n; s++) {
+			double toTarget = 0.01 + 0.04 * random.nextDouble();
+			double rest = 1 - toTarget - 0.02;
+			double p = rest * (0.1 + 0.8 * random.nextDouble());
+			dtmc.addToProbability(s, 2 + Math.floorMod(s + random.nextInt(11) - 7, n - 2), p);
+			dtmc.addToProbability(s, 2 + random.nextInt(n - 2), rest - p);
+			dtmc.addToProbability(s, 0, toTarget);
+			dtmc.addToProbability(s, 1, 0.02);
+		}
+		return dtmc;
+	}
+
+	/**
+	 * Random MDP as for {@link #randomDTMC}, with 1-3 choices per state.
+	 */
+	private static MDPSimple<Double> randomMDP(int n, long seed)
+	{
+		Random random = new Random(seed);
+		MDPSimple<Double> mdp = new MDPSimple<>(n);
+		for (int s = 0; s < n; s++) {
+			int numChoices = s < 2 ? 1 : 1 + random.nextInt(3);
+			for (int c = 0; c < numChoices; c++) {
+				mdp.addChoice(s, randomDTMC(n, random.nextLong()).getTransitions(s));
+			}
+		}
+		return mdp;
+	}
+
+	/**
+	 * The MDP {@code mdp}, stored with a shared copy of the first choice of each state
+	 * (which does not change minimum or maximum probabilities).
+	 */
+	private static MDPSparse shareFirstChoices(MDPSparse mdp)
+	{
+		int n = mdp.getNumStates();
+		int rowStarts[] = new int[n + 1];
+		int choiceDistrs[] = new int[mdp.getNumChoices() + n];
+		int c = 0;
+		for (int s = 0; s < n; s++) {
+			rowStarts[s] = c;
+			choiceDistrs[c++] = mdp.rowStarts[s];
+			for (int d = mdp.rowStarts[s]; d < mdp.rowStarts[s + 1]; d++) {
+				choiceDistrs[c++] = d;
+			}
+		}
+		rowStarts[n] = c;
+		return new MDPSparse(n, rowStarts, choiceDistrs, mdp.choiceStarts, mdp.cols, mdp.nonZeros, null);
+	}
+
+	private static IntSet unknown(int n)
+	{
+		BitSet unknown = new BitSet();
+		unknown.set(2, n);
+		return IntSet.asIntSet(unknown);
+	}
+
+	private static double[] initialVector(int n)
+	{
+		double soln[] = new double[n];
+		soln[0] = 1.0;
+		return soln;
+	}
+
+	private static BitSet target()
+	{
+		BitSet target = new BitSet();
+		target.set(0);
+		return target;
+	}
+
+	private static DTMCModelChecker createDTMCModelChecker(boolean mixedPrecision) throws PrismException
+	{
+		PrismComponent parent = new PrismComponent();
+		parent.setLog(new PrismDevNullLog());
+		DTMCModelChecker mc = new DTMCModelChecker(parent);
+		mc.setLinEqMethod(LinEqMethod.POWER);
+		mc.setMixedPrecision(mixedPrecision);
+		mc.setTermCrit(TermCrit.ABSOLUTE);
+		mc.setTermCritParam(1e-12);
+		mc.setMaxIters(1000000);
+		return mc;
+	}
+
+	private static MDPModelChecker createMDPModelChecker(boolean mixedPrecision) throws PrismException
+	{
+		PrismComponent parent = new PrismComponent();
+		parent.setLog(new PrismDevNullLog());
+		MDPModelChecker mc = new MDPModelChecker(parent);
+		mc.setMDPSolnMethod(MDPSolnMethod.VALUE_ITERATION);
+		mc.setMixedPrecision(mixedPrecision);
+		mc.setTermCrit(TermCrit.ABSOLUTE);
+		mc.setTermCritParam(1e-12);
+		mc.setMaxIters(1000000);
+		return mc;
+	}
+
+	@Test
+	public void testSolveDTMC() throws PrismException
+	{
+		int n = 500;
+		DTMCSimple<Double> dtmc = randomDTMC(n, 1);
+		double expected[] = createDTMCModelChecker(false).computeReachProbs(dtmc, target()).soln;
+		for (DTMC<Double> model : new DTMC[] { dtmc, new DTMCSparse(dtmc) }) {
+			double soln[] = initialVector(n);
+			MixedPrecisionIteration iteration = MixedPrecisionIteration.forDTMC(model, unknown(n));
+			int iters = iteration.solve(soln, false, true, 1e-6, 100000);
+			assertTrue(iters > 1);
+			// Single precision, stopping at MIN_FLOAT_EPSILON: only approximate
+			for (int s = 0; s < n; s++) {
+				assertEquals(expected[s], soln[s], 1e-3, model.getClass().getSimpleName() + ", state " + s);
+			}
+			// States outside the set are not modified
+			assertEquals(1.0, soln[0]);
+			assertEquals(0.0, soln[1]);
+		}
+	}
+
+	@Test
+	public void testSolveMDP() throws PrismException
+	{
+		int n = 500;
+		MDPSimple<Double> mdp = randomMDP(n, 2);
+		MDPSparse sparse = new MDPSparse(mdp);
+		for (boolean min : new boolean[] { true, false }) {
+			double expected[] = createMDPModelChecker(false).computeReachProbs(mdp, target(), min).soln;
+			for (MDP<Double> model : new MDP[] { mdp, sparse, shareFirstChoices(sparse) }) {
+				double soln[] = initialVector(n);
+				MixedPrecisionIteration.forMDP(model, unknown(n)).solve(soln, min, true, 1e-6, 100000);
+				for (int s = 0; s < n; s++) {
+					assertEquals(expected[s], soln[s], 1e-3, (min ? "min, " : "max, ") + model.getClass().getSimpleName() + ", state " + s);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSeedThenRefine() throws PrismException
+	{
+		int n = 500;
+		// DTMC: refined to full (double) precision
+		DTMCSparse dtmc = new DTMCSparse(randomDTMC(n, 3));
+		double expected[] = createDTMCModelChecker(false).computeReachProbs(dtmc, target()).soln;
+		ModelCheckerResult res = createDTMCModelChecker(true).computeReachProbs(dtmc, target());
+		for (int s = 0; s < n; s++) {
+			assertEquals(expected[s], res.soln[s], 1e-10, "DTMC, state " + s);
+		}
+		// MDP (minimum probabilities)
+		MDPSparse mdp = new MDPSparse(randomMDP(n, 4));
+		expected = createMDPModelChecker(false).computeReachProbs(mdp, target(), true).soln;
+		res = createMDPModelChecker(true).computeReachProbs(mdp, target(), true);
+		for (int s = 0; s < n; s++) {
+			assertEquals(expected[s], res.soln[s], 1e-10, "MDP, state " + s);
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package explicit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import parser.State;
+import parser.VarList;
+import parser.ast.DeclarationBool;
+import parser.ast.DeclarationInt;
+import parser.ast.DeclarationIntUnbounded;
+import parser.ast.Expression;
+import prism.PrismException;
+
+public class PackedStateStorageTest
+{
+	/**
+	 * Variables: x:[-3..4], b:bool, then enough wide variables to need several words.
+	 */
+	private VarList createVarList() throws PrismException
+	{
+		VarList varList = new VarList();
+		varList.addVar("x", new DeclarationInt(Expression.Int(-3), Expression.Int(4)), 0);
+		varList.addVar("b", new DeclarationBool(), 0);
+		for (int i = 0; i < 5; i++) {
+			varList.addVar("y" + i, new DeclarationInt(Expression.Int(0), Expression.Int(100000)), 1);
+		}
+		return varList;
+	}
+
+	private List<State> createRandomStates(VarList varList, int n)
+	{
+		Random random = new Random(42);
+		List<State> states = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			State s = new State(varList.getNumVars());
+			s.setValue(0, random.nextInt(8) - 3);
+			s.setValue(1, random.nextBoolean());
+			for (int j = 2; j < varList.getNumVars(); j++) {
+				// Few distinct values, so that there are duplicates
+				s.setValue(j, random.nextInt(3) * 50000);
+			}
+			states.add(s);
+		}
+		return states;
+	}
+
+	@Test
+	public void testCanPack() throws PrismException
+	{
+		VarList varList = createVarList();
+		assertTrue(StatePacker.canPack(varList));
+		varList.addVar("u", new DeclarationIntUnbounded(), 1);
+		assertFalse(StatePacker.canPack(varList));
+	}
+
+	@Test
+	public void testPackUnpack() throws PrismException
+	{
+		VarList varList = createVarList();
+		StatePacker packer = new StatePacker(varList);
+		assertTrue(packer.getNumWords() > 1);
+		long data[] = new long[packer.getNumWords()];
+		for (State s : createRandomStates(varList, 100)) {
+			packer.pack(s, data, 0);
+			assertEquals(s, packer.unpack(data, 0));
+		}
+	}
+
+	@Test
+	public void testAddAndIndex() throws PrismException
+	{
+		VarList varList = createVarList();
+		PackedStateStorage packed = new PackedStateStorage(new StatePacker(varList));
+		IndexedSet<State> indexed = new IndexedSet<>();
+		for (State s : createRandomStates(varList, 5000)) {
+			assertEquals(indexed.add(s), packed.add(s));
+			assertEquals(indexed.getIndexOfLastAdd(), packed.getIndexOfLastAdd());
+		}
+		assertEquals(indexed.size(), packed.size());
+		assertEquals(indexed.toArrayList(), packed.toArrayList());
+		for (int i = 0; i < packed.size(); i++) {
+			assertEquals(i, packed.get(packed.getState(i)));
+		}
+	}
+
+	@Test
+	public void testSortingPermutation() throws PrismException
+	{
+		VarList varList = createVarList();
+		PackedStateStorage packed = new PackedStateStorage(new StatePacker(varList));
+		IndexedSet<State> sorted = new IndexedSet<>(true);
+		for (State s : createRandomStates(varList, 5000)) {
+			packed.add(s);
+			sorted.add(s);
+		}
+		int permut[] = packed.buildSortingPermutation();
+		List<State> expected = sorted.toPermutedArrayList(sorted.buildSortingPermutation());
+		assertEquals(expected, packed.toPermutedArrayList(permut));
+		assertEquals(expected, packed.toPermutedPackedStateList(permut));
+	}
+
+	@Test
+	public void testGrownLength() throws PrismException
+	{
+		assertEquals(32, PackedStateStorage.grownLength(16, 17, 1));
+		assertEquals(100, PackedStateStorage.grownLength(16, 100, 4));
+		// Doubling would overflow an int, so cap at the maximum array length
+		assertEquals(PackedStateStorage.MAX_ARRAY_LENGTH, PackedStateStorage.grownLength(1 << 30, (1L << 30) + 1, 1));
+		assertEquals(PackedStateStorage.MAX_ARRAY_LENGTH, PackedStateStorage.grownLength(PackedStateStorage.MAX_ARRAY_LENGTH - 10, PackedStateStorage.MAX_ARRAY_LENGTH, 2));
+		// Beyond the maximum array length, the storage is full
+		PrismException e = assertThrows(PrismException.class, () -> PackedStateStorage.grownLength(PackedStateStorage.MAX_ARRAY_LENGTH, PackedStateStorage.MAX_ARRAY_LENGTH + 1L, 3));
+		assertTrue(e.getMessage().contains(Integer.toString(PackedStateStorage.MAX_ARRAY_LENGTH)));
+	}
+}
@@ -0,0 +1,104 @@
+package explicit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import explicit.ProbModelChecker.MDPSolnMethod;
+import explicit.ProbModelChecker.TermCrit;
+import prism.PrismComponent;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+
+public class PrioritisedValueIterationTest
+{
+	private static void addChoice(MDPSimple<Double> mdp, int s, int[] targets, double[] probs)
+	{
+		Distribution<Double> distr = Distribution.ofDouble();
+		for (int i = 0; i < targets.length; i++) {
+			distr.add(targets[i], probs[i]);
+		}
+		mdp.addChoice(s, distr);
+	}
+
+	/**
+	 * Random MDP with {@code n} states (mostly local transitions, some self-loops), where state 0 is the target.
+	 */
+	private static MDPSimple<Double> randomMDP(int n, long seed)
+	{
+		Random random = new Random(seed);
+		MDPSimple<Double> mdp = new MDPSimple<>(n);
+		addChoice(mdp, 0, new int[] { 0 }, new double[] { 1.0 });
+		for (int s = 1; s < n; s++) {
+			int numChoices = 1 + random.nextInt(3);
+			for (int c = 0; c < numChoices; c++) {
+				int t1 = Math.floorMod(s + random.nextInt(11) - 5, n);
+				int t2 = random.nextInt(20) == 0 ? random.nextInt(n) : s;
+				double p = 0.1 + 0.8 * random.nextDouble();
+				addChoice(mdp, s, new int[] { t1, t2 }, new double[] { p, 1 - p });
+			}
+		}
+		return mdp;
+	}
+
+	private static MDPModelChecker createModelChecker(MDPSolnMethod method) throws PrismException
+	{
+		PrismComponent parent = new PrismComponent();
+		parent.setLog(new PrismDevNullLog());
+		MDPModelChecker mc = new MDPModelChecker(parent);
+		mc.setMDPSolnMethod(method);
+		mc.setTermCrit(TermCrit.ABSOLUTE);
+		mc.setTermCritParam(1e-12);
+		mc.setMaxIters(1000000);
+		return mc;
+	}
+
+	@Test
+	public void testRandomMDP() throws PrismException
+	{
+		MDPSimple<Double> mdp = randomMDP(500, 1);
+		BitSet target = new BitSet();
+		target.set(0);
+		for (boolean min : new boolean[] { true, false }) {
+			double[] expected = createModelChecker(MDPSolnMethod.GAUSS_SEIDEL).computeReachProbs(mdp, target, min).soln;
+			double[] soln = createModelChecker(MDPSolnMethod.PRIORITISED_VALUE_ITERATION).computeReachProbs(mdp, target, min).soln;
+			for (int s = 0; s < mdp.getNumStates(); s++) {
+				assertEquals(expected[s], soln[s], 1e-8, (min ? "min" : "max") + ", state " + s);
+			}
+		}
+	}
+
+	@Test
+	public void testLocalised() throws PrismException
+	{
+		// State 0 chooses between a slowly converging loop (states 3,4) and a long chain of
+		// quickly converging states (5..); 1 is the target and 2 a sink
+		int m = 2000;
+		MDPSimple<Double> mdp = new MDPSimple<>(5 + m);
+		addChoice(mdp, 0, new int[] { 3 }, new double[] { 1.0 });
+		addChoice(mdp, 0, new int[] { 5 }, new double[] { 1.0 });
+		addChoice(mdp, 1, new int[] { 1 }, new double[] { 1.0 });
+		addChoice(mdp, 2, new int[] { 2 }, new double[] { 1.0 });
+		addChoice(mdp, 3, new int[] { 4, 1, 2 }, new double[] { 0.99, 0.005, 0.005 });
+		addChoice(mdp, 4, new int[] { 3 }, new double[] { 1.0 });
+		for (int i = 0; i < m; i++) {
+			int s = 5 + i;
+			addChoice(mdp, s, new int[] { 1, 2 }, new double[] { 0.5, 0.5 });
+			addChoice(mdp, s, new int[] { i + 1 < m ? s + 1 : 1, 2 }, new double[] { 0.6, 0.4 });
+		}
+		BitSet target = new BitSet();
+		target.set(1);
+
+		ModelCheckerResult resGS = createModelChecker(MDPSolnMethod.GAUSS_SEIDEL).computeReachProbs(mdp, target, false);
+		ModelCheckerResult res = createModelChecker(MDPSolnMethod.PRIORITISED_VALUE_ITERATION).computeReachProbs(mdp, target, false);
+		for (int s = 0; s < mdp.getNumStates(); s++) {
+			assertEquals(resGS.soln[s], res.soln[s], 1e-8, "state " + s);
+		}
+		// Only the loop needs many updates: far fewer backups (measured in full sweeps) than Gauss-Seidel
+		assertTrue(res.numIters * 100 < resGS.numIters, res.numIters + " vs. " + resGS.numIters);
+	}
+}
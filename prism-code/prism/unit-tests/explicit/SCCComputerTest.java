@@ -0,0 +1,121 @@
+package explicit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+import org.junit.jupiter.api.Test;
+
+import prism.PrismComponent;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+
+public class SCCComputerTest
+{
+	/**
+	 * Random DTMC with {@code n} states, mostly local transitions (so there are many SCCs of varying size).
+	 */
+	private static DTMCSimple<Double> randomDTMC(int n, long seed)
+	{
+		Random random = new Random(seed);
+		DTMCSimple<Double> dtmc = new DTMCSimple<>(n);
+		for (int s = 0; s < n; s++) {
+			int numSuccs = random.nextInt(3);
+			for (int j = 0; j < numSuccs; j++) {
+				int t = random.nextInt(10) == 0 ? random.nextInt(n) : Math.floorMod(s + random.nextInt(9) - 4, n);
+				dtmc.setProbability(s, t, 1.0 / numSuccs);
+			}
+		}
+		return dtmc;
+	}
+
+	private static List<BitSet> computeSCCs(SCCComputer.SCCMethod method, int numThreads, Model<?> model, boolean filterTrivialSCCs, IntPredicate restrict) throws PrismException
+	{
+		PrismComponent parent = new PrismComponent();
+		parent.setLog(new PrismDevNullLog());
+		List<BitSet> sccs = new ArrayList<>();
+		SCCConsumer consumer = new SCCConsumerBitSet() {
+			@Override
+			public void notifyNextSCC(BitSet scc)
+			{
+				sccs.add(scc);
+			}
+		};
+		SCCComputer sccComputer = method == SCCComputer.SCCMethod.TARJAN ? new SCCComputerTarjan(parent, model, consumer) : new SCCComputerFB(parent, model, consumer, numThreads);
+		sccComputer.computeSCCs(filterTrivialSCCs, restrict);
+		return sccs;
+	}
+
+	/**
+	 * Check that SCCs are reported in reverse topological order (successors first).
+	 */
+	private static void checkOrder(Model<?> model, List<BitSet> sccs, IntPredicate restrict)
+	{
+		int[] position = new int[model.getNumStates()];
+		for (int i = 0; i < sccs.size(); i++) {
+			for (int s = sccs.get(i).nextSetBit(0); s >= 0; s = sccs.get(i).nextSetBit(s + 1)) {
+				position[s] = i;
+			}
+		}
+		for (int i = 0; i < sccs.size(); i++) {
+			for (int s = sccs.get(i).nextSetBit(0); s >= 0; s = sccs.get(i).nextSetBit(s + 1)) {
+				final int pos = i;
+				model.getSuccessors(s).forEachRemaining((int t) -> {
+					if (restrict == null || restrict.test(t)) {
+						assertTrue(position[t] <= pos);
+					}
+				});
+			}
+		}
+	}
+
+	@Test
+	public void testForwardBackwardMatchesTarjan() throws PrismException
+	{
+		IntPredicate restrict = s -> s % 7 != 3;
+		for (int n : new int[] { 1, 50, 20000 }) {
+			DTMCSimple<Double> dtmc = randomDTMC(n, n);
+			for (IntPredicate r : new IntPredicate[] { null, restrict }) {
+				for (boolean filterTrivialSCCs : new boolean[] { false, true }) {
+					List<BitSet> expected = computeSCCs(SCCComputer.SCCMethod.TARJAN, 1, dtmc, filterTrivialSCCs, r);
+					for (int numThreads : new int[] { 1, 3 }) {
+						List<BitSet> sccs = computeSCCs(SCCComputer.SCCMethod.FORWARD_BACKWARD, numThreads, dtmc, filterTrivialSCCs, r);
+						assertEquals(new HashSet<>(expected), new HashSet<>(sccs));
+						checkOrder(dtmc, sccs, r);
+					}
+					checkOrder(dtmc, expected, r);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testLongPath() throws PrismException
+	{
+		// A path of length n (deep enough to overflow a recursive depth-first search), closed to a cycle at the end
+		int n = 500000;
+		DTMCSimple<Double> dtmc = new DTMCSimple<>(n);
+		for (int s = 0; s < n - 1; s++) {
+			dtmc.setProbability(s, s + 1, 1.0);
+		}
+		dtmc.setProbability(n - 1, n / 2, 1.0);
+		for (SCCComputer.SCCMethod method : SCCComputer.SCCMethod.values()) {
+			List<BitSet> sccs = computeSCCs(method, 1, dtmc, true, null);
+			assertEquals(1, sccs.size());
+			assertEquals(n - n / 2, sccs.get(0).cardinality());
+			assertEquals(n / 2, sccs.get(0).nextSetBit(0));
+			// Including trivial SCCs: each state on the path before the cycle is one
+			SCCInfo sccInfo = new SCCInfo(n);
+			PrismComponent parent = new PrismComponent();
+			SCCComputer sccComputer = method == SCCComputer.SCCMethod.TARJAN ? new SCCComputerTarjan(parent, dtmc, sccInfo) : new SCCComputerFB(parent, dtmc, sccInfo, 1);
+			sccComputer.computeSCCs(false, null);
+			assertEquals(n / 2 + 1, sccInfo.getNumSCCs());
+		}
+	}
+}
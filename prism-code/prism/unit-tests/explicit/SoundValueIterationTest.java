@@ -0,0 +1,117 @@
+package explicit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import explicit.ProbModelChecker.MDPSolnMethod;
+import explicit.ProbModelChecker.TermCrit;
+import explicit.rewards.MDPRewardsSimple;
+import prism.PrismComponent;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+import prism.PrismSettings;
+
+public class SoundValueIterationTest
+{
+	private static void addChoice(MDPSimple<Double> mdp, int s, int[] targets, double[] probs)
+	{
+		Distribution<Double> distr = Distribution.ofDouble();
+		for (int i = 0; i < targets.length; i++) {
+			distr.add(targets[i], probs[i]);
+		}
+		mdp.addChoice(s, distr);
+	}
+
+	/**
+	 * Random MDP with {@code n} states (mostly local transitions, some self-loops),
+	 * where state 0 is the target and state 1 a sink. Every choice moves to the target
+	 * with probability between 0.01 and 0.05, and to the sink with probability {@code toSink}.
+	 */
+	private static MDPSimple<Double> randomMDP(int n, double toSink, long seed)
+	{
+		Random random = new Random(seed);
+		MDPSimple<Double> mdp = new MDPSimple<>(n);
+		addChoice(mdp, 0, new int[] { 0 }, new double[] { 1.0 });
+		addChoice(mdp, 1, new int[] { 1 }, new double[] { 1.0 });
+		for (int s = 2; s < n; s++) {
+			int numChoices = 1 + random.nextInt(3);
+			for (int c = 0; c < numChoices; c++) {
+				int t1 = 2 + Math.floorMod(s + random.nextInt(11) - 7, n - 2);
+				int t2 = random.nextInt(20) == 0 ? 2 + random.nextInt(n - 2) : s;
+				double toTarget = 0.01 + 0.04 * random.nextDouble();
+				double rest = 1 - toTarget - toSink;
+				double p = rest * (0.1 + 0.8 * random.nextDouble());
+				if (toSink > 0) {
+					addChoice(mdp, s, new int[] { t1, t2, 0, 1 }, new double[] { p, rest - p, toTarget, toSink });
+				} else {
+					addChoice(mdp, s, new int[] { t1, t2, 0 }, new double[] { p, rest - p, toTarget });
+				}
+			}
+		}
+		return mdp;
+	}
+
+	private static MDPModelChecker createModelChecker(boolean sound, boolean topological) throws PrismException
+	{
+		PrismComponent parent = new PrismComponent();
+		parent.setLog(new PrismDevNullLog());
+		PrismSettings settings = new PrismSettings();
+		settings.set(PrismSettings.PRISM_INTERVAL_ITER_OPTIONS, sound ? "sound" : "");
+		parent.setSettings(settings);
+		MDPModelChecker mc = new MDPModelChecker(parent);
+		mc.setMDPSolnMethod(MDPSolnMethod.GAUSS_SEIDEL);
+		mc.setDoIntervalIteration(sound);
+		mc.setDoTopologicalValueIteration(topological);
+		mc.setTermCrit(TermCrit.ABSOLUTE);
+		mc.setTermCritParam(sound ? 1e-6 : 1e-12);
+		mc.setMaxIters(1000000);
+		return mc;
+	}
+
+	@Test
+	public void testReachProbs() throws PrismException
+	{
+		MDPSimple<Double> mdp = randomMDP(300, 0.02, 1);
+		BitSet target = new BitSet();
+		target.set(0);
+		for (boolean min : new boolean[] { true, false }) {
+			double[] expected = createModelChecker(false, false).computeReachProbs(mdp, target, min).soln;
+			for (boolean topological : new boolean[] { false, true }) {
+				ModelCheckerResult res = createModelChecker(true, topological).computeReachProbs(mdp, target, min);
+				for (int s = 0; s < mdp.getNumStates(); s++) {
+					assertEquals(expected[s], res.soln[s], 1e-6, (min ? "min" : "max") + (topological ? ", topological" : "") + ", state " + s);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testReachRewards() throws PrismException
+	{
+		int n = 300;
+		MDPSimple<Double> mdp = randomMDP(n, 0.0, 2);
+		Random random = new Random(3);
+		MDPRewardsSimple<Double> rewards = new MDPRewardsSimple<>(n);
+		for (int s = 2; s < n; s++) {
+			rewards.setStateReward(s, random.nextDouble());
+			for (int c = 0; c < mdp.getNumChoices(s); c++) {
+				rewards.setTransitionReward(s, c, 2 * random.nextDouble());
+			}
+		}
+		BitSet target = new BitSet();
+		target.set(0);
+		for (boolean min : new boolean[] { true, false }) {
+			double[] expected = createModelChecker(false, false).computeReachRewards(mdp, rewards, target, min).soln;
+			for (boolean topological : new boolean[] { false, true }) {
+				ModelCheckerResult res = createModelChecker(true, topological).computeReachRewards(mdp, rewards, target, min);
+				for (int s = 2; s < n; s++) {
+					assertEquals(expected[s], res.soln[s], 1e-6, (min ? "min" : "max") + (topological ? ", topological" : "") + ", state " + s);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package explicit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import prism.PrismException;
+
+public class SparseModelBuilderTest
+{
+	/**
+	 * Add a random MDP, with many repeated distributions, to a builder
+	 * (state 0 is initial, the last state is a deadlock). If {@code checkpoint} is true,
+	 * the builder is written and read back half way through, and the new builder is returned.
+	 */
+	private SparseModelBuilder addRandomMDP(SparseModelBuilder builder, int n, boolean checkpoint) throws IOException, PrismException
+	{
+		Random random = new Random(11);
+		for (int s = 0; s < n; s++) {
+			builder.addState();
+		}
+		builder.addInitialState(0);
+		for (int s = 0; s < n; s++) {
+			if (checkpoint && s == n / 2) {
+				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				builder.writeTo(new DataOutputStream(bytes));
+				SparseModelBuilder builder2 = new SparseModelBuilder(true, true);
+				builder2.setShareDistributions(builder.shareDistrs);
+				builder2.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+				builder = builder2;
+			}
+			builder.startState(s);
+			int numChoices = s == n - 1 ? 0 : 1 + random.nextInt(3);
+			for (int c = 0; c < numChoices; c++) {
+				builder.startChoice(random.nextBoolean() ? "a" : null);
+				// Just a few possible distributions, with (unsorted) repeated targets
+				int t = random.nextInt(5);
+				builder.addTransition((t * 7) % n, 0.25);
+				builder.addTransition((t * 3) % n, 0.5);
+				builder.addTransition((t * 7) % n, 0.25);
+				builder.endChoice();
+			}
+			builder.endState();
+		}
+		builder.findDeadlocks(true);
+		return builder;
+	}
+
+	private static Map<Integer, Double> toMap(MDP<Double> mdp, int s, int i)
+	{
+		Map<Integer, Double> map = new TreeMap<>();
+		mdp.getTransitionsIterator(s, i).forEachRemaining(e -> map.put(e.getKey(), e.getValue()));
+		return map;
+	}
+
+	@Test
+	public void testShareDistributions() throws IOException, PrismException
+	{
+		int n = 50;
+		List<Integer> list = new ArrayList<>();
+		for (int s = 0; s < n; s++) {
+			list.add(s);
+		}
+		Collections.shuffle(list, new Random(3));
+		int permut[] = list.stream().mapToInt(Integer::intValue).toArray();
+		for (int[] p : new int[][] { null, permut }) {
+			for (boolean checkpoint : new boolean[] { false, true }) {
+				MDPSparse expected = addRandomMDP(new SparseModelBuilder(true, true), n, false).buildMDP(p);
+				SparseModelBuilder builder = new SparseModelBuilder(true, true);
+				builder.setShareDistributions(true);
+				builder = addRandomMDP(builder, n, checkpoint);
+				assertTrue(builder.getNumDistributions() <= 5, "" + builder.getNumDistributions());
+				MDPSparse shared = builder.buildMDP(p);
+				assertEquals(expected.getNumChoices(), shared.getNumChoices());
+				assertEquals(expected.getNumTransitions(), shared.getNumTransitions());
+				assertTrue(shared.getNumStoredDistributions() < expected.getNumStoredDistributions());
+				assertEquals(expected.getInitialStates(), shared.getInitialStates());
+				assertEquals(expected.toString(), shared.toString());
+				for (int s = 0; s < n; s++) {
+					assertEquals(expected.getNumTransitions(s), shared.getNumTransitions(s));
+					assertEquals(expected.getSuccessors(s).stream().boxed().toList(), shared.getSuccessors(s).stream().boxed().toList());
+					for (int i = 0; i < expected.getNumChoices(s); i++) {
+						assertEquals(expected.getAction(s, i), shared.getAction(s, i));
+						assertEquals(toMap(expected, s, i), toMap(shared, s, i));
+					}
+				}
+				double vect[] = new double[n];
+				for (int s = 0; s < n; s++) {
+					vect[s] = s / (double) n;
+				}
+				for (int s = 0; s < n; s++) {
+					assertEquals(expected.mvMultMinMaxSingle(s, vect, true, null), shared.mvMultMinMaxSingle(s, vect, true, null));
+				}
+			}
+		}
+	}
+}
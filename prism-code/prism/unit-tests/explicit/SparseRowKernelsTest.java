@@ -0,0 +1,34 @@
+package explicit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class SparseRowKernelsTest
+{
+	@Test
+	public void testDot()
+	{
+		Random random = new Random(42);
+		int n = 100;
+		double[] vect = random.doubles(n).toArray();
+		for (int len = 0; len <= 3 * SparseRowKernels.MIN_UNROLLED_ROW_LENGTH; len++) {
+			double[] vals = random.doubles(len + 5).toArray();
+			int[] cols = random.ints(len + 5, 0, n).toArray();
+			double init = random.nextDouble();
+			double expected = init;
+			for (int k = 2; k < 2 + len; k++) {
+				expected += vals[k] * vect[cols[k]];
+			}
+			double d = SparseRowKernels.dot(init, vals, cols, vect, 2, 2 + len);
+			if (len < SparseRowKernels.MIN_UNROLLED_ROW_LENGTH) {
+				// Short rows: same summation order
+				assertEquals(expected, d, 0.0);
+			} else {
+				assertEquals(expected, d, 1e-12);
+			}
+		}
+	}
+}
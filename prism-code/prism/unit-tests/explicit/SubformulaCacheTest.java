@@ -0,0 +1,93 @@
+package explicit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Test;
+
+import prism.PrismException;
+
+public class SubformulaCacheTest
+{
+	private static final int N = 100;
+
+	private static StateValues values(Model<?> model, double v) throws PrismException
+	{
+		double[] array = new double[N];
+		Arrays.fill(array, v);
+		return StateValues.createFromDoubleArray(array, model);
+	}
+
+	@Test
+	public void testGetPut() throws PrismException
+	{
+		DTMCSimple<Double> model = new DTMCSimple<>(N);
+		SubformulaCache cache = new SubformulaCache(1 << 20);
+		cache.setModel(model);
+		cache.put(model, "P>=0.5 [ F \"goal\" ]", null, values(model, 1.0));
+		StateValues res = cache.get(model, "P>=0.5 [ F \"goal\" ]", null);
+		assertNotNull(res);
+		assertEquals(1.0, res.getValue(7));
+		// Results returned are copies
+		res.setValue(7, 0.0);
+		assertEquals(1.0, cache.get(model, "P>=0.5 [ F \"goal\" ]", null).getValue(7));
+		// Different subformula or model
+		assertNull(cache.get(model, "P>=0.6 [ F \"goal\" ]", null));
+		assertNull(cache.get(new DTMCSimple<>(N), "P>=0.5 [ F \"goal\" ]", null));
+		// Results for other models (e.g. products) are not stored
+		DTMCSimple<Double> product = new DTMCSimple<>(N);
+		cache.put(product, "P>=0.7 [ F \"goal\" ]", null, values(product, 1.0));
+		assertNull(cache.get(product, "P>=0.7 [ F \"goal\" ]", null));
+		assertEquals(1, cache.getNumEntries());
+		// Changing the model clears the cache
+		cache.setModel(product);
+		assertEquals(0, cache.getNumEntries());
+		assertNull(cache.get(model, "P>=0.5 [ F \"goal\" ]", null));
+	}
+
+	@Test
+	public void testStatesOfInterest() throws PrismException
+	{
+		DTMCSimple<Double> model = new DTMCSimple<>(N);
+		SubformulaCache cache = new SubformulaCache(1 << 20);
+		cache.setModel(model);
+		BitSet soi = new BitSet();
+		soi.set(0, 10);
+		cache.put(model, "key", soi, values(model, 1.0));
+		BitSet subset = new BitSet();
+		subset.set(2, 5);
+		assertNotNull(cache.get(model, "key", subset));
+		BitSet superset = new BitSet();
+		superset.set(0, 20);
+		assertNull(cache.get(model, "key", superset));
+		assertNull(cache.get(model, "key", null));
+	}
+
+	@Test
+	public void testEviction() throws PrismException
+	{
+		DTMCSimple<Double> model = new DTMCSimple<>(N);
+		long entrySize = SubformulaCache.estimateSize(values(model, 0.0));
+		SubformulaCache cache = new SubformulaCache(2 * entrySize);
+		cache.setModel(model);
+		cache.put(model, "a", null, values(model, 1.0));
+		cache.put(model, "b", null, values(model, 2.0));
+		// Use "a", so that "b" is the least recently used
+		assertNotNull(cache.get(model, "a", null));
+		cache.put(model, "c", null, values(model, 3.0));
+		assertEquals(2, cache.getNumEntries());
+		assertEquals(2 * entrySize, cache.getSize());
+		assertNotNull(cache.get(model, "a", null));
+		assertNull(cache.get(model, "b", null));
+		assertNotNull(cache.get(model, "c", null));
+		// Results larger than the cache are not stored
+		cache.setMaxSize(entrySize - 1);
+		assertEquals(0, cache.getNumEntries());
+		cache.put(model, "d", null, values(model, 4.0));
+		assertNull(cache.get(model, "d", null));
+	}
+}
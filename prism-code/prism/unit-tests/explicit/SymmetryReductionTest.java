@@ -0,0 +1,71 @@
+package explicit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import parser.State;
+import parser.VarList;
+import parser.ast.DeclarationBool;
+import parser.ast.DeclarationInt;
+import parser.ast.Expression;
+import prism.PrismException;
+
+public class SymmetryReductionTest
+{
+	/**
+	 * Variables: global g, then module 0 (a), 3 symmetric modules (s:[0..3], b:bool) and module 4 (z).
+	 */
+	private VarList createVarList() throws PrismException
+	{
+		VarList varList = new VarList();
+		varList.addVar("g", new DeclarationInt(Expression.Int(0), Expression.Int(1)), -1);
+		varList.addVar("a", new DeclarationInt(Expression.Int(0), Expression.Int(5)), 0);
+		for (int m = 1; m <= 3; m++) {
+			varList.addVar("s" + m, new DeclarationInt(Expression.Int(0), Expression.Int(3)), m);
+			varList.addVar("b" + m, new DeclarationBool(), m);
+		}
+		varList.addVar("z", new DeclarationBool(), 4);
+		return varList;
+	}
+
+	private static State state(Object... vals)
+	{
+		State state = new State(vals.length);
+		for (int i = 0; i < vals.length; i++) {
+			state.setValue(i, vals[i]);
+		}
+		return state;
+	}
+
+	@Test
+	public void testCanonicalise() throws PrismException
+	{
+		SymmetryReduction symm = new SymmetryReduction(createVarList(), "1 1");
+		assertEquals(3, symm.getNumSymmetricModules());
+		State canon = state(1, 4, 0, true, 2, false, 2, true, false);
+		assertSame(canon, symm.canonicalise(canon));
+		State s = state(1, 4, 2, true, 0, true, 2, false, false);
+		State copy = new State(s);
+		assertEquals(canon, symm.canonicalise(s));
+		// The original state is unchanged
+		assertEquals(copy, s);
+		// All permutations have the same representative
+		assertEquals(canon, symm.canonicalise(state(1, 4, 2, false, 2, true, 0, true, false)));
+		assertEquals(canon, symm.canonicalise(state(1, 4, 2, true, 2, false, 0, true, false)));
+	}
+
+	@Test
+	public void testInvalid() throws PrismException
+	{
+		VarList varList = createVarList();
+		for (String params : new String[] { "1", "1 x", "1 2 3", "-1 1", "3 2" }) {
+			assertThrows(PrismException.class, () -> new SymmetryReduction(varList, params), params);
+		}
+		// Modules 0 and 1 do not match
+		assertThrows(PrismException.class, () -> new SymmetryReduction(varList, "0 1"));
+		assertThrows(PrismException.class, () -> new SymmetryReduction(varList, "1 0"));
+	}
+}
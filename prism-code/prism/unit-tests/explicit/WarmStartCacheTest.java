@@ -0,0 +1,124 @@
+package explicit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Test;
+
+import explicit.ProbModelChecker.LinEqMethod;
+import explicit.ProbModelChecker.TermCrit;
+import prism.PrismComponent;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+
+public class WarmStartCacheTest
+{
+	/**
+	 * Random walk on states 0..n, moving up with probability {@code p} (and staying put with
+	 * probability 0.5); states 0 and n are absorbing.
+	 */
+	private static DTMCSimple<Double> walk(int n, double p)
+	{
+		DTMCSimple<Double> dtmc = new DTMCSimple<>(n + 1);
+		dtmc.setProbability(0, 0, 1.0);
+		dtmc.setProbability(n, n, 1.0);
+		for (int s = 1; s < n; s++) {
+			dtmc.setProbability(s, s, 0.5);
+			dtmc.setProbability(s, s + 1, 0.5 * p);
+			dtmc.setProbability(s, s - 1, 0.5 * (1 - p));
+		}
+		return dtmc;
+	}
+
+	/**
+	 * Probability of reaching n from s in {@code walk(n, p)}.
+	 */
+	private static double walkProb(int n, double p, int s)
+	{
+		if (p == 0.5) {
+			return (double) s / n;
+		}
+		double r = (1 - p) / p;
+		return (1 - Math.pow(r, s)) / (1 - Math.pow(r, n));
+	}
+
+	private static DTMCModelChecker createModelChecker(LinEqMethod method, boolean intervalIteration, WarmStartCache cache) throws PrismException
+	{
+		PrismComponent parent = new PrismComponent();
+		parent.setLog(new PrismDevNullLog());
+		DTMCModelChecker mc = new DTMCModelChecker(parent);
+		mc.setLinEqMethod(method);
+		mc.setDoIntervalIteration(intervalIteration);
+		mc.setTermCrit(TermCrit.ABSOLUTE);
+		mc.setTermCritParam(1e-8);
+		mc.setMaxIters(1000000);
+		mc.setWarmStartCache(cache);
+		return mc;
+	}
+
+	@Test
+	public void testSweep() throws PrismException
+	{
+		int n = 40;
+		BitSet target = new BitSet();
+		target.set(n);
+		for (boolean intervalIteration : new boolean[] { false, true }) {
+			// Sweep up, then back down, so both lower and upper bounds get used
+			double[] ps = { 0.50, 0.51, 0.52, 0.53, 0.52, 0.51 };
+			WarmStartCache cache = new WarmStartCache();
+			DTMCModelChecker mcWarm = createModelChecker(LinEqMethod.GAUSS_SEIDEL, intervalIteration, cache);
+			int itersCold = 0, itersWarm = 0;
+			for (double p : ps) {
+				DTMCSimple<Double> dtmc = walk(n, p);
+				ModelCheckerResult resCold = createModelChecker(LinEqMethod.GAUSS_SEIDEL, intervalIteration, null).computeReachProbs(dtmc, target);
+				cache.startProperty("P=? [ F goal ]");
+				ModelCheckerResult resWarm = mcWarm.computeReachProbs(dtmc, target);
+				// Interval iteration is still exact to within the precision, value iteration (as usual) not quite
+				double tolerance = intervalIteration ? 1e-8 : 1e-5;
+				for (int s = 0; s <= n; s++) {
+					assertEquals(walkProb(n, p, s), resCold.soln[s], tolerance, "p=" + p + ", state " + s);
+					assertEquals(walkProb(n, p, s), resWarm.soln[s], tolerance, "p=" + p + ", state " + s);
+				}
+				itersCold += resCold.numIters;
+				itersWarm += resWarm.numIters;
+			}
+			assertTrue(itersWarm < itersCold, itersWarm + " vs. " + itersCold);
+		}
+	}
+
+	@Test
+	public void testBounds()
+	{
+		// Solution for walk(4, 0.5) is s/4; F below is for walk(4, 0.6), whose solution is higher
+		DTMCSimple<Double> dtmc = walk(4, 0.6);
+		BitSet yes = new BitSet(), no = new BitSet(), unknown = new BitSet();
+		yes.set(4);
+		no.set(0);
+		unknown.set(1, 4);
+		double[] prev = { 0.0, 0.25, 0.5, 0.75, 1.0 };
+		WarmStartCache.Bounds bounds = WarmStartCache.bounds(new WarmStartCache.Bounds(prev, prev), yes, no, unknown, dtmc::mvMultSingle);
+		assertNotNull(bounds.below);
+		assertNull(bounds.above);
+		for (int s = 1; s < 4; s++) {
+			assertTrue(bounds.below[s] <= dtmc.mvMultSingle(s, bounds.below));
+		}
+	}
+
+	@Test
+	public void testModelMismatch()
+	{
+		WarmStartCache cache = new WarmStartCache();
+		cache.startProperty("P=? [ F goal ]");
+		String key = cache.nextKey("reach");
+		cache.put(key, walk(10, 0.5), new double[11], null);
+		assertNotNull(cache.get(key, walk(10, 0.6)));
+		assertNull(cache.get(key, walk(11, 0.5)));
+		// Keys are numbered per property
+		cache.startProperty("P=? [ F goal ]");
+		assertEquals(key, cache.nextKey("reach"));
+	}
+}
@@ -0,0 +1,190 @@
+package simulator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import parser.EvaluateContext.EvalMode;
+import parser.EvaluateContextState;
+import parser.State;
+import parser.ast.Expression;
+import parser.ast.ExpressionIdent;
+import parser.ast.Update;
+import parser.type.Type;
+import parser.type.TypeBool;
+import parser.type.TypeDouble;
+import parser.type.TypeInt;
+import prism.Prism;
+import prism.PrismLangException;
+
+/**
+ * Test that compiled expressions give the same results (or errors) as the interpreter.
+ */
+public class ExpressionCompilerTest
+{
+	/** Variables: x:int, y:int, d:double, b:bool */
+	private static final List<String> VAR_NAMES = Arrays.asList("x", "y", "d", "b");
+	private static final List<Type> VAR_TYPES = Arrays.asList(TypeInt.getInstance(), TypeInt.getInstance(), TypeDouble.getInstance(), TypeBool.getInstance());
+
+	private final ExpressionCompiler compiler = new ExpressionCompiler(null);
+
+	private static Expression parse(String s) throws PrismLangException
+	{
+		Expression expr = (Expression) Prism.parseSingleExpressionString(s).findAllVars(VAR_NAMES, VAR_TYPES);
+		expr.typeCheck();
+		return expr;
+	}
+
+	private static State state(int x, int y, double d, boolean b)
+	{
+		return new State(4).setValue(0, x).setValue(1, y).setValue(2, d).setValue(3, b);
+	}
+
+	private static EvaluateContextState context(State state)
+	{
+		EvaluateContextState ec = new EvaluateContextState(state);
+		ec.setEvaluationMode(EvalMode.FP);
+		return ec;
+	}
+
+	/**
+	 * Evaluate a function of the state, returning the value or the error message.
+	 */
+	@FunctionalInterface
+	private interface Evaluator
+	{
+		public Object evaluate(State state) throws PrismLangException;
+	}
+
+	private static Object result(Evaluator f, State state)
+	{
+		try {
+			return f.evaluate(state);
+		} catch (PrismLangException e) {
+			return "Error: " + e.getMessage();
+		}
+	}
+
+	/**
+	 * Check that compiled and interpreted evaluation of a numerical expression agree in {@code state},
+	 * both as a double and (for integer-valued expressions) as an int.
+	 */
+	private void checkNumerical(String s, State state) throws PrismLangException
+	{
+		Expression expr = parse(s);
+		ExpressionCompiler.DoubleExpr f = compiler.compileDouble(expr);
+		Object expected = result(st -> expr.evaluateDouble(context(st)), state);
+		assertEquals(expected, result(f::evaluate, state), s + " in " + state);
+		if (expr.getType() instanceof TypeInt) {
+			Update update = new Update();
+			update.addElement(new ExpressionIdent("x"), expr);
+			update.setVarIndex(0, 0);
+			update.setType(0, TypeInt.getInstance());
+			checkUpdate(update, state);
+		}
+	}
+
+	private void checkBoolean(String s, State state) throws PrismLangException
+	{
+		Expression expr = parse(s);
+		ExpressionCompiler.BooleanExpr f = compiler.compileBoolean(expr);
+		Object expected = result(st -> expr.evaluateBoolean(context(st)), state);
+		assertEquals(expected, result(f::evaluate, state), s + " in " + state);
+	}
+
+	/**
+	 * Check that the compiled and interpreted update agree, both in the result/error
+	 * and in the contents of the new state afterwards.
+	 */
+	private void checkUpdate(Update update, State state) throws PrismLangException
+	{
+		ExpressionCompiler.UpdateExpr f = compiler.compileUpdate(update);
+		State expectedState = new State(state);
+		Object expected = result(st -> { update.update(st, expectedState, false, null); return expectedState; }, state);
+		State newState = new State(state);
+		assertEquals(expected, result(st -> { f.update(st, newState); return newState; }, state), update + " in " + state);
+		assertEquals(expectedState, newState, update + " in " + state);
+	}
+
+	@Test
+	public void testMod() throws PrismLangException
+	{
+		for (int x : new int[] { -7, -6, -1, 0, 1, 6, 7, Integer.MIN_VALUE, Integer.MAX_VALUE }) {
+			for (int y : new int[] { -3, -1, 0, 1, 3, Integer.MAX_VALUE }) {
+				checkNumerical("mod(x, y)", state(x, y, 0.0, false));
+				checkNumerical("mod(-x, 3)", state(x, y, 0.0, false));
+			}
+		}
+		assertEquals(2, compiler.compileDouble(parse("mod(x, y)")).evaluate(state(-7, 3, 0.0, false)));
+		// Non-positive divisor is an error, as reported by the interpreter
+		assertThrows(PrismLangException.class, () -> compiler.compileDouble(parse("mod(x, y)")).evaluate(state(7, -3, 0.0, false)));
+	}
+
+	@Test
+	public void testOverflow() throws PrismLangException
+	{
+		int big = Integer.MAX_VALUE;
+		for (String s : new String[] { "x + y", "x - y", "x * y", "-x", "x * y + 0.5", "min(x * y, 1)", "x * y > 0 ? 1 : 2" }) {
+			checkNumerical(s, state(big, 2, 0.0, false));
+			checkNumerical(s, state(Integer.MIN_VALUE, -1, 0.0, false));
+			checkNumerical(s, state(1000, 1000, 0.0, false));
+		}
+		checkBoolean("x * y > 0", state(big, big, 0.0, false));
+		checkBoolean("x + y = 0", state(big, 1, 0.0, false));
+		// Overflow falls back to the interpreter, which reports it
+		assertThrows(PrismLangException.class, () -> compiler.compileDouble(parse("x * y")).evaluate(state(big, 2, 0.0, false)));
+	}
+
+	@Test
+	public void testDoubleEquality() throws PrismLangException
+	{
+		double values[] = new double[] { Double.NaN, 0.0, -0.0, 1.0, Double.POSITIVE_INFINITY };
+		for (double d : values) {
+			for (String s : new String[] { "d = d", "d != d", "d = 0.0", "d = -0.0", "d != 0.0", "d = x", "-d = d", "d / 0 = d" }) {
+				checkBoolean(s, state(0, 0, d, false));
+			}
+		}
+	}
+
+	@Test
+	public void testFloorCeil() throws PrismLangException
+	{
+		double values[] = new double[] { 2.5, -2.5, -0.0, 1e10, -1e10, Double.NaN, Double.POSITIVE_INFINITY, Integer.MAX_VALUE + 0.5, Integer.MIN_VALUE - 0.5 };
+		for (double d : values) {
+			for (String s : new String[] { "floor(d)", "ceil(d)", "floor(d) + 1", "ceil(d * 2)", "floor(x / 2)" }) {
+				checkNumerical(s, state(-3, 0, d, false));
+			}
+		}
+	}
+
+	@Test
+	public void testUpdateFallback() throws PrismLangException
+	{
+		// x'=x+1 & y'=x*y & b'=!b, where x*y may overflow after x has already been written
+		Update update = new Update();
+		update.addElement(new ExpressionIdent("x"), parse("x + 1"));
+		update.addElement(new ExpressionIdent("y"), parse("x * y"));
+		update.addElement(new ExpressionIdent("b"), parse("!b"));
+		for (int i = 0; i < 3; i++) {
+			update.setVarIndex(i, i == 2 ? 3 : i);
+			update.setType(i, i == 2 ? TypeBool.getInstance() : TypeInt.getInstance());
+		}
+		checkUpdate(update, state(3, 4, 0.0, true));
+		checkUpdate(update, state(Integer.MAX_VALUE / 2, 4, 0.0, true));
+		checkUpdate(update, state(Integer.MAX_VALUE, 1, 0.0, false));
+		// Updates read the old state, including after a fallback (x'=y & y'=x*2)
+		Update swap = new Update();
+		swap.addElement(new ExpressionIdent("x"), parse("y"));
+		swap.addElement(new ExpressionIdent("y"), parse("x * 2"));
+		for (int i = 0; i < 2; i++) {
+			swap.setVarIndex(i, i);
+			swap.setType(i, TypeInt.getInstance());
+		}
+		checkUpdate(swap, state(5, 6, 0.0, false));
+		checkUpdate(swap, state(Integer.MAX_VALUE, 6, 0.0, false));
+	}
+}